@@ -16,6 +16,7 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * BioPAX (Level 3) Normalizer, an advanced BioPAX utility 
@@ -30,6 +31,7 @@ public final class Normalizer {
 	private String description = "";
 	private boolean fixDisplayName;
 	private String xmlBase;
+	private ForkJoinPool pool;
 	
 	// Normalizer will generate URIs using a strategy specified by the system property
 	// (the default is biopax.normalizer.uri.strategy=md5 to generate 32-byte digest hex string)
@@ -112,6 +114,7 @@ public final class Normalizer {
 		biopaxReader.mergeDuplicates(true);
 		fixDisplayName = true;
 		xmlBase = "";
+		pool = ForkJoinPool.commonPool();
 	}
 
 
@@ -127,83 +130,89 @@ public final class Normalizer {
 		final NormalizerMap map = new NormalizerMap(model);
 		final String xmlBase = getXmlBase(model); //current base, the default or model's one, if set.
 
-		// use a copy of the xrefs set (to avoid concurrent exceptions)
+		// use a copy of the xrefs set (to avoid concurrent exceptions);
+		// new URIs are computed in parallel (each xref's db/id can be fixed independently)
 		Set<? extends Xref> xrefs = new HashSet<>(model.getObjects(Xref.class));
-		for(Xref ref : xrefs) {
-			//won't normalize xrefs missing db or id property value (e.g., some of PublicationXrefs)
-			if(ref.getDb() == null || ref.getId() == null) {
-				continue;
-			}
+		map.putAll(xrefs, ref -> normalizeXref(ref, usePrefixAsDbName, xmlBase), pool);
+		
+		// execute replace xrefs
+		map.doSubs();
+	}
 
-			//normalize name first
-			Namespace ns = Resolver.getNamespace(ref.getDb()); //resolve a prefix, name, synonym or known spelling variants
-			if(ns != null) {
-				if (usePrefixAsDbName) {
-					ref.setDb(ns.getPrefix()); //use bioregistry collection prefix (already lowercase), e.g. 'uniprot'
-				} else {
-					ref.setDb(ns.getName().toLowerCase()); //use the standard name, e.g. 'uniprot protein'
-				}
+	/*
+	 * Fixes the xref db and id, if possible, and makes its new URI (or null - to keep the xref as is).
+	 * Called concurrently for different xrefs.
+	 */
+	private static String normalizeXref(Xref ref, boolean usePrefixAsDbName, String xmlBase) {
+		//won't normalize xrefs missing db or id property value (e.g., some of PublicationXrefs)
+		if(ref.getDb() == null || ref.getId() == null) {
+			return null;
+		}
 
-				//add banana and peel prefix to the ID if possible (improves index/search/id-mapping)
-				String banana = ns.getBanana();
-				if(StringUtils.isNotBlank(banana) && !StringUtils.startsWith(ref.getId(), banana)) {
-					ref.setId(banana + ns.getBanana_peel() + ref.getId());
-				}
+		//normalize name first
+		Namespace ns = Resolver.getNamespace(ref.getDb()); //resolve a prefix, name, synonym or known spelling variants
+		if(ns != null) {
+			if (usePrefixAsDbName) {
+				ref.setDb(ns.getPrefix()); //use bioregistry collection prefix (already lowercase), e.g. 'uniprot'
+			} else {
+				ref.setDb(ns.getName().toLowerCase()); //use the standard name, e.g. 'uniprot protein'
 			}
 
-			final String isoformName = (usePrefixAsDbName) ? "uniprot.isoform" : "uniprot isoform";
+			//add banana and peel prefix to the ID if possible (improves index/search/id-mapping)
+			String banana = ns.getBanana();
+			if(StringUtils.isNotBlank(banana) && !StringUtils.startsWith(ref.getId(), banana)) {
+				ref.setId(banana + ns.getBanana_peel() + ref.getId());
+			}
+		}
 
-			String idPart = ref.getId();
-			if(ref instanceof RelationshipXref) {
-				//RXs might have the same db, id but different rel. type.
-				RelationshipTypeVocabulary cv = ((RelationshipXref) ref).getRelationshipType();
-				if(ref.getIdVersion() != null) {
-					idPart += "_" + ref.getIdVersion();
-				}
-				if(cv != null && !cv.getTerm().isEmpty()) {
-					idPart += "_" + StringUtils.join(cv.getTerm(), '_').toLowerCase();
-				}
-			} else if(ref instanceof UnificationXref) {
-				// fix 'uniprot' instead 'uniprot isoform' and vice versa mistakes
-				if (ref.getDb().startsWith("uniprot")) {
-					//auto-fix (guess) for possibly incorrect db/id (can be 'uniprot isoform' with/no idVersion, etc..)
-					if (Resolver.checkRegExp(ref.getId(), "uniprot.isoform")
-							&& ref.getId().contains("-")) //the second condition is important
-					{	//then it's certainly an isoform id; so - fix the db name
-						ref.setDb(isoformName); //fix the db
-					} else {
-						//id does not end with "-\\d+", i.e., not a isoform id
-						//(idVersion is a different thing, but if db was "uniprot isoform" they probably misused idVersion)
-						if(ref.getDb().equalsIgnoreCase(isoformName)) {
-							if(ref.getIdVersion() != null && ref.getIdVersion().matches("^\\d+$")) {
-								idPart = ref.getId() + "-" + ref.getIdVersion(); //guess idVersion is isoform number
-							}
-							if(Resolver.checkRegExp(idPart, isoformName)) {
-								ref.setId(idPart); //moved the isoform # to the ID
-								ref.setIdVersion(null);
-							}
-							else if(!Resolver.checkRegExp(ref.getId(), isoformName)) {
-								//certainly not isoform
-								ref.setDb("uniprot"); //guess, fix
-							}
-							idPart = ref.getId();
+		final String isoformName = (usePrefixAsDbName) ? "uniprot.isoform" : "uniprot isoform";
+
+		String idPart = ref.getId();
+		if(ref instanceof RelationshipXref) {
+			//RXs might have the same db, id but different rel. type.
+			RelationshipTypeVocabulary cv = ((RelationshipXref) ref).getRelationshipType();
+			if(ref.getIdVersion() != null) {
+				idPart += "_" + ref.getIdVersion();
+			}
+			if(cv != null && !cv.getTerm().isEmpty()) {
+				idPart += "_" + StringUtils.join(cv.getTerm(), '_').toLowerCase();
+			}
+		} else if(ref instanceof UnificationXref) {
+			// fix 'uniprot' instead 'uniprot isoform' and vice versa mistakes
+			if (ref.getDb().startsWith("uniprot")) {
+				//auto-fix (guess) for possibly incorrect db/id (can be 'uniprot isoform' with/no idVersion, etc..)
+				if (Resolver.checkRegExp(ref.getId(), "uniprot.isoform")
+						&& ref.getId().contains("-")) //the second condition is important
+				{	//then it's certainly an isoform id; so - fix the db name
+					ref.setDb(isoformName); //fix the db
+				} else {
+					//id does not end with "-\\d+", i.e., not a isoform id
+					//(idVersion is a different thing, but if db was "uniprot isoform" they probably misused idVersion)
+					if(ref.getDb().equalsIgnoreCase(isoformName)) {
+						if(ref.getIdVersion() != null && ref.getIdVersion().matches("^\\d+$")) {
+							idPart = ref.getId() + "-" + ref.getIdVersion(); //guess idVersion is isoform number
 						}
+						if(Resolver.checkRegExp(idPart, isoformName)) {
+							ref.setId(idPart); //moved the isoform # to the ID
+							ref.setIdVersion(null);
+						}
+						else if(!Resolver.checkRegExp(ref.getId(), isoformName)) {
+							//certainly not isoform
+							ref.setDb("uniprot"); //guess, fix
+						}
+						idPart = ref.getId();
 					}
-				} else {//not any uniprot...
-					//if not standard and has idVersion, add that
-					if(ns == null && ref.getIdVersion() != null) {
-							idPart += "_" + ref.getIdVersion();
-					}
+				}
+			} else {//not any uniprot...
+				//if not standard and has idVersion, add that
+				if(ns == null && ref.getIdVersion() != null) {
+						idPart += "_" + ref.getIdVersion();
 				}
 			}
-
-			// make a new URI and save in the URI replacement map
-			String newUri = Normalizer.uri(xmlBase, ref.getDb(), idPart, ref.getModelInterface());
-			map.put(ref, newUri);
 		}
-		
-		// execute replace xrefs
-		map.doSubs();
+
+		// make a new URI
+		return Normalizer.uri(xmlBase, ref.getDb(), idPart, ref.getModelInterface());
 	}
 
 	/**
@@ -505,12 +514,17 @@ public final class Normalizer {
 			fixDisplayName(model);
 		}
 			
+		// CVs and BioSources are replaced in one batch (organism URIs depend on the xrefs and CV terms only)
+		NormalizerMap map = new NormalizerMap(model);
+
 		log.info("Normalizing CVs..." + description);
-		normalizeCVs(model);
+		normalizeCVs(model, map);
 		
-		//normalize BioSource objects (after Xrefs and CVs!)
+		//normalize BioSource objects (after Xrefs!)
 		log.info("Normalizing organisms..." + description);
-		normalizeBioSources(model);
+		normalizeBioSources(model, map);
+
+		map.doSubs();
 
 		// auto-generate missing entity references:
 		for(SimplePhysicalEntity spe : new HashSet<>(model.getObjects(SimplePhysicalEntity.class))) {
@@ -529,47 +543,42 @@ public final class Normalizer {
 		model.repair(); // it does not remove dangling utility class objects (can be done separately, later, if needed)
 	}
 
-	private void normalizeCVs(Model model) {
+	private void normalizeCVs(Model model, NormalizerMap map) {
 		
-		NormalizerMap map = new NormalizerMap(model);
-		
-		// process ControlledVocabulary objects (all sub-classes)
-		for(ControlledVocabulary cv : model.getObjects(ControlledVocabulary.class))
-		{
+		// process ControlledVocabulary objects (all sub-classes); new URIs are computed in parallel
+		map.putAll(model.getObjects(ControlledVocabulary.class), cv -> {
 			//it does not check/fix the CV terms (but Validator can do if run before the Normalizer)
 			UnificationXref uref = findPreferredUnificationXref(cv); //usually, there's only one such xref
 			if (uref != null) {
 				// so let's generate a consistent URI
-				map.put(cv, uri(xmlBase, uref.getDb(), uref.getId(), cv.getModelInterface()));
+				return uri(xmlBase, uref.getDb(), uref.getId(), cv.getModelInterface());
 			} else if(!cv.getTerm().isEmpty()) {
-				map.put(cv, uri(xmlBase, null, cv.getTerm().iterator().next(), cv.getModelInterface()));
-			} else log.info("Cannot normalize " + cv.getModelInterface().getSimpleName() 
-				+ " : no unification xrefs nor terms found in " + cv.getUri()
-				+ ". " + description);
-		} 
-		
-		// replace/update elements in the model
-		map.doSubs();
+				return uri(xmlBase, null, cv.getTerm().iterator().next(), cv.getModelInterface());
+			} else {
+				log.info("Cannot normalize " + cv.getModelInterface().getSimpleName()
+					+ " : no unification xrefs nor terms found in " + cv.getUri()
+					+ ". " + description);
+				return null;
+			}
+		}, pool);
 	}
 	
 	
-	private void normalizeBioSources(Model model) {
-		//it's called after all the xrefs and CVs were normalized
-		NormalizerMap map = new NormalizerMap(model);
+	private void normalizeBioSources(Model model, NormalizerMap map) {
+		//it's called after all the xrefs were normalized (CV terms are the same in the replacement CVs)
 
-		for(BioSource bs : model.getObjects(BioSource.class))
-		{
+		map.putAll(model.getObjects(BioSource.class), bs -> {
 			UnificationXref uref = findPreferredUnificationXref(bs); //normally, uref.db is 'Taxonomy' or valid synonym
 
 			if(uref == null) {
 				log.debug("BioSource: {} - no unif. xrefs; {}", bs.getUri(), description);
-				continue;
+				return null;
 			}
 			//btw, normalizeBioSources is called after all the xrefs in the model got normalized!
 			Namespace ns = Resolver.getNamespace(uref.getDb());
 			if (ns == null || !"ncbitaxon".equalsIgnoreCase(ns.getPrefix())) {
 				log.debug("BioSource: {} - no taxonomy unif. xrefs; {}", bs.getUri(), description);
-				continue;
+				return null;
 			}
 
 			//normalize uri
@@ -581,20 +590,17 @@ public final class Normalizer {
 			if(bs.getCellType()!=null && !bs.getCellType().getTerm().isEmpty()) {
 				idPart += "_" + bs.getCellType().getTerm().iterator().next();
 			}
-			String uri = uri(xmlBase, uref.getDb(), idPart, BioSource.class); //makes bioregistry.io/ncbitaxon:id
-			map.put(bs, uri);
-		}
-
-		map.doSubs();
+			return uri(xmlBase, uref.getDb(), idPart, BioSource.class); //makes bioregistry.io/ncbitaxon:id
+		}, pool);
 	}
 
 	private void normalizeERs(Model model) {
 
 		NormalizerMap map = new NormalizerMap(model);
 		
-		// process the rest of utility classes (selectively though)
-		for (EntityReference bpe : model.getObjects(EntityReference.class)) {
-				UnificationXref uref = findPreferredUnificationXref(bpe);
+		// process the rest of utility classes (selectively though); new URIs are computed in parallel
+		map.putAll(model.getObjects(EntityReference.class), bpe -> {
+			UnificationXref uref = findPreferredUnificationXref(bpe);
 			if (uref != null) {
 				// Create (with a new URI made from a unif. xref) 
 				// and save the replacement object, if possible, 
@@ -610,18 +616,16 @@ public final class Normalizer {
 							+ " (" + bpe.getModelInterface().getSimpleName()
 							+ ") " + ", using " + db + ":" + id 
 							+ ". " + e.getMessage());
-					return;
+					return null;
 				}
-
-				if(uri != null) {
-					map.put(bpe, uri);
-				}	
+				return uri;
 			} else {
 				log.info("Cannot normalize EntityReference: "
 						+ "no unification xrefs found in " + bpe.getUri()
 						+ ". " + description);
+				return null;
 			}
-		}
+		}, pool);
 		
 		// replace/update elements in the model
 		map.doSubs();
@@ -742,4 +746,21 @@ public final class Normalizer {
 		this.xmlBase = xmlBase;
 	}
 
+	/**
+	 * Gets the thread pool in which the new URIs of the elements
+	 * are computed (the common pool by default).
+	 *
+	 * @return fork/join pool
+	 */
+	public ForkJoinPool getPool() {
+		return pool;
+	}
+
+	/**
+	 * @param pool the fork/join pool to compute the new URIs in
+	 */
+	public void setPool(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
 }
@@ -8,7 +8,14 @@ import org.biopax.paxtools.util.BPCollections;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.IntStream;
 
 /**
  * A non-public helper class to map "old" (original) to "new" (replacement) objects
@@ -60,29 +67,50 @@ class NormalizerMap {
     }
 
     /**
-     * Executes the batch replace - migrating
-     * to the normalized equivalent objects.
+     * Computes the new URIs of the objects in parallel, and then creates and saves
+     * the replacement objects in the collection order, same as {@link #put(BioPAXElement, String)}
+     * does for each one; does not replace yet (call doSubs to replace).
+     *
+     * @param elements original objects
+     * @param newUri makes the new URI of an object (or null to keep it as is); called concurrently
+     * @param pool executes the newUri function
+     * @param <T> BioPAX type
      */
-    void doSubs() {
-        for (BioPAXElement e : subs.keySet()) {
-            model.remove(e);
-        }
+    <T extends BioPAXElement> void putAll(Collection<T> elements, Function<? super T, String> newUri,
+                                          ForkJoinPool pool) {
+        final List<T> list = new ArrayList<>(elements);
+        final String[] uris = new String[list.size()];
 
         try {
-            ModelUtils.replace(model, subs);
-        } catch (Exception e) {
-            log.error("Failed to replace BioPAX elements", e);
-            return;
+            pool.submit(() -> IntStream.range(0, uris.length).parallel()
+                .forEach(i -> uris[i] = newUri.apply(list.get(i)))
+            ).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("putAll interrupted", e);
+        } catch (ExecutionException e) {
+            throw (e.getCause() instanceof RuntimeException)
+                ? (RuntimeException) e.getCause() : new RuntimeException(e.getCause());
         }
 
-        for (BioPAXElement e : subs.values()) {
-            if (!model.containsID(e.getUri())) {
-                model.add(e);
+        // the same original objects are copied (or reused) as if put one by one
+        for (int i = 0; i < uris.length; i++) {
+            if (uris[i] != null) {
+                put(list.get(i), uris[i]);
             }
         }
+    }
 
-        for (BioPAXElement e : model.getObjects()) {
-            ModelUtils.fixDanglingInverseProperties(e, model);
+    /**
+     * Executes the batch replace - migrating
+     * to the normalized equivalent objects.
+     * The map can be filled by several (independent) steps before.
+     */
+    void doSubs() {
+        try {
+            ModelUtils.substitute(model, subs);
+        } catch (Exception e) {
+            log.error("Failed to replace BioPAX elements", e);
         }
     }
 
@@ -4,6 +4,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.regex.Pattern;
 
@@ -27,6 +28,23 @@ public class Resolver {
   public static final String BIOREGISTRY_JSON_URL =
       "https://raw.githubusercontent.com/biopragmatics/bioregistry/main/exports/registry/registry.json";
 
+  //obsolete prefixes to remove from a key (uppercase)
+  private static final Pattern OBO_PREFIX = Pattern.compile("OBO\\.");
+  private static final Pattern PSI_PREFIX = Pattern.compile("PSI-");
+  private static final Pattern MIRIAM_PREFIX = Pattern.compile("URN:MIRIAM:");
+  private static final Pattern IDENTIFIERS_PREFIX = Pattern.compile(".*IDENTIFIERS\\.ORG/(.*/)?");
+  private static final Pattern BIOREGISTRY_PREFIX = Pattern.compile(".*BIOREGISTRY\\.IO/");
+
+  //max. number of the keys to remember the resolved namespace of (the cache is cleared when full)
+  private static final int CACHE_SIZE = 10000;
+
+  //raw key -> namespace (or none), with and without the spelling variants
+  private static final Map<String, Optional<Namespace>> variantCache = new ConcurrentHashMap<>();
+  private static final Map<String, Optional<Namespace>> exactCache = new ConcurrentHashMap<>();
+
+  //compiled id patterns and banana prefixes
+  private static final Map<String, Pattern> patterns = new ConcurrentHashMap<>();
+
   protected Resolver() {
   }
 
@@ -73,13 +91,13 @@ public class Resolver {
         //also - to spellmap (removing non-alphanumeric chars)
         synonymap.put(uname, prefix);
         synonymap.put(upref, prefix);
-        spellmap.put(uname.replaceAll("[^A-Z0-9]",""), prefix);
-        spellmap.put(upref.replaceAll("[^A-Z0-9]",""), prefix);
+        spellmap.put(alphanumeric(uname), prefix);
+        spellmap.put(alphanumeric(upref), prefix);
         //add name, prefix, synonyms to synonymap
         ns.getSynonyms().forEach(syn -> {
           String s = syn.toUpperCase();
           synonymap.putIfAbsent(s, prefix);
-          spellmap.putIfAbsent(s.replaceAll("[^A-Z0-9]",""), prefix);
+          spellmap.putIfAbsent(alphanumeric(s), prefix);
         });
       });
       LOG.info("initialized");
@@ -113,11 +131,19 @@ public class Resolver {
     //remove "banana" and "peel" prefix from the identifier if any defined and present
     String banana = dt.getBanana();
     if(StringUtils.isNotBlank(banana)) {
-      identifier = identifier.replaceFirst(banana+dt.getBanana_peel(), "");
+      identifier = compile(banana+dt.getBanana_peel()).matcher(identifier).replaceFirst("");
     }
 
     //return true when there is no regex pattern defined or the identifier matches
-    return (StringUtils.isNotBlank(dt.getPattern())) ? Pattern.compile(dt.getPattern()).matcher(identifier).find() : true;
+    return (StringUtils.isNotBlank(dt.getPattern())) ? compile(dt.getPattern()).matcher(identifier).find() : true;
+  }
+
+
+  /*
+   * Gets the compiled regular expression (compiles once).
+   */
+  private static Pattern compile(String regex) {
+    return patterns.computeIfAbsent(regex, Pattern::compile);
   }
 
 
@@ -144,15 +170,33 @@ public class Resolver {
       return null;
     }
 
+    //there are usually few distinct db names in a model
+    Map<String, Optional<Namespace>> cache = (allowVariants) ? variantCache : exactCache;
+    Optional<Namespace> ns = cache.get(key);
+    if(ns == null) {
+      ns = Optional.ofNullable(resolve(key, allowVariants));
+      if(cache.size() >= CACHE_SIZE) {
+        cache.clear();
+      }
+      cache.put(key, ns);
+    }
+    return ns.orElse(null);
+  }
+
+
+  /*
+   * Finds the namespace by the key (not cached).
+   */
+  private static Namespace resolve(String key, boolean allowVariants) {
     //uppercase!
     key = key.toUpperCase();
     //quick-fix some obsolete prefixes
     key = StringUtils.removeEnd(key, "/");
-    key = key.replaceFirst("OBO\\.", "");
-    key = key.replaceFirst("PSI-", "");
-    key = key.replaceFirst("URN:MIRIAM:", "");
-    key = key.replaceFirst(".*IDENTIFIERS\\.ORG/(.*/)?", ""); //e.g. match both ".ORG/CHEBI/CHEBI:1234" and ".ORG/CHEBI:1234" variants
-    key = key.replaceFirst(".*BIOREGISTRY\\.IO/", "");
+    key = OBO_PREFIX.matcher(key).replaceFirst("");
+    key = PSI_PREFIX.matcher(key).replaceFirst("");
+    key = MIRIAM_PREFIX.matcher(key).replaceFirst("");
+    key = IDENTIFIERS_PREFIX.matcher(key).replaceFirst(""); //e.g. match both ".ORG/CHEBI/CHEBI:1234" and ".ORG/CHEBI:1234" variants
+    key = BIOREGISTRY_PREFIX.matcher(key).replaceFirst("");
 
     String prefix = key.toLowerCase();
     Namespace ns = namespaces.get(prefix);
@@ -166,7 +210,7 @@ public class Resolver {
 
     if(ns == null && allowVariants) {
       //keep only alphanumeric chars in the key (it's uppercase) and search the spellmap
-      prefix = spellmap.get(key.replaceAll("[^A-Z0-9]",""));
+      prefix = spellmap.get(alphanumeric(key));
       if(prefix != null) {
         ns = namespaces.get(prefix.toLowerCase());
       }
@@ -175,6 +219,21 @@ public class Resolver {
     return ns;
   }
 
+
+  /*
+   * Removes all but the A-Z and 0-9 chars (in one pass).
+   */
+  private static String alphanumeric(String key) {
+    StringBuilder sb = new StringBuilder(key.length());
+    for(int i = 0; i < key.length(); i++) {
+      char c = key.charAt(i);
+      if((c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')) {
+        sb.append(c);
+      }
+    }
+    return sb.toString();
+  }
+
   /**
    * Builds a URI of the bioentity (e.g., "http://bioregistry.io/go:0045202")
    * from the collection name/synonym and bio id.
@@ -203,7 +262,7 @@ public class Resolver {
         //remove "banana" and "peel" prefix from the identifier if any defined and present
         String banana = ns.getBanana();
         if(StringUtils.isNotBlank(banana)) {
-          id = id.replaceFirst(banana + ns.getBanana_peel(), "");
+          id = compile(banana + ns.getBanana_peel()).matcher(id).replaceFirst("");
         }
         return prefix + ":" + id;
       }
@@ -236,6 +295,7 @@ public class Resolver {
    */
   public static void setSpellmap(Map<String, String> map) {
     spellmap = map;
+    clearCache();
   }
 
   /**
@@ -253,6 +313,16 @@ public class Resolver {
    */
   public static void setSynonymap(Map<String, String> map) {
     synonymap = map;
+    clearCache();
+  }
+
+  /**
+   * Forgets the namespaces found by the keys so far (e.g., after the spellmap or synonymap
+   * were modified in place). It is done automatically when the maps are replaced.
+   */
+  public static void clearCache() {
+    variantCache.clear();
+    exactCache.clear();
   }
 
   /**
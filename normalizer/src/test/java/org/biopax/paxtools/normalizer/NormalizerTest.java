@@ -11,6 +11,10 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -365,4 +369,28 @@ public class NormalizerTest {
 		e = model.getByID(model.getXmlBase() + "IMR_0100366_G_alpha_s_Canonical");
 		assertTrue(e instanceof ProteinReference);
 	}
+
+	@Test
+	void normalizeParallel() {
+		//the same result regardless the number of threads computing the new URIs
+		Set<String> expected = null;
+		for(int parallelism : new int[]{1, 4}) {
+			Model model = simpleIO.convertFromOWL(getClass().getResourceAsStream("/test-inoh.owl"));
+			Normalizer normalizer = new Normalizer();
+			normalizer.setXmlBase("");
+			ForkJoinPool pool = new ForkJoinPool(parallelism);
+			normalizer.setPool(pool);
+			normalizer.normalize(model);
+			pool.shutdown();
+
+			Set<String> actual = model.getObjects().stream()
+				.map(e -> e.getUri() + ((e instanceof Xref) ? " " + ((Xref) e).getDb() + ":" + ((Xref) e).getId() : ""))
+				.collect(Collectors.toCollection(TreeSet::new));
+			if(expected == null) {
+				expected = actual;
+			} else {
+				assertEquals(expected, actual);
+			}
+		}
+	}
 }
@@ -1,8 +1,15 @@
 package org.biopax.paxtools.normalizer;
 
+import org.biopax.paxtools.io.SimpleIOHandler;
+import org.biopax.paxtools.model.Model;
+import org.biopax.paxtools.model.level3.Xref;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class ResolverTest {
 	static final String MI = "Molecular Interactions Controlled Vocabulary"; //name corresponds to "mi" record in bioregistry.io
 
@@ -22,6 +29,42 @@ public class ResolverTest {
 		);
 	}
 
+	@Test
+	public final void getNamespaceCached() {
+		Namespace ns = Resolver.getNamespace("psi-mi");
+		Assertions.assertSame(ns, Resolver.getNamespace("psi-mi"));
+		Assertions.assertNull(Resolver.getNamespace("MolecularInteractions Ontology", false));
+		Assertions.assertSame(Resolver.getNamespace("MI"), Resolver.getNamespace("MolecularInteractions Ontology", true));
+		Resolver.clearCache();
+		Assertions.assertSame(ns, Resolver.getNamespace("psi-mi"));
+	}
+
+	@Test
+	@Disabled
+	public final void resolvePerformance() {
+		Model model = new SimpleIOHandler().convertFromOWL(getClass().getResourceAsStream("/test-inoh.owl"));
+		List<String[]> xrefs = new ArrayList<>();
+		for(Xref x : model.getObjects(Xref.class)) {
+			if(x.getDb() != null && x.getId() != null) {
+				xrefs.add(new String[]{x.getDb(), x.getId()});
+			}
+		}
+
+		for(int round = 0; round < 5; round++) {
+			long time = System.nanoTime();
+			int found = 0;
+			for(int i = 0; i < 100; i++) {
+				for(String[] x : xrefs) {
+					if(Resolver.getURI(x[0], x[1]) != null) {
+						found++;
+					}
+				}
+			}
+			System.out.println("xrefs = " + xrefs.size() + ", resolved = " + found
+					+ ", time = " + (System.nanoTime() - time) / 1000000 + " ms");
+		}
+	}
+
 	@Test
 	public final void getPattern() {
 		Assertions.assertEquals("^\\d{4}$", Resolver.getNamespace(MI).getPattern());
@@ -3,6 +3,7 @@ package org.biopax.paxtools.pattern;
 import org.biopax.paxtools.model.BioPAXElement;
 
 import java.util.Collection;
+import java.util.List;
 
 /**
  * A constraint to check if a set of variables satisfy the requirements. If a constraint
@@ -45,4 +46,31 @@ public interface Constraint
 	 * @return generated values that satisfy this constraint
 	 */
 	public Collection<BioPAXElement> generate(Match match, int ... ind);
+
+	/**
+	 * Generates candidate values for the variable to be generated, adding them to the given
+	 * buffer. The buffer is reused by the searcher, so generative constraints can override this
+	 * method to avoid creating a new collection for each call. The added values should be
+	 * distinct, as the values of {@link #generate(Match, int...)} are.
+	 *
+	 * @param match current pattern match
+	 * @param buffer list to add the generated values
+	 * @param ind mapped indices
+	 */
+	public default void generate(Match match, List<BioPAXElement> buffer, int ... ind)
+	{
+		buffer.addAll(generate(match, ind));
+	}
+
+	/**
+	 * Gets an object that is equal for the constraints that check the same thing, so that the
+	 * patterns starting with the same constraints can be evaluated together. By default, the
+	 * constraint itself is the key, hence it equals only to itself.
+	 *
+	 * @return the key of the constraint
+	 */
+	public default Object getKey()
+	{
+		return this;
+	}
 }
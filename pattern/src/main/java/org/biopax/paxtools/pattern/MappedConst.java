@@ -2,7 +2,9 @@ package org.biopax.paxtools.pattern;
 
 import org.biopax.paxtools.model.BioPAXElement;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 
 /**
  * This is a mapping from a constraint to the elements in a match.
@@ -21,6 +23,11 @@ public class MappedConst implements Constraint
 	 */
 	private int[] inds;
 
+	/**
+	 * The last translated indices, reused while the outer indices map to the same values.
+	 */
+	private volatile int[] translated;
+
 	/**
 	 * Constructor with the constraint and the index mapping.
 	 * @param constr constraint to map
@@ -65,18 +72,29 @@ public class MappedConst implements Constraint
 	}
 
 	/**
-	 * This methods translates the indexes of outer constraint, to this inner constraint.
+	 * This methods translates the indexes of outer constraint, to this inner constraint. The
+	 * translation is cached, as a constraint is usually called with the same indices, so the
+	 * returned array must not be modified.
 	 *
 	 * @param outer mapped indices for the outer constraints
 	 * @return translated indices
 	 */
 	protected int[] translate(int[] outer)
 	{
-		int[] t = new int[inds.length];
+		int[] t = translated;
+		if (t != null)
+		{
+			int i = 0;
+			while (i < t.length && t[i] == outer[inds[i]]) i++;
+			if (i == t.length) return t;
+		}
+
+		t = new int[inds.length];
 		for (int i = 0; i < t.length; i++)
 		{
 			t[i] = outer[inds[i]];
 		}
+		translated = t;
 		return t;
 	}
 
@@ -101,6 +119,19 @@ public class MappedConst implements Constraint
 		return constr.generate(match, translate(outer));
 	}
 
+	/**
+	 * Calls generate method of the constraint with index translation, adding the values to the
+	 * buffer.
+	 * @param match current pattern match
+	 * @param buffer list to add the generated values
+	 * @param outer untranslated indices
+	 */
+	@Override
+	public void generate(Match match, List<BioPAXElement> buffer, int... outer)
+	{
+		constr.generate(match, buffer, translate(outer));
+	}
+
 	/**
 	 * Directs to satisfies method of the wrapped constraint with index translation.
 	 * @param match current pattern match
@@ -122,4 +153,13 @@ public class MappedConst implements Constraint
 		return constr.getVariableSize();
 	}
 
+	/**
+	 * The key is made of the key of the wrapped constraint and the mapped indices.
+	 * @return the key
+	 */
+	@Override
+	public Object getKey()
+	{
+		return Arrays.asList(getClass(), constr.getKey(), Arrays.toString(inds));
+	}
 }
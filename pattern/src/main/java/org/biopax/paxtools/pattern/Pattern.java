@@ -1,6 +1,7 @@
 package org.biopax.paxtools.pattern;
 
 import org.biopax.paxtools.model.BioPAXElement;
+import org.biopax.paxtools.model.Model;
 
 import java.util.*;
 
@@ -191,6 +192,243 @@ public class Pattern
 		this.constraints = newList;
 	}
 
+	/**
+	 * Maximum number of starting elements to sample in {@link #optimizeFor(Model)}.
+	 */
+	private static final int SAMPLE_SIZE = 100;
+
+	/**
+	 * Maximum number of constraint evaluations while sampling in {@link #optimizeFor(Model)}.
+	 */
+	private static final int SAMPLE_BUDGET = 100000;
+
+	/**
+	 * Reorders the constraints for searching in the given model, using estimates of their costs.
+	 * The search is run from a sample of the starting elements in the model, and for each
+	 * constraint, the average time of an evaluation, and the ratio of passing the check (or the
+	 * number of generated values, for a constraint that generates a variable) are recorded. Then
+	 * the constraints are reordered: a check runs as soon as the variables it uses are generated,
+	 * the checks that are ready run in the order of their selectivity per cost, and among the
+	 * generators that are ready, the one with the least estimated fan-out (after the checks it
+	 * makes ready) runs first.
+	 *
+	 * The constraint generating each variable does not change, so the pattern has the same matches,
+	 * possibly in a different order. Constraints that are not reached in the sample are assumed
+	 * to have an average cost, half of the checks to pass, and two values to be generated. The
+	 * default order (see {@link #optimizeConstraintOrder()}) is used unless this method is called.
+	 *
+	 * @param model model to search in
+	 */
+	public void optimizeFor(Model model)
+	{
+		int n = constraints.size();
+		if (n < 2) return;
+
+		// the constraint that generates each variable
+
+		MappedConst[] generator = new MappedConst[size()];
+		for (MappedConst mc : constraints)
+		{
+			int[] ind = mc.getInds();
+			int last = ind[ind.length - 1];
+			if (mc.canGenerate() && last > 0 && generator[last] == null) generator[last] = mc;
+		}
+
+		// sample the costs
+
+		long[] calls = new long[n];
+		long[] outs = new long[n];
+		long[] nanos = new long[n];
+		int[] budget = {SAMPLE_BUDGET};
+
+		List<? extends BioPAXElement> eles = new ArrayList<>(model.getObjects(startingClass));
+		int step = Math.max(1, eles.size() / SAMPLE_SIZE);
+
+		for (int i = 0; i < eles.size() && budget[0] > 0; i += step)
+		{
+			Match m = new Match(size());
+			m.set(eles.get(i), 0);
+			sample(m, 0, calls, outs, nanos, budget);
+		}
+
+		// estimates: pass ratio of checks, number of generated values of generators, and cost
+
+		long totalCalls = 0;
+		long totalNanos = 0;
+		for (int i = 0; i < n; i++)
+		{
+			totalCalls += calls[i];
+			totalNanos += nanos[i];
+		}
+		double averageCost = totalCalls == 0 ? 1D : Math.max(1D, totalNanos / (double) totalCalls);
+
+		Map<MappedConst, Double> ratio = new HashMap<>();
+		Map<MappedConst, Double> cost = new HashMap<>();
+		for (int i = 0; i < n; i++)
+		{
+			MappedConst mc = constraints.get(i);
+			boolean generates = isGenerator(mc, generator);
+			ratio.put(mc, calls[i] == 0 ? (generates ? 2D : 0.5D) : outs[i] / (double) calls[i]);
+			cost.put(mc, calls[i] == 0 ? averageCost : Math.max(1D, nanos[i] / (double) calls[i]));
+		}
+
+		// build the new order
+
+		boolean[] assigned = new boolean[size()];
+		assigned[0] = true;
+
+		List<MappedConst> remaining = new ArrayList<>(constraints);
+		List<MappedConst> newList = new ArrayList<>(n);
+
+		while (!remaining.isEmpty())
+		{
+			// the checks that are ready, the most selective per cost first
+			MappedConst best = null;
+			for (MappedConst mc : remaining)
+			{
+				if (isGenerator(mc, generator) || !isReady(mc, generator, assigned)) continue;
+
+				if (best == null || (1 - ratio.get(mc)) / cost.get(mc) >
+					(1 - ratio.get(best)) / cost.get(best)) best = mc;
+			}
+
+			// otherwise the generator with the least fan-out, considering the checks it enables
+			if (best == null)
+			{
+				double bestScore = 0;
+				for (MappedConst mc : remaining)
+				{
+					if (!isGenerator(mc, generator) || !isReady(mc, generator, assigned)) continue;
+
+					int[] ind = mc.getInds();
+					int var = ind[ind.length - 1];
+					assigned[var] = true;
+
+					double score = ratio.get(mc);
+					for (MappedConst check : remaining)
+					{
+						if (check != mc && !isGenerator(check, generator) &&
+							uses(check, var) && isReady(check, generator, assigned))
+						{
+							score *= ratio.get(check);
+						}
+					}
+					assigned[var] = false;
+
+					if (best == null || score < bestScore)
+					{
+						best = mc;
+						bestScore = score;
+					}
+				}
+			}
+
+			// should not happen in a valid pattern, keep the original order
+			if (best == null) best = remaining.get(0);
+
+			if (isGenerator(best, generator))
+			{
+				int[] ind = best.getInds();
+				assigned[ind[ind.length - 1]] = true;
+			}
+			remaining.remove(best);
+			newList.add(best);
+		}
+
+		this.constraints = newList;
+	}
+
+	/**
+	 * Searches from the given match, recording the evaluations of the constraints.
+	 * @param match current match
+	 * @param index index of the constraint to evaluate
+	 * @param calls number of evaluations of each constraint
+	 * @param outs number of generated values or passed checks of each constraint
+	 * @param nanos time spent in each constraint
+	 * @param budget remaining number of evaluations
+	 */
+	private void sample(Match match, int index, long[] calls, long[] outs, long[] nanos,
+		int[] budget)
+	{
+		if (index == constraints.size() || budget[0]-- <= 0) return;
+
+		MappedConst mc = constraints.get(index);
+		int[] ind = mc.getInds();
+		int lastInd = ind[ind.length - 1];
+
+		calls[index]++;
+		long time = System.nanoTime();
+
+		if (mc.canGenerate() && match.get(lastInd) == null)
+		{
+			Collection<BioPAXElement> values = mc.getConstr().generate(match, ind);
+			nanos[index] += System.nanoTime() - time;
+			outs[index] += values.size();
+
+			for (BioPAXElement ele : values)
+			{
+				match.set(ele, lastInd);
+				sample(match, index + 1, calls, outs, nanos, budget);
+				match.set(null, lastInd);
+			}
+		}
+		else
+		{
+			boolean satisfies = mc.getConstr().satisfies(match, ind);
+			nanos[index] += System.nanoTime() - time;
+
+			if (satisfies)
+			{
+				outs[index]++;
+				sample(match, index + 1, calls, outs, nanos, budget);
+			}
+		}
+	}
+
+	/**
+	 * @param mc mapped constraint
+	 * @param generator generators of the variables
+	 * @return true if the constraint generates its last variable
+	 */
+	private static boolean isGenerator(MappedConst mc, MappedConst[] generator)
+	{
+		int[] ind = mc.getInds();
+		return generator[ind[ind.length - 1]] == mc;
+	}
+
+	/**
+	 * Checks if the variables that the constraint needs are assigned.
+	 * @param mc mapped constraint
+	 * @param generator generators of the variables
+	 * @param assigned assigned variables
+	 * @return true if the constraint can be evaluated
+	 */
+	private static boolean isReady(MappedConst mc, MappedConst[] generator, boolean[] assigned)
+	{
+		int[] ind = mc.getInds();
+		int needed = isGenerator(mc, generator) ? ind.length - 1 : ind.length;
+
+		for (int i = 0; i < needed; i++)
+		{
+			if (!assigned[ind[i]]) return false;
+		}
+		return true;
+	}
+
+	/**
+	 * @param mc mapped constraint
+	 * @param var variable index
+	 * @return true if the constraint is mapped to the variable
+	 */
+	private static boolean uses(MappedConst mc, int var)
+	{
+		for (int i : mc.getInds())
+		{
+			if (i == var) return true;
+		}
+		return false;
+	}
+
 	/**
 	 * Creates a mapped constraint with the given generative constraint and the indexes it applies.
 	 * Also labels the last given index.
@@ -5,6 +5,7 @@ import org.biopax.paxtools.pattern.constraint.*;
 import org.biopax.paxtools.pattern.util.Blacklist;
 import org.biopax.paxtools.pattern.util.RelType;
 
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -399,6 +400,12 @@ public class PatternBox
 				}
 				return true;
 			}
+
+			@Override
+			public Object getKey()
+			{
+				return Arrays.asList(getClass(), blacklist);
+			}
 		}, "first Conversion", "second Conversion", "linker PE");
 
 		p.add(new RelatedControl(RelType.INPUT, blacklist), "linker PE", "second Conversion", "second Control");
@@ -464,6 +471,12 @@ public class PatternBox
 				}
 				return false;
 			}
+
+			@Override
+			public Object getKey()
+			{
+				return getClass();
+			}
 		}, 0)), "Conversion");
 		p.add(right(), "Conversion", "right PE");
 		p.add(linkToSpecific(), "right PE", "right SPE");
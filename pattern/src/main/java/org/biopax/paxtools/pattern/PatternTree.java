@@ -0,0 +1,229 @@
+package org.biopax.paxtools.pattern;
+
+import org.biopax.paxtools.model.BioPAXElement;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.BiPredicate;
+
+/**
+ * Patterns with the same starting class, merged on their common prefixes. Two patterns share a
+ * node as long as their mapped constraints have equal {@link Constraint#getKey() keys}, so the
+ * constraints at the start of several patterns are generated and checked once for all of them.
+ */
+class PatternTree
+{
+	/**
+	 * Class of the first elements to match.
+	 */
+	private final Class<? extends BioPAXElement> startingClass;
+
+	/**
+	 * The root, without a constraint.
+	 */
+	private final Node root = new Node(null);
+
+	/**
+	 * Size of the largest pattern, to size the shared match.
+	 */
+	private int size = 1;
+
+	/**
+	 * Number of levels of the tree, including the root.
+	 */
+	private int depth = 1;
+
+	/**
+	 * Constructor with the starting class.
+	 * @param startingClass class of the first elements to match
+	 */
+	PatternTree(Class<? extends BioPAXElement> startingClass)
+	{
+		this.startingClass = startingClass;
+	}
+
+	/**
+	 * Adds the pattern to the tree.
+	 * @param pattern pattern with the starting class of the tree
+	 */
+	void add(Pattern pattern)
+	{
+		assert pattern.getStartingClass().equals(startingClass);
+
+		Node node = root;
+		for (MappedConst mc : pattern.getConstraints())
+		{
+			node = node.getChild(mc);
+		}
+		node.ends.add(pattern);
+
+		size = Math.max(size, pattern.size());
+		depth = Math.max(depth, pattern.getConstraints().size() + 1);
+	}
+
+	/**
+	 * @return class of the first elements to match
+	 */
+	Class<? extends BioPAXElement> getStartingClass()
+	{
+		return startingClass;
+	}
+
+	/**
+	 * @return Number of the nodes of the tree, without the root
+	 */
+	int getNodeCount()
+	{
+		int count = 0;
+		Deque<Node> stack = new ArrayDeque<>(root.children);
+		while (!stack.isEmpty())
+		{
+			count++;
+			stack.addAll(stack.pop().children);
+		}
+		return count;
+	}
+
+	/**
+	 * Searches all the patterns starting from the given element. This is the backtracking search
+	 * of {@link Searcher}, with an explicit stack, on the tree: after the patterns ending at a node
+	 * are reported for a value of the node, each of its children is searched in turn.
+	 * @param ele element to start from
+	 * @param handler receives each pattern and its match, in a new match of the pattern size, and
+	 * returns false to stop the search
+	 * @return false if the search is stopped by the handler
+	 */
+	boolean search(BioPAXElement ele, BiPredicate<Pattern, Match> handler)
+	{
+		assert startingClass.isAssignableFrom(ele.getModelInterface());
+
+		Match match = new Match(size);
+		match.set(ele, 0);
+
+		List<BioPAXElement> candidates = new ArrayList<>();
+
+		// for each level: the node, and the state of the search as in Searcher, and the next child
+		// to search for the current value; -1 if the next value is to be taken
+		Node[] nodes = new Node[depth];
+		boolean[] generates = new boolean[depth];
+		int[] start = new int[depth];
+		int[] next = new int[depth];
+		int[] end = new int[depth];
+		int[] child = new int[depth];
+
+		// the root has a single value, the starting element
+		nodes[0] = root;
+		end[0] = 1;
+		child[0] = -1;
+
+		int level = 0;
+		while (level >= 0)
+		{
+			Node node = nodes[level];
+
+			if (child[level] >= 0 && child[level] < node.children.size())
+			{
+				Node childNode = node.children.get(child[level]++);
+				level++;
+				nodes[level] = childNode;
+				child[level] = -1;
+				Searcher.enter(match, childNode.mc, level, candidates, generates, start, next, end);
+			}
+			else if (next[level] < end[level])
+			{
+				if (generates[level]) match.set(candidates.get(next[level]), lastInd(node));
+				next[level]++;
+				child[level] = 0;
+
+				if (!report(node, match, handler))
+				{
+					for (int i = level; i > 0; i--)
+					{
+						if (generates[i]) match.set(null, lastInd(nodes[i]));
+					}
+					return false;
+				}
+			}
+			else
+			{
+				// level is done, backtrack
+				if (generates[level])
+				{
+					match.set(null, lastInd(node));
+
+					for (int i = candidates.size() - 1; i >= start[level]; i--)
+					{
+						candidates.remove(i);
+					}
+				}
+				level--;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Reports the patterns ending at the node.
+	 * @param node current node, its constraint is satisfied
+	 * @param match current match
+	 * @param handler receiver of the results
+	 * @return false if the search is stopped by the handler
+	 */
+	private static boolean report(Node node, Match match, BiPredicate<Pattern, Match> handler)
+	{
+		for (Pattern pattern : node.ends)
+		{
+			Match m = new Match(pattern.size());
+			for (int i = 0; i < m.varSize(); i++)
+			{
+				m.set(match.get(i), i);
+			}
+			if (!handler.test(pattern, m)) return false;
+		}
+		return true;
+	}
+
+	/**
+	 * @param node a node other than the root
+	 * @return index of the element that the constraint of the node generates
+	 */
+	private static int lastInd(Node node)
+	{
+		int[] ind = node.mc.getInds();
+		return ind[ind.length - 1];
+	}
+
+	/**
+	 * A mapped constraint, with the constraints that follow it in the patterns.
+	 */
+	private static class Node
+	{
+		final MappedConst mc;
+		final List<Node> children = new ArrayList<>();
+		final List<Pattern> ends = new ArrayList<>();
+
+		Node(MappedConst mc)
+		{
+			this.mc = mc;
+		}
+
+		/**
+		 * Gets the child with the same constraint, or adds one.
+		 * @param mc mapped constraint of the child
+		 * @return the child
+		 */
+		Node getChild(MappedConst mc)
+		{
+			Object key = mc.getKey();
+			for (Node child : children)
+			{
+				if (child.mc.getKey().equals(key)) return child;
+			}
+			Node child = new Node(mc);
+			children.add(child);
+			return child;
+		}
+	}
+}
@@ -16,10 +16,14 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.BiPredicate;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Searcher for searching a given pattern in a model.
@@ -57,6 +61,26 @@ public class Searcher
 		return search(m, pattern);
 	}
 
+	/**
+	 * Searches the pattern starting from the given match, and passes the results to the consumer.
+	 * The first element of the match should be assigned. Others are optional. The consumer gets
+	 * the given match object itself, with the variables of the result assigned, so it should clone
+	 * the match if it is to be kept.
+	 * @param m match to start from
+	 * @param pattern pattern to search
+	 * @param consumer receiver of the results
+	 */
+	public static void search(Match m, Pattern pattern, Consumer<Match> consumer)
+	{
+		assert pattern.getStartingClass().isAssignableFrom(m.get(0).getModelInterface());
+
+		search(m, pattern.getConstraints(), 0, match ->
+		{
+			consumer.accept(match);
+			return true;
+		});
+	}
+
 	/**
 	 * Continues searching with the mapped constraint at the given index.
 	 * @param match match to start from
@@ -67,46 +91,133 @@ public class Searcher
 	public static List<Match> searchRecursive(Match match, List<MappedConst> mc, int index) 
 	{
 		List<Match> result = new ArrayList<>();
+		search(match, mc, index, m -> result.add((Match) m.clone()));
+		return result;
+	}
+
+	/**
+	 * Searches the matches of the mapped constraints, starting with the one at the given index.
+	 * This is a backtracking search with an explicit stack, so the matching of the constraints
+	 * does not create objects, other than those created by the constraints themselves. The values
+	 * generated at each level are kept on a single candidate list, after the values of the
+	 * previous levels, and are removed when the level is done.
+	 * @param match match to start from, the variables are assigned on it during the search
+	 * @param mc mapped constraints of the pattern
+	 * @param index index of the first mapped constraint to satisfy
+	 * @param handler receives the match at each result, and returns false to stop the search
+	 * @return false if the search is stopped by the handler
+	 */
+	static boolean search(Match match, List<MappedConst> mc, int index, Predicate<Match> handler)
+	{
+		int size = mc.size();
+		if (index == size) return handler.test(match);
 
-		Constraint con = mc.get(index).getConstr();
-		int[] ind = mc.get(index).getInds();
-		int lastInd = ind[ind.length-1];
+		List<BioPAXElement> candidates = new ArrayList<>();
 
-		if (con.canGenerate() && match.get(lastInd) == null)
+		// for each level: whether it generates, the range of its values on the candidate list, and
+		// the next value to try; a checking level has a single pass if it is satisfied
+		boolean[] generates = new boolean[size];
+		int[] start = new int[size];
+		int[] next = new int[size];
+		int[] end = new int[size];
+
+		int level = index;
+		enter(match, mc.get(level), level, candidates, generates, start, next, end);
+
+		while (level >= index)
 		{
-			Collection<BioPAXElement> elements = con.generate(match, ind);
+			MappedConst con = mc.get(level);
+			int[] ind = con.getInds();
+			int lastInd = ind[ind.length - 1];
 
-			for (BioPAXElement ele : elements)
+			if (next[level] < end[level])
 			{
-				match.set(ele, lastInd);
-				
-				if (mc.size() == index + 1)
+				if (generates[level]) match.set(candidates.get(next[level]), lastInd);
+				next[level]++;
+
+				if (level == size - 1)
 				{
-					result.add((Match) match.clone());
+					if (!handler.test(match))
+					{
+						clear(match, mc, index, level, generates);
+						return false;
+					}
 				}
 				else
 				{
-					result.addAll(searchRecursive(match, mc, index + 1));
+					level++;
+					enter(match, mc.get(level), level, candidates, generates, start, next, end);
+				}
+			}
+			else
+			{
+				// level is done, backtrack
+				if (generates[level])
+				{
+					match.set(null, lastInd);
+
+					for (int i = candidates.size() - 1; i >= start[level]; i--)
+					{
+						candidates.remove(i);
+					}
 				}
-				
-				match.set(null, lastInd);
+				level--;
 			}
 		}
+		return true;
+	}
+
+	/**
+	 * Prepares a level of the search: generates its values, or checks the constraint.
+	 * @param match current match
+	 * @param con mapped constraint of the level
+	 * @param level the level
+	 * @param candidates generated values of all levels
+	 * @param generates whether the levels generate values
+	 * @param start start positions of the level values on the candidate list
+	 * @param next next positions to try
+	 * @param end end positions of the level values
+	 */
+	static void enter(Match match, MappedConst con, int level,
+		List<BioPAXElement> candidates, boolean[] generates, int[] start, int[] next, int[] end)
+	{
+		int[] ind = con.getInds();
+
+		generates[level] = con.canGenerate() && match.get(ind[ind.length - 1]) == null;
+
+		if (generates[level])
+		{
+			start[level] = candidates.size();
+			con.getConstr().generate(match, candidates, ind);
+			next[level] = start[level];
+			end[level] = candidates.size();
+		}
 		else
 		{
-			if (con.satisfies(match, ind))
+			next[level] = 0;
+			end[level] = con.getConstr().satisfies(match, ind) ? 1 : 0;
+		}
+	}
+
+	/**
+	 * Unassigns the generated variables of a stopped search, so that the match is as given.
+	 * @param match current match
+	 * @param mc mapped constraints of the pattern
+	 * @param index first level of the search
+	 * @param level current level of the search
+	 * @param generates whether the levels generate values
+	 */
+	private static void clear(Match match, List<MappedConst> mc, int index, int level,
+		boolean[] generates)
+	{
+		for (int i = level; i >= index; i--)
+		{
+			if (generates[i])
 			{
-				if (mc.size() == index + 1)
-				{
-					result.add((Match) match.clone());
-				}
-				else
-				{
-					result.addAll(searchRecursive(match, mc, index + 1));
-				}
+				int[] ind = mc.get(i).getInds();
+				match.set(null, ind[ind.length - 1]);
 			}
 		}
-		return result;
 	}
 
 	/**
@@ -168,68 +279,318 @@ public class Searcher
 	public static Map<BioPAXElement, List<Match>> search(final Model model, final Pattern pattern,
 														 final ProgressWatcher prg)
 	{
-		final Map<BioPAXElement, List<Match>> map = new ConcurrentHashMap<>();
-		final ExecutorService exec = Executors.newFixedThreadPool(20);
+		Map<BioPAXElement, List<Match>> map = new HashMap<>();
+		search(model.getObjects(pattern.getStartingClass()), pattern, collectTo(map), prg, null);
+		return Collections.unmodifiableMap(map);
+	}
+
+	/**
+	 * Searches the given pattern starting from the given elements.
+	 * @param eles elements to start from
+	 * @param pattern pattern to search for
+	 * @return map from starting element to the matching results
+	 */
+	public static Map<BioPAXElement, List<Match>> search(
+		Collection<? extends BioPAXElement> eles, Pattern pattern)
+	{
+		Map<BioPAXElement, List<Match>> map = new HashMap<>();
+		search(eles, pattern, collectTo(map), null, null);
+		return Collections.unmodifiableMap(map);
+	}
+
+	/**
+	 * Makes a consumer that groups the matches by their starting elements.
+	 * @param map map to fill
+	 * @return the consumer
+	 */
+	private static Consumer<Match> collectTo(Map<BioPAXElement, List<Match>> map)
+	{
+		return m -> map.computeIfAbsent(m.getFirst(), k -> new ArrayList<>()).add(m);
+	}
+
+	/**
+	 * Maximum number of matches waiting for the consumer of a streaming search. The search
+	 * threads wait when the buffer is full.
+	 */
+	public static final int MATCH_BUFFER_SIZE = 1024;
+
+	/**
+	 * Work-stealing pool of the streaming searches, with a thread for each processor. It is shared
+	 * by the searches; its threads are started as needed, and end when idle. A thread waiting for
+	 * a slow consumer is replaced by another one meanwhile (see {@link ForkJoinPool#managedBlock}).
+	 */
+	private static final ForkJoinPool POOL =
+		new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+	/**
+	 * Searches the given pattern in the given model, and passes the matches to the consumer as they
+	 * are found.
+	 * @param model model to search in
+	 * @param pattern pattern to search for
+	 * @param consumer receiver of the matches
+	 * @param prg progress watcher to keep track of the progress, can be null
+	 * @return true if the search is complete, false if cancelled
+	 * @see #search(Collection, Pattern, Consumer, ProgressWatcher, BooleanSupplier)
+	 */
+	public static boolean search(Model model, Pattern pattern, Consumer<Match> consumer,
+		ProgressWatcher prg)
+	{
+		return search(model.getObjects(pattern.getStartingClass()), pattern, consumer, prg, null);
+	}
+
+	/**
+	 * Searches the given pattern starting from the given elements, and passes the matches to the
+	 * consumer as they are found. The elements that are not of the starting class of the pattern
+	 * are skipped.
+	 *
+	 * The search runs in a work-stealing pool with a thread for each processor, shared by the
+	 * searches, while the consumer is called in the calling thread, so it does not need to be
+	 * thread-safe. The matches of a starting element are passed in order, but they can be
+	 * interleaved with the matches of the other elements. At most {@link #MATCH_BUFFER_SIZE}
+	 * matches are kept waiting for the consumer, so the matches that are not kept by the consumer
+	 * do not occupy memory.
+	 *
+	 * The search stops shortly when the cancellation check returns true, and this method returns,
+	 * or throws the exception of the search or the consumer, after the search threads are stopped.
+	 * @param eles elements to start from
+	 * @param pattern pattern to search for
+	 * @param consumer receiver of the matches
+	 * @param prg progress watcher to keep track of the progress, can be null
+	 * @param cancelled tells whether to stop searching, can be null
+	 * @return true if the search is complete, false if cancelled
+	 */
+	public static boolean search(Collection<? extends BioPAXElement> eles, Pattern pattern,
+		Consumer<Match> consumer, ProgressWatcher prg, BooleanSupplier cancelled)
+	{
+		List<BioPAXElement> seeds = new ArrayList<>(eles.size());
+		for (BioPAXElement ele : eles)
+		{
+			if (pattern.getStartingClass().isAssignableFrom(ele.getModelInterface())) seeds.add(ele);
+		}
+
+		return stream(seeds, (ele, put) ->
+		{
+			Match m = new Match(pattern.size());
+			m.set(ele, 0);
+			return search(m, pattern.getConstraints(), 0, match -> put.test((Match) match.clone()));
+		}, consumer, prg, cancelled);
+	}
+
+	/**
+	 * Searches the given patterns in the given model together, and passes the matches to the
+	 * consumer as they are found, along with their patterns. The patterns with the same starting
+	 * class are merged into a tree (see {@link PatternTree}), so that the same constraints at the
+	 * start of several patterns are evaluated once, and each starting element is visited once for
+	 * all the patterns. Otherwise this is the same as
+	 * {@link #search(Collection, Pattern, Consumer, ProgressWatcher, BooleanSupplier)}.
+	 * @param model model to search in
+	 * @param patterns patterns to search for
+	 * @param consumer receiver of the patterns and their matches
+	 * @param prg progress watcher to keep track of the progress, can be null
+	 * @param cancelled tells whether to stop searching, can be null
+	 * @return true if the search is complete, false if cancelled
+	 */
+	public static boolean search(Model model, Collection<Pattern> patterns,
+		BiConsumer<Pattern, Match> consumer, ProgressWatcher prg, BooleanSupplier cancelled)
+	{
+		Map<Class<? extends BioPAXElement>, PatternTree> trees = new LinkedHashMap<>();
+		for (Pattern pattern : patterns)
+		{
+			trees.computeIfAbsent(pattern.getStartingClass(), PatternTree::new).add(pattern);
+		}
 
-		Set<? extends BioPAXElement> eles = model.getObjects(pattern.getStartingClass());
-		if (prg != null) prg.setTotalTicks(eles.size());
+		Set<BioPAXElement> eles = new LinkedHashSet<>();
+		for (Class<? extends BioPAXElement> clazz : trees.keySet())
+		{
+			eles.addAll(model.getObjects(clazz));
+		}
 
-		for (final BioPAXElement ele : eles)
+		return stream(new ArrayList<>(eles), (ele, put) ->
 		{
-			exec.execute(() -> {
-				List<Match> matches = search(ele, pattern);
-				if (!matches.isEmpty())
+			for (PatternTree tree : trees.values())
+			{
+				if (tree.getStartingClass().isAssignableFrom(ele.getModelInterface()) &&
+					!tree.search(ele, (p, m) -> put.test(new SimpleImmutableEntry<>(p, m))))
 				{
-					map.put(ele, matches);
+					return false;
 				}
-				if (prg != null) prg.tick(1);
-			});
-		}
+			}
+			return true;
+		}, (Map.Entry<Pattern, Match> e) -> consumer.accept(e.getKey(), e.getValue()), prg,
+			cancelled);
+	}
+
+	/**
+	 * Runs a search from each of the starting elements in a work-stealing pool, and passes the
+	 * results to the consumer in the calling thread, through a bounded buffer.
+	 * @param seeds elements to start from
+	 * @param search searches from an element, passing each result to the given function, which
+	 * returns false when the search should stop; returns false if stopped
+	 * @param consumer receiver of the results
+	 * @param prg progress watcher to keep track of the progress, can be null
+	 * @param cancelled tells whether to stop searching, can be null
+	 * @param <T> type of the results
+	 * @return true if the search is complete, false if cancelled
+	 */
+	private static <T> boolean stream(List<BioPAXElement> seeds,
+		BiPredicate<BioPAXElement, Predicate<T>> search, Consumer<T> consumer, ProgressWatcher prg,
+		BooleanSupplier cancelled)
+	{
+		if (prg != null) prg.setTotalTicks(seeds.size());
+
+		BlockingQueue<Object> buffer = new ArrayBlockingQueue<>(MATCH_BUFFER_SIZE);
+		AtomicBoolean stop = new AtomicBoolean();
+
+		SearchTask<T> root = new SearchTask<>(seeds, 0, seeds.size(), search, buffer, stop, prg);
+
+		// the end of the search is marked on the buffer, so the consumer does not wait more
+		ForkJoinTask<?> task = POOL.submit(() ->
+		{
+			try
+			{
+				root.invoke();
+			}
+			finally
+			{
+				offer(END, buffer, stop);
+			}
+		});
+
+		try
+		{
+			while (true)
+			{
+				if (cancelled != null && cancelled.getAsBoolean()) return false;
 
-		exec.shutdown();
+				Object result = buffer.poll(100, TimeUnit.MILLISECONDS);
+				if (result == END) break;
+				if (result != null) consumer.accept((T) result);
+			}
 
-		try {
-			exec.awaitTermination(10, TimeUnit.MINUTES);
-		} catch (InterruptedException e) {
-			throw new RuntimeException("search, failed due to exec timed out.", e);
+			// throws the exception of the search, if any
+			task.join();
+			return true;
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new CancellationException("Interrupted while searching");
+		}
+		finally
+		{
+			// the remaining tasks of the search return without searching, and the waiting ones give up
+			stop.set(true);
+			task.quietlyJoin();
 		}
+	}
 
-		return Collections.unmodifiableMap(map);
+	/**
+	 * Marks the end of a streaming search on the buffer.
+	 */
+	private static final Object END = new Object();
+
+	/**
+	 * Puts the result to the buffer, waiting for the consumer if needed. The wait is managed by the
+	 * pool, which starts another thread meanwhile if needed, so that a slow consumer does not hold
+	 * up the other searches.
+	 * @param result the result
+	 * @param buffer the buffer of the search
+	 * @param stop tells whether the search is stopped
+	 * @return false if the search is stopped
+	 */
+	private static boolean offer(Object result, BlockingQueue<Object> buffer, AtomicBoolean stop)
+	{
+		Offer offer = new Offer(result, buffer, stop);
+		try
+		{
+			ForkJoinPool.managedBlock(offer);
+			return offer.offered && !stop.get();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			return false;
+		}
 	}
 
 	/**
-	 * Searches the given pattern starting from the given elements.
-	 * @param eles elements to start from
-	 * @param pattern pattern to search for
-	 * @return map from starting element to the matching results
+	 * Waits until a result is put to the buffer of a search, or the search is stopped.
 	 */
-	public static Map<BioPAXElement, List<Match>> search(
-		Collection<? extends BioPAXElement> eles, Pattern pattern)
+	private static class Offer implements ForkJoinPool.ManagedBlocker
 	{
-		final Map<BioPAXElement, List<Match>> map = new ConcurrentHashMap<>();
-		final ExecutorService exec = Executors.newFixedThreadPool(10);
+		private final Object result;
+		private final BlockingQueue<Object> buffer;
+		private final AtomicBoolean stop;
+		private boolean offered;
 
-		for (final BioPAXElement ele : eles)
+		Offer(Object result, BlockingQueue<Object> buffer, AtomicBoolean stop)
 		{
-			if (!pattern.getStartingClass().isAssignableFrom(ele.getModelInterface())) continue;
-			
-			exec.execute(() -> {
-				List<Match> matches = search(ele, pattern);
-				if (!matches.isEmpty()) {
-					map.put(ele, matches);
-				}
-			});
+			this.result = result;
+			this.buffer = buffer;
+			this.stop = stop;
 		}
 
-		exec.shutdown();
+		@Override
+		public boolean block() throws InterruptedException
+		{
+			while (!offered && !stop.get())
+			{
+				offered = buffer.offer(result, 100, TimeUnit.MILLISECONDS);
+			}
+			return true;
+		}
 
-		try {
-			exec.awaitTermination(10, TimeUnit.MINUTES);
-		} catch (InterruptedException e) {
-			throw new RuntimeException("search, failed due to exec timed out.", e);
+		@Override
+		public boolean isReleasable()
+		{
+			return offered || stop.get() || (offered = buffer.offer(result));
 		}
+	}
 
-		return Collections.unmodifiableMap(new HashMap<>(map));
+	/**
+	 * Searches from a range of the starting elements, splitting the range between the pool
+	 * threads.
+	 * @param <T> type of the results
+	 */
+	private static class SearchTask<T> extends RecursiveAction
+	{
+		private final List<BioPAXElement> seeds;
+		private final int from;
+		private final int to;
+		private final BiPredicate<BioPAXElement, Predicate<T>> search;
+		private final BlockingQueue<Object> buffer;
+		private final AtomicBoolean stop;
+		private final ProgressWatcher prg;
+
+		SearchTask(List<BioPAXElement> seeds, int from, int to,
+			BiPredicate<BioPAXElement, Predicate<T>> search, BlockingQueue<Object> buffer,
+			AtomicBoolean stop, ProgressWatcher prg)
+		{
+			this.seeds = seeds;
+			this.from = from;
+			this.to = to;
+			this.search = search;
+			this.buffer = buffer;
+			this.stop = stop;
+			this.prg = prg;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if (to - from > 1)
+			{
+				int mid = (from + to) >>> 1;
+				invokeAll(new SearchTask<>(seeds, from, mid, search, buffer, stop, prg),
+					new SearchTask<>(seeds, mid, to, search, buffer, stop, prg));
+				return;
+			}
+			if (to == from || stop.get()) return;
+
+			if (!search.test(seeds.get(from), result -> offer(result, buffer, stop))) return;
+
+			if (prg != null) prg.tick(1);
+		}
 	}
 
 	/**
@@ -288,10 +649,9 @@ public class Searcher
 	{
 		Set<T> set = new HashSet<>();
 
-		for (Match match : search(ele, pattern))
-		{
-			set.add((T) match.get(index));
-		}
+		Match m = new Match(pattern.size());
+		m.set(ele, 0);
+		search(m, pattern, match -> set.add((T) match.get(index)));
 		return set;
 	}
 
@@ -309,7 +669,8 @@ public class Searcher
 			m.set(ele[i], i);
 		}
 
-		return !search(m, p).isEmpty();
+		// stops at the first match
+		return !search(m, p.getConstraints(), 0, match -> false);
 	}
 
 	/**
@@ -343,31 +704,25 @@ public class Searcher
 		SimpleIOHandler h = new SimpleIOHandler();
 		Model model = h.convertFromOWL(new FileInputStream(inFile));
 
-		Map<BioPAXElement,List<Match>> matchMap = Searcher.search(model, p);
-
-//		System.out.println("matching groups size = " + matchMap.size());
-
 		List<Set<Interaction>> inters = new LinkedList<>();
 		Set<Integer> encountered = new HashSet<>();
 		Set<BioPAXElement> toExise = new HashSet<>();
 
-		int seedCounter = 0;
-		for (BioPAXElement ele : matchMap.keySet())
+		// matches of the starting elements to use; the search stops when there are enough of them
+		Map<BioPAXElement, List<Match>> matches = new LinkedHashMap<>();
+		boolean complete = search(model.getObjects(p.getStartingClass()), p, match ->
 		{
-			if (seedCounter >= seedLimit) break;
-
-			int matchCounter = 0;
-
-			List<Match> matches = matchMap.get(ele);
+			List<Match> list = matches.computeIfAbsent(match.getFirst(), k -> new ArrayList<>());
+			if (list.size() < graphPerSeed) list.add(match);
+		}, null, () -> matches.size() >= seedLimit);
 
-			if (!matches.isEmpty()) seedCounter++;
+		// the stopped search may have missed some matches of the elements
+		if (!complete) matches.replaceAll((ele, list) -> search(ele, p));
 
-			for (Match match : matches)
+		for (List<Match> list : matches.values())
+		{
+			for (Match match : list.subList(0, Math.min(list.size(), graphPerSeed)))
 			{
-				matchCounter++;
-				
-				if (matchCounter > graphPerSeed) break;
-
 				Set<Interaction> ints = getInter(match);
 
 				toExise.addAll(Arrays.asList(match.getVariables()));
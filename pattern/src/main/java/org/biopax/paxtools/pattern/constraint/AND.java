@@ -6,6 +6,7 @@ import org.biopax.paxtools.model.BioPAXElement;
 
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 
 /**
  * Used for getting logical AND of a set of constraints.
@@ -59,4 +60,16 @@ public class AND extends OR
 		}
 		return gen;
 	}
+
+	/**
+	 * Adds the intersection of the generated elements by the member constraints to the buffer.
+	 * @param match current pattern match
+	 * @param buffer list to add the elements
+	 * @param ind mapped indices
+	 */
+	@Override
+	public void generate(Match match, List<BioPAXElement> buffer, int... ind)
+	{
+		buffer.addAll(generate(match, ind));
+	}
 }
@@ -3,6 +3,8 @@ package org.biopax.paxtools.pattern.constraint;
 import org.biopax.paxtools.model.level3.PhysicalEntity;
 import org.biopax.paxtools.pattern.Match;
 
+import java.util.Arrays;
+
 /**
  * Checks if the PhysicalEntity controls anything.
  *
@@ -38,4 +40,14 @@ public class ActivityConstraint extends ConstraintAdapter
 
 		return pe.getControllerOf().isEmpty() == active;
 	}
+
+	/**
+	 * Constraints with the same desired activity are equivalent.
+	 * @return the key
+	 */
+	@Override
+	public Object getKey()
+	{
+		return Arrays.asList(getClass(), active);
+	}
 }
@@ -5,8 +5,10 @@ import org.biopax.paxtools.pattern.Constraint;
 import org.biopax.paxtools.pattern.MappedConst;
 import org.biopax.paxtools.pattern.Match;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -80,4 +82,20 @@ public class ConstraintChain extends ConstraintAdapter
 
 		return output;
 	}
+
+	/**
+	 * The key is made of the keys of the chained constraints, in order.
+	 * @return the key
+	 */
+	@Override
+	public Object getKey()
+	{
+		List<Object> key = new ArrayList<>();
+		key.add(getClass());
+		for (Constraint c : con)
+		{
+			key.add(c.getKey());
+		}
+		return key;
+	}
 }
@@ -5,8 +5,10 @@ import org.biopax.paxtools.model.BioPAXElement;
 import org.biopax.paxtools.model.level3.*;
 import org.biopax.paxtools.pattern.Match;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -61,6 +63,19 @@ public class ControlToControllerER extends ConstraintAdapter
 		return new HashSet<>(getRelatedERs(ctrl));
 	}
 
+	/**
+	 * Adds the related ERs of the controllers of the given Control to the buffer, without copying
+	 * them to another set.
+	 * @param match current pattern match
+	 * @param buffer list to add the ERs
+	 * @param ind mapped indices
+	 */
+	@Override
+	public void generate(Match match, List<BioPAXElement> buffer, int... ind)
+	{
+		buffer.addAll(getRelatedERs((Control) match.get(ind[0])));
+	}
+
 	public Set<EntityReference> getRelatedERs(Control ctrl)
 	{
 		Set<EntityReference> ers = new HashSet<>();
@@ -94,4 +109,14 @@ public class ControlToControllerER extends ConstraintAdapter
 
 		return ers;
 	}
+
+	/**
+	 * All instances are equivalent.
+	 * @return the key
+	 */
+	@Override
+	public Object getKey()
+	{
+		return getClass();
+	}
 }
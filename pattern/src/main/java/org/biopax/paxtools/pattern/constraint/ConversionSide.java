@@ -8,9 +8,11 @@ import org.biopax.paxtools.pattern.Match;
 import org.biopax.paxtools.pattern.util.Blacklist;
 import org.biopax.paxtools.pattern.util.RelType;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -87,6 +89,29 @@ public class ConversionSide extends ConstraintAdapter
 	 */
 	@Override
 	public Collection<BioPAXElement> generate(Match match, int... ind)
+	{
+		return new HashSet<>(getParticipants(match, ind));
+	}
+
+	/**
+	 * Adds the participants at the desired side to the buffer, without copying them to a new set.
+	 * @param match current pattern match
+	 * @param buffer list to add the participants
+	 * @param ind mapped indices
+	 */
+	@Override
+	public void generate(Match match, List<BioPAXElement> buffer, int... ind)
+	{
+		buffer.addAll(getParticipants(match, ind));
+	}
+
+	/**
+	 * Gets the participants at the desired side, excluding the ubiquitous ones.
+	 * @param match current pattern match
+	 * @param ind mapped indices
+	 * @return participants at the desired side, which may be the side of the conversion itself
+	 */
+	private Set<PhysicalEntity> getParticipants(Match match, int... ind)
 	{
 		assertIndLength(ind);
 
@@ -106,7 +131,7 @@ public class ConversionSide extends ConstraintAdapter
 		else throw new IllegalArgumentException(
 				"The PhysicalEntity has to be a participant of the Conversion.");
 
-		if (blacklist == null) return new HashSet<>(parts);
+		if (blacklist == null) return parts;
 		else
 		{
 			ConversionDirectionType dir = getDirection(conv);
@@ -115,10 +140,20 @@ public class ConversionSide extends ConstraintAdapter
 				(dir == ConversionDirectionType.RIGHT_TO_LEFT && ((relType == RelType.INPUT && parts != conv.getRight()) || (relType == RelType.OUTPUT && parts != conv.getLeft()))))
 				return Collections.emptySet();
 
-			return new HashSet<>(blacklist.getNonUbiques(parts, relType));
+			return blacklist.getNonUbiques(parts, relType);
 		}
 	}
 
+	/**
+	 * Constraints with the same side type, blacklist and relation type are equivalent.
+	 * @return the key
+	 */
+	@Override
+	public Object getKey()
+	{
+		return Arrays.asList(getClass(), sideType, blacklist, relType);
+	}
+
 	/**
 	 * This enum tells if the user want to traverse towards other side of the conversion or stay at
 	 * the same side.
@@ -3,6 +3,8 @@ package org.biopax.paxtools.pattern.constraint;
 import org.biopax.paxtools.pattern.Constraint;
 import org.biopax.paxtools.pattern.Match;
 
+import java.util.Arrays;
+
 /**
  * Checks if the parameter constraint cannot generate any candidate.
  *
@@ -60,4 +62,14 @@ public class Empty extends ConstraintAdapter
 
 		return con.generate(match, ind).isEmpty();
 	}
+
+	/**
+	 * The key is made of the key of the wrapped constraint.
+	 * @return the key
+	 */
+	@Override
+	public Object getKey()
+	{
+		return Arrays.asList(getClass(), con.getKey());
+	}
 }
@@ -2,6 +2,8 @@ package org.biopax.paxtools.pattern.constraint;
 
 import org.biopax.paxtools.pattern.Match;
 
+import java.util.Arrays;
+
 /**
  * Checks identity of two elements.
  * Size = 2.
@@ -39,4 +41,14 @@ public class Equality extends ConstraintAdapter
 
 		return (match.get(ind[0]) == match.get(ind[1])) == equals;
 	}
+
+	/**
+	 * Constraints with the same desired output are equivalent.
+	 * @return the key
+	 */
+	@Override
+	public Object getKey()
+	{
+		return Arrays.asList(getClass(), equals);
+	}
 }
@@ -4,7 +4,10 @@ import org.biopax.paxtools.controller.PathAccessor;
 import org.biopax.paxtools.model.BioPAXElement;
 import org.biopax.paxtools.pattern.Match;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -41,6 +44,11 @@ public class Field extends ConstraintAdapter
 	 */
 	PathAccessor pa2;
 
+	/**
+	 * Accessor strings of the accessors, to compare the constraints.
+	 */
+	private final List<String> paths;
+
 	/**
 	 * The kind of check.
 	 */
@@ -61,6 +69,7 @@ public class Field extends ConstraintAdapter
 		super(value == USE_SECOND_ARG ? 2 : 1);
 		this.value = value;
 		this.pa1 = new PathAccessor(accessorString);
+		this.paths = Collections.singletonList(accessorString);
 		this.oper = oper;
 
 		if (value instanceof Collection && ((Collection) value).isEmpty())
@@ -80,6 +89,7 @@ public class Field extends ConstraintAdapter
 		super(2);
 		this.pa1 = new PathAccessor(accessorString1);
 		this.pa2 = new PathAccessor(accessorString2);
+		this.paths = Arrays.asList(accessorString1, accessorString2);
 		this.oper = oper;
 	}
 
@@ -155,4 +165,14 @@ public class Field extends ConstraintAdapter
 		NOT_INTERSECT,
 		NOT_EMPTY_AND_NOT_INTERSECT
 	}
+
+	/**
+	 * Constraints with the same accessor strings, desired value and kind of check are equivalent.
+	 * @return the key
+	 */
+	@Override
+	public Object getKey()
+	{
+		return Arrays.asList(getClass(), paths, value, oper);
+	}
 }
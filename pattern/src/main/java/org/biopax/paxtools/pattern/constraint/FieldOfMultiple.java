@@ -4,6 +4,7 @@ import org.biopax.paxtools.model.BioPAXElement;
 import org.biopax.paxtools.pattern.MappedConst;
 import org.biopax.paxtools.pattern.Match;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
@@ -146,4 +147,15 @@ public class FieldOfMultiple extends Field
 		else if (oper == Operation.INTERSECT) return values.contains(value);
 		else return !values.contains(value);
 	}
+
+	/**
+	 * The key is made of the key of the field check, and the keys of the mapped constraints that
+	 * generate the element groups.
+	 * @return the key
+	 */
+	@Override
+	public Object getKey()
+	{
+		return Arrays.asList(super.getKey(), con1.getKey(), con2 == null ? null : con2.getKey());
+	}
 }
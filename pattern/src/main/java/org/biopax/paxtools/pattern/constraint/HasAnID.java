@@ -4,6 +4,7 @@ import org.biopax.paxtools.controller.IDFetcher;
 import org.biopax.paxtools.model.BioPAXElement;
 import org.biopax.paxtools.pattern.Match;
 
+import java.util.Arrays;
 import java.util.Map;
 import java.util.Set;
 
@@ -58,4 +59,15 @@ public class HasAnID extends ConstraintAdapter
 
 		return idMap.get(ele) != null && !idMap.get(ele).isEmpty();
 	}
+
+	/**
+	 * Constraints with the same ID fetcher are equivalent; the map of IDs only remembers the
+	 * fetched IDs.
+	 * @return the key
+	 */
+	@Override
+	public Object getKey()
+	{
+		return Arrays.asList(getClass(), idFetcher);
+	}
 }
@@ -5,8 +5,11 @@ import org.biopax.paxtools.model.BioPAXElement;
 import org.biopax.paxtools.model.level3.*;
 import org.biopax.paxtools.pattern.Match;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -107,6 +110,78 @@ public class InterToPartER extends ConstraintAdapter
 	public Collection<BioPAXElement> generate(Match match, int... ind)
 	{
 		Interaction inter = (Interaction) match.get(ind[0]);
+		Set<Entity> taboo = getTaboo(match, ind);
+
+		if (direction == null) return generate(inter, taboo);
+		else return generate((Conversion) inter, direction, taboo);
+	}
+
+	/**
+	 * Adds the related ERs of the non-taboo participants to the buffer. Unless only one-siders or
+	 * both-siders are asked, the ERs are added as the participants are linked, without collecting
+	 * the linked entities first.
+	 * @param match current pattern match
+	 * @param buffer list to add the related ERs
+	 * @param ind mapped indices
+	 */
+	@Override
+	public void generate(Match match, List<BioPAXElement> buffer, int... ind)
+	{
+		Interaction inter = (Interaction) match.get(ind[0]);
+		Set<Entity> taboo = getTaboo(match, ind);
+
+		if (direction == Direction.BOTHSIDERS || direction == Direction.ONESIDERS)
+		{
+			buffer.addAll(generate((Conversion) inter, direction, taboo));
+			return;
+		}
+
+		Set<? extends Entity> parts = direction == null || direction == Direction.ANY ?
+			inter.getParticipant() : direction == Direction.LEFT ? ((Conversion) inter).getLeft() :
+			((Conversion) inter).getRight();
+
+		Set<EntityReference> ers = new HashSet<>();
+
+		for (Entity part : parts)
+		{
+			if (part instanceof PhysicalEntity && !taboo.contains(part))
+			{
+				PhysicalEntity pe = (PhysicalEntity) part;
+
+				if (!linker.hasLinks(pe)) addER(pe, ers, buffer);
+				else for (BioPAXElement linked : linker.getLinkedElements(pe))
+				{
+					addER(linked, ers, buffer);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds the entity reference of the entity to the buffer, if it has one that is not added yet.
+	 * @param ele linked entity
+	 * @param ers entity references added
+	 * @param buffer list to add the entity reference
+	 */
+	private static void addER(BioPAXElement ele, Set<EntityReference> ers,
+		List<BioPAXElement> buffer)
+	{
+		if (ele instanceof SimplePhysicalEntity)
+		{
+			EntityReference er = ((SimplePhysicalEntity) ele).getEntityReference();
+			if (er != null && ers.add(er)) buffer.add(er);
+		}
+	}
+
+	/**
+	 * Gets the taboo elements in the match.
+	 * @param match current pattern match
+	 * @param ind mapped indices
+	 * @return the taboo elements
+	 */
+	private Set<Entity> getTaboo(Match match, int... ind)
+	{
+		if (getVariableSize() == 2) return Collections.emptySet();
 
 		Set<Entity> taboo = new HashSet<>();
 
@@ -114,9 +189,7 @@ public class InterToPartER extends ConstraintAdapter
 		{
 			taboo.add((Entity) match.get(ind[i]));
 		}
-
-		if (direction == null) return generate(inter, taboo);
-		else return generate((Conversion) inter, direction, taboo);
+		return taboo;
 	}
 
 	/**
@@ -210,4 +283,14 @@ public class InterToPartER extends ConstraintAdapter
 		ONESIDERS,
 		BOTHSIDERS
 	}
+
+	/**
+	 * Constraints with the same direction and variable size are equivalent.
+	 * @return the key
+	 */
+	@Override
+	public Object getKey()
+	{
+		return Arrays.asList(getClass(), direction, size);
+	}
 }
@@ -2,12 +2,15 @@ package org.biopax.paxtools.pattern.constraint;
 
 import org.biopax.paxtools.controller.PathAccessor;
 import org.biopax.paxtools.model.BioPAXElement;
+import org.biopax.paxtools.model.level3.Complex;
 import org.biopax.paxtools.model.level3.PhysicalEntity;
 import org.biopax.paxtools.pattern.Match;
 import org.biopax.paxtools.pattern.util.Blacklist;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -100,14 +103,46 @@ public class LinkedPE extends ConstraintAdapter
 		return set;
 	}
 
+	/**
+	 * Adds the linked PhysicalEntity to the buffer. An entity that has nothing to link is added
+	 * without collecting it to a set.
+	 * @param match current pattern match
+	 * @param buffer list to add the linked entities
+	 * @param ind mapped indices
+	 */
+	@Override
+	public void generate(Match match, List<BioPAXElement> buffer, int... ind)
+	{
+		PhysicalEntity pe = (PhysicalEntity) match.get(ind[0]);
+
+		if (hasLinks(pe)) buffer.addAll(getLinkedElements(pe));
+		else buffer.add(pe);
+	}
+
 	public Set<BioPAXElement> getLinkedElements(PhysicalEntity pe)
 	{
 		Set<BioPAXElement> set = new HashSet<>();
 		set.add(pe);
-		enrichWithGenerics(set, set);
+		if (hasLinks(pe)) enrichWithGenerics(set, set);
 		return set;
 	}
 
+	/**
+	 * Checks whether the entity has any generic or complex relation to follow, in the direction of
+	 * the linking. Most entities do not, and they are linked only to themselves.
+	 * @param pe entity to link
+	 * @return true if the entity can be linked to other entities
+	 */
+	protected boolean hasLinks(PhysicalEntity pe)
+	{
+		if (type == Type.TO_GENERAL)
+		{
+			return !pe.getMemberPhysicalEntityOf().isEmpty() || !pe.getComponentOf().isEmpty();
+		}
+		else return !pe.getMemberPhysicalEntity().isEmpty() ||
+			(pe instanceof Complex && !((Complex) pe).getComponent().isEmpty());
+	}
+
 	/**
 	 * Gets the linked homologies and then switches to complex-relationship mode. These two enrich
 	 * methods call each other recursively.
@@ -170,4 +205,14 @@ public class LinkedPE extends ConstraintAdapter
 		TO_GENERAL,
 		TO_SPECIFIC
 	}
+
+	/**
+	 * Constraints with the same linking type and blacklist are equivalent.
+	 * @return the key
+	 */
+	@Override
+	public Object getKey()
+	{
+		return Arrays.asList(getClass(), type, blacklist);
+	}
 }
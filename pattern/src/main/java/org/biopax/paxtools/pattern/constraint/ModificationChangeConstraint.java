@@ -6,6 +6,7 @@ import org.biopax.paxtools.model.level3.SequenceModificationVocabulary;
 import org.biopax.paxtools.pattern.Match;
 import org.biopax.paxtools.pattern.util.DifferentialModificationUtil;
 
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -123,4 +124,14 @@ public class ModificationChangeConstraint extends ConstraintAdapter
 		LOSS,
 		ANY
 	}
+
+	/**
+	 * Constraints with the same type and feature substrings are equivalent.
+	 * @return the key
+	 */
+	@Override
+	public Object getKey()
+	{
+		return Arrays.asList(getClass(), type, Arrays.asList(featureSubstring));
+	}
 }
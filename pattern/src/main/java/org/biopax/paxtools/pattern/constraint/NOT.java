@@ -3,6 +3,8 @@ package org.biopax.paxtools.pattern.constraint;
 import org.biopax.paxtools.pattern.Constraint;
 import org.biopax.paxtools.pattern.Match;
 
+import java.util.Arrays;
+
 /**
  * Negation of a constraint. This is not generative.
  *
@@ -45,4 +47,14 @@ public class NOT extends ConstraintAdapter
 	{
 		return !con.satisfies(match, ind);
 	}
+
+	/**
+	 * The key is made of the key of the negated constraint.
+	 * @return the key
+	 */
+	@Override
+	public Object getKey()
+	{
+		return Arrays.asList(getClass(), con.getKey());
+	}
 }
@@ -4,6 +4,8 @@ import org.biopax.paxtools.model.level3.PhysicalEntity;
 import org.biopax.paxtools.pattern.Match;
 import org.biopax.paxtools.pattern.util.Blacklist;
 
+import java.util.Arrays;
+
 /**
  * This is a non-generative constraint that checks if the small molecule is ubiquitous in any
  * context.
@@ -25,4 +27,14 @@ public class NonUbique extends ConstraintAdapter
 		PhysicalEntity pe = (PhysicalEntity) match.get(ind[0]);
 		return !blacklist.isUbique(pe);
 	}
+
+	/**
+	 * Constraints with the same blacklist are equivalent.
+	 * @return the key
+	 */
+	@Override
+	public Object getKey()
+	{
+		return Arrays.asList(getClass(), blacklist);
+	}
 }
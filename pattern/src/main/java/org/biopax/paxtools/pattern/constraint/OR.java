@@ -4,8 +4,11 @@ import org.biopax.paxtools.pattern.MappedConst;
 import org.biopax.paxtools.pattern.Match;
 import org.biopax.paxtools.model.BioPAXElement;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Logical OR of several constraints. Each constraint should have the same variable size and should
@@ -108,4 +111,51 @@ public class OR extends ConstraintAdapter
 		}
 		return gen;
 	}
+
+	/**
+	 * Adds the values generated by the wrapped constraints to the buffer, each value once.
+	 * @param match current pattern match
+	 * @param buffer list to add the values
+	 * @param ind mapped indices
+	 */
+	@Override
+	public void generate(Match match, List<BioPAXElement> buffer, int... ind)
+	{
+		int start = buffer.size();
+
+		for (MappedConst mc : con)
+		{
+			mc.generate(match, buffer, ind);
+		}
+
+		// the same value can be generated by more than one of the constraints
+		int end = buffer.size();
+		if (con.length > 1 && end - start > 1)
+		{
+			Set<BioPAXElement> seen = new HashSet<>();
+			int kept = start;
+			for (int i = start; i < end; i++)
+			{
+				BioPAXElement ele = buffer.get(i);
+				if (seen.add(ele)) buffer.set(kept++, ele);
+			}
+			buffer.subList(kept, end).clear();
+		}
+	}
+
+	/**
+	 * The key is made of the keys of the wrapped mapped constraints, in order.
+	 * @return the key
+	 */
+	@Override
+	public Object getKey()
+	{
+		List<Object> key = new ArrayList<>();
+		key.add(getClass());
+		for (MappedConst mc : con)
+		{
+			key.add(mc.getKey());
+		}
+		return key;
+	}
 }
@@ -4,6 +4,8 @@ import org.biopax.paxtools.model.level3.PhysicalEntity;
 import org.biopax.paxtools.pattern.Match;
 import org.biopax.paxtools.pattern.util.PhysicalEntityChain;
 
+import java.util.Arrays;
+
 /**
  * This constraint checks if two chains of linked physical entities are intersecting or not.
  *
@@ -67,4 +69,14 @@ public class PEChainsIntersect extends ConstraintAdapter
 
 		return ch1.intersects(ch2, ignoreEndPoints) == intersectionDesired;
 	}
+
+	/**
+	 * Constraints with the same desired result and end point option are equivalent.
+	 * @return the key
+	 */
+	@Override
+	public Object getKey()
+	{
+		return Arrays.asList(getClass(), intersectionDesired, ignoreEndPoints);
+	}
 }
@@ -6,8 +6,10 @@ import org.biopax.paxtools.pattern.Match;
 import org.biopax.paxtools.pattern.util.Blacklist;
 import org.biopax.paxtools.pattern.util.RelType;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -146,65 +148,117 @@ public class Participant extends ConstraintAdapter
 	public Collection<BioPAXElement> generate(Match match, int... ind)
 	{
 		Conversion cnv = (Conversion) match.get(ind[getVariableSize() - 2]);
+		ConversionDirectionType dir = getDirection(match, cnv, ind);
 
-		ConversionDirectionType dir;
+		Collection<BioPAXElement> result = new HashSet<>();
+
+		if (dir == ConversionDirectionType.REVERSIBLE)
+		{
+			result.addAll(getParticipants(cnv.getLeft(), dir));
+			result.addAll(getParticipants(cnv.getRight(), dir));
+		}
+		else result.addAll(getParticipants(getSide(cnv, dir), dir));
+
+		return result;
+	}
+
+	/**
+	 * Identifies the conversion direction and adds the related participants to the buffer, without
+	 * collecting them to a new set.
+	 * @param match current pattern match
+	 * @param buffer list to add the participants
+	 * @param ind mapped indices
+	 */
+	@Override
+	public void generate(Match match, List<BioPAXElement> buffer, int... ind)
+	{
+		Conversion cnv = (Conversion) match.get(ind[getVariableSize() - 2]);
+		ConversionDirectionType dir = getDirection(match, cnv, ind);
+
+		if (dir == ConversionDirectionType.REVERSIBLE)
+		{
+			Set<PhysicalEntity> left = getParticipants(cnv.getLeft(), dir);
+			buffer.addAll(left);
 
+			// an entity can be on both sides
+			for (PhysicalEntity pe : getParticipants(cnv.getRight(), dir))
+			{
+				if (!left.contains(pe)) buffer.add(pe);
+			}
+		}
+		else buffer.addAll(getParticipants(getSide(cnv, dir), dir));
+	}
+
+	/**
+	 * Gets the direction of the conversion, in the context of the control and the pathway, if they
+	 * are considered.
+	 * @param match current pattern match
+	 * @param cnv the conversion
+	 * @param ind mapped indices
+	 * @return the direction
+	 */
+	private ConversionDirectionType getDirection(Match match, Conversion cnv, int... ind)
+	{
 		if (considerControl && considerPathway)
 		{
 			Pathway pathway = (Pathway) match.get(ind[0]);
 			Control control = (Control) match.get(ind[1]);
-			dir = getDirection(cnv, pathway, control);
+			return getDirection(cnv, pathway, control);
 		}
 		else if (considerControl)
 		{
 			Control control = (Control) match.get(ind[0]);
-			dir = getDirection(cnv, control);
+			return getDirection(cnv, control);
 		}
 		else if (considerPathway)
 		{
 			Pathway pathway = (Pathway) match.get(ind[0]);
-			dir = getDirection(cnv, pathway);
+			return getDirection(cnv, pathway);
 		}
-		else dir = getDirection(cnv);
-
-		Set<Set<PhysicalEntity>> sides = new HashSet<>();
+		else return getDirection(cnv);
+	}
 
-		if (dir == ConversionDirectionType.REVERSIBLE)
-		{
-			sides.add(cnv.getLeft());
-			sides.add(cnv.getRight());
-		}
-		else if (dir == ConversionDirectionType.RIGHT_TO_LEFT)
-		{
-			sides.add(type == RelType.INPUT ? cnv.getRight() : cnv.getLeft());
-		}
-		// Note that null direction is treated as if LEFT_TO_RIGHT. This is not a best
-		// practice, but it is a good approximation.
-		else if ((dir == ConversionDirectionType.LEFT_TO_RIGHT || dir == null))
+	/**
+	 * Gets the input or output side of an irreversible conversion.
+	 *
+	 * Note that null direction is treated as if LEFT_TO_RIGHT. This is not a best practice, but it
+	 * is a good approximation.
+	 * @param cnv the conversion
+	 * @param dir direction of the conversion
+	 * @return the side
+	 */
+	private Set<PhysicalEntity> getSide(Conversion cnv, ConversionDirectionType dir)
+	{
+		if (dir == ConversionDirectionType.RIGHT_TO_LEFT)
 		{
-			sides.add(type == RelType.OUTPUT ? cnv.getRight() : cnv.getLeft());
+			return type == RelType.INPUT ? cnv.getRight() : cnv.getLeft();
 		}
+		else return type == RelType.OUTPUT ? cnv.getRight() : cnv.getLeft();
+	}
 
-		Collection<BioPAXElement> result = new HashSet<>();
+	/**
+	 * Removes the blacklisted entities from the side. If the direction is reversible, then the
+	 * context does not matter.
+	 * @param side a side of the conversion
+	 * @param dir direction of the conversion
+	 * @return the side, or its entities that are not blacklisted
+	 */
+	private Set<PhysicalEntity> getParticipants(Set<PhysicalEntity> side,
+		ConversionDirectionType dir)
+	{
+		if (blacklist == null) return side;
 
-		if (blacklist == null)
-		{
-			for (Set<PhysicalEntity> side : sides)
-			{
-				result.addAll(side);
-			}
-		}
-		else
-		{
-			// remove the blacklisted from the result
-			for (Set<PhysicalEntity> side : sides)
-			{
-				// if direction is reversible then do not mind the context
-				result.addAll(blacklist.getNonUbiques(side,
-					dir == ConversionDirectionType.REVERSIBLE ? null : type));
-			}
-		}
+		return blacklist.getNonUbiques(side, dir == ConversionDirectionType.REVERSIBLE ? null : type);
+	}
 
-		return result;
+	/**
+	 * Constraints with the same relation type, blacklist and the options to consider Control and
+	 * Pathway are equivalent.
+	 * @return the key
+	 */
+	@Override
+	public Object getKey()
+	{
+		return Arrays.asList(getClass(), type, blacklist, considerControl, considerPathway);
 	}
 }
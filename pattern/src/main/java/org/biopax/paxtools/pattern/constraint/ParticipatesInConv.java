@@ -9,8 +9,10 @@ import org.biopax.paxtools.model.level3.PhysicalEntity;
 import org.biopax.paxtools.pattern.util.Blacklist;
 import org.biopax.paxtools.pattern.util.RelType;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 
 /**
  * Gets the related Conversion where the PhysicalEntity is input or output, whichever is desired.
@@ -68,7 +70,30 @@ public class ParticipatesInConv extends ConstraintAdapter
 	public Collection<BioPAXElement> generate(Match match, int... ind)
 	{
 		Collection<BioPAXElement> result = new HashSet<>();
+		collect(match, result, ind);
+		return result;
+	}
 
+	/**
+	 * Adds the related conversions to the buffer, without collecting them to a new set.
+	 * @param match current pattern match
+	 * @param buffer list to add the values
+	 * @param ind mapped indices
+	 */
+	@Override
+	public void generate(Match match, List<BioPAXElement> buffer, int... ind)
+	{
+		collect(match, buffer, ind);
+	}
+
+	/**
+	 * Adds the related conversions of the physical entity, each once, to the collection.
+	 * @param match current pattern match
+	 * @param result collection to add the values
+	 * @param ind mapped indices
+	 */
+	private void collect(Match match, Collection<BioPAXElement> result, int... ind)
+	{
 		PhysicalEntity pe = (PhysicalEntity) match.get(ind[0]);
 
 		for (Interaction inter : pe.getParticipantOf())
@@ -99,7 +124,15 @@ public class ParticipatesInConv extends ConstraintAdapter
 				}
 			}
 		}
+	}
 
-		return result;
+	/**
+	 * Constraints with the same relation type and blacklist are equivalent.
+	 * @return the key
+	 */
+	@Override
+	public Object getKey()
+	{
+		return Arrays.asList(getClass(), type, blacklist);
 	}
 }
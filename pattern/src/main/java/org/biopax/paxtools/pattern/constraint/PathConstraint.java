@@ -6,6 +6,7 @@ import org.biopax.paxtools.model.BioPAXElement;
 import org.biopax.paxtools.model.BioPAXLevel;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
@@ -22,6 +23,11 @@ public class PathConstraint extends ConstraintAdapter
 	 */
 	PathAccessor pa;
 
+	/**
+	 * The path of the PathAccessor.
+	 */
+	private String path;
+
 	/**
 	 * Constructor with the constructor String of PathAccessor.
 	 * @param path constructor String of PathAccessor
@@ -30,6 +36,7 @@ public class PathConstraint extends ConstraintAdapter
 	{
 		super(2);
 		this.pa = new PathAccessor(path, BioPAXLevel.L3);
+		this.path = path;
 	}
 
 	/**
@@ -84,4 +91,35 @@ public class PathConstraint extends ConstraintAdapter
 		}
 		return list;
 	}
+
+	/**
+	 * Uses the encapsulated PathAccessor to generate satisfying elements into the buffer.
+	 * @param match current pattern match
+	 * @param buffer list to add the generated elements
+	 * @param ind mapped indices
+	 */
+	@Override
+	public void generate(Match match, List<BioPAXElement> buffer, int... ind)
+	{
+		BioPAXElement ele0 = match.get(ind[0]);
+
+		if (ele0 == null)
+			throw new RuntimeException("Constraint cannot generate based on null value");
+
+		for (Object o : pa.getValueFromBean(ele0))
+		{
+			assert o instanceof BioPAXElement;
+			buffer.add((BioPAXElement) o);
+		}
+	}
+
+	/**
+	 * Constraints with the same path are equivalent.
+	 * @return the key
+	 */
+	@Override
+	public Object getKey()
+	{
+		return Arrays.asList(getClass(), path);
+	}
 }
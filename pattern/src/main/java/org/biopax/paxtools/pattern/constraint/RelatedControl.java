@@ -7,9 +7,10 @@ import org.biopax.paxtools.pattern.Match;
 import org.biopax.paxtools.pattern.util.Blacklist;
 import org.biopax.paxtools.pattern.util.RelType;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
-import java.util.Set;
+import java.util.List;
 
 /**
  * After traversing a PhysicalEntity and the Conversion it participates, this constraint takes us to
@@ -73,6 +74,31 @@ public class RelatedControl extends ConstraintAdapter
 	 */
 	@Override
 	public Collection<BioPAXElement> generate(Match match, int... ind)
+	{
+		Collection<BioPAXElement> result = new HashSet<>();
+		collect(match, result, ind);
+		return result;
+	}
+
+	/**
+	 * Adds the related controls to the buffer, without collecting them to a new set.
+	 * @param match current pattern match
+	 * @param buffer list to add the values
+	 * @param ind mapped indices
+	 */
+	@Override
+	public void generate(Match match, List<BioPAXElement> buffer, int... ind)
+	{
+		collect(match, buffer, ind);
+	}
+
+	/**
+	 * Adds the relevant controls of the conversion, each once, to the collection.
+	 * @param match current pattern match
+	 * @param result collection to add the values
+	 * @param ind mapped indices
+	 */
+	private void collect(Match match, Collection<BioPAXElement> result, int... ind)
 	{
 		PhysicalEntity pe = (PhysicalEntity) match.get(ind[0]);
 		Conversion conv = (Conversion) match.get(ind[1]);
@@ -88,8 +114,6 @@ public class RelatedControl extends ConstraintAdapter
 		
 		assert rightContains || leftContains : "PE is not a participant.";
 
-		Set<BioPAXElement> result = new HashSet<>();
-
 		ConversionDirectionType avoidDir = (leftContains && rightContains) ? null : peType == RelType.OUTPUT ?
 			(leftContains ? ConversionDirectionType.LEFT_TO_RIGHT : ConversionDirectionType.RIGHT_TO_LEFT) :
 			(rightContains ? ConversionDirectionType.LEFT_TO_RIGHT : ConversionDirectionType.RIGHT_TO_LEFT);
@@ -106,7 +130,15 @@ public class RelatedControl extends ConstraintAdapter
 
 			result.add(ctrl);
 		}
-		return result;
 	}
 
+	/**
+	 * Constraints with the same participant type and blacklist are equivalent.
+	 * @return the key
+	 */
+	@Override
+	public Object getKey()
+	{
+		return Arrays.asList(getClass(), peType, blacklist);
+	}
 }
@@ -4,6 +4,7 @@ import org.biopax.paxtools.pattern.Constraint;
 import org.biopax.paxtools.pattern.Match;
 import org.biopax.paxtools.model.BioPAXElement;
 
+import java.util.Arrays;
 import java.util.Collection;
 
 /**
@@ -93,4 +94,14 @@ public class SelfOrThis extends ConstraintAdapter
 		return match.get(ind[selfIndex]) == match.get(ind[ind.length-1]) ||
 			super.satisfies(match, ind);
 	}
+
+	/**
+	 * The key is made of the key of the wrapped constraint and the index of self.
+	 * @return the key
+	 */
+	@Override
+	public Object getKey()
+	{
+		return Arrays.asList(getClass(), con.getKey(), selfIndex);
+	}
 }
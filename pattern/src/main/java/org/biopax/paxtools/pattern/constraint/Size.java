@@ -4,6 +4,7 @@ import org.biopax.paxtools.model.BioPAXElement;
 import org.biopax.paxtools.pattern.Constraint;
 import org.biopax.paxtools.pattern.Match;
 
+import java.util.Arrays;
 import java.util.Collection;
 
 /**
@@ -77,6 +78,16 @@ public class Size extends ConstraintAdapter
 		}
 	}
 
+	/**
+	 * The key is made of the key of the wrapped constraint, the size and the comparison type.
+	 * @return the key
+	 */
+	@Override
+	public Object getKey()
+	{
+		return Arrays.asList(getClass(), con.getKey(), size, type);
+	}
+
 	/**
 	 * Type of the (in)equality.
 	 */
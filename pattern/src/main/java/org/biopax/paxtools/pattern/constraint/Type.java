@@ -3,6 +3,8 @@ package org.biopax.paxtools.pattern.constraint;
 import org.biopax.paxtools.pattern.Match;
 import org.biopax.paxtools.model.BioPAXElement;
 
+import java.util.Arrays;
+
 /**
  * Checks if a variable is a specific type or its subclass.
  *
@@ -38,4 +40,14 @@ public class Type extends ConstraintAdapter
 
 		return clazz.isAssignableFrom(match.get(ind[0]).getModelInterface());
 	}
+
+	/**
+	 * Constraints with the same desired class are equivalent.
+	 * @return the key
+	 */
+	@Override
+	public Object getKey()
+	{
+		return Arrays.asList(getClass(), clazz);
+	}
 }
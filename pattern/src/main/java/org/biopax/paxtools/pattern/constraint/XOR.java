@@ -7,6 +7,7 @@ import org.biopax.paxtools.pattern.Match;
 
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -67,4 +68,16 @@ public class XOR extends OR
 		}
 		return gen;
 	}
+
+	/**
+	 * Adds the xor of the generated elements by the member constraints to the buffer.
+	 * @param match current pattern match
+	 * @param buffer list to add the elements
+	 * @param ind mapped indices
+	 */
+	@Override
+	public void generate(Match match, List<BioPAXElement> buffer, int... ind)
+	{
+		buffer.addAll(generate(match, ind));
+	}
 }
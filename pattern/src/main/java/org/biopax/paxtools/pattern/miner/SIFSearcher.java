@@ -1,9 +1,8 @@
 package org.biopax.paxtools.pattern.miner;
 
 import org.biopax.paxtools.controller.IDFetcher;
-import org.biopax.paxtools.model.BioPAXElement;
 import org.biopax.paxtools.model.Model;
-import org.biopax.paxtools.pattern.Match;
+import org.biopax.paxtools.pattern.Pattern;
 import org.biopax.paxtools.pattern.Searcher;
 import org.biopax.paxtools.pattern.util.AdjacencyMatrix;
 import org.biopax.paxtools.pattern.util.Blacklist;
@@ -12,7 +11,6 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Searches a model and generates SIF network using the pattern matches.
@@ -146,34 +144,38 @@ public class SIFSearcher
 	{
 		if (miners == null) initMiners();
 
-		final Map<SIFInteraction, SIFInteraction> map = new ConcurrentHashMap<>();
+		final Map<SIFInteraction, SIFInteraction> map = new HashMap<>();
 
-		for (final SIFMiner miner : miners)
+		// the patterns are searched together, so the common constraints are evaluated once
+		Map<Pattern, List<SIFMiner>> patternMiners = new IdentityHashMap<>();
+		for (SIFMiner miner : miners)
 		{
 			if (miner instanceof MinerAdapter)
 				((MinerAdapter) miner).setIdMap(new HashMap<>());
 
-			Map<BioPAXElement,List<Match>> matches = Searcher.search(model, miner.getPattern());
-			for (final List<Match> matchList : matches.values())
+			patternMiners.computeIfAbsent(miner.getPattern(), p -> new ArrayList<>()).add(miner);
+		}
+
+		// the matches are converted as they are found, without keeping them
+		Searcher.search(model, patternMiners.keySet(), (p, m) ->
+		{
+			for (SIFMiner miner : patternMiners.get(p))
 			{
-				for (Match m : matchList)
+				Set<SIFInteraction> sifs = miner.createSIFInteraction(m, idFetcher);
+				for (SIFInteraction sif : sifs)
 				{
-					Set<SIFInteraction> sifs = miner.createSIFInteraction(m, idFetcher);
-					for (SIFInteraction sif : sifs)
+					if ( sif != null && sif.hasIDs() && !sif.sourceID.equals(sif.targetID)
+							&& (types == null || types.contains(sif.type)) )
 					{
-						if ( sif != null && sif.hasIDs() && !sif.sourceID.equals(sif.targetID)
-								&& (types == null || types.contains(sif.type)) )
-						{
-							SIFInteraction existing = map.get(sif);
-							if(existing != null)
-								existing.mergeWith(sif);
-							else
-								map.put(sif, sif);
-						}
+						SIFInteraction existing = map.get(sif);
+						if(existing != null)
+							existing.mergeWith(sif);
+						else
+							map.put(sif, sif);
 					}
 				}
 			}
-		}
+		}, null, null);
 
 		return new HashSet<>(map.values());
 	}
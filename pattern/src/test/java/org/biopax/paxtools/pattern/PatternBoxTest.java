@@ -1,18 +1,34 @@
 package org.biopax.paxtools.pattern;
 
 import org.biopax.paxtools.io.SimpleIOHandler;
+import org.biopax.paxtools.controller.IDFetcher;
 import org.biopax.paxtools.model.BioPAXElement;
 import org.biopax.paxtools.model.Model;
 import org.biopax.paxtools.model.level3.Named;
+import org.biopax.paxtools.model.level3.Pathway;
+import org.biopax.paxtools.model.level3.PhysicalEntity;
 import org.biopax.paxtools.pattern.constraint.NonUbique;
+import org.biopax.paxtools.pattern.miner.SIFEnum;
+import org.biopax.paxtools.pattern.miner.SIFMiner;
+import org.biopax.paxtools.pattern.miner.SimpleIDFetcher;
 import org.biopax.paxtools.pattern.util.Blacklist;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.FileInputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * @author Ozgun Babur
@@ -44,6 +60,293 @@ public class PatternBoxTest
 		Assertions.assertTrue(map.size() > 0);
 	}
 
+	@Test
+	public void streamingSearch()
+	{
+		Pattern p = PatternBox.controlsStateChange();
+		Map<BioPAXElement,List<Match>> map = Searcher.search(model_P53, p);
+
+		// the same matches are streamed, in order for each starting element
+		Map<BioPAXElement,List<Match>> streamed = new HashMap<>();
+		Assertions.assertTrue(Searcher.search(model_P53, p, m ->
+			streamed.computeIfAbsent(m.getFirst(), k -> new ArrayList<>()).add(m), null));
+		Assertions.assertEquals(map.keySet(), streamed.keySet());
+		for (BioPAXElement ele : map.keySet())
+		{
+			Assertions.assertEquals(map.get(ele).toString(), streamed.get(ele).toString());
+		}
+
+		// the consumer can stop the search
+		int[] count = new int[1];
+		Assertions.assertFalse(Searcher.search(model_P53.getObjects(p.getStartingClass()), p,
+			m -> count[0]++, null, () -> count[0] > 0));
+
+		// and exceptions of the consumer are thrown
+		Assertions.assertThrows(IllegalStateException.class, () -> Searcher.search(model_P53, p,
+			m -> {throw new IllegalStateException();}, null));
+
+		// the consumer can run another streaming search while the search threads wait for it
+		Pattern any = new Pattern(PhysicalEntity.class, "PE");
+		List<BioPAXElement> seeds = Collections.nCopies(3 * Searcher.MATCH_BUFFER_SIZE,
+			model_P53.getObjects(PhysicalEntity.class).iterator().next());
+		int[] counts = new int[2];
+		Assertions.assertTimeoutPreemptively(Duration.ofMinutes(1), () ->
+			Assertions.assertTrue(Searcher.search(seeds, any, m ->
+			{
+				if (counts[0]++ == 0)
+				{
+					LockSupport.parkNanos(500000000L); // let the buffer fill up
+					Searcher.search(seeds, any, inner -> counts[1]++, null, null);
+				}
+			}, null, null)));
+		Assertions.assertEquals(seeds.size(), counts[0]);
+		Assertions.assertEquals(seeds.size(), counts[1]);
+	}
+
+	@Test
+	public void searchInFile(@TempDir Path dir) throws Exception
+	{
+		String in = PatternBoxTest.class.getResource("AR-TP53.owl").getFile();
+		Pattern p = PatternBox.controlsStateChange();
+
+		// one match of each of two starting elements
+		String out = dir.resolve("out.owl").toString();
+		Searcher.searchInFile(p, in, out, 2, 1);
+		int pathways = h_.convertFromOWL(new FileInputStream(out)).getObjects(Pathway.class).size();
+		Assertions.assertTrue(pathways >= 1 && pathways <= 2);
+
+		Searcher.searchInFile(p, in, out);
+		Assertions.assertTrue(h_.convertFromOWL(new FileInputStream(out)).getObjects(Pathway.class)
+			.size() > pathways);
+	}
+
+	@Test
+	public void backtrackingSearch()
+	{
+		Blacklist b = new Blacklist(PatternBoxTest.class.getResourceAsStream("blacklist.txt"));
+
+		for (Pattern p : getPatterns(b))
+		{
+			for (BioPAXElement ele : model_P53.getObjects(p.getStartingClass()))
+			{
+				Match m = new Match(p.size());
+				m.set(ele, 0);
+				List<Match> expected = searchRecursive(m, p.getConstraints(), 0);
+
+				// the same matches, though the buffered generators can list the values in another order
+				Assertions.assertEquals(sorted(expected), sorted(Searcher.search(ele, p)));
+				Assertions.assertEquals(!expected.isEmpty(), new Searcher().hasSolution(p, ele));
+			}
+		}
+	}
+
+	@Test
+	public void optimizeFor()
+	{
+		Blacklist b = new Blacklist(PatternBoxTest.class.getResourceAsStream("blacklist.txt"));
+
+		for (Model model : Arrays.asList(model_P53, model_urea))
+		{
+			List<Pattern> patterns = getPatterns(b);
+			List<Pattern> optimized = getPatterns(b);
+
+			for (int i = 0; i < patterns.size(); i++)
+			{
+				optimized.get(i).optimizeFor(model);
+
+				// same matches, possibly in another order
+				Assertions.assertEquals(getSortedMatches(model, patterns.get(i)),
+					getSortedMatches(model, optimized.get(i)));
+			}
+		}
+	}
+
+	@Test
+	public void multiPatternSearch()
+	{
+		Blacklist b = new Blacklist(PatternBoxTest.class.getResourceAsStream("blacklist.txt"));
+
+		for (Model model : Arrays.asList(model_P53, model_urea))
+		{
+			// the second copies share all their constraints with the first ones (as checked in
+			// patternTreeSharing)
+			List<Pattern> patterns = new ArrayList<>(getPatterns(b));
+			patterns.addAll(getPatterns(b));
+
+			Map<Pattern, List<String>> found = new HashMap<>();
+			Assertions.assertTrue(Searcher.search(model, patterns, (p, m) ->
+				found.computeIfAbsent(p, k -> new ArrayList<>()).add(
+					Arrays.toString(m.getVariables())), null, null));
+
+			for (Pattern p : patterns)
+			{
+				List<String> list = found.getOrDefault(p, new ArrayList<>());
+				Collections.sort(list);
+				Assertions.assertEquals(getSortedMatches(model, p), list);
+			}
+		}
+	}
+
+	private List<String> getSortedMatches(Model model, Pattern p)
+	{
+		List<String> list = new ArrayList<>();
+		for (Match m : Searcher.searchPlain(model, p))
+		{
+			list.add(Arrays.toString(m.getVariables()));
+		}
+		Collections.sort(list);
+		return list;
+	}
+
+	@Test
+	public void patternTreeSharing() throws Exception
+	{
+		Blacklist b = new Blacklist(PatternBoxTest.class.getResourceAsStream("blacklist.txt"));
+		IDFetcher fetcher = new SimpleIDFetcher();
+
+		// the patterns of the SIF miners, as they are searched together by SIFSearcher
+		Set<Class<? extends SIFMiner>> minerClasses = new LinkedHashSet<>();
+		for (SIFEnum type : SIFEnum.values())
+		{
+			minerClasses.addAll(type.getMiners());
+		}
+
+		List<Pattern> patterns = new ArrayList<>();
+		int constraints = 0;
+		for (Class<? extends SIFMiner> clazz : minerClasses)
+		{
+			SIFMiner miner = clazz.getDeclaredConstructor().newInstance();
+			miner.setBlacklist(b);
+			miner.setIDFetcher(fetcher);
+			patterns.add(miner.getPattern());
+			constraints += miner.getPattern().getConstraints().size();
+		}
+		Assertions.assertTrue(countNodes(patterns) < constraints);
+
+		// the copies of the patterns share all their constraints with the originals
+		patterns = new ArrayList<>(getPatterns(b));
+		int once = countNodes(patterns);
+		patterns.addAll(getPatterns(b));
+		Assertions.assertEquals(once, countNodes(patterns));
+	}
+
+	/**
+	 * @param patterns patterns to merge
+	 * @return number of the nodes of the pattern trees of the patterns
+	 */
+	private static int countNodes(List<Pattern> patterns)
+	{
+		Map<Class<? extends BioPAXElement>, PatternTree> trees = new HashMap<>();
+		for (Pattern p : patterns)
+		{
+			trees.computeIfAbsent(p.getStartingClass(), PatternTree::new).add(p);
+		}
+
+		int nodes = 0;
+		for (PatternTree tree : trees.values())
+		{
+			nodes += tree.getNodeCount();
+		}
+		return nodes;
+	}
+
+	@Test
+	@Disabled
+	public void searchPerformance()
+	{
+		List<Pattern> patterns = getPatterns(
+			new Blacklist(PatternBoxTest.class.getResourceAsStream("blacklist.txt")));
+
+		for (int round = 0; round < 5; round++)
+		{
+			long recursive = 0;
+			long backtracking = 0;
+			int size = 0;
+
+			for (Pattern p : patterns)
+			{
+				for (BioPAXElement ele : model_P53.getObjects(p.getStartingClass()))
+				{
+					Match m = new Match(p.size());
+					m.set(ele, 0);
+
+					long time = System.nanoTime();
+					size += searchRecursive(m, p.getConstraints(), 0).size();
+					recursive += System.nanoTime() - time;
+
+					time = System.nanoTime();
+					int[] count = new int[1];
+					Searcher.search(m, p, match -> count[0]++);
+					backtracking += System.nanoTime() - time;
+				}
+			}
+			System.out.println("matches = " + size + ", recursive = " + recursive / 1000000 +
+				" ms, backtracking = " + backtracking / 1000000 + " ms");
+		}
+	}
+
+	private List<Pattern> getPatterns(Blacklist b)
+	{
+		return Arrays.asList(PatternBox.controlsStateChange(), PatternBox.controlsTransport(),
+			PatternBox.controlsTransportOfChemical(b),
+			PatternBox.controlsStateChangeBothControlAndPart(),
+			PatternBox.controlsStateChangeButIsParticipant(),
+			PatternBox.controlsStateChangeThroughControllerSmallMolecule(b),
+			PatternBox.controlsStateChangeThroughBindingSmallMolecule(b),
+			PatternBox.controlsStateChangeThroughDegradation(), PatternBox.controlsPhosphorylation(),
+			PatternBox.controlsMetabolicCatalysis(b, true), PatternBox.catalysisPrecedes(b),
+			PatternBox.controlsExpressionWithTemplateReac(),
+			PatternBox.controlsExpressionWithConversion(), PatternBox.controlsDegradationIndirectly(),
+			PatternBox.inComplexWith(), PatternBox.chemicalAffectsProteinThroughBinding(b),
+			PatternBox.chemicalAffectsProteinThroughControl(), PatternBox.neighborOf(),
+			PatternBox.reactsWith(b), PatternBox.usedToProduce(b), PatternBox.molecularInteraction(),
+			PatternBox.inSameComplex(), PatternBox.inSameActiveComplex(),
+			PatternBox.inSameComplexHavingTransActivity(),
+			PatternBox.inSameComplexEffectingConversion(), PatternBox.peInOut(),
+			PatternBox.modifiedPESimple(), PatternBox.modifierConv(), PatternBox.hasNonSelfEffect(),
+			PatternBox.bindsTo());
+	}
+
+	/**
+	 * The former recursive search, for comparison.
+	 */
+	private static List<String> sorted(List<Match> matches)
+	{
+		List<String> list = new ArrayList<>();
+		for (Match m : matches)
+		{
+			list.add(m.toString());
+		}
+		Collections.sort(list);
+		return list;
+	}
+
+	private static List<Match> searchRecursive(Match match, List<MappedConst> mc, int index)
+	{
+		List<Match> result = new ArrayList<>();
+
+		Constraint con = mc.get(index).getConstr();
+		int[] ind = mc.get(index).getInds();
+		int lastInd = ind[ind.length-1];
+
+		if (con.canGenerate() && match.get(lastInd) == null)
+		{
+			for (BioPAXElement ele : con.generate(match, ind))
+			{
+				match.set(ele, lastInd);
+				if (mc.size() == index + 1) result.add((Match) match.clone());
+				else result.addAll(searchRecursive(match, mc, index + 1));
+				match.set(null, lastInd);
+			}
+		}
+		else if (con.satisfies(match, ind))
+		{
+			if (mc.size() == index + 1) result.add((Match) match.clone());
+			else result.addAll(searchRecursive(match, mc, index + 1));
+		}
+		return result;
+	}
+
 	@Test
 	public void consecutiveCatalysis()
 	{
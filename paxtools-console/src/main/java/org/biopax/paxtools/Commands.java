@@ -11,6 +11,7 @@ import org.biopax.paxtools.controller.*;
 import org.biopax.paxtools.converter.LevelUpgrader;
 import org.biopax.paxtools.converter.psi.PsiToBiopax3Converter;
 import org.biopax.paxtools.io.BioPAXIOHandler;
+import org.biopax.paxtools.io.BioPAXStreamReader;
 import org.biopax.paxtools.io.SimpleIOHandler;
 import org.biopax.paxtools.io.gsea.GSEAConverter;
 import org.biopax.paxtools.io.sbgn.L3ToSBGNPDConverter;
@@ -426,12 +427,19 @@ final class Commands {
 	}
 
 	static void summarize(String[] argv) throws IOException {
-		log.debug("Importing the input model from " + argv[1] + "...");
-		final Model model = getModel(io, argv[1]);
 		final PrintStream out = new PrintStream(argv[2]);
+		Model model = null;
 		//run a specific or default analysis
 		if(argv.length>3) {
 			for(int i=3; i < argv.length; i++) {
+				if(argv[i].equals("--types")) {
+					summarizeTypes(argv[1], out); //does not need the model
+					continue;
+				}
+				if(model == null) {
+					log.debug("Importing the input model from " + argv[1] + "...");
+					model = getModel(io, argv[1]);
+				}
 				if(argv[i].equals("--model")) {
 					summarize(model, out);
 				} else if(argv[i].equals("--pathways")) {
@@ -447,11 +455,44 @@ final class Commands {
 				}
 			}
 		} else {
+			log.debug("Importing the input model from " + argv[1] + "...");
+			model = getModel(io, argv[1]);
 			summarize(model, out);
 		}
 		out.close();
 	}
 
+	/*
+	 * Counts BioPAX objects by type and xref.db values
+	 * in a single pass over the input RDF/XML stream, without loading the model.
+	 */
+	static void summarizeTypes(String input, PrintStream out) throws IOException {
+		final Map<String, MutableInt> types = new TreeMap<>();
+		final Map<String, MutableInt> dbs = new TreeMap<>();
+		final MutableInt total = new MutableInt();
+		final BioPAXStreamReader reader = new BioPAXStreamReader();
+		reader.read(getInputStream(input), ind -> {
+			total.increment();
+			String type = ind.getType().getSimpleName();
+			types.computeIfAbsent(type, k -> new MutableInt()).increment();
+			if(type.toLowerCase().endsWith("xref")) {
+				for(String db : ind.getDataValues((reader.getLevel() == BioPAXLevel.L3) ? "db" : "DB")) {
+					dbs.computeIfAbsent(db, k -> new MutableInt()).increment();
+				}
+			}
+		});
+
+		ObjectNode summary = jacksonMaper.createObjectNode();
+		summary.put("xml:base", reader.getXmlBase());
+		summary.put("level", reader.getLevel().name());
+		summary.put("objects", total.intValue());
+		ObjectNode typesNode = summary.putObject("types");
+		types.forEach((k, v) -> typesNode.put(k, v.intValue()));
+		ObjectNode dbsNode = summary.putObject("xref_db");
+		dbs.forEach((k, v) -> dbsNode.put(k, v.intValue()));
+		jacksonMaper.writeValue(out, summary);
+	}
+
 
 	/*
 	 * For each physical entity participant in the BioPAX model,
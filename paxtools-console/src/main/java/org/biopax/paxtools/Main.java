@@ -78,10 +78,11 @@ public final class Main {
 		getNeighbors("<input> <id1,id2,..> <output>\n" +
 				"\t- nearest neighborhood graph query (id1,id2 - of Entity sub-class only)")
 				{public void run(String[] argv) throws IOException{getNeighbors(argv);} },
-		summarize("<input> <output> [--model] [--pathways] [--hgnc-ids] [--uniprot-ids] [--chebi-ids]\n" +
+		summarize("<input> <output> [--model] [--types] [--pathways] [--hgnc-ids] [--uniprot-ids] [--chebi-ids]\n" +
 				"\t- (experimental) summary of the input BioPAX model;\n " +
 				"\truns one or several analyses and writes to the output file;\n " +
 				"\t'--model' - (default) BioPAX classes, properties and values summary;\n " +
+				"\t'--types' - number of objects by type and xref.db values (one pass, does not load the model);\n " +
 				"\t'--pathways' - pathways and sub-pathways hierarchy;\n " +
 				"\t'--hgnc-ids' - HGNC IDs/Symbols that occur in sequence entity references;\n " +
 				"\t'--uniprot-ids' - UniProt IDs in protein references;\n " +
@@ -1,5 +1,6 @@
 package org.biopax.paxtools.controller;
 
+import org.apache.commons.lang3.ClassUtils;
 import org.biopax.paxtools.model.BioPAXElement;
 import org.biopax.paxtools.util.IllegalBioPAXArgumentException;
 import org.slf4j.Logger;
@@ -9,6 +10,7 @@ import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.*;
+import java.util.function.BiConsumer;
 
 
 /**
@@ -43,6 +45,12 @@ public abstract class AbstractPropertyEditor<D extends BioPAXElement, R>
 	 */
 	protected Method removeMethod;
 
+	/**
+	 * Generated functions that call the {@link #setMethod}, {@link #addMethod}, {@link #removeMethod}
+	 * (faster than reflection); null when the corresponding method is null.
+	 */
+	private BiConsumer<Object, Object> setter, adder, remover;
+
 	/**
 	 * Local OWL name of the property
 	 */
@@ -236,9 +244,12 @@ public abstract class AbstractPropertyEditor<D extends BioPAXElement, R>
 
 			this.addMethod = domain.getMethod("add" + javaName, range);
 			this.removeMethod = domain.getMethod("remove" + javaName, range);
+			this.adder = MethodAccessors.setter(addMethod);
+			this.remover = MethodAccessors.setter(removeMethod);
 		} else
 		{
 			this.setMethod = domain.getMethod("set" + javaName, range);
+			this.setter = MethodAccessors.setter(setMethod);
 		}
 	}
 
@@ -387,32 +398,52 @@ public abstract class AbstractPropertyEditor<D extends BioPAXElement, R>
 		assert bean != null;
 		try
 		{
-			method.invoke(domain.cast(bean), value);
+			accessorFor(method).accept(domain.cast(bean), value);
 		}
 		catch (ClassCastException e)
 		{
+			boolean badDomain = !domain.isAssignableFrom(bean.getClass());
+			//(the setter is called directly, so the exception can also come from inside the method)
+			boolean badRange = value != null && !ClassUtils.isAssignable(value.getClass(), range);
+			if (!badDomain && !badRange)
+			{
+				throw failedToInvoke(method, bean, value, e);
+			}
 			String message = "Failed to set property: " + property;
-			if (!domain.isAssignableFrom(bean.getClass()))
+			if (badDomain)
 			{
 				message += "  Invalid domain bean: " + domain.getSimpleName() + " is not assignable from " +
 				           bean.getClass();
 			}
-			if (!range.isAssignableFrom(value.getClass()))
+			if (badRange)
 			{
 				message += " Invalid range value: " + range + " is not assignable from " + value.getClass();
 			}
 			throw new IllegalBioPAXArgumentException(message, e);
 		}
-		catch (Exception e) //java.lang.reflect.InvocationTargetException
+		catch (Exception e) //thrown by the method
 		{
-			String valInfo = (value == null) ? null : value.getClass().getSimpleName() + ", " + value;
-			String message = "Failed to set " + property + " with " + method.getName() + " on " 
-				+ domain.getSimpleName() + " (" + bean.getClass().getSimpleName() + ", " + bean + ")" 
-				+ " with range: " + range.getSimpleName() + " (" + valInfo + ")";
-			throw new IllegalBioPAXArgumentException(message, e);
+			throw failedToInvoke(method, bean, value, e);
 		}
 	}
 
+	private IllegalBioPAXArgumentException failedToInvoke(Method method, D bean, R value, Exception e)
+	{
+		String valInfo = (value == null) ? null : value.getClass().getSimpleName() + ", " + value;
+		String message = "Failed to set " + property + " with " + method.getName() + " on " 
+			+ domain.getSimpleName() + " (" + bean.getClass().getSimpleName() + ", " + bean + ")" 
+			+ " with range: " + range.getSimpleName() + " (" + valInfo + ")";
+		return new IllegalBioPAXArgumentException(message, e);
+	}
+
+	private BiConsumer<Object, Object> accessorFor(Method method)
+	{
+		if (method == setMethod && setter != null) return setter;
+		else if (method == addMethod && adder != null) return adder;
+		else if (method == removeMethod && remover != null) return remover;
+		else return MethodAccessors.setter(method);
+	}
+
 	protected R parseValueFromString(String value)
 	{
 		throw new IllegalBioPAXArgumentException();
@@ -4,6 +4,7 @@ import org.biopax.paxtools.model.BioPAXElement;
 import org.biopax.paxtools.model.Model;
 import org.biopax.paxtools.model.level2.pathway;
 import org.biopax.paxtools.model.level3.Pathway;
+import org.biopax.paxtools.util.Filter;
 
 import java.util.Collection;
 import java.util.HashSet;
@@ -19,29 +20,37 @@ import java.util.Set;
  */
 public class Completer implements Visitor
 {
+	/**
+	 * @deprecated {@link #complete(Collection)} does not use it anymore (it walks the graph iteratively).
+	 */
+	@Deprecated
 	protected TraverserBilinked traverser;
 
+	private final ObjectGraphWalker walker;
+
 	private final Set<BioPAXElement> completed;
 
 	private boolean skipSubPathways;
 
 	public Completer(EditorMap map)
 	{
+		Filter<PropertyEditor> forward = editor -> editor instanceof ObjectPropertyEditor &&
+			((ObjectPropertyEditor) editor).isCompleteForward();
+		Filter<PropertyEditor> backward = editor -> editor instanceof ObjectPropertyEditor &&
+			((ObjectPropertyEditor) editor).isCompleteBackward();
+		this.walker = new ObjectGraphWalker(map, new Filter[]{forward}, new Filter[]{backward});
 		this.traverser = new TraverserBilinked(map, this, new PropertyFilterBilinked()
 		{
 			public boolean filter(PropertyEditor editor)
 			{
-				return editor instanceof ObjectPropertyEditor &&
-					((ObjectPropertyEditor) editor).isCompleteForward();
+				return forward.filter(editor);
 			}
 
 			public boolean filterInverse(PropertyEditor editor)
 			{
-				return editor instanceof ObjectPropertyEditor &&
-					((ObjectPropertyEditor) editor).isCompleteBackward();
+				return backward.filter(editor);
 			}
 		});
-
 		completed = new HashSet<>();
 		skipSubPathways = true; //makes default - skip sub-pathways
 	}
@@ -49,19 +58,33 @@ public class Completer implements Visitor
 
 	public Set<BioPAXElement> complete(Collection<BioPAXElement> elements)
 	{
-		completed.clear();
+		final Set<BioPAXElement> visited = ObjectGraphWalker.newVisitedSet();
 
 		for (BioPAXElement element : elements)
 		{
-			if (completed.add(element))
+			if (!visited.contains(element))
 			{
-				traverser.traverse(element, null); //model is not required here because of 'visit' impl. below
+				// Ignore sub-pathways if skipSubPathways is true
+				//(the effect must be the same as if @AutoComplete(forward=false) annotation
+				// would be set on properties pathwayComponent and controlled, which unfortunately we cannot do
+				// for values of type Pathway only via the property getter annotations,
+				// because these properties' range is Process - Interaction or Pathway...)
+				walker.walk(element, visited, Integer.MAX_VALUE,
+					e -> !(skipSubPathways && (e instanceof Pathway || e instanceof pathway)));
 			}
 		}
 
+		completed.clear();
+		completed.addAll(visited);
 		return completed;
 	}
 
+	/**
+	 * Adds the element to the completed ones and traverses it (recursively).
+	 *
+	 * @deprecated {@link #complete(Collection)} does not call it anymore.
+	 */
+	@Deprecated
 	public void visit(BioPAXElement domain, Object range, Model model, PropertyEditor editor)
 	{
 		if (range instanceof BioPAXElement) //!=null works too (because of prop. filters)
@@ -69,11 +92,6 @@ public class Completer implements Visitor
 			BioPAXElement element = (BioPAXElement) range;
 			if (!completed.contains(element))
 			{
-				// Ignore sub-pathways if skipSubPathways is true
-				//(the effect must be the same as if @AutoComplete(forward=false) annotation
-				// would be set on properties pathwayComponent and controlled, which unfortunately we cannot do
-				// for values of type Pathway only via the property getter annotations,
-				// because these properties' range is Process - Interaction or Pathway...)
 				completed.add(element);
 				//traverse unless we are to ignore sub-pathways (in fact - sub-pathway's member objects)
 				if( !(skipSubPathways && (element instanceof Pathway || element instanceof pathway)) ) {
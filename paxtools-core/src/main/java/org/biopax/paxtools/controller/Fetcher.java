@@ -1,13 +1,19 @@
 package org.biopax.paxtools.controller;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
 
 import org.apache.commons.lang3.ArrayUtils;
 import org.biopax.paxtools.model.BioPAXElement;
 import org.biopax.paxtools.model.Model;
+import org.biopax.paxtools.model.level2.utilityClass;
 import org.biopax.paxtools.model.level3.Pathway;
+import org.biopax.paxtools.model.level3.UtilityClass;
 import org.biopax.paxtools.util.Filter;
 
 /**
@@ -26,9 +32,18 @@ public class Fetcher {
 
 	private final EditorMap editorMap;
 	private final Filter<PropertyEditor>[] filters;
+	private final ObjectGraphWalker walker;
 
 	private boolean skipSubPathways;
 
+	/**
+	 * Default memory limit (bytes, estimated) for the sub-graphs cache
+	 * used by {@link #fetchAll(Collection)}.
+	 */
+	public static final long DEFAULT_MEMO_BUDGET = 64L << 20;
+
+	private static final BioPAXElement[] NONE = new BioPAXElement[0];
+
 	/**
 	 * This property filter can be used to ignore 'nextStep' ('NEXT-STEP' in L2) 
 	 * property when fetching a sub-graph of child biopax elements, because
@@ -71,6 +86,7 @@ public class Fetcher {
 	public Fetcher(EditorMap editorMap, Filter<PropertyEditor>... filters) {
 		this.editorMap = editorMap;
 		this.filters = ArrayUtils.add(filters, objectPropertiesOnlyFilter);
+		this.walker = new ObjectGraphWalker(editorMap, this.filters);
 		this.skipSubPathways = false;
 	}
 
@@ -166,24 +182,11 @@ public class Fetcher {
 
 		final Set<BioPAXElement> children = new HashSet<>();
 
-		//create a simple traverser to collect direct child elements:
-		Traverser traverser = new Traverser(editorMap,
-			(domain, range, model, editor) -> children.add((BioPAXElement) range),
-			filters
-		);
-
-		//run
-		traverser.traverse(bpe, null);
-
-		if(!children.isEmpty() && --depth > 0) {
-			for (BioPAXElement element : new HashSet<>(children)) {
-				if(skipSubPathways && (element instanceof Pathway)) {
-					continue;
-				}
-				Set<BioPAXElement> nextLevelElements = fetch(element, depth); //recursion goes on
-				children.addAll(nextLevelElements);
-			}
-		}
+		//breadth-first, so that each child is found at its shortest distance from bpe
+		walker.walk(bpe, ObjectGraphWalker.newVisitedSet(), depth, element -> {
+			children.add(element);
+			return !(skipSubPathways && (element instanceof Pathway));
+		});
 
 		//remove itself (if added due to tricky loops in the model...)
 		children.remove(bpe);
@@ -213,26 +216,101 @@ public class Fetcher {
 	{
 		final Set<T> children = new HashSet<>();
 
-		AbstractTraverser traverser = new AbstractTraverser(editorMap, filters) {
-			/*
-			 * Adds the BioPAX element into the model and traverses the element's properties
-			 * to collect all dependent/nested elements.
-			 */
-			protected void visit(Object range, BioPAXElement domain, Model model, PropertyEditor editor)
-			{
-				//by design (see Constructor, filters), it'll visit only object properties.
-				BioPAXElement bpe = (BioPAXElement) range;
-
-				if(filterByType.isInstance(bpe)) {
-					children.add((T) bpe);
-				}
-
-				if(!(skipSubPathways && (bpe instanceof Pathway)))
-					traverse(bpe, null); //(does nothing when bpe has been previously visited)
+		walker.walk(element, bpe -> {
+			if(filterByType.isInstance(bpe)) {
+				children.add((T) bpe);
 			}
-		};
+			return !(skipSubPathways && (bpe instanceof Pathway));
+		});
 
-		traverser.traverse(element, null);
+		return children;
+	}
+
+
+	/**
+	 * Fetches the child objects of many root elements at once, in parallel
+	 * (on the common fork-join pool), same as {@link #fetch(BioPAXElement)} would for each root.
+	 *
+	 * @param roots elements to fetch child objects from
+	 * @return root to its child objects map (in the roots order)
+	 * @see #fetchAll(Collection, ForkJoinPool, long)
+	 */
+	public Map<BioPAXElement, Set<BioPAXElement>> fetchAll(Collection<? extends BioPAXElement> roots)
+	{
+		return fetchAll(roots, ForkJoinPool.commonPool(), DEFAULT_MEMO_BUDGET);
+	}
+
+	/**
+	 * Fetches the child objects of many root elements at once, in parallel,
+	 * same as {@link #fetch(BioPAXElement)} would for each root (using the same filters and #isSkipSubPathways).
+	 *
+	 * Sub-graphs of the utility class objects (e.g., entity references with their xrefs and vocabularies),
+	 * which are usually shared by many roots, are fetched only once and remembered
+	 * until the end of this call, while the estimated memory they take is within the budget.
+	 *
+	 * @param roots elements to fetch child objects from (normally, from the same model; different
+	 *              objects with the same URI are not expected)
+	 * @param pool fork-join pool to use
+	 * @param memoBudget max. memory (bytes, roughly estimated) to use for caching the shared sub-graphs;
+	 *                   zero - do not cache
+	 * @return root to its child objects map (in the roots order)
+	 */
+	public Map<BioPAXElement, Set<BioPAXElement>> fetchAll(Collection<? extends BioPAXElement> roots,
+		ForkJoinPool pool, long memoBudget)
+	{
+		final BioPAXElement[] rootArray = roots.toArray(new BioPAXElement[0]);
+		final Set<BioPAXElement>[] results = new Set[rootArray.length];
+		final Map<BioPAXElement, BioPAXElement[]> memo = new ConcurrentHashMap<>();
+		final AtomicLong budget = new AtomicLong(memoBudget);
+
+		try {
+			pool.submit(() -> IntStream.range(0, rootArray.length).parallel()
+				.forEach(i -> results[i] = closure(rootArray[i], memo, budget, true))
+			).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("fetchAll interrupted", e);
+		} catch (ExecutionException e) {
+			throw (e.getCause() instanceof RuntimeException)
+				? (RuntimeException) e.getCause() : new RuntimeException(e.getCause());
+		}
+
+		final Map<BioPAXElement, Set<BioPAXElement>> result = new LinkedHashMap<>();
+		for (int i = 0; i < rootArray.length; i++) {
+			result.put(rootArray[i], results[i]);
+		}
+		return result;
+	}
+
+	/*
+	 * Collects the child objects, using (and, if 'compute' is true, adding) the cached
+	 * sub-graphs of the shared objects; a cached sub-graph, by definition, contains
+	 * everything reachable from that object, regardless of the path to it, so the child object's
+	 * properties do not need to be traversed again.
+	 */
+	private Set<BioPAXElement> closure(BioPAXElement root, final Map<BioPAXElement, BioPAXElement[]> memo,
+		final AtomicLong budget, final boolean compute)
+	{
+		final Set<BioPAXElement> children = new HashSet<>();
+
+		walker.walk(root, bpe -> {
+			children.add(bpe);
+			if (bpe instanceof UtilityClass || bpe instanceof utilityClass) {
+				BioPAXElement[] shared = memo.get(bpe);
+				if (shared == null && compute && budget.get() > 0) {
+					Set<BioPAXElement> sub = closure(bpe, memo, budget, false); //no deeper recursion
+					shared = (sub.isEmpty()) ? NONE : sub.toArray(new BioPAXElement[0]);
+					if (shared == NONE || budget.addAndGet(-16 - 8L * shared.length) > 0) {
+						memo.put(bpe, shared);
+					}
+				}
+				if (shared != null) {
+					Collections.addAll(children, shared);
+					return false; //already got everything from there
+				}
+			}
+			return !(skipSubPathways && (bpe instanceof Pathway));
+		});
 
 		return children;
 	}
@@ -255,23 +333,13 @@ public class Fetcher {
 
 		final AtomicBoolean found = new AtomicBoolean(false);
 
-		Traverser traverser = new AbstractTraverser(editorMap, filters) {
-
-			@Override
-			protected void visit(Object range, BioPAXElement domain, Model model, PropertyEditor editor)
-			{
-				if (range instanceof BioPAXElement && !found.get())
-				{
-					if( ((BioPAXElement) range).getUri().equals(uri) )
-						found.set(true); //set global flag; done.
-					else
-					if(!(skipSubPathways && (range instanceof Pathway)))
-						traverse((BioPAXElement)range, model);
-				}
-			}
-		};
-
-		traverser.traverse(root, null);
+		walker.walk(root, bpe -> {
+			if (found.get())
+				return false; //done; stop expanding
+			if (bpe.getUri().equals(uri))
+				found.set(true); //set global flag; done.
+			return !found.get() && !(skipSubPathways && (bpe instanceof Pathway));
+		});
 
 		return found.get();
 	}
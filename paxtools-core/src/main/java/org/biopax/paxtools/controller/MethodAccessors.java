@@ -0,0 +1,115 @@
+package org.biopax.paxtools.controller;
+
+import org.biopax.paxtools.util.IllegalBioPAXArgumentException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.*;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Generates (via {@link LambdaMetafactory}) and caches functional wrappers
+ * for the BioPAX bean getter and setter/adder/remover methods that the property editors use,
+ * so that calling them is a plain interface call the JIT can inline
+ * instead of {@link Method#invoke(Object, Object...)}.
+ *
+ * Falls back to reflection when a wrapper cannot be generated for a method
+ * (e.g., the bean interface is not visible from this class loader).
+ */
+final class MethodAccessors
+{
+	private static final Logger log = LoggerFactory.getLogger(MethodAccessors.class);
+
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+	private static final Map<Method, Function<Object, Object>> getters = new ConcurrentHashMap<>();
+
+	private static final Map<Method, BiConsumer<Object, Object>> setters = new ConcurrentHashMap<>();
+
+	private MethodAccessors() {
+		throw new UnsupportedOperationException("Non-instantiable utility class.");
+	}
+
+	/**
+	 * @param method a public no-arg method
+	 * @return function that calls the method on its argument (primitive values are boxed)
+	 */
+	static Function<Object, Object> getter(Method method)
+	{
+		return getters.computeIfAbsent(method, MethodAccessors::createGetter);
+	}
+
+	/**
+	 * @param method a public single-arg method
+	 * @return consumer that calls the method on the first argument with the second one (unboxed when primitive)
+	 */
+	static BiConsumer<Object, Object> setter(Method method)
+	{
+		return setters.computeIfAbsent(method, MethodAccessors::createSetter);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Function<Object, Object> createGetter(Method method)
+	{
+		if (isVisible(method)) {
+			try {
+				MethodHandle handle = LOOKUP.unreflect(method);
+				CallSite site = LambdaMetafactory.metafactory(LOOKUP, "apply",
+					MethodType.methodType(Function.class),
+					MethodType.methodType(Object.class, Object.class),
+					handle, handle.type().wrap());
+				return (Function<Object, Object>) site.getTarget().invoke();
+			} catch (Throwable t) {
+				log.warn("Using reflection for " + method + "; " + t);
+			}
+		}
+
+		return bean -> {
+			try {
+				return method.invoke(bean);
+			} catch (ReflectiveOperationException e) {
+				throw new IllegalBioPAXArgumentException("Could not invoke " + method.getName() + " for " + bean, e);
+			}
+		};
+	}
+
+	@SuppressWarnings("unchecked")
+	private static BiConsumer<Object, Object> createSetter(Method method)
+	{
+		if (isVisible(method)) {
+			try {
+				MethodHandle handle = LOOKUP.unreflect(method);
+				CallSite site = LambdaMetafactory.metafactory(LOOKUP, "accept",
+					MethodType.methodType(BiConsumer.class),
+					MethodType.methodType(void.class, Object.class, Object.class),
+					handle, handle.type().wrap().changeReturnType(void.class));
+				return (BiConsumer<Object, Object>) site.getTarget().invoke();
+			} catch (Throwable t) {
+				log.warn("Using reflection for " + method + "; " + t);
+			}
+		}
+
+		return (bean, value) -> {
+			try {
+				method.invoke(bean, value);
+			} catch (ReflectiveOperationException e) {
+				throw new IllegalBioPAXArgumentException("Could not invoke " + method.getName() + " for " + bean, e);
+			}
+		};
+	}
+
+	// the generated class (defined in this class loader) must be able to link to the bean type
+	private static boolean isVisible(Method method)
+	{
+		Class<?> type = method.getDeclaringClass();
+		try {
+			return Class.forName(type.getName(), false, MethodAccessors.class.getClassLoader()) == type;
+		} catch (ClassNotFoundException e) {
+			return false;
+		}
+	}
+}
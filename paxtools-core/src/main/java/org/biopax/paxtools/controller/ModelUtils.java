@@ -20,6 +20,8 @@ import java.net.URI;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 /**
  * Several useful algorithms and examples, e.g., to extract root or child
@@ -74,13 +76,18 @@ public final class ModelUtils
 	 * 
 	 * It does not neither remove the old nor add new elements in the model
 	 * (if required, one can do this before/after this method, e.g., using
-	 * the same 'subs' map)
+	 * the same 'subs' map, or use {@link #substitute(Model, Map)} instead)
 	 * 
 	 * This does visit all object properties of each "explicit" element
-	 * in the model, but does not traverse deeper into one's sub-properties
+	 * in the model that refers to a replaced element, but does not traverse deeper into one's sub-properties
 	 * to replace something there as well (e.g., nested member entity references
 	 * are not replaced unless parent entity reference present in the model)
 	 * 
+	 * The referring elements are found via the inverse properties of the replaced elements
+	 * (e.g., xrefOf, entityReferenceOf), and, for the properties that do not have an inverse
+	 * (e.g., organism), among the model elements of the property's domain;
+	 * so the model is not traversed entirely.
+	 * 
 	 * This does not automatically move/migrate old (replaced) object's
 	 * children to new objects (the replacement ones are supposed to have
 	 * their own properties already set or to be set shortly; otherwise,
@@ -97,39 +104,150 @@ public final class ModelUtils
 		}
 
 		// update properties
-		Visitor visitor = (domain, range, bpModel, propertyEditor) -> {
-			if (propertyEditor instanceof ObjectPropertyEditor && range != null && subs.containsKey(range))
-			{
+		for (BioPAXElement domain : findReferrers(model, subs)) {
+			for (PropertyEditor propertyEditor : em.getEditorsOf(domain)) {
+				if (!(propertyEditor instanceof ObjectPropertyEditor)) {
+					continue;
+				}
 				ObjectPropertyEditor editor = (ObjectPropertyEditor) propertyEditor;
-				BioPAXElement value = (BioPAXElement) range;
-				// 'value' is to be replaced with the 'replacement'
-				BioPAXElement replacement = subs.get(range); //can get null (ok)
+				//copy prop. values (to avoid concurrent modification exception)
+				for (Object range : new ArrayList<>(editor.getValueFromBean(domain))) {
+					if (range == null || !subs.containsKey(range)) {
+						continue;
+					}
+					BioPAXElement value = (BioPAXElement) range;
+					// 'value' is to be replaced with the 'replacement'
+					BioPAXElement replacement = subs.get(range); //can get null (ok)
 
-				// normal biopax property -
-				if (replacement != null && !editor.getRange().isInstance(replacement))
-				{
-					throw new IllegalBioPAXArgumentException(
-						"Incompatible type! Attempted to replace "
-						+ value.getUri() + " (" + value.getModelInterface().getSimpleName()
-						+ ") with " + replacement.getUri() + " ("
-						+ replacement.getModelInterface().getSimpleName() + "); "
-						+ "property: " + editor.getProperty()
-						+ " of bean: " + domain.getUri() + " ("
-						+ domain.getModelInterface().getSimpleName() + ")");
+					// normal biopax property -
+					if (replacement != null && !editor.getRange().isInstance(replacement))
+					{
+						throw new IllegalBioPAXArgumentException(
+							"Incompatible type! Attempted to replace "
+							+ value.getUri() + " (" + value.getModelInterface().getSimpleName()
+							+ ") with " + replacement.getUri() + " ("
+							+ replacement.getModelInterface().getSimpleName() + "); "
+							+ "property: " + editor.getProperty()
+							+ " of bean: " + domain.getUri() + " ("
+							+ domain.getModelInterface().getSimpleName() + ")");
+					}
+
+					if (replacement != value)
+					{
+						editor.removeValueFromBean(value, domain);
+						editor.setValueToBean(replacement, domain);
+					} else {
+						LOG.debug("replace: skipped the identical: " + replacement.getUri());
+					}
 				}
+			}
+		}
+	}
 
-				if (replacement != value)
-				{
-					editor.removeValueFromBean(value, domain);
-					editor.setValueToBean(replacement, domain);
-				} else {
-					LOG.debug("replace: skipped the identical: " + replacement.getUri());
+
+	/**
+	 * Replaces BioPAX elements in the model with ones from the map in one batch:
+	 * removes the old elements from the model, adds the new ones (unless the model
+	 * already has an element with the same URI), updates the object properties that refer
+	 * to the old elements (see {@link #replace(Model, Map)}), and finally unlinks the old elements
+	 * from the inverse properties of the model elements (as {@link #fixDanglingInverseProperties(BioPAXElement, Model)}
+	 * does, but only for the old elements).
+	 * 
+	 * The new elements are added before the properties are updated, so their properties that
+	 * refer to other old elements of the same batch are updated too; thus, the replacements
+	 * of several independent steps can be collected and done at once.
+	 * 
+	 * @param model biopax model where the objects are to be replaced
+	 * @param subs the replacements map (many-to-one, old-to-new)
+	 * @exception IllegalBioPAXArgumentException if there is an incompatible type replacement object
+	 */
+	public static void substitute(Model model, final Map<? extends BioPAXElement, ? extends BioPAXElement> subs)
+	{
+		if(subs == null || subs.isEmpty()) {
+			return;
+		}
+
+		for (BioPAXElement e : subs.keySet()) {
+			model.remove(e);
+		}
+
+		for (BioPAXElement e : subs.values()) {
+			if (e != null && !model.containsID(e.getUri())) {
+				model.add(e);
+			}
+		}
+
+		replace(model, subs);
+
+		// unlink the old elements that are not in the model (by URI) anymore
+		for (BioPAXElement old : subs.keySet()) {
+			if (model.containsID(old.getUri())) {
+				continue;
+			}
+			for (PropertyEditor editor : em.getEditorsOf(old)) {
+				if (editor instanceof ObjectPropertyEditor && ((ObjectPropertyEditor) editor).hasInverseLink()) {
+					for (Object value : new ArrayList<>(editor.getValueFromBean(old))) {
+						if (value != null && model.contains((BioPAXElement) value)) {
+							editor.removeValueFromBean(value, old);
+						}
+					}
 				}
 			}
-		};
+		}
+	}
 
-		Traverser traverser = new Traverser(em, visitor);
-		model.getObjects().stream().forEach(bpe -> traverser.traverse(bpe, null));//model is not used
+
+	/*
+	 * Object properties (without an inverse link) by the type of the values they can have.
+	 */
+	private static final Map<Class<? extends BioPAXElement>, Set<ObjectPropertyEditor>> NON_INVERSE_EDITORS =
+		new ConcurrentHashMap<>();
+
+
+	/*
+	 * Finds the model elements that refer to the given elements via an object property.
+	 */
+	private static Set<BioPAXElement> findReferrers(Model model, Map<? extends BioPAXElement, ?> subs)
+	{
+		final Set<BioPAXElement> referrers = ObjectGraphWalker.newVisitedSet();
+		final Set<ObjectPropertyEditor> scan = new HashSet<>();
+
+		for (BioPAXElement value : subs.keySet()) {
+			for (ObjectPropertyEditor editor : em.getInverseEditorsOf(value)) {
+				for (Object domain : editor.getInverseAccessor().getValueFromBean(value)) {
+					if (domain != null && model.contains((BioPAXElement) domain)) {
+						referrers.add((BioPAXElement) domain);
+					}
+				}
+			}
+			scan.addAll(NON_INVERSE_EDITORS.computeIfAbsent(value.getModelInterface(), type -> {
+				Set<ObjectPropertyEditor> editors = new HashSet<>();
+				for (Iterator<PropertyEditor> it = em.iterator(); it.hasNext();) {
+					PropertyEditor editor = it.next();
+					if (editor instanceof ObjectPropertyEditor && !((ObjectPropertyEditor) editor).hasInverseLink()
+						&& editor.getRange().isAssignableFrom(type)) {
+						editors.add((ObjectPropertyEditor) editor);
+					}
+				}
+				return editors;
+			}));
+		}
+
+		// properties without an inverse - check the elements of their domain
+		for (ObjectPropertyEditor editor : scan) {
+			for (BioPAXElement domain : model.getObjects((Class<? extends BioPAXElement>) editor.getDomain())) {
+				if (!referrers.contains(domain)) {
+					for (Object value : editor.getValueFromBean(domain)) {
+						if (value != null && subs.containsKey(value)) {
+							referrers.add(domain);
+							break;
+						}
+					}
+				}
+			}
+		}
+
+		return referrers;
 	}
 
 
@@ -149,16 +267,14 @@ public final class ModelUtils
 		// copy all such elements (initially, we think all are roots...)
 		final Set<T> result = new HashSet<>(model.getObjects(filterClass));
 
-		//define a "shallow" (non-recursive) object property traverser
-		Traverser traverser = new Traverser(
-			em, // editor map
-			(bpe, value, m, e) -> { // visitor.visit
-				if (filterClass.isInstance(value)) result.remove(value);
-			},
-			pe -> (pe instanceof ObjectPropertyEditor) // filter
-		);
-
-		model.getObjects().stream().forEach(e -> traverser.traverse(e, null));
+		//remove those that are values of some object property ("shallow", non-recursive)
+		ObjectGraphWalker walker = new ObjectGraphWalker(em);
+		Consumer<BioPAXElement> action = value -> {
+			if (filterClass.isInstance(value)) result.remove(value);
+		};
+		for (BioPAXElement e : model.getObjects()) {
+			walker.forEachChild(e, action);
+		}
 
 		return result;
 	}
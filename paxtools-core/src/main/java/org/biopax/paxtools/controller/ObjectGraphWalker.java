@@ -0,0 +1,187 @@
+package org.biopax.paxtools.controller;
+
+import org.biopax.paxtools.model.BioPAXElement;
+import org.biopax.paxtools.util.Filter;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Iterative (breadth-first, using a work queue instead of recursion) traversal of
+ * the BioPAX object graph, i.e., of object property values (and optionally inverse property values,
+ * such as xrefOf) of a root element, its children, etc.
+ *
+ * Unlike {@link Traverser} and {@link AbstractTraverser}, it does not copy property value sets
+ * (reads them in place; so the visitor must not modify the properties being traversed),
+ * keeps the visited objects in an identity-based set that the caller can share between walks,
+ * and does not fail with a stack overflow on very deep graphs.
+ * Property filters are evaluated once per BioPAX type (the results are cached).
+ *
+ * This class is thread-safe if the filters and {@link EditorMap} are (each walk uses its own queue;
+ * a visited set must not be shared between concurrent walks though).
+ *
+ * @see Fetcher
+ * @see Completer
+ */
+public class ObjectGraphWalker
+{
+	private final EditorMap editorMap;
+	private final Filter<PropertyEditor>[] filters;
+	private final Filter<PropertyEditor>[] inverseFilters;
+	private final Map<Class<? extends BioPAXElement>, PropertyAccessor[]> accessors = new ConcurrentHashMap<>();
+
+	/**
+	 * Creates a walker that follows (non-inverse) object properties which pass all the filters.
+	 *
+	 * @param editorMap BioPAX property editors map
+	 * @param filters optional, property filters
+	 */
+	public ObjectGraphWalker(EditorMap editorMap, Filter<PropertyEditor>... filters)
+	{
+		this(editorMap, filters, null);
+	}
+
+	/**
+	 * Creates a walker that follows object properties which pass all the filters,
+	 * and also inverse properties (e.g., 'xrefOf' of an Xref) whose editors pass all the inverse filters.
+	 *
+	 * @param editorMap BioPAX property editors map
+	 * @param filters property filters (an empty array - use all object properties)
+	 * @param inverseFilters inverse property filters (an empty array - use all inverse properties;
+	 *                       null - do not use inverse properties)
+	 */
+	public ObjectGraphWalker(EditorMap editorMap, Filter<PropertyEditor>[] filters,
+		Filter<PropertyEditor>[] inverseFilters)
+	{
+		this.editorMap = editorMap;
+		this.filters = filters;
+		this.inverseFilters = inverseFilters;
+	}
+
+	/**
+	 * @return new empty identity-based set to use as the visited set
+	 */
+	public static Set<BioPAXElement> newVisitedSet()
+	{
+		return Collections.newSetFromMap(new IdentityHashMap<>());
+	}
+
+	/**
+	 * Walks from the root element (all depths).
+	 *
+	 * @param root element to start from
+	 * @param visitor is called for every found object (once), except for the root;
+	 *                returns whether to traverse into the object's properties
+	 * @see #walk(BioPAXElement, Set, int, Predicate)
+	 */
+	public void walk(BioPAXElement root, Predicate<BioPAXElement> visitor)
+	{
+		walk(root, newVisitedSet(), Integer.MAX_VALUE, visitor);
+	}
+
+	/**
+	 * Walks the properties of the root element, the properties of its children, etc.,
+	 * skipping the already visited objects. The root is marked visited too, and it is passed
+	 * to the visitor (but not traversed again) only if it is its own descendant (due to a loop).
+	 *
+	 * @param root element to start from
+	 * @param visited the set of objects visited (by this or previous walks; not traversed again),
+	 *                which also gets the newly visited ones; use {@link #newVisitedSet()} or other identity-based set
+	 * @param maxDepth positive, 1 - visit only direct children, 2 - also children of children, etc.
+	 * @param visitor is called for every newly visited object (once), except for the root;
+	 *                returns whether to traverse into the object's properties
+	 */
+	public void walk(BioPAXElement root, Set<BioPAXElement> visited, int maxDepth, Predicate<BioPAXElement> visitor)
+	{
+		visited.add(root);
+		boolean rootReached = false;
+		final Deque<BioPAXElement> queue = new ArrayDeque<>();
+		queue.add(root);
+		for (int depth = 1; depth <= maxDepth && !queue.isEmpty(); depth++)
+		{
+			for (int n = queue.size(); n > 0; n--)
+			{
+				BioPAXElement element = queue.poll();
+				for (PropertyAccessor accessor : accessorsOf(element))
+				{
+					for (Object value : accessor.getValueFromBean(element))
+					{
+						BioPAXElement child = (BioPAXElement) value;
+						if (child == null) {
+							continue;
+						}
+						if (visited.add(child)) {
+							if (visitor.test(child) && depth < maxDepth) {
+								queue.add(child);
+							}
+						} else if (child == root && !rootReached) {
+							rootReached = true;
+							visitor.test(child);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Passes the values of the element's properties (that pass the filters) to the action (no recursion).
+	 *
+	 * @param element BioPAX object
+	 * @param action what to do with each child object (can be called more than once for the same child)
+	 */
+	public void forEachChild(BioPAXElement element, Consumer<BioPAXElement> action)
+	{
+		for (PropertyAccessor accessor : accessorsOf(element))
+		{
+			for (Object value : accessor.getValueFromBean(element))
+			{
+				if (value != null) {
+					action.accept((BioPAXElement) value);
+				}
+			}
+		}
+	}
+
+	private PropertyAccessor[] accessorsOf(BioPAXElement element)
+	{
+		return accessors.computeIfAbsent(element.getModelInterface(), this::createAccessors);
+	}
+
+	private PropertyAccessor[] createAccessors(Class<? extends BioPAXElement> type)
+	{
+		List<PropertyAccessor> list = new ArrayList<>();
+		Set<PropertyEditor> editors = editorMap.getEditorsOf(type);
+		if (editors != null) {
+			for (PropertyEditor editor : editors) {
+				if (editor instanceof ObjectPropertyEditor && pass(editor, filters)) {
+					list.add(editor);
+				}
+			}
+		}
+		if (inverseFilters != null) {
+			Set<ObjectPropertyEditor> inverseEditors = editorMap.getInverseEditorsOf(type);
+			if (inverseEditors != null) {
+				for (ObjectPropertyEditor editor : inverseEditors) {
+					if (pass(editor, inverseFilters)) {
+						list.add(editor.getInverseAccessor());
+					}
+				}
+			}
+		}
+		return list.toArray(new PropertyAccessor[0]);
+	}
+
+	private static boolean pass(PropertyEditor editor, Filter<PropertyEditor>[] filters)
+	{
+		for (Filter<PropertyEditor> filter : filters)
+		{
+			if (!filter.filter(editor)) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -8,10 +8,15 @@ import org.biopax.paxtools.util.Filter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.function.Predicate;
 
 /**
  * A "simple" BioPAX merger, a utility class to merge
@@ -85,6 +90,10 @@ public class SimpleMerger
 	 * or empty for the best possible results. So, if your target is incomplete, 
 	 * or you are not quite sure, then do simply merge it as the first source 
 	 * to a new empty model or itself (or call {@link Model#repair()} first).
+	 * 
+	 * The objects of a source model are not traversed into again; only the child
+	 * objects missing from the source model are discovered, so merging
+	 * a self-integral model takes time linear in its size.
 	 *       
 	 * @param target model into which merging process will be done
 	 * @param sources models to be merged/updated to <em>target</em>; order can be important
@@ -93,7 +102,7 @@ public class SimpleMerger
 	{
 		for (Model source : sources)
 			if (source != null)
-				merge(target, source.getObjects());
+				merge(target, source.getObjects(), source::contains);
 	}
 
 
@@ -107,17 +116,46 @@ public class SimpleMerger
 	 * @param elements elements that are going to be merged/updated to <em>target</em>
 	 */
 	public void merge(Model target, Collection<? extends BioPAXElement> elements)
+	{
+		final Set<BioPAXElement> given = ObjectGraphWalker.newVisitedSet();
+		given.addAll(elements);
+		merge(target, elements, given::contains);
+	}
+
+
+	/**
+	 * Merges the <em>elements</em> and the child objects that are not among them
+	 * into the <em>target</em> model.
+	 *
+	 * The child objects are discovered in a single pass over the object properties
+	 * (each object is visited once, and the elements are not visited again);
+	 * so, when the elements are closed, as a self-integral source model is, nothing
+	 * but the elements themselves is merged, and the cost is linear in the size of the input.
+	 *
+	 * @param target model into which merging will be done
+	 * @param elements elements that are going to be merged/updated to <em>target</em>
+	 * @param included whether an object is one of the elements (e.g., is contained in the source model)
+	 */
+	private void merge(Model target, Collection<? extends BioPAXElement> elements,
+		Predicate<BioPAXElement> included)
 	{
 		@SuppressWarnings("unchecked")
-		final Fetcher fetcher = new Fetcher(map);
-		
+		final ObjectGraphWalker walker = new ObjectGraphWalker(map, Fetcher.objectPropertiesOnlyFilter);
+
 		// Auto-complete source 'elements' by discovering all the implicit elements there
 		// copy all elements, as the collection can be immutable or unsafe to add elements to
 		final Set<BioPAXElement> sources = new HashSet<>(elements);
-		for(BioPAXElement se : elements) {
-			sources.addAll(fetcher.fetch(se));
+		final Set<BioPAXElement> visited = ObjectGraphWalker.newVisitedSet();
+		final Deque<BioPAXElement> queue = new ArrayDeque<>(elements);
+		while (!queue.isEmpty()) {
+			walker.forEachChild(queue.poll(), child -> {
+				if (!included.test(child) && visited.add(child)) {
+					sources.add(child);
+					queue.add(child);
+				}
+			});
 		}
-				
+
 		// Next, we only copy elements having new URIs -
 		for (BioPAXElement bpe : sources)
 		{
@@ -196,17 +234,28 @@ public class SimpleMerger
 		{
 			if (editor instanceof ObjectPropertyEditor)
 			{
-				//copy prop. values (to avoid concurrent modification exception)
-				Collection<BioPAXElement> values = new HashSet<>(editor.getValueFromBean(source));
 				if(keep == source) //i.e., it has been just added to the target, - simply update properties
 				{
-					for (BioPAXElement value : values) {
-						migrateToTarget(source, target, editor, value);
+					//collect the values to replace (to avoid concurrent modification exception);
+					//mostly, there are none, and the values are not copied
+					List<BioPAXElement> values = null;
+					for (Object value : editor.getValueFromBean(source)) {
+						if (value != null && target.getByID(((BioPAXElement) value).getUri()) != value) {
+							if (values == null) values = new ArrayList<>();
+							values.add((BioPAXElement) value);
+						}
+					}
+					if (values != null) {
+						for (BioPAXElement value : values) {
+							migrateToTarget(source, target, editor, value);
+						}
 					}
 				} else //source is normally to be entirely replaced, but if it passes the filter,
 					if(mergePropOf !=null && mergePropOf.filter(source)
 						&& editor.isMultipleCardinality()) // and the prop. is multi-cardinality,
 				{
+					//copy prop. values (to avoid concurrent modification exception)
+					Collection<BioPAXElement> values = new HashSet<>(editor.getValueFromBean(source));
 					// - then we want to copy some values
 					for (BioPAXElement value : values) {
 						mergeToTarget(keep, target, editor, value);
@@ -3,10 +3,10 @@ package org.biopax.paxtools.controller;
 import org.biopax.paxtools.model.BioPAXElement;
 import org.biopax.paxtools.util.IllegalBioPAXArgumentException;
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.Collections;
 import java.util.Set;
+import java.util.function.Function;
 
 /**
 
@@ -20,10 +20,16 @@ public class SimplePropertyAccessor<D extends BioPAXElement, R> extends Property
 	 */
 	protected final Method getMethod;
 
+	/**
+	 * Generated function that calls the {@link #getMethod} (faster than reflection).
+	 */
+	private final Function<Object, Object> getter;
+
 	public SimplePropertyAccessor(Class<D> domain, Class<R> range, boolean multipleCardinality, Method getMethod)
 	{
 		super(domain, range, multipleCardinality);
 		this.getMethod = getMethod;
+		this.getter = MethodAccessors.getter(getMethod);
 	}
 
 	protected static boolean isMultipleCardinality(Method getMethod)
@@ -42,20 +48,13 @@ public class SimplePropertyAccessor<D extends BioPAXElement, R> extends Property
 		Object value = null;
 		try
 		{
-			if (this.getDomain().isInstance(bean)) value = this.getMethod.invoke(bean);
-		}
-		catch (IllegalAccessException e)
-		{
-			throw new IllegalBioPAXArgumentException(
-					"Could not invoke get method " + getMethod.getName() + " for " + bean, e);
+			if (this.getDomain().isInstance(bean)) value = this.getter.apply(bean);
 		}
-		catch (IllegalArgumentException e)
+		catch (IllegalBioPAXArgumentException e)
 		{
-			throw new IllegalBioPAXArgumentException(
-					"Could not invoke get method " + getMethod.getName() + " for " + bean, e);
+			throw e;
 		}
-
-		catch (InvocationTargetException e)
+		catch (RuntimeException e)
 		{
 			throw new IllegalBioPAXArgumentException(
 					"Could not invoke get method " + getMethod.getName() + " for " + bean, e);
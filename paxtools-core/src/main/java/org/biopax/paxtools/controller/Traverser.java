@@ -6,7 +6,6 @@ import org.biopax.paxtools.util.Filter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashSet;
 import java.util.Set;
 
 /**
@@ -85,7 +84,7 @@ public class Traverser
 
     protected void traverseElements(BioPAXElement element, Model model, PropertyEditor<?,?> editor, Set<?> valueSet)
     {
-        for (Object value : new HashSet<>(valueSet))
+        for (Object value : valueSet.toArray()) //a snapshot, for the visitor can modify the property
         {
         	visitor.visit(element, value, model, editor);
         }
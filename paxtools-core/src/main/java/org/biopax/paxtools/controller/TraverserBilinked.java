@@ -6,7 +6,6 @@ import org.biopax.paxtools.util.Filter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashSet;
 import java.util.Set;
 
 /**
@@ -61,9 +60,9 @@ public class TraverserBilinked extends Traverser
 		{
 			if (filterInverse(editor))
 			{
-					Set<BioPAXElement> valueSet = new HashSet<>(editor.getInverseAccessor().getValueFromBean(element));
-					if (!valueSet.isEmpty()) {
-						for (BioPAXElement value : valueSet) {
+					Object[] valueSet = editor.getInverseAccessor().getValueFromBean(element).toArray();
+					if (valueSet.length > 0) {
+						for (Object value : valueSet) {
 							if (value != null) {
 								//TODO how visitor knows whether it's called from inverse or normal property (e.g., to modify a value)?
 								visitor.visit(element, value, model, editor);
@@ -0,0 +1,108 @@
+package org.biopax.paxtools.impl;
+
+import org.biopax.paxtools.model.BioPAXElement;
+import org.biopax.paxtools.model.BioPAXFactory;
+import org.biopax.paxtools.util.IllegalBioPAXArgumentException;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A thread-safe {@link org.biopax.paxtools.model.Model} implementation
+ * for building and reading the model from many threads at once.
+ *
+ * Unlike {@link ModelImpl}, it does not lock the whole model:
+ * reads ({@link #getByID(String)}, {@link #containsID(String)}, {@link #contains(BioPAXElement)})
+ * are lock-free, and add/remove only lock one of the URI hash based stripes.
+ * Iterators of {@link #getObjects()} and {@link #getObjects(Class)} sets are weakly consistent
+ * (never throw ConcurrentModificationException, may or may not reflect concurrent changes).
+ *
+ * Bulk operations, such as {@link #merge(org.biopax.paxtools.model.Model)},
+ * {@link #replace(BioPAXElement, BioPAXElement)} and {@link #repair()},
+ * are still synchronized on the model (not atomic with respect to concurrent add/remove, though).
+ *
+ * Use {@link BioPAXFactory#createModel(boolean)} or set the
+ * {@link BioPAXFactory#PROPERTY_CONCURRENT_MODEL} java property to "true" to get one.
+ */
+public class ConcurrentModelImpl extends ModelImpl
+{
+	private static final long serialVersionUID = 5290151233458374629L;
+	private static final int STRIPES = 64; //power of 2
+
+	//write lock stripes of this model (a ReentrantLock is serializable, and it is always unlocked when read back)
+	private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+	public ConcurrentModelImpl(BioPAXFactory factory) {
+		super(new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+		setFactory(factory);
+		for(int i = 0; i < STRIPES; i++) {
+			locks[i] = new ReentrantLock();
+		}
+	}
+
+	private ReentrantLock lockFor(String uri) {
+		int h = uri.hashCode();
+		return locks[(h ^ (h >>> 16)) & (STRIPES - 1)];
+	}
+
+	@Override
+	public boolean containsID(String id) {
+		return id != null && idMap.containsKey(id);
+	}
+
+	@Override
+	public BioPAXElement getByID(String id) {
+		return (id == null) ? null : idMap.get(id);
+	}
+
+	@Override
+	public boolean contains(BioPAXElement aBioPAXElement) {
+		return idMap.get(aBioPAXElement.getUri()) == aBioPAXElement;
+	}
+
+	@Override
+	public void add(BioPAXElement aBioPAXElement) {
+		if(!getLevel().hasElement(aBioPAXElement)) {
+			throw new IllegalBioPAXArgumentException("Given object is of wrong level");
+		}
+		String uri = aBioPAXElement.getUri();
+		if (uri == null) {
+			throw new IllegalBioPAXArgumentException("URI is null, element: " + aBioPAXElement);
+		}
+		ReentrantLock lock = lockFor(uri);
+		lock.lock();
+		try {
+			BioPAXElement existing = idMap.putIfAbsent(uri, aBioPAXElement);
+			if(existing == aBioPAXElement) {
+				throw new IllegalBioPAXArgumentException("Duplicate element: " + aBioPAXElement);
+			} else if(existing != null) {
+				throw new IllegalBioPAXArgumentException("URI already exists: " + uri);
+			}
+			typeIndex.computeIfAbsent(aBioPAXElement.getClass(), k -> new ConcurrentHashMap<>())
+				.put(uri, aBioPAXElement);
+			modified();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public void remove(BioPAXElement aBioPAXElement) {
+		String uri = aBioPAXElement.getUri();
+		ReentrantLock lock = lockFor(uri);
+		lock.lock();
+		try {
+			if(idMap.get(uri) == aBioPAXElement) {
+				idMap.remove(uri);
+				Map<String, BioPAXElement> bucket = typeIndex.get(aBioPAXElement.getClass());
+				if(bucket != null) {
+					bucket.remove(uri);
+				}
+				modified();
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+}
@@ -9,9 +9,11 @@ import org.biopax.paxtools.model.BioPAXLevel;
 import org.biopax.paxtools.model.Model;
 import org.biopax.paxtools.util.BPCollections;
 import org.biopax.paxtools.util.ClassFilterSet;
+import org.biopax.paxtools.util.CompositeIterator;
 import org.biopax.paxtools.util.IllegalBioPAXArgumentException;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * This is the default implementation of the {@link Model}. Use a factory to create a model.
@@ -20,6 +22,8 @@ public class ModelImpl implements Model
 {
 	private static final long serialVersionUID = -2087521863213381434L;
 	protected final Map<String, BioPAXElement> idMap;
+	//secondary index: the element's implementation class to the URI-to-element map of such elements
+	protected final Map<Class<? extends BioPAXElement>, Map<String, BioPAXElement>> typeIndex;
 	private final Map<String, String> nameSpacePrefixMap;
 	private BioPAXLevel level;
 	private transient BioPAXFactory factory;
@@ -28,10 +32,26 @@ public class ModelImpl implements Model
 	private String xmlBase;
 	private String uri;
 	private String name;
+	//counts add/remove/bulk operations (see getModCount)
+	private final AtomicLong modCount = new AtomicLong();
 
 
 	protected ModelImpl() {
-		idMap = BPCollections.I.createMap();
+		this(BPCollections.I.createMap(), new HashMap<>());
+	}
+
+	/**
+	 * Creates a model that uses the given (empty) maps to store the elements,
+	 * e.g., concurrent ones (see {@link ConcurrentModelImpl}).
+	 *
+	 * @param idMap URI to BioPAX object map
+	 * @param typeIndex implementation class to URI-to-object map
+	 */
+	protected ModelImpl(Map<String, BioPAXElement> idMap,
+		Map<Class<? extends BioPAXElement>, Map<String, BioPAXElement>> typeIndex)
+	{
+		this.idMap = idMap;
+		this.typeIndex = typeIndex;
 		nameSpacePrefixMap = new HashMap<>(5);
 		exposedObjectSet = new UnmodifiableImplicitSet(idMap.values()); //a wrapper, no copying to save memory
 	}
@@ -84,19 +104,33 @@ public class ModelImpl implements Model
 	}
 
 
-	public synchronized Set<BioPAXElement> getObjects()
+	public Set<BioPAXElement> getObjects()
 	{
 		return exposedObjectSet;
 	}
 
-	public synchronized <T extends BioPAXElement> Set<T> getObjects(Class<T> filterBy)
+	/**
+	 * Returns a live unmodifiable view of the objects of the given type,
+	 * which is backed by the per-type index (no full model scan is needed
+	 * to get its size, check whether it's empty or to iterate over).
+	 *
+	 * @param filterBy class to be used as a filter.
+	 * @param <T> a BioPAX type
+	 * @return objects of the given class (unmodifiable set).
+	 */
+	public <T extends BioPAXElement> Set<T> getObjects(Class<T> filterBy)
 	{
-		return new ClassFilterSet<>(exposedObjectSet, filterBy);
+		if(filterBy == BioPAXElement.class) {
+			return (Set<T>) exposedObjectSet;
+		}
+		return new TypeIndexedSet<>(filterBy);
 	}
 
 	//a setter for persistence, serialize, tests
 	synchronized void setObjects(Collection<BioPAXElement> objects) {
 		idMap.clear();
+		typeIndex.clear();
+		modified(); //even if nothing is added
 		for(BioPAXElement bpe : objects) {
 			add(bpe);
 		}
@@ -104,11 +138,17 @@ public class ModelImpl implements Model
 
 	public synchronized void remove(BioPAXElement aBioPAXElement) {
 		if(contains(aBioPAXElement)) {
-			idMap.remove(aBioPAXElement.getUri());
+			String uri = aBioPAXElement.getUri();
+			idMap.remove(uri);
+			Map<String, BioPAXElement> bucket = typeIndex.get(aBioPAXElement.getClass());
+			if(bucket != null) {
+				bucket.remove(uri);
+			}
+			modified();
 		}
 	}
 
-	public synchronized <T extends BioPAXElement> T addNew(Class<T> c, String id)
+	public <T extends BioPAXElement> T addNew(Class<T> c, String id)
 	{
 		T e = factory.create(c, id);
 		this.add(e);
@@ -163,6 +203,9 @@ public class ModelImpl implements Model
 			throw new IllegalBioPAXArgumentException("URI already exists: " + uri);
 		} else {
 			idMap.put(uri, aBioPAXElement);
+			typeIndex.computeIfAbsent(aBioPAXElement.getClass(), k -> BPCollections.I.createMap())
+				.put(uri, aBioPAXElement);
+			modified();
 		}
 	}
 
@@ -262,6 +305,63 @@ public class ModelImpl implements Model
 		}
 	}
 
+	/**
+	 * An unmodifiable live view of the model objects that are instances of the given class.
+	 * It is backed by the {@link #typeIndex} buckets which implementation classes
+	 * are assignable to the filter class (there are only a few dozens of buckets),
+	 * unlike {@link ClassFilterSet}, which has to test every object in the model.
+	 *
+	 * @param <T> BioPAX type
+	 */
+	private class TypeIndexedSet<T extends BioPAXElement> extends AbstractSet<T>
+	{
+		private final Class<T> filterClass;
+
+		TypeIndexedSet(Class<T> filterClass)
+		{
+			this.filterClass = filterClass;
+		}
+
+		private List<Collection<BioPAXElement>> buckets()
+		{
+			List<Collection<BioPAXElement>> buckets = new ArrayList<>();
+			for(Map.Entry<Class<? extends BioPAXElement>, Map<String, BioPAXElement>> entry : typeIndex.entrySet()) {
+				if(filterClass.isAssignableFrom(entry.getKey()) && !entry.getValue().isEmpty()) {
+					buckets.add(entry.getValue().values());
+				}
+			}
+			return buckets;
+		}
+
+		public int size()
+		{
+			int size = 0;
+			for(Collection<BioPAXElement> bucket : buckets()) {
+				size += bucket.size();
+			}
+			return size;
+		}
+
+		public boolean isEmpty()
+		{
+			return buckets().isEmpty();
+		}
+
+		public boolean contains(Object o)
+		{
+			if(!filterClass.isInstance(o)) {
+				return false;
+			}
+			Map<String, BioPAXElement> bucket = typeIndex.get(o.getClass());
+			return bucket != null && o.equals(bucket.get(((BioPAXElement) o).getUri()));
+		}
+
+		public Iterator<T> iterator()
+		{
+			return new CompositeIterator<>((List) buckets());
+		}
+	}
+
 	/**
 	 * It does not automatically replace or clean up the old
 	 * element's object properties, therefore, some child
@@ -298,6 +398,8 @@ public class ModelImpl implements Model
 			merger.merge(this, this); //repairs itself
 		else
 			merger.merge(this, source);
+		//object properties may have been updated even if no element was added
+		modified();
 	}
 
 
@@ -330,4 +432,16 @@ public class ModelImpl implements Model
 	public int size() {
 		return idMap.size();
 	}
+
+	@Override
+	public long getModCount() {
+		return modCount.get();
+	}
+
+	/**
+	 * Increments the modification counter; to call after each change of the model.
+	 */
+	protected void modified() {
+		modCount.incrementAndGet();
+	}
 }
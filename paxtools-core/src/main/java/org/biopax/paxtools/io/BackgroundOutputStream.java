@@ -0,0 +1,168 @@
+package org.biopax.paxtools.io;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * An output stream that passes the data in fixed-size chunks to a background thread,
+ * which writes them to the target stream (e.g., a compressing one), so that
+ * the (compression) work overlaps the data serialization.
+ *
+ * Memory use is bounded: there are only a few chunks, which are recycled;
+ * the writing thread waits when the background one falls behind.
+ * Closing this stream waits for the background thread and closes the target stream;
+ * when the writing fails, {@link #abort()} stops the thread and closes the target too.
+ *
+ * Not thread-safe (one writing thread is expected).
+ */
+final class BackgroundOutputStream extends OutputStream
+{
+	private static final int CHUNKS = 4;
+
+	private static final class Chunk
+	{
+		final byte[] data;
+		int size;
+
+		Chunk(int capacity)
+		{
+			data = new byte[capacity];
+		}
+	}
+
+	private static final Chunk EOF = new Chunk(0);
+	private static final Chunk ABORT = new Chunk(0);
+
+	private final OutputStream target;
+	private final BlockingQueue<Chunk> full;
+	private final BlockingQueue<Chunk> free;
+	private final Thread worker;
+	private volatile Throwable error;
+	private Chunk chunk;
+	private boolean closed;
+	private boolean aborted;
+
+	BackgroundOutputStream(OutputStream target, int chunkSize)
+	{
+		this.target = target;
+		this.full = new ArrayBlockingQueue<>(CHUNKS + 1);
+		this.free = new ArrayBlockingQueue<>(CHUNKS);
+		for (int i = 1; i < CHUNKS; i++) {
+			free.add(new Chunk(chunkSize));
+		}
+		this.chunk = new Chunk(chunkSize);
+		this.worker = new Thread(this::drain, "paxtools-background-writer");
+		this.worker.setDaemon(true);
+		this.worker.start();
+	}
+
+	private void drain()
+	{
+		try {
+			Chunk c;
+			while ((c = full.take()) != EOF && c != ABORT) {
+				target.write(c.data, 0, c.size);
+				c.size = 0;
+				free.put(c);
+			}
+			target.close();
+		} catch (Throwable t) {
+			error = t;
+			free.offer(new Chunk(chunk.data.length)); //unblock the writer if it's waiting
+		}
+	}
+
+	@Override
+	public void write(int b) throws IOException
+	{
+		if (chunk.size == chunk.data.length) {
+			handOver();
+		}
+		chunk.data[chunk.size++] = (byte) b;
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException
+	{
+		while (len > 0) {
+			if (chunk.size == chunk.data.length) {
+				handOver();
+			}
+			int n = Math.min(len, chunk.data.length - chunk.size);
+			System.arraycopy(b, off, chunk.data, chunk.size, n);
+			chunk.size += n;
+			off += n;
+			len -= n;
+		}
+	}
+
+	private void handOver() throws IOException
+	{
+		checkError();
+		try {
+			full.put(chunk);
+			chunk = free.take();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException();
+		}
+		checkError();
+	}
+
+	private void checkError() throws IOException
+	{
+		Throwable t = error;
+		if (t != null) {
+			throw (t instanceof IOException) ? (IOException) t : new IOException(t);
+		}
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		if (closed) {
+			return;
+		}
+		closed = true;
+		checkError();
+		try {
+			full.put(chunk);
+			full.put(EOF);
+			worker.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException();
+		}
+		checkError();
+	}
+
+	/**
+	 * Stops the background thread without writing the pending data, and closes
+	 * the target stream; errors are ignored (to be called when the writing has failed).
+	 */
+	void abort()
+	{
+		if (aborted) {
+			return;
+		}
+		aborted = true;
+		closed = true; //also after a failed close()
+		full.clear();
+		full.offer(ABORT);
+		try {
+			worker.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		if (error != null) { //the thread stopped before closing the target
+			try {
+				target.close();
+			} catch (IOException e) {
+				//ignore
+			}
+		}
+	}
+}
@@ -0,0 +1,415 @@
+package org.biopax.paxtools.io;
+
+import org.biopax.paxtools.controller.EditorMap;
+import org.biopax.paxtools.controller.PropertyEditor;
+import org.biopax.paxtools.controller.SimpleEditorMap;
+import org.biopax.paxtools.model.BioPAXElement;
+import org.biopax.paxtools.model.BioPAXFactory;
+import org.biopax.paxtools.model.BioPAXLevel;
+import org.biopax.paxtools.model.Model;
+import org.biopax.paxtools.util.BioPaxIOException;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Compact binary snapshot format for BioPAX models,
+ * which is much faster to save and load than RDF/XML (no XML parsing, URI resolving, string processing).
+ *
+ * It is meant for caching models between application restarts, not for data exchange
+ * (use {@link SimpleIOHandler} for that).
+ *
+ * The format (all integers are unsigned variable-length, unless stated otherwise):
+ * <ul>
+ *   <li>header: "BPXB" magic bytes, format version (4 bytes), BioPAX level, model's xml:base, URI, name and namespaces;</li>
+ *   <li>the number of BioPAX objects, then each object's type and URI - defines the object's integer ID (its index);</li>
+ *   <li>the properties of each object (in the same order): the number of values, then each value as
+ *   a property reference and a tagged value (object ID, string, enum, number or boolean).</li>
+ * </ul>
+ * Strings (URIs, literals, type and property names) are interned: a string is written once,
+ * when first used, and later - by its index.
+ *
+ * Object property values that are not in the model (dangling) are not saved
+ * (same as they would be lost after the RDF/XML export/import), and inverse properties
+ * (e.g., xrefOf) are restored automatically.
+ */
+public final class BinaryModelIO
+{
+	private static final byte[] MAGIC = {'B', 'P', 'X', 'B'};
+
+	/**
+	 * Current format version.
+	 */
+	public static final int VERSION = 1;
+
+	private static final int NULL = 0; //string index reserved for null
+
+	//value tags
+	private static final int OBJECT = 0;
+	private static final int STRING = 1;
+	private static final int ENUM = 2;
+	private static final int INT = 3;
+	private static final int FLOAT = 4;
+	private static final int DOUBLE = 5;
+	private static final int BOOLEAN = 6;
+	private static final int LONG = 7;
+
+	private BinaryModelIO() {
+		throw new UnsupportedOperationException("Non-instantiable utility class.");
+	}
+
+	/**
+	 * Writes the model in the binary format to the output stream (and closes it).
+	 *
+	 * @param model BioPAX model
+	 * @param out output stream
+	 * @throws BioPaxIOException when there's an I/O error
+	 */
+	public static void write(Model model, OutputStream out)
+	{
+		try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(out, 1 << 16))) {
+			new Writer(model, dos).write();
+		} catch (IOException e) {
+			throw new BioPaxIOException("Failed writing the binary model", e);
+		}
+	}
+
+	/**
+	 * Reads a model from the input stream (and closes it).
+	 *
+	 * @param in input stream of a model saved with {@link #write(Model, OutputStream)}
+	 * @return new model
+	 * @throws BioPaxIOException when there's an I/O error or the data is not in the supported format
+	 */
+	public static Model read(InputStream in)
+	{
+		try (DataInputStream dis = new DataInputStream(new BufferedInputStream(in, 1 << 16))) {
+			return new Reader(dis).read();
+		} catch (IOException e) {
+			throw new BioPaxIOException("Failed reading the binary model", e);
+		}
+	}
+
+	/**
+	 * Reads a model from the file, which is memory-mapped (when it is smaller than 2Gb).
+	 *
+	 * @param file a model file saved with {@link #write(Model, OutputStream)}
+	 * @return new model
+	 * @throws BioPaxIOException when there's an I/O error or the data is not in the supported format
+	 */
+	public static Model read(Path file)
+	{
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			if (channel.size() >= Integer.MAX_VALUE) {
+				return read(new FileInputStream(file.toFile()));
+			}
+			ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			return new Reader(new DataInputStream(new ByteBufferInputStream(buffer))).read();
+		} catch (IOException e) {
+			throw new BioPaxIOException("Failed reading the binary model", e);
+		}
+	}
+
+
+	private static final class Writer
+	{
+		private final Model model;
+		private final DataOutputStream out;
+		private final EditorMap editorMap;
+		private final Map<String, Integer> strings = new HashMap<>();
+		private final Map<PropertyEditor, Integer> editors = new HashMap<>();
+		private final Map<BioPAXElement, Integer> ids = new IdentityHashMap<>();
+
+		Writer(Model model, DataOutputStream out)
+		{
+			this.model = model;
+			this.out = out;
+			this.editorMap = SimpleEditorMap.get(model.getLevel());
+		}
+
+		void write() throws IOException
+		{
+			out.write(MAGIC);
+			out.writeInt(VERSION);
+			writeString(model.getLevel().name());
+			writeString(model.getXmlBase());
+			writeString(model.getUri());
+			writeString(model.getName());
+			Map<String, String> ns = model.getNameSpacePrefixMap();
+			writeVarInt(ns.size());
+			for (Map.Entry<String, String> entry : ns.entrySet()) {
+				writeString(entry.getKey());
+				writeString(entry.getValue());
+			}
+
+			//objects; the ID is the index
+			Collection<BioPAXElement> objects = model.getObjects();
+			List<BioPAXElement> elements = new ArrayList<>(objects);
+			writeVarInt(elements.size());
+			for (BioPAXElement bpe : elements) {
+				ids.put(bpe, ids.size());
+				writeString(bpe.getModelInterface().getSimpleName());
+				writeString(bpe.getUri());
+			}
+
+			//properties
+			List<PropertyEditor> props = new ArrayList<>();
+			List<Object> values = new ArrayList<>();
+			for (BioPAXElement bpe : elements) {
+				props.clear();
+				values.clear();
+				Set<PropertyEditor> beanEditors = editorMap.getEditorsOf(bpe);
+				if (beanEditors != null) {
+					for (PropertyEditor editor : beanEditors) {
+						for (Object value : editor.getValueFromBean(bpe)) {
+							if (editor.isUnknown(value)
+								|| (value instanceof BioPAXElement && !ids.containsKey(value))) {
+								continue; //skip unknown or dangling value
+							}
+							props.add(editor);
+							values.add(value);
+						}
+					}
+				}
+				writeVarInt(props.size());
+				for (int i = 0; i < props.size(); i++) {
+					writeEditor(props.get(i));
+					writeValue(values.get(i));
+				}
+			}
+		}
+
+		//a new editor is written as the property name (resolved for the type of the object being read)
+		private void writeEditor(PropertyEditor editor) throws IOException
+		{
+			Integer idx = editors.get(editor);
+			if (idx != null) {
+				writeVarInt(idx + 1);
+			} else {
+				editors.put(editor, editors.size());
+				writeVarInt(0); //define a new one
+				writeString(editor.getProperty());
+			}
+		}
+
+		private void writeValue(Object value) throws IOException
+		{
+			if (value instanceof BioPAXElement) {
+				out.writeByte(OBJECT);
+				writeVarInt(ids.get(value));
+			} else if (value instanceof String) {
+				out.writeByte(STRING);
+				writeString((String) value);
+			} else if (value instanceof Enum) {
+				out.writeByte(ENUM);
+				writeString(((Enum<?>) value).name());
+			} else if (value instanceof Integer) {
+				out.writeByte(INT);
+				out.writeInt((Integer) value);
+			} else if (value instanceof Float) {
+				out.writeByte(FLOAT);
+				out.writeFloat((Float) value);
+			} else if (value instanceof Double) {
+				out.writeByte(DOUBLE);
+				out.writeDouble((Double) value);
+			} else if (value instanceof Boolean) {
+				out.writeByte(BOOLEAN);
+				out.writeBoolean((Boolean) value);
+			} else if (value instanceof Long) {
+				out.writeByte(LONG);
+				out.writeLong((Long) value);
+			} else {
+				throw new BioPaxIOException("Unsupported value type: " + value.getClass());
+			}
+		}
+
+		//an interned string: 0 - null; 1 - new string follows; else - (index + 2) of a string written before
+		private void writeString(String s) throws IOException
+		{
+			if (s == null) {
+				writeVarInt(NULL);
+				return;
+			}
+			Integer idx = strings.get(s);
+			if (idx != null) {
+				writeVarInt(idx + 2);
+			} else {
+				strings.put(s, strings.size());
+				writeVarInt(1);
+				byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+				writeVarInt(bytes.length);
+				out.write(bytes);
+			}
+		}
+
+		private void writeVarInt(int v) throws IOException
+		{
+			while ((v & ~0x7F) != 0) {
+				out.writeByte((v & 0x7F) | 0x80);
+				v >>>= 7;
+			}
+			out.writeByte(v);
+		}
+	}
+
+
+	private static final class Reader
+	{
+		private final DataInputStream in;
+		private final List<String> strings = new ArrayList<>();
+		private final List<PropertyEditor> editors = new ArrayList<>();
+		private EditorMap editorMap;
+		private BioPAXLevel level;
+
+		Reader(DataInputStream in)
+		{
+			this.in = in;
+		}
+
+		Model read() throws IOException
+		{
+			byte[] magic = new byte[MAGIC.length];
+			in.readFully(magic);
+			if (!Arrays.equals(MAGIC, magic)) {
+				throw new BioPaxIOException("Not a binary BioPAX model");
+			}
+			int version = in.readInt();
+			if (version != VERSION) {
+				throw new BioPaxIOException("Unsupported binary BioPAX model version: " + version);
+			}
+			level = BioPAXLevel.valueOf(readString());
+			editorMap = SimpleEditorMap.get(level);
+			BioPAXFactory factory = level.getDefaultFactory();
+			Model model = factory.createModel();
+			model.setXmlBase(readString());
+			model.setUri(readString());
+			model.setName(readString());
+			for (int n = readVarInt(); n > 0; n--) {
+				model.getNameSpacePrefixMap().put(readString(), readString());
+			}
+
+			BioPAXElement[] elements = new BioPAXElement[readVarInt()];
+			for (int i = 0; i < elements.length; i++) {
+				String type = readString();
+				String uri = readString();
+				BioPAXElement bpe = factory.create(level.getInterfaceForName(type), uri);
+				model.add(bpe);
+				elements[i] = bpe;
+			}
+
+			for (BioPAXElement bpe : elements) {
+				for (int n = readVarInt(); n > 0; n--) {
+					PropertyEditor editor = readEditor(bpe);
+					Object value = readValue(elements, editor);
+					editor.setValueToBean(value, bpe);
+				}
+			}
+
+			return model;
+		}
+
+		private PropertyEditor readEditor(BioPAXElement bpe) throws IOException
+		{
+			int idx = readVarInt();
+			if (idx > 0) {
+				return editors.get(idx - 1);
+			}
+			String property = readString();
+			PropertyEditor editor = editorMap.getEditorForProperty(property, bpe.getModelInterface());
+			if (editor == null) {
+				throw new BioPaxIOException("Unknown property: " + property + " of " + bpe.getModelInterface().getSimpleName());
+			}
+			editors.add(editor);
+			return editor;
+		}
+
+		private Object readValue(BioPAXElement[] elements, PropertyEditor editor) throws IOException
+		{
+			int tag = in.readByte();
+			switch (tag) {
+				case OBJECT:
+					return elements[readVarInt()];
+				case STRING:
+					return readString();
+				case ENUM:
+					return Enum.valueOf((Class<Enum>) editor.getRange(), readString());
+				case INT:
+					return in.readInt();
+				case FLOAT:
+					return in.readFloat();
+				case DOUBLE:
+					return in.readDouble();
+				case BOOLEAN:
+					return in.readBoolean();
+				case LONG:
+					return in.readLong();
+				default:
+					throw new BioPaxIOException("Unknown value tag: " + tag);
+			}
+		}
+
+		private String readString() throws IOException
+		{
+			int idx = readVarInt();
+			if (idx == NULL) {
+				return null;
+			} else if (idx > 1) {
+				return strings.get(idx - 2);
+			}
+			byte[] bytes = new byte[readVarInt()];
+			in.readFully(bytes);
+			String s = new String(bytes, StandardCharsets.UTF_8);
+			strings.add(s);
+			return s;
+		}
+
+		private int readVarInt() throws IOException
+		{
+			int v = 0;
+			for (int shift = 0; shift < 35; shift += 7) {
+				int b = in.readByte();
+				v |= (b & 0x7F) << shift;
+				if ((b & 0x80) == 0) {
+					return v;
+				}
+			}
+			throw new BioPaxIOException("Malformed variable-length integer");
+		}
+	}
+
+
+	private static final class ByteBufferInputStream extends InputStream
+	{
+		private final ByteBuffer buffer;
+
+		ByteBufferInputStream(ByteBuffer buffer)
+		{
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read()
+		{
+			return buffer.hasRemaining() ? (buffer.get() & 0xFF) : -1;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len)
+		{
+			if (len == 0) {
+				return 0;
+			}
+			if (!buffer.hasRemaining()) {
+				return -1;
+			}
+			int n = Math.min(len, buffer.remaining());
+			buffer.get(b, off, n);
+			return n;
+		}
+	}
+}
@@ -0,0 +1,386 @@
+package org.biopax.paxtools.io;
+
+import org.apache.commons.lang3.StringUtils;
+import org.biopax.paxtools.controller.EditorMap;
+import org.biopax.paxtools.controller.ObjectPropertyEditor;
+import org.biopax.paxtools.controller.PropertyEditor;
+import org.biopax.paxtools.controller.SimpleEditorMap;
+import org.biopax.paxtools.model.BioPAXElement;
+import org.biopax.paxtools.model.BioPAXLevel;
+import org.biopax.paxtools.util.BioPaxIOException;
+import org.biopax.paxtools.util.IllegalBioPAXArgumentException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.function.Consumer;
+
+import static javax.xml.stream.XMLStreamConstants.*;
+
+/**
+ * Streaming (event-based) BioPAX RDF/XML reader.
+ *
+ * Unlike {@link SimpleIOHandler}, it does not create BioPAX objects and never builds a {@link org.biopax.paxtools.model.Model};
+ * instead, it passes each BioPAX individual as a lightweight {@link Individual} record
+ * (URI, type, data property values, object property value URIs - not resolved) to the consumer
+ * as soon as the individual's XML element ends (i.e., nested individuals come before their parent).
+ * Memory use does not depend on the data size, which makes it suitable for one-pass jobs,
+ * such as counting the BioPAX types or collecting xref IDs, over very large files.
+ *
+ * Same as {@link SimpleIOHandler}, it skips non-BioPAX XML elements and abstract BioPAX types,
+ * converts rdfs:comment to the BioPAX comment, and resolves relative (rdf:ID, #id) URIs using the xml:base.
+ */
+public final class BioPAXStreamReader
+{
+	private static final Logger log = LoggerFactory.getLogger(BioPAXStreamReader.class);
+
+	private static final String rdf = "http://www.w3.org/1999/02/22-rdf-syntax-ns#";
+
+	private static final String rdfs = "http://www.w3.org/2000/01/rdf-schema#";
+
+	private static final String owl = "http://www.w3.org/2002/07/owl#";
+
+	private XMLStreamReader r;
+
+	private BioPAXLevel level;
+
+	private EditorMap editorMap;
+
+	private String base;
+
+	private Map<String, String> namespaces;
+
+
+	/**
+	 * A BioPAX individual as it was read from the RDF/XML stream.
+	 */
+	public static final class Individual
+	{
+		private final String uri;
+		private final Class<? extends BioPAXElement> type;
+		private final Map<String, List<String>> dataProperties;
+		private final Map<String, List<String>> objectProperties;
+
+		Individual(String uri, Class<? extends BioPAXElement> type)
+		{
+			this.uri = uri;
+			this.type = type;
+			this.dataProperties = new LinkedHashMap<>();
+			this.objectProperties = new LinkedHashMap<>();
+		}
+
+		/**
+		 * @return absolute URI of the individual
+		 */
+		public String getUri()
+		{
+			return uri;
+		}
+
+		/**
+		 * @return BioPAX type (model interface)
+		 */
+		public Class<? extends BioPAXElement> getType()
+		{
+			return type;
+		}
+
+		/**
+		 * @return data property name to the values (normalized strings, in the document order) map
+		 */
+		public Map<String, List<String>> getDataProperties()
+		{
+			return Collections.unmodifiableMap(dataProperties);
+		}
+
+		/**
+		 * @return object property name to the value URIs (in the document order) map
+		 */
+		public Map<String, List<String>> getObjectProperties()
+		{
+			return Collections.unmodifiableMap(objectProperties);
+		}
+
+		/**
+		 * @param property BioPAX data property name
+		 * @return values (not null)
+		 */
+		public List<String> getDataValues(String property)
+		{
+			return dataProperties.getOrDefault(property, Collections.emptyList());
+		}
+
+		/**
+		 * @param property BioPAX object property name
+		 * @return value URIs (not null)
+		 */
+		public List<String> getObjectValues(String property)
+		{
+			return objectProperties.getOrDefault(property, Collections.emptyList());
+		}
+
+		@Override
+		public String toString()
+		{
+			return type.getSimpleName() + " " + uri;
+		}
+	}
+
+
+	/**
+	 * Reads the BioPAX RDF/XML input stream (and closes it) and
+	 * passes the individuals to the consumer one by one.
+	 *
+	 * The BioPAX level, xml:base and namespaces (header) are available
+	 * (via the getters) when the first individual is passed to the consumer.
+	 *
+	 * @param in BioPAX RDF/XML input stream
+	 * @param consumer a callback for the individuals
+	 * @throws BioPaxIOException when there is an XML stream or BioPAX level problem
+	 */
+	public void read(InputStream in, Consumer<Individual> consumer)
+	{
+		try {
+			XMLInputFactory xmlf = XMLInputFactory.newInstance();
+			//this is to return string with encoded chars as one event (not splitting)
+			xmlf.setProperty("javax.xml.stream.isCoalescing", true);
+			r = xmlf.createXMLStreamReader(in);
+			readHeader();
+			readIndividuals(consumer);
+			r.close();
+		} catch (XMLStreamException e) {
+			throw new BioPaxIOException(e.getClass().getSimpleName() + " " + e.getMessage() + "; " + e.getLocation(), e);
+		} finally {
+			r = null;
+			try {
+				in.close();
+			} catch (IOException e) {
+				log.warn("Failed to close the input stream: " + e);
+			}
+		}
+	}
+
+	/**
+	 * @return BioPAX level of the data (auto-detected)
+	 */
+	public BioPAXLevel getLevel()
+	{
+		return level;
+	}
+
+	/**
+	 * @return xml:base of the data or null
+	 */
+	public String getXmlBase()
+	{
+		return base;
+	}
+
+	/**
+	 * @return namespace prefix to URI map of the data
+	 */
+	public Map<String, String> getNamespaces()
+	{
+		return namespaces;
+	}
+
+	private void readHeader() throws XMLStreamException
+	{
+		if (r.getEventType() != START_DOCUMENT) {
+			throw new BioPaxIOException("Unexpected element at start");
+		}
+		r.next();
+		// Skip any comment before we read the RDF headers
+		while (r.getEventType() == COMMENT) {
+			r.next();
+		}
+		if (r.getEventType() != START_ELEMENT || !r.getLocalName().equalsIgnoreCase("rdf")) {
+			throw new BioPaxIOException("Unexpected element at start: " + getXmlStreamInfo());
+		}
+
+		namespaces = new HashMap<>();
+		level = null;
+		for (int i = 0; i < r.getNamespaceCount(); i++) {
+			String pre = StringUtils.defaultString(r.getNamespacePrefix(i));
+			String namespace = r.getNamespaceURI(pre);
+			namespaces.put(pre, namespace);
+			if (level == null) {
+				level = BioPAXLevel.getLevelFromNameSpace(namespace);
+			}
+		}
+		if (level == null) {
+			throw new BioPaxIOException("Cannot detect BioPAX Level.");
+		}
+		editorMap = SimpleEditorMap.get(level);
+
+		base = null;
+		for (int i = 0; i < r.getAttributeCount(); i++) {
+			if ("base".equalsIgnoreCase(r.getAttributeLocalName(i)) && "xml".equalsIgnoreCase(r.getAttributePrefix(i))) {
+				base = r.getAttributeValue(i);
+			}
+		}
+		r.next();
+	}
+
+	private void readIndividuals(Consumer<Individual> consumer) throws XMLStreamException
+	{
+		while (r.getEventType() != END_DOCUMENT) {
+			if (r.getEventType() == START_ELEMENT) {
+				final String nsUri = StringUtils.defaultString(r.getNamespaceURI());
+				if (BioPAXLevel.isInBioPAXNameSpace(nsUri)) {
+					processIndividual(consumer);
+				} else if (!rdf.equalsIgnoreCase(nsUri) && !owl.equalsIgnoreCase(nsUri)) {
+					log.warn("Ignoring non-biopax type {}{}", nsUri, getXmlStreamInfo());
+					skip();
+				} //else - ignore owl: and rdf: tags but not their content (same as SimpleIOHandler does)
+			}
+			r.next();
+		}
+	}
+
+	/*
+	 * Reads the individual at the current START_ELEMENT until its END_ELEMENT,
+	 * passes it to the consumer and returns its URI (or null if it was skipped).
+	 */
+	private String processIndividual(Consumer<Individual> consumer) throws XMLStreamException
+	{
+		final String id = getId();
+		final Class<? extends BioPAXElement> type;
+		try {
+			type = level.getInterfaceForName(r.getLocalName());
+		} catch (IllegalBioPAXArgumentException e) {
+			throw new BioPaxIOException(String.format("Unknown/misplaced BioPAX %s element: %s",
+				level, getXmlStreamInfo()), e);
+		}
+		if (!level.getDefaultFactory().canInstantiate(type)) {
+			log.error("Ignoring abstract type: {}", getXmlStreamInfo());
+			skip();
+			return id; //same as SimpleIOHandler does, it can still become a property value
+		}
+		if (id == null) {
+			throw new BioPaxIOException(String.format("Error processing %s (rdf:ID/rdf:about not found)",
+				getXmlStreamInfo()));
+		}
+
+		final Individual individual = new Individual(id, type);
+		r.next();
+		while (r.getEventType() != END_ELEMENT) {
+			if (r.getEventType() == START_ELEMENT) {
+				processProperty(individual, consumer);
+			}
+			r.next();
+		}
+		consumer.accept(individual);
+
+		return id;
+	}
+
+	private void processProperty(Individual individual, Consumer<Individual> consumer) throws XMLStreamException
+	{
+		final String nsUri = r.getNamespaceURI();
+		if (rdfs.equals(nsUri) && "comment".equals(r.getLocalName())) {
+			String text = r.getElementText();
+			add(individual.dataProperties, (level == BioPAXLevel.L3) ? "comment" : "COMMENT",
+				StringUtils.trimToEmpty(text));
+		} else if (level.getNameSpace().equals(nsUri)) {
+			final String property = r.getLocalName();
+			String value = r.getAttributeValue(rdf, "resource");
+			boolean isObject = (value != null);
+			if (value != null) {
+				if (value.startsWith("#")) {
+					value = StringUtils.defaultString(base) + value.substring(1);
+				}
+				skip();
+			} else {
+				r.next();
+				StringBuilder text = null;
+				while (r.getEventType() != END_ELEMENT) {
+					if (!isObject && r.getEventType() == CHARACTERS) {
+						if (text == null) {
+							text = new StringBuilder();
+						}
+						text.append(r.getText());
+					} else if (r.getEventType() == START_ELEMENT) {
+						value = processIndividual(consumer); //nested individual goes first
+						isObject = true;
+					}
+					r.next();
+				}
+				if (!isObject && text != null) {
+					value = text.toString().replaceAll("\\s+", " ").trim();
+				}
+			}
+
+			if (value == null) {
+				log.warn("No value for {} of {}", property, individual.uri);
+				return;
+			}
+
+			PropertyEditor editor = editorMap.getEditorForProperty(property, individual.type);
+			if (editor == null) {
+				log.warn("Unknown property {} of {}", property, individual);
+			}
+			if (editor instanceof ObjectPropertyEditor || (editor == null && isObject)) {
+				add(individual.objectProperties, property, value);
+			} else {
+				add(individual.dataProperties, property, value);
+			}
+		} else {
+			log.warn("Ignoring unknown prop of {}: {}{}", individual.uri, StringUtils.defaultString(nsUri), r.getLocalName());
+			skip();
+		}
+	}
+
+	private static void add(Map<String, List<String>> properties, String property, String value)
+	{
+		properties.computeIfAbsent(property, k -> new ArrayList<>(2)).add(value);
+	}
+
+	private String getId()
+	{
+		String id = r.getAttributeValue(rdf, "ID");
+		if (id == null) {
+			id = r.getAttributeValue(rdf, "about");
+			if (id != null && id.startsWith("#")) {
+				id = base + id.substring(1);
+			}
+		} else if (base != null) {
+			id = base + id;
+		}
+		return id;
+	}
+
+	/*
+	 * Moves from the current START_ELEMENT to the matching END_ELEMENT.
+	 */
+	private void skip() throws XMLStreamException
+	{
+		int depth = 1;
+		while (depth > 0) {
+			r.next();
+			if (r.getEventType() == START_ELEMENT) {
+				depth++;
+			} else if (r.getEventType() == END_ELEMENT) {
+				depth--;
+			}
+		}
+	}
+
+	private String getXmlStreamInfo()
+	{
+		StringBuilder sb = new StringBuilder();
+		if (r.hasName()) {
+			sb.append(r.getLocalName());
+		}
+		if (r.getLocation() != null) {
+			sb.append(" at line ").append(r.getLocation().getLineNumber())
+				.append(" column ").append(r.getLocation().getColumnNumber());
+		}
+		return sb.toString();
+	}
+}
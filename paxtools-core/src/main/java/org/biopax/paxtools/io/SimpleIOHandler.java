@@ -2,6 +2,7 @@ package org.biopax.paxtools.io;
 
 import org.apache.commons.lang3.StringUtils;
 import org.biopax.paxtools.controller.AbstractPropertyEditor;
+import org.biopax.paxtools.controller.ObjectPropertyEditor;
 import org.biopax.paxtools.controller.PropertyEditor;
 import org.biopax.paxtools.controller.SimpleEditorMap;
 import org.biopax.paxtools.controller.StringPropertyEditor;
@@ -23,6 +24,7 @@ import java.io.*;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.zip.GZIPOutputStream;
 
 import static javax.xml.stream.XMLStreamConstants.*;
 import static org.apache.commons.lang3.StringEscapeUtils.*;
@@ -57,6 +59,36 @@ public final class SimpleIOHandler extends BioPAXIOHandlerAdapter
 
 	private boolean absoluteUris;
 
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private Compressor compressor;
+
+	//per BioPAX type properties to export (cached)
+	private Map<Class<? extends BioPAXElement>, WriterProperty[]> writerProperties;
+
+	/**
+	 * Output stream compression, which, when set, the writer
+	 * runs in a background thread (overlapping the RDF/XML serialization).
+	 *
+	 * @see #compressor(Compressor)
+	 */
+	@FunctionalInterface
+	public interface Compressor
+	{
+		/**
+		 * Wraps the stream with a compressing one (e.g., GZIPOutputStream, or ZstdOutputStream from zstd-jni)
+		 * @param out the output stream
+		 * @return compressing output stream, which closes the original one
+		 * @throws IOException when the stream cannot be created
+		 */
+		OutputStream compress(OutputStream out) throws IOException;
+	}
+
+	/**
+	 * The GZIP output compression.
+	 */
+	public static final Compressor GZIP = out -> new GZIPOutputStream(out, BUFFER_SIZE);
+
 
 	// --------------------------- CONSTRUCTORS ---------------------------
 
@@ -121,6 +153,7 @@ public final class SimpleIOHandler extends BioPAXIOHandlerAdapter
 	protected void resetEditorMap()
 	{
 		setEditorMap(SimpleEditorMap.get(this.getLevel())); // was 'level' - bug!
+		writerProperties = null;
 	}
 
 	/**
@@ -568,16 +601,32 @@ public final class SimpleIOHandler extends BioPAXIOHandlerAdapter
 	{
 		initializeExporter(model);
 
+		BackgroundOutputStream background = null;
+		boolean done = false;
 		try
 		{
-			Writer out = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+			OutputStream os = outputStream;
+			if (compressor != null)
+			{
+				background = new BackgroundOutputStream(compressor.compress(outputStream), BUFFER_SIZE);
+				os = background;
+			}
+			Writer out = new Utf8Writer(os, BUFFER_SIZE);
 			writeObjects(out, model);
 			out.close();
+			done = true;
 		}
 		catch (IOException e)
 		{
 			throw new BioPaxIOException("Cannot convert to OWL!", e);
 		}
+		finally
+		{
+			if (!done && background != null)
+			{
+				background.abort(); //stops the compressing thread and closes the streams
+			}
+		}
 	}
 
 
@@ -594,27 +643,75 @@ public final class SimpleIOHandler extends BioPAXIOHandlerAdapter
 	 */
 	public void writeObject(Writer out, BioPAXElement bean) throws IOException
 	{
-		String name = "bp:" + bean.getModelInterface().getSimpleName();
+		String name = bean.getModelInterface().getSimpleName();
 		writeIDLine(out, bean, name);
 
-		Set<PropertyEditor> editors = editorMap.getEditorsOf(bean);
-		if (editors == null || editors.isEmpty())
+		WriterProperty[] properties = getWriterProperties(bean.getModelInterface());
+		if (properties.length == 0)
 		{
-			log.info("no editors for " + bean.getUri() + " | " + bean.getModelInterface().getSimpleName());
-			out.write(newline + "</" + name + ">");
-			return;
+			log.info("no editors for " + bean.getUri() + " | " + name);
 		}
 
-		for (PropertyEditor editor : editors)
+		for (WriterProperty property : properties)
 		{
-			Set value = editor.getValueFromBean(bean); //is never null
+			Set value = property.editor.getValueFromBean(bean); //is never null
 			for (Object valueElement : value)
 			{
-				if (!editor.isUnknown(valueElement)) writeStatementFor(bean, editor, valueElement, out);
+				if (!property.editor.isUnknown(valueElement)) writeStatementFor(bean, property, valueElement, out);
 			}
 		}
 
-		out.write(newline + "</" + name + ">");
+		out.write(newline);
+		out.write("</bp:");
+		out.write(name);
+		out.write('>');
+	}
+
+	/*
+	 * A property editor and what we need to export its values (cached for each BioPAX type)
+	 */
+	private static final class WriterProperty
+	{
+		private final PropertyEditor editor;
+		private final String tag; //e.g. "bp:name"
+		private final String datatype; //e.g., ' rdf:datatype = "...#string"' or ""
+		private final boolean isName;
+		private final boolean isStepProcess;
+
+		private WriterProperty(PropertyEditor editor, String datatype)
+		{
+			this.editor = editor;
+			this.tag = "bp:" + editor.getProperty();
+			this.datatype = datatype;
+			this.isName = editor.getProperty().equalsIgnoreCase("name");
+			this.isStepProcess = editor.getProperty().equalsIgnoreCase("stepProcess");
+		}
+	}
+
+	private WriterProperty[] getWriterProperties(Class<? extends BioPAXElement> type)
+	{
+		if (writerProperties == null)
+		{
+			writerProperties = new HashMap<>();
+		}
+		WriterProperty[] properties = writerProperties.get(type);
+		if (properties == null)
+		{
+			Set<PropertyEditor> editors = editorMap.getEditorsOf(type);
+			List<WriterProperty> list = new ArrayList<>();
+			if (editors != null)
+			{
+				for (PropertyEditor editor : editors)
+				{
+					String literalType = (editor instanceof ObjectPropertyEditor) ? null : findLiteralType(editor);
+					list.add(new WriterProperty(editor,
+						StringUtils.isNotBlank(literalType) ? " rdf:datatype = \"" + xsd + literalType + "\"" : ""));
+				}
+			}
+			properties = list.toArray(new WriterProperty[0]);
+			writerProperties.put(type, properties);
+		}
+		return properties;
 	}
 
 
@@ -632,13 +729,13 @@ public final class SimpleIOHandler extends BioPAXIOHandlerAdapter
 	}
 
 
-	private void writeStatementFor(BioPAXElement bean, PropertyEditor editor, Object value, Writer out)
+	private void writeStatementFor(BioPAXElement bean, WriterProperty property, Object value, Writer out)
 			throws IOException
 	{
-		assert (bean != null && editor != null && value != null);
+		assert (bean != null && property != null && value != null);
 
 		//fix (for L3 only): skip 'name' if it's present in the displayName, etc..
-		if (editor.getProperty().equalsIgnoreCase("name") && bean instanceof Named)
+		if (property.isName && bean instanceof Named)
 		{ // the latter maybe not necessary...
 			Named named = (Named) bean;
 			if(value.equals(named.getDisplayName()) || value.equals(named.getStandardName()))
@@ -647,7 +744,7 @@ public final class SimpleIOHandler extends BioPAXIOHandlerAdapter
 			}
 		}
 		
-		if (editor.getProperty().equalsIgnoreCase("stepProcess") && bean instanceof BiochemicalPathwayStep)
+		if (property.isStepProcess && bean instanceof BiochemicalPathwayStep)
 		{
 			BiochemicalPathwayStep bps = (BiochemicalPathwayStep) bean;
 			if(value.equals(bps.getStepConversion()))
@@ -656,26 +753,32 @@ public final class SimpleIOHandler extends BioPAXIOHandlerAdapter
 			}
 		}
 
-		String prop = "bp:" + editor.getProperty();
-		out.write(newline + " <" + prop);
+		out.write(newline);
+		out.write(" <");
+		out.write(property.tag);
 
 		if (value instanceof BioPAXElement)
 		{
 			String id = ((BioPAXElement) value).getUri();
 			assert id != null;
+			out.write(" rdf:resource=\"");
 			if (!absoluteUris && base != null && id.startsWith(base))
 			{
-				id = '#' + id.substring(base.length());
+				out.write('#');
+				out.write(id, base.length(), id.length() - base.length());
+			} else
+			{
+				out.write(id);
 			}
-			out.write(" rdf:resource=\"" + id + "\" />");
+			out.write("\" />");
 		} else
 		{
-			String type = findLiteralType(editor);
-			String valString = escapeXml(value.toString());
-			if(StringUtils.isNotBlank(type)) {
-				out.write(" rdf:datatype = \"" + xsd + type + "\"");
-			}
-			out.write(">" + valString + "</" + prop + ">");
+			out.write(property.datatype);
+			out.write('>');
+			out.write(escapeXml(value.toString()));
+			out.write("</");
+			out.write(property.tag);
+			out.write('>');
 		}
 	}
 
@@ -709,16 +812,22 @@ public final class SimpleIOHandler extends BioPAXIOHandlerAdapter
 
 	private void writeIDLine(Writer out, BioPAXElement bpe, String name) throws IOException
 	{
-		out.write(newline + newline + "<" + name + " ");
+		out.write(newline);
+		out.write(newline);
+		out.write("<bp:");
+		out.write(name);
+		out.write(' ');
 		String s = bpe.getUri();
 		if (!absoluteUris &&  base != null && s.startsWith(base))
 		{
-			String id = s.substring(base.length());
-			out.write(RDF_ID + id + close);
+			out.write(RDF_ID);
+			out.write(s, base.length(), s.length() - base.length());
 		} else
 		{
-			out.write(RDF_about + s + close);
+			out.write(RDF_about);
+			out.write(s);
 		}
+		out.write(close);
 	}
 
 
@@ -862,6 +971,27 @@ public final class SimpleIOHandler extends BioPAXIOHandlerAdapter
 		return this.normalizeNameSpaces;
 	}
 
+	/**
+	 * Sets the output compression (default is none) for {@link #convertToOWL(Model, OutputStream)}.
+	 * When set, the RDF/XML is compressed in a background thread (using a few memory buffers),
+	 * while the model is being serialized.
+	 *
+	 * @param compressor e.g., {@link #GZIP}, or null (no compression)
+	 */
+	public void compressor(Compressor compressor)
+	{
+		this.compressor = compressor;
+	}
+
+	/**
+	 * @see #compressor(Compressor)
+	 * @return output compressor or null
+	 */
+	public Compressor getCompressor()
+	{
+		return this.compressor;
+	}
+
 	/**
 	 * @see #mergeDuplicates(boolean)
 	 * @return true/false
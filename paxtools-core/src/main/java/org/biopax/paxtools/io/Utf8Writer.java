@@ -0,0 +1,126 @@
+package org.biopax.paxtools.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * A buffered writer that encodes characters to UTF-8 bytes directly into
+ * one reusable byte buffer (no intermediate char buffer, encoder or per-call arrays),
+ * which is then flushed to the output stream when full.
+ *
+ * Not thread-safe.
+ */
+final class Utf8Writer extends Writer
+{
+	private final OutputStream out;
+	private final byte[] buf;
+	private int pos;
+	private char highSurrogate; //pending high surrogate (a surrogate pair can be split between write calls)
+
+	Utf8Writer(OutputStream out, int bufferSize)
+	{
+		this.out = out;
+		this.buf = new byte[Math.max(bufferSize, 16)];
+	}
+
+	@Override
+	public void write(int c) throws IOException
+	{
+		encode((char) c);
+	}
+
+	@Override
+	public void write(char[] cbuf, int off, int len) throws IOException
+	{
+		for (int i = off; i < off + len; i++) {
+			encode(cbuf[i]);
+		}
+	}
+
+	@Override
+	public void write(String str, int off, int len) throws IOException
+	{
+		for (int i = off; i < off + len; i++) {
+			char c = str.charAt(i);
+			if (c < 0x80 && highSurrogate == 0) { //ASCII fast path
+				if (pos == buf.length) {
+					flushBuffer();
+				}
+				buf[pos++] = (byte) c;
+			} else {
+				encode(c);
+			}
+		}
+	}
+
+	@Override
+	public void write(String str) throws IOException
+	{
+		write(str, 0, str.length());
+	}
+
+	private void encode(char c) throws IOException
+	{
+		if (buf.length - pos < 4) {
+			flushBuffer();
+		}
+
+		if (highSurrogate != 0) {
+			char high = highSurrogate;
+			highSurrogate = 0;
+			if (Character.isLowSurrogate(c)) {
+				int cp = Character.toCodePoint(high, c);
+				buf[pos++] = (byte) (0xF0 | (cp >> 18));
+				buf[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+				buf[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+				buf[pos++] = (byte) (0x80 | (cp & 0x3F));
+				return;
+			}
+			buf[pos++] = '?'; //malformed (same as the JDK encoder replacement)
+			encode(c);
+			return;
+		}
+
+		if (c < 0x80) {
+			buf[pos++] = (byte) c;
+		} else if (c < 0x800) {
+			buf[pos++] = (byte) (0xC0 | (c >> 6));
+			buf[pos++] = (byte) (0x80 | (c & 0x3F));
+		} else if (Character.isHighSurrogate(c)) {
+			highSurrogate = c;
+		} else if (Character.isLowSurrogate(c)) {
+			buf[pos++] = '?';
+		} else {
+			buf[pos++] = (byte) (0xE0 | (c >> 12));
+			buf[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+			buf[pos++] = (byte) (0x80 | (c & 0x3F));
+		}
+	}
+
+	private void flushBuffer() throws IOException
+	{
+		if (pos > 0) {
+			out.write(buf, 0, pos);
+			pos = 0;
+		}
+	}
+
+	@Override
+	public void flush() throws IOException
+	{
+		flushBuffer();
+		out.flush();
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		if (highSurrogate != 0) {
+			highSurrogate = 0;
+			encode('?');
+		}
+		flushBuffer();
+		out.close();
+	}
+}
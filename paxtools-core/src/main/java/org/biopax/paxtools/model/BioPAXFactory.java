@@ -1,6 +1,7 @@
 package org.biopax.paxtools.model;
 
 import org.biopax.paxtools.impl.BioPAXElementImpl;
+import org.biopax.paxtools.impl.ConcurrentModelImpl;
 import org.biopax.paxtools.impl.ModelImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -19,6 +20,12 @@ public abstract class BioPAXFactory
 {
 	private static final Logger log = LoggerFactory.getLogger(BioPAXFactory.class);
 
+	/**
+	 * Java property to make {@link #createModel()} return thread-safe models
+	 * (when set to "true"; see {@link ConcurrentModelImpl}).
+	 */
+	public static final String PROPERTY_CONCURRENT_MODEL = "paxtools.model.concurrent";
+
 	private final Method setUriMethod;
 
 	/**
@@ -117,10 +124,24 @@ public abstract class BioPAXFactory
 
 	/**
 	 * Creates a new BioPAX model.
+	 * It is a concurrent one when the {@link #PROPERTY_CONCURRENT_MODEL}
+	 * java property is "true" (see {@link #createModel(boolean)}).
 	 * @return BioPAX object model implementation
 	 */
 	public Model createModel() {
-		return new ModelImpl(this);
+		return createModel(Boolean.getBoolean(PROPERTY_CONCURRENT_MODEL));
+	}
+
+
+	/**
+	 * Creates a new BioPAX model.
+	 * @param concurrent whether to create a model that can be built and read
+	 *                   by many threads at once without locking (see {@link ConcurrentModelImpl})
+	 *                   or the default, synchronized, one.
+	 * @return BioPAX object model implementation
+	 */
+	public Model createModel(boolean concurrent) {
+		return (concurrent) ? new ConcurrentModelImpl(this) : new ModelImpl(this);
 	}
 
 
@@ -223,4 +223,20 @@ public interface Model extends Serializable
      String getXmlBase();
 
      int size();
+
+     /**
+      * Gets the number of changes made to the set of elements of this model
+      * (by add, remove, replace, merge or repair), e.g., for a cache of
+      * the results computed from the model to detect that it is outdated.
+      *
+      * Note: changes of the element properties alone are not counted.
+      *
+      * The default implementation returns -1, which means the changes are not counted
+      * (results computed from such a model should not be cached).
+      *
+      * @return modification counter, or -1 if unknown
+      */
+     default long getModCount() {
+          return -1;
+     }
 }
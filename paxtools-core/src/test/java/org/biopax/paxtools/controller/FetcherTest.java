@@ -1,5 +1,6 @@
 package org.biopax.paxtools.controller;
 
+import org.biopax.paxtools.io.SimpleIOHandler;
 import org.biopax.paxtools.model.BioPAXElement;
 import org.biopax.paxtools.model.BioPAXLevel;
 import org.biopax.paxtools.model.Model;
@@ -7,7 +8,10 @@ import org.biopax.paxtools.model.level3.*;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -111,4 +115,31 @@ public class FetcherTest {
 		assertEquals(5, elements.size());// 'con1', 'p2' are not there
 	}
 
+	@Test
+	public final void fetchAll() {
+		Model m = new SimpleIOHandler().convertFromOWL(getClass().getClassLoader()
+			.getResourceAsStream("L3/biopax3-short-metabolic-pathway.owl"));
+		Set<BioPAXElement> roots = new HashSet<>(m.getObjects(Entity.class));
+		roots.addAll(m.getObjects(PathwayStep.class));
+
+		for (boolean skip : new boolean[]{false, true}) {
+			final Fetcher fetcher = new Fetcher(SimpleEditorMap.L3, Fetcher.nextStepFilter, Fetcher.evidenceFilter);
+			fetcher.setSkipSubPathways(skip);
+			for (long budget : new long[]{Fetcher.DEFAULT_MEMO_BUDGET, 100, 0}) {
+				Map<BioPAXElement, Set<BioPAXElement>> all =
+					fetcher.fetchAll(roots, ForkJoinPool.commonPool(), budget);
+				assertEquals(roots, all.keySet());
+				for (BioPAXElement root : roots) {
+					assertEquals(fetcher.fetch(root), all.get(root), root.getUri());
+				}
+			}
+		}
+
+		//with the loops
+		Fetcher fetcher = new Fetcher(SimpleEditorMap.L3);
+		Map<BioPAXElement, Set<BioPAXElement>> all = fetcher.fetchAll(model.getObjects());
+		for (BioPAXElement root : model.getObjects()) {
+			assertEquals(fetcher.fetch(root), all.get(root));
+		}
+	}
 }
@@ -14,6 +14,9 @@ import org.junit.jupiter.api.Test;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -130,6 +133,49 @@ public class ModelUtilsTest {
 	}
 
 
+	@Test
+	public final void substitute() {
+		BioPAXFactory factory = BioPAXLevel.L3.getDefaultFactory();
+		Model m = factory.createModel();
+
+		UnificationXref x = m.addNew(UnificationXref.class, "x");
+		UnificationXref kept = m.addNew(UnificationXref.class, "kept");
+		BioSource bs = m.addNew(BioSource.class, "bs");
+		bs.addXref(x);
+		ProteinReference pr = m.addNew(ProteinReference.class, "pr");
+		pr.setOrganism(bs); //no inverse property
+		pr.addXref(x);
+		pr.addXref(kept);
+		Protein p = m.addNew(Protein.class, "p");
+		p.setEntityReference(pr);
+
+		//the replacements of the same batch refer to the old elements
+		UnificationXref x2 = factory.create(UnificationXref.class, "x2");
+		BioSource bs2 = factory.create(BioSource.class, "bs2");
+		bs2.addXref(x);
+		ProteinReference pr2 = factory.create(ProteinReference.class, "pr2");
+		pr2.setOrganism(bs);
+		pr2.addXref(x);
+		pr2.addXref(kept);
+
+		Map<BioPAXElement, BioPAXElement> subs = new HashMap<>();
+		subs.put(x, x2);
+		subs.put(bs, bs2);
+		subs.put(pr, pr2);
+		ModelUtils.substitute(m, subs);
+
+		assertEquals(5, m.getObjects().size());
+		assertFalse(m.contains(x) || m.contains(bs) || m.contains(pr));
+		assertSame(pr2, p.getEntityReference());
+		assertSame(bs2, pr2.getOrganism());
+		assertEquals(new HashSet<>(Arrays.asList(x2, kept)), pr2.getXref());
+		assertEquals(Collections.singleton(x2), bs2.getXref());
+		//the old elements are unlinked from the model elements
+		assertEquals(Collections.singleton(pr2), kept.getXrefOf());
+		assertEquals(Collections.singleton(x), pr.getXref());
+	}
+
+
 	private void printModel(Model model) {
 		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
 		new SimpleIOHandler().convertToOWL(model, bytes);
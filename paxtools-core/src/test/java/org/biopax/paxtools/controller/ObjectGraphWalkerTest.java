@@ -0,0 +1,69 @@
+package org.biopax.paxtools.controller;
+
+import org.biopax.paxtools.model.BioPAXElement;
+import org.biopax.paxtools.model.BioPAXLevel;
+import org.biopax.paxtools.model.Model;
+import org.biopax.paxtools.model.level3.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ObjectGraphWalkerTest {
+
+	@Test
+	public void deepChain() {
+		Model model = BioPAXLevel.L3.getDefaultFactory().createModel();
+		final int n = 100000;
+		PhysicalEntity first = model.addNew(PhysicalEntity.class, "pe0");
+		PhysicalEntity prev = first;
+		for (int i = 1; i < n; i++) {
+			PhysicalEntity pe = model.addNew(PhysicalEntity.class, "pe" + i);
+			prev.addMemberPhysicalEntity(pe);
+			prev = pe;
+		}
+		prev.addMemberPhysicalEntity(first); //a loop
+
+		Fetcher fetcher = new Fetcher(SimpleEditorMap.L3);
+		Set<PhysicalEntity> members = fetcher.fetch(first, PhysicalEntity.class);
+		assertEquals(n, members.size()); //incl. the root itself, due to the loop
+		assertEquals(n, fetcher.fetch(first).size());
+		assertEquals(n - 1, fetcher.fetch(first, n).size()); //the root is excluded
+		assertEquals(10, fetcher.fetch(first, 10).size());
+		assertTrue(fetcher.subgraphContains(first, "pe" + (n - 1), PhysicalEntity.class));
+
+		Set<BioPAXElement> root = new HashSet<>();
+		root.add(first);
+		assertEquals(n, new Completer(SimpleEditorMap.L3).complete(root).size());
+	}
+
+	@Test
+	public void inversePropertiesAndVisitedSet() {
+		Model model = BioPAXLevel.L3.getDefaultFactory().createModel();
+		Protein p = model.addNew(Protein.class, "p");
+		ProteinReference pr = model.addNew(ProteinReference.class, "pr");
+		UnificationXref x = model.addNew(UnificationXref.class, "x");
+		p.setEntityReference(pr);
+		pr.addXref(x);
+
+		Set<BioPAXElement> found = new HashSet<>();
+		ObjectGraphWalker walker = new ObjectGraphWalker(SimpleEditorMap.L3);
+		walker.walk(p, found::add);
+		assertEquals(2, found.size());
+
+		found.clear();
+		new ObjectGraphWalker(SimpleEditorMap.L3, new org.biopax.paxtools.util.Filter[0],
+			new org.biopax.paxtools.util.Filter[0]).walk(x, found::add);
+		assertTrue(found.contains(p)); //via xrefOf, entityReferenceOf
+
+		//the visited set is shared between walks
+		Set<BioPAXElement> visited = ObjectGraphWalker.newVisitedSet();
+		visited.add(pr);
+		found.clear();
+		walker.walk(p, visited, Integer.MAX_VALUE, found::add);
+		assertTrue(found.isEmpty());
+		assertTrue(visited.contains(p));
+	}
+}
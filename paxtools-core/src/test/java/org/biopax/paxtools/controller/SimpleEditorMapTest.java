@@ -6,6 +6,7 @@ package org.biopax.paxtools.controller;
  * Time: 1:03:41 AM
  */
 
+import org.biopax.paxtools.impl.level3.ProteinReferenceImpl;
 import org.biopax.paxtools.model.BioPAXElement;
 import org.biopax.paxtools.model.BioPAXFactory;
 import org.biopax.paxtools.model.BioPAXLevel;
@@ -13,6 +14,7 @@ import org.biopax.paxtools.model.level3.BioSource;
 import org.biopax.paxtools.model.level3.DeltaG;
 import org.biopax.paxtools.model.level3.Protein;
 import org.biopax.paxtools.model.level3.ProteinReference;
+import org.biopax.paxtools.util.IllegalBioPAXArgumentException;
 import org.junit.jupiter.api.Test;
 
 import java.util.Set;
@@ -34,6 +36,24 @@ public class SimpleEditorMapTest
         }
     }
     
+    @Test
+    public void setterClassCastException() {
+    	AbstractPropertyEditor editor = (AbstractPropertyEditor)
+    		SimpleEditorMap.L3.getEditorForProperty("organism", ProteinReference.class);
+    	ProteinReference pr = new ProteinReferenceImpl() {
+    		@Override
+    		public void setOrganism(BioSource organism) {
+    			throw new ClassCastException("thrown by the setter");
+    		}
+    	};
+
+    	//reported as a failed call (not as a range mismatch or a NullPointerException)
+    	IllegalBioPAXArgumentException e = assertThrows(IllegalBioPAXArgumentException.class,
+    		() -> editor.invokeMethod(editor.getSetMethod(), pr, null));
+    	assertEquals("thrown by the setter", e.getCause().getMessage());
+    	assertTrue(e.getMessage().startsWith("Failed to set organism with setOrganism"));
+    }
+
 	/**
 	 * Currently (before 10-Apr-2011), it seems impossible
 	 * to clear a single-cardinality property by
@@ -2,6 +2,7 @@ package org.biopax.paxtools.controller;
 
 import org.biopax.paxtools.model.*;
 import org.biopax.paxtools.model.level3.*;
+import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
 
@@ -332,4 +333,87 @@ public class SimpleMergerTest {
     assertFalse(mergedPr.getOrganism().getXref().contains(uxHuman1)); //different object but same URI
   }
 
+  @Test
+  public final void mergeManyModels() {
+    SimpleMerger merger = new SimpleMerger(SimpleEditorMap.L3);
+    Model target = BioPAXLevel.L3.getDefaultFactory().createModel();
+
+    //the sources have their own objects of the same (shared) URI
+    for (int i = 0; i < 3; i++) {
+      merger.merge(target, pathwayChain("source" + i, 100, true));
+    }
+
+    assertEquals(3 * 300 + 1, target.getObjects().size());
+    SmallMoleculeReference smr = (SmallMoleculeReference) target.getByID("shared");
+    for (SmallMolecule sm : target.getObjects(SmallMolecule.class)) {
+      assertSame(smr, sm.getEntityReference());
+    }
+    for (Pathway pw : target.getObjects(Pathway.class)) {
+      for (org.biopax.paxtools.model.level3.Process p : pw.getPathwayComponent()) {
+        assertTrue(target.contains(p));
+      }
+    }
+
+    //the children missing from a model are still found (all but the first pathway are implicit)
+    Model model = pathwayChain("chain", 100, false);
+    assertEquals(1, model.getObjects().size());
+    model.repair();
+    assertEquals(300 + 1, model.getObjects().size());
+  }
+
+  @Test
+  @Disabled
+  public final void mergePerformance() {
+    SimpleMerger merger = new SimpleMerger(SimpleEditorMap.L3);
+
+    for (int size = 1000; size <= 16000; size *= 2) {
+      Model target = BioPAXLevel.L3.getDefaultFactory().createModel();
+      Model[] sources = new Model[10];
+      for (int i = 0; i < sources.length; i++) {
+        sources[i] = pathwayChain("source" + i, size / sources.length, true);
+      }
+      long time = System.nanoTime();
+      merger.merge(target, sources);
+      long merge = System.nanoTime() - time;
+
+      Model model = pathwayChain("chain", size, false);
+      time = System.nanoTime();
+      model.repair();
+      long repair = System.nanoTime() - time;
+
+      System.out.println("pathways = " + size + ", merge = " + merge / 1000000 +
+        " ms, repair = " + repair / 1000000 + " ms");
+    }
+  }
+
+  /*
+   * Makes a chain of pathways, each having the degradation of a small molecule and the next
+   * pathway as components; all the small molecules refer to the same reference.
+   * When 'closed' is false, only the first pathway is added to the model.
+   */
+  private Model pathwayChain(String prefix, int length, boolean closed) {
+    BioPAXFactory factory = BioPAXLevel.L3.getDefaultFactory();
+    Model model = factory.createModel();
+    SmallMoleculeReference smr = factory.create(SmallMoleculeReference.class, "shared");
+    if (closed) model.add(smr);
+
+    Pathway next = null;
+    for (int i = length - 1; i >= 0; i--) {
+      SmallMolecule sm = factory.create(SmallMolecule.class, prefix + "_sm_" + i);
+      sm.setEntityReference(smr);
+      Degradation deg = factory.create(Degradation.class, prefix + "_degradation_" + i);
+      deg.addLeft(sm);
+      Pathway pw = factory.create(Pathway.class, prefix + "_pathway_" + i);
+      pw.addPathwayComponent(deg);
+      if (next != null) pw.addPathwayComponent(next);
+      if (closed) {
+        model.add(sm);
+        model.add(deg);
+      }
+      if (closed || i == 0) model.add(pw);
+      next = pw;
+    }
+    return model;
+  }
+
 }
@@ -0,0 +1,94 @@
+package org.biopax.paxtools.impl;
+
+import org.biopax.paxtools.model.BioPAXFactory;
+import org.biopax.paxtools.model.BioPAXLevel;
+import org.biopax.paxtools.model.Model;
+import org.biopax.paxtools.model.level3.*;
+import org.biopax.paxtools.util.IllegalBioPAXArgumentException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentModelImplTest {
+
+	private final BioPAXFactory factory = BioPAXLevel.L3.getDefaultFactory();
+
+	@Test
+	public void createModel() {
+		assertTrue(factory.createModel(true) instanceof ConcurrentModelImpl);
+		assertFalse(factory.createModel(false) instanceof ConcurrentModelImpl);
+		assertFalse(factory.createModel() instanceof ConcurrentModelImpl);
+	}
+
+	@Test
+	public void addRemove() {
+		Model model = factory.createModel(true);
+		Protein p = model.addNew(Protein.class, "p");
+		assertTrue(model.contains(p));
+		assertSame(p, model.getByID("p"));
+		assertThrows(IllegalBioPAXArgumentException.class, () -> model.add(p));
+		assertThrows(IllegalBioPAXArgumentException.class, () -> model.addNew(Complex.class, "p"));
+		model.remove(factory.create(Protein.class, "p")); //not the same object - ignored
+		assertTrue(model.contains(p));
+		model.remove(p);
+		assertFalse(model.containsID("p"));
+		assertTrue(model.getObjects(Protein.class).isEmpty());
+	}
+
+	@Test
+	public void readersAndWriters() throws Exception {
+		final Model model = factory.createModel(true);
+		final int writers = 4;
+		final int readers = 4;
+		final int perWriter = 2000;
+		final AtomicInteger found = new AtomicInteger();
+		final ExecutorService exec = Executors.newFixedThreadPool(writers + readers);
+		final CountDownLatch start = new CountDownLatch(1);
+		final List<Future<?>> futures = new ArrayList<>();
+
+		for(int w = 0; w < writers; w++) {
+			final int writer = w;
+			futures.add(exec.submit(() -> {
+				start.await();
+				for(int i = 0; i < perWriter; i++) {
+					Protein p = model.addNew(Protein.class, "p" + writer + "_" + i);
+					if(i % 2 == 1) { //remove every other
+						model.remove(p);
+					}
+					model.addNew(UnificationXref.class, "x" + writer + "_" + i);
+				}
+				return null;
+			}));
+		}
+		for(int r = 0; r < readers; r++) {
+			futures.add(exec.submit(() -> {
+				start.await();
+				for(int i = 0; i < perWriter; i++) {
+					if(model.getByID("x0_" + i) != null) {
+						found.incrementAndGet();
+					}
+					for(Protein p : model.getObjects(Protein.class)) { //weakly consistent, must not fail
+						assertNotNull(p.getUri());
+					}
+				}
+				return null;
+			}));
+		}
+		start.countDown();
+		for(Future<?> f : futures) {
+			f.get(1, TimeUnit.MINUTES);
+		}
+		exec.shutdown();
+
+		assertEquals(writers * perWriter / 2, model.getObjects(Protein.class).size());
+		assertEquals(writers * perWriter, model.getObjects(Xref.class).size());
+		assertEquals(writers * perWriter * 3 / 2, model.getObjects().size());
+		assertTrue(model.containsID("p1_0"));
+		assertFalse(model.containsID("p1_1"));
+	}
+}
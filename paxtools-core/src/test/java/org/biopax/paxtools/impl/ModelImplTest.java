@@ -0,0 +1,124 @@
+package org.biopax.paxtools.impl;
+
+import org.biopax.paxtools.controller.ModelUtils;
+import org.biopax.paxtools.model.BioPAXElement;
+import org.biopax.paxtools.model.BioPAXFactory;
+import org.biopax.paxtools.model.BioPAXLevel;
+import org.biopax.paxtools.model.Model;
+import org.biopax.paxtools.impl.level3.ProteinImpl;
+import org.biopax.paxtools.model.level3.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ModelImplTest {
+
+	private final BioPAXFactory factory = BioPAXLevel.L3.getDefaultFactory();
+
+	@Test
+	public void getObjectsByType() {
+		Model model = factory.createModel();
+		Set<Entity> entities = model.getObjects(Entity.class); //live view
+		assertTrue(entities.isEmpty());
+
+		Protein p = model.addNew(Protein.class, "p");
+		SmallMolecule sm = model.addNew(SmallMolecule.class, "sm");
+		Pathway pw = model.addNew(Pathway.class, "pw");
+		UnificationXref x = model.addNew(UnificationXref.class, "x");
+
+		assertEquals(3, entities.size());
+		assertTrue(entities.contains(p));
+		assertFalse(entities.contains(x));
+		assertEquals(2, model.getObjects(PhysicalEntity.class).size());
+		assertEquals(2, model.getObjects(SimplePhysicalEntity.class).size());
+		assertEquals(1, model.getObjects(Xref.class).size());
+		assertEquals(3, model.getObjects(XReferrable.class).size()); //p, sm, pw
+		assertEquals(4, model.getObjects(BioPAXElement.class).size());
+		assertEquals(1, model.getObjects(ProteinImpl.class).size());
+		assertTrue(model.getObjects(Complex.class).isEmpty());
+
+		//same results as the class filter would give
+		assertEquals(new HashSet<>(entities), filter(model, Entity.class));
+		assertEquals(new HashSet<>(model.getObjects(Named.class)), filter(model, Named.class));
+
+		//Set semantics (BioPAX type and URI)
+		assertTrue(entities.contains(factory.create(Protein.class, "p")));
+		assertFalse(entities.contains(factory.create(Complex.class, "p")));
+
+		model.remove(sm);
+		assertEquals(2, entities.size());
+		assertFalse(entities.contains(sm));
+		assertTrue(model.getObjects(SmallMolecule.class).isEmpty());
+
+		assertThrows(UnsupportedOperationException.class, () -> entities.add(sm));
+		assertThrows(UnsupportedOperationException.class, () -> entities.remove(p));
+	}
+
+	@Test
+	public void modCount() {
+		Model model = factory.createModel();
+		long count = model.getModCount();
+
+		Protein p = model.addNew(Protein.class, "p");
+		assertTrue(model.getModCount() > count);
+
+		count = model.getModCount();
+		model.remove(factory.create(Protein.class, "p")); //not the one in the model
+		assertEquals(count, model.getModCount());
+		model.remove(p);
+		assertTrue(model.getModCount() > count);
+
+		count = model.getModCount();
+		model.repair();
+		assertTrue(model.getModCount() > count);
+
+		count = model.getModCount();
+		((ModelImpl) model).setObjects(Collections.emptySet());
+		assertTrue(model.getModCount() > count);
+	}
+
+	@Test
+	public void typeIndexConsistency() {
+		Model model = factory.createModel();
+		Protein p = model.addNew(Protein.class, "p");
+		ProteinReference pr = model.addNew(ProteinReference.class, "pr");
+		p.setEntityReference(pr);
+
+		//replace, updateUri
+		ProteinReference pr2 = factory.create(ProteinReference.class, "pr2");
+		model.replace(pr, pr2);
+		assertEquals(1, model.getObjects(EntityReference.class).size());
+		assertTrue(model.getObjects(ProteinReference.class).contains(pr2));
+		assertFalse(model.getObjects(ProteinReference.class).contains(pr));
+
+		ModelUtils.updateUri(model, p, "p2");
+		assertEquals(1, model.getObjects(Protein.class).size());
+		assertSame(p, model.getObjects(Protein.class).iterator().next());
+		assertTrue(model.getObjects(Protein.class).contains(p));
+
+		//merge, repair (adds the missing child)
+		Model target = factory.createModel();
+		target.merge(model);
+		assertEquals(2, target.getObjects().size());
+		assertEquals(1, target.getObjects(ProteinReference.class).size());
+		Xref x = factory.create(UnificationXref.class, "x");
+		p.addXref(x);
+		model.repair();
+		assertTrue(model.getObjects(Xref.class).contains(x));
+		assertEquals(filter(model, BioPAXElement.class), new HashSet<>(model.getObjects(BioPAXElement.class)));
+	}
+
+	private <T extends BioPAXElement> Set<T> filter(Model model, Class<T> type) {
+		Set<T> set = new HashSet<>();
+		for(BioPAXElement e : model.getObjects()) {
+			if(type.isInstance(e)) {
+				set.add((T) e);
+			}
+		}
+		return set;
+	}
+}
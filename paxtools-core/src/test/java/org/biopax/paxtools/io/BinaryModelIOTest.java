@@ -0,0 +1,100 @@
+package org.biopax.paxtools.io;
+
+import org.biopax.paxtools.model.BioPAXLevel;
+import org.biopax.paxtools.model.Model;
+import org.biopax.paxtools.model.level3.*;
+import org.biopax.paxtools.util.BioPaxIOException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BinaryModelIOTest {
+
+	@Test
+	public void roundTrip() {
+		for (String s : new String[]{
+			"L3" + File.separator + "biopax3-short-metabolic-pathway.owl",
+			"L3" + File.separator + "hcyc.owl",
+			"L2" + File.separator + "biopax_id_557861_mTor_signaling.owl"})
+		{
+			SimpleIOHandler io = new SimpleIOHandler();
+			Model model = io.convertFromOWL(getClass().getClassLoader().getResourceAsStream(s));
+			SimpleIOHandlerTest.assertSameContent(model, writeRead(model));
+		}
+	}
+
+	@Test
+	public void valuesAndHeader() {
+		Model model = BioPAXLevel.L3.getDefaultFactory().createModel();
+		model.setXmlBase("http://test/");
+		model.setName("test");
+		model.getNameSpacePrefixMap().put("foo", "http://foo/");
+		Protein p = model.addNew(Protein.class, "http://test/p");
+		p.setDisplayName("P α 😀"); //non-ASCII, surrogate pair
+		p.addComment("  a comment,  not normalized ");
+		p.addComment("http://test/p"); //same as the URI (interned string)
+		p.addAvailability(null); //ignored
+		UnificationXref x = model.addNew(UnificationXref.class, "http://test/x");
+		x.setDb("uniprot");
+		x.setIdVersion("1");
+		p.addXref(x);
+		Stoichiometry st = model.addNew(Stoichiometry.class, "http://test/s");
+		st.setStoichiometricCoefficient(2.5f);
+		BiochemicalReaction r = model.addNew(BiochemicalReaction.class, "http://test/r");
+		r.addLeft(p);
+		r.addParticipantStoichiometry(st);
+		r.setConversionDirection(ConversionDirectionType.LEFT_TO_RIGHT);
+		r.addDeltaG(model.addNew(DeltaG.class, "http://test/dg"));
+		r.getDeltaG().iterator().next().setDeltaGPrime0(-1.5f);
+		r.setSpontaneous(true);
+		//a dangling value (not in the model) is not saved
+		r.addRight(BioPAXLevel.L3.getDefaultFactory().create(SmallMolecule.class, "http://test/sm"));
+
+		Model copy = writeRead(model);
+		assertEquals("test", copy.getName());
+		assertEquals("http://foo/", copy.getNameSpacePrefixMap().get("foo"));
+		Protein p2 = (Protein) copy.getByID("http://test/p");
+		assertEquals(p.getDisplayName(), p2.getDisplayName());
+		assertEquals(p.getComment(), p2.getComment());
+		assertTrue(p2.getXref().contains(copy.getByID("http://test/x")));
+		assertTrue(((Xref) copy.getByID("http://test/x")).getXrefOf().contains(p2)); //inverse property
+		BiochemicalReaction r2 = (BiochemicalReaction) copy.getByID("http://test/r");
+		assertEquals(ConversionDirectionType.LEFT_TO_RIGHT, r2.getConversionDirection());
+		assertTrue(r2.getSpontaneous());
+		assertTrue(r2.getRight().isEmpty());
+		assertEquals(-1.5f, r2.getDeltaG().iterator().next().getDeltaGPrime0());
+		assertEquals(2.5f, ((Stoichiometry) copy.getByID("http://test/s")).getStoichiometricCoefficient());
+
+		r.getRight().clear();
+		SimpleIOHandlerTest.assertSameContent(model, copy);
+	}
+
+	@Test
+	public void readMapped(@TempDir Path dir) throws Exception {
+		SimpleIOHandler io = new SimpleIOHandler();
+		Model model = io.convertFromOWL(getClass().getClassLoader()
+			.getResourceAsStream("L3" + File.separator + "biopax3-short-metabolic-pathway.owl"));
+		Path file = dir.resolve("model.bin");
+		BinaryModelIO.write(model, new FileOutputStream(file.toFile()));
+		SimpleIOHandlerTest.assertSameContent(model, BinaryModelIO.read(file));
+	}
+
+	@Test
+	public void notBinary() {
+		assertThrows(BioPaxIOException.class,
+			() -> BinaryModelIO.read(new ByteArrayInputStream("<rdf:RDF/>".getBytes())));
+	}
+
+	private static Model writeRead(Model model) {
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		BinaryModelIO.write(model, baos);
+		return BinaryModelIO.read(new ByteArrayInputStream(baos.toByteArray()));
+	}
+}
@@ -0,0 +1,74 @@
+package org.biopax.paxtools.io;
+
+import org.biopax.paxtools.controller.EditorMap;
+import org.biopax.paxtools.controller.PropertyEditor;
+import org.biopax.paxtools.controller.SimpleEditorMap;
+import org.biopax.paxtools.model.BioPAXElement;
+import org.biopax.paxtools.model.BioPAXLevel;
+import org.biopax.paxtools.model.Model;
+import org.biopax.paxtools.model.level3.Catalysis;
+import org.biopax.paxtools.model.level3.RelationshipTypeVocabulary;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BioPAXStreamReaderTest {
+
+  @Test
+  public void sameAsModel() {
+    for (String file : new String[]{"L3/biopax3-short-metabolic-pathway.owl", "L2/biopax-example-short-pathway.owl"}) {
+      SimpleIOHandler io = new SimpleIOHandler(file.startsWith("L2") ? BioPAXLevel.L2 : BioPAXLevel.L3);
+      io.fixReusedPEPs(false); //(L2) keep the original PEPs
+      Model model = io.convertFromOWL(getClass().getClassLoader().getResourceAsStream(file));
+      EditorMap editorMap = SimpleEditorMap.get(model.getLevel());
+
+      BioPAXStreamReader reader = new BioPAXStreamReader();
+      List<String> uris = new ArrayList<>();
+      reader.read(getClass().getClassLoader().getResourceAsStream(file), ind -> {
+        uris.add(ind.getUri());
+        BioPAXElement bpe = model.getByID(ind.getUri());
+        assertNotNull(bpe, ind.getUri());
+        assertEquals(bpe.getModelInterface(), ind.getType());
+        for (String prop : ind.getObjectProperties().keySet()) {
+          PropertyEditor editor = editorMap.getEditorForProperty(prop, ind.getType());
+          Set<String> expected = new HashSet<>();
+          for (Object v : editor.getValueFromBean(bpe)) {
+            expected.add(((BioPAXElement) v).getUri());
+          }
+          //(model's values can be more due to some BioPAX setters, e.g., stepConversion also sets stepProcess)
+          assertTrue(expected.containsAll(ind.getObjectValues(prop)), ind + " " + prop);
+        }
+        for (String prop : ind.getDataProperties().keySet()) {
+          PropertyEditor editor = editorMap.getEditorForProperty(prop, ind.getType());
+          assertFalse(editor.getValueFromBean(bpe).isEmpty(), ind + " " + prop);
+        }
+      });
+      assertEquals(model.getLevel(), reader.getLevel());
+      assertEquals(model.getXmlBase(), reader.getXmlBase());
+      assertEquals(model.size(), uris.size());
+      assertEquals(model.size(), new HashSet<>(uris).size());
+    }
+  }
+
+  @Test
+  public void nestedAndOtherXml() {
+    BioPAXStreamReader reader = new BioPAXStreamReader();
+    Map<String, BioPAXStreamReader.Individual> individuals = new HashMap<>();
+    reader.read(getClass().getClassLoader().getResourceAsStream("L3/biopax_other_xml_mix.xml"),
+        ind -> individuals.put(ind.getUri(), ind));
+    assertEquals(BioPAXLevel.L3, reader.getLevel());
+    assertEquals(5, individuals.size());
+    assertFalse(individuals.containsKey("Gene"));
+    BioPAXStreamReader.Individual cat = individuals.get("catalysis1");
+    assertEquals(Catalysis.class, cat.getType());
+    assertEquals(Collections.singletonList("Catalysis 1"), cat.getDataValues("displayName"));
+    assertEquals(Collections.singletonList("reaction1"), cat.getObjectValues("controlled"));
+    assertTrue(individuals.get("reaction1").getObjectValues("xref").isEmpty());
+    BioPAXStreamReader.Individual rtv = individuals.get("rx_rtv");
+    assertEquals(RelationshipTypeVocabulary.class, rtv.getType());
+    assertEquals(2, rtv.getDataValues("comment").size());
+    assertTrue(rtv.getDataValues("comment").contains("comment3"));
+  }
+}
@@ -1,14 +1,22 @@
 package org.biopax.paxtools.io;
 
+import org.biopax.paxtools.controller.EditorMap;
+import org.biopax.paxtools.controller.PropertyEditor;
+import org.biopax.paxtools.controller.SimpleEditorMap;
 import org.biopax.paxtools.impl.MockFactory;
 import org.biopax.paxtools.model.BioPAXElement;
 import org.biopax.paxtools.model.BioPAXFactory;
 import org.biopax.paxtools.model.BioPAXLevel;
 import org.biopax.paxtools.model.Model;
 import org.biopax.paxtools.model.level3.*;
+import org.biopax.paxtools.util.BioPaxIOException;
+import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
 import java.io.*;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -346,4 +354,91 @@ public class SimpleIOHandlerTest {
     Protein prot = (Protein) newModel.getObjects().iterator().next();
     assertTrue(prot.getName().iterator().next().equals(s));
   }
+
+  @Test
+  public void compressedOutput() throws IOException {
+    SimpleIOHandler io = new SimpleIOHandler();
+    Model model = getL3Model(io);
+    Protein p = model.addNew(Protein.class, "http://biopax.org/test/io/protein");
+    p.setDisplayName("caf\u00e9 \u4e2d \ud835\udd38 & <x>"); //2-, 3- and 4-byte UTF-8 chars
+
+    ByteArrayOutputStream plain = new ByteArrayOutputStream();
+    io.convertToOWL(model, plain);
+    io.compressor(SimpleIOHandler.GZIP);
+    assertSame(SimpleIOHandler.GZIP, io.getCompressor());
+    ByteArrayOutputStream gz = new ByteArrayOutputStream();
+    io.convertToOWL(model, gz);
+    io.compressor(null);
+
+    byte[] unzipped = new GZIPInputStream(new ByteArrayInputStream(gz.toByteArray())).readAllBytes();
+    assertArrayEquals(plain.toByteArray(), unzipped);
+    assertTrue(plain.toString("UTF-8").contains("caf\u00e9 \u4e2d \ud835\udd38 &amp; &lt;x&gt;"));
+
+    Model read = io.convertFromOWL(new ByteArrayInputStream(unzipped));
+    assertSameContent(model, read);
+  }
+
+  @Test
+  public void compressedOutputFailure() throws IOException {
+    SimpleIOHandler io = new SimpleIOHandler();
+    Model model = getL3Model(io);
+    boolean[] closed = new boolean[1];
+    OutputStream failing = new OutputStream() {
+      public void write(int b) throws IOException {
+        throw new IOException("disk full");
+      }
+      public void close() {
+        closed[0] = true;
+      }
+    };
+    io.compressor(out -> out); //the background thread writes directly to the failing stream
+
+    assertThrows(BioPaxIOException.class, () -> io.convertToOWL(model, failing));
+    assertTrue(closed[0]);
+
+    //when the serialization itself fails, the background thread is stopped and the target closed
+    closed[0] = false;
+    OutputStream target = new ByteArrayOutputStream() {
+      public void close() {
+        closed[0] = true;
+      }
+    };
+    BackgroundOutputStream bos = new BackgroundOutputStream(target, 16);
+    bos.write(new byte[64]);
+    bos.abort();
+    assertTrue(closed[0]);
+    for (Thread t : Thread.getAllStackTraces().keySet()) {
+      assertFalse(t.getName().equals("paxtools-background-writer"));
+    }
+  }
+
+  /**
+   * Checks that the models have the same objects (URI and type)
+   * with the same property values (objects compared by URI).
+   *
+   * @param expected a model
+   * @param actual another model
+   */
+  public static void assertSameContent(Model expected, Model actual) {
+    assertEquals(expected.getLevel(), actual.getLevel());
+    assertEquals(expected.getXmlBase(), actual.getXmlBase());
+    assertEquals(expected.size(), actual.size());
+    EditorMap editorMap = SimpleEditorMap.get(expected.getLevel());
+    for (BioPAXElement e : expected.getObjects()) {
+      BioPAXElement a = actual.getByID(e.getUri());
+      assertNotNull(a, e.getUri());
+      assertEquals(e.getModelInterface(), a.getModelInterface());
+      for (PropertyEditor editor : editorMap.getEditorsOf(e)) {
+        assertEquals(values(editor, e), values(editor, a), e.getUri() + " " + editor.getProperty());
+      }
+    }
+  }
+
+  private static Set<Object> values(PropertyEditor editor, BioPAXElement bean) {
+    Set<Object> values = new HashSet<>();
+    for (Object v : editor.getValueFromBean(bean)) {
+      values.add((v instanceof BioPAXElement) ? ((BioPAXElement) v).getUri() : v);
+    }
+    return values;
+  }
 }
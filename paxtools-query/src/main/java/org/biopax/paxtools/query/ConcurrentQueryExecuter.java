@@ -0,0 +1,289 @@
+package org.biopax.paxtools.query;
+
+import org.biopax.paxtools.model.BioPAXElement;
+import org.biopax.paxtools.query.algorithm.CommonStreamQuery;
+import org.biopax.paxtools.query.algorithm.Direction;
+import org.biopax.paxtools.query.algorithm.NeighborhoodQuery;
+import org.biopax.paxtools.query.algorithm.PathsBetweenQuery;
+import org.biopax.paxtools.query.model.Node;
+import org.biopax.paxtools.query.wrapperL3.Filter;
+import org.biopax.paxtools.query.wrapperL3.SharedGraphL3;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+/**
+ * Executes the queries on a {@link SharedGraphL3} with a bounded pool of worker threads. The
+ * independent searches of a query (the upstream and downstream searches of a neighborhood, the
+ * searches from each source set of a paths-between or common stream query) run as separate
+ * tasks, and their results are merged when all of them complete.
+ *
+ * The submit methods return a future of the result, without waiting. Cancelling the future (or
+ * completing it any other way, e.g. with {@link CompletableFuture#orTimeout(long, TimeUnit)})
+ * stops the searches of the query shortly, so that the workers are free for other queries. The
+ * run methods wait for the result until the given timeout, and cancel the query if it is not done.
+ *
+ * The tasks are not blocked waiting for each other, so any executor can be used, e.g. a
+ * {@link ForkJoinPool} with the desired parallelism, or a virtual thread executor.
+ */
+public class ConcurrentQueryExecuter
+{
+	/**
+	 * The queried graph.
+	 */
+	private final SharedGraphL3 graph;
+
+	/**
+	 * Executor of the query tasks.
+	 */
+	private final Executor executor;
+
+	/**
+	 * Constructor with the graph, using the common fork-join pool.
+	 * @param graph shared graph of the BioPAX model
+	 */
+	public ConcurrentQueryExecuter(SharedGraphL3 graph)
+	{
+		this(graph, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Constructor with the graph and the executor.
+	 * @param graph shared graph of the BioPAX model
+	 * @param executor executor of the query tasks
+	 */
+	public ConcurrentQueryExecuter(SharedGraphL3 graph, Executor executor)
+	{
+		this.graph = graph;
+		this.executor = executor;
+	}
+
+	/**
+	 * @return The queried graph
+	 */
+	public SharedGraphL3 getGraph()
+	{
+		return graph;
+	}
+
+	/**
+	 * Gets neighborhood of the source set. The UNDIRECTED direction is not supported by the shared
+	 * graph, so that query runs as a single task (see
+	 * {@link QueryExecuter#runNeighborhoodMultiSet(Set, org.biopax.paxtools.model.Model, int,
+	 * Direction, Filter...)}), and is not stopped on cancellation.
+	 *
+	 * @param sourceSets seed to the query
+	 * @param limit neigborhood distance to get
+	 * @param direction UPSTREAM, DOWNSTREAM or BOTHSTREAM
+	 * @param filters for filtering graph elements
+	 * @return future of the BioPAX elements in the result set
+	 */
+	public CompletableFuture<Set<BioPAXElement>> submitNeighborhoodMultiSet(
+		Set<Set<BioPAXElement>> sourceSets,
+		int limit,
+		Direction direction,
+		Filter... filters)
+	{
+		return submit(cancelled ->
+		{
+			if (direction == Direction.UNDIRECTED)
+			{
+				return CompletableFuture.completedFuture(QueryExecuter.runNeighborhoodMultiSet(
+					sourceSets, graph.getModel(), limit, direction, filters));
+			}
+
+			SharedGraphL3.View view = graph.view(filters);
+			Set<Node> source = QueryExecuter.prepareSingleNodeSetFromSets(sourceSets, view);
+
+			if (sourceSets.isEmpty()) return CompletableFuture.completedFuture(Collections.emptySet());
+
+			NeighborhoodQuery query = new NeighborhoodQuery(source, direction, limit);
+			return query.runAsync(view.getCompiledGraph(), executor, cancelled).thenApply(result ->
+				QueryExecuter.convertQueryResult(result, view, true));
+		});
+	}
+
+	/**
+	 * Gets neighborhood of the source set, waiting for the result at most the given time.
+	 *
+	 * @param sourceSets seed to the query
+	 * @param limit neigborhood distance to get
+	 * @param direction UPSTREAM, DOWNSTREAM or BOTHSTREAM
+	 * @param timeout maximum time to wait
+	 * @param unit unit of the timeout
+	 * @param filters for filtering graph elements
+	 * @return BioPAX elements in the result set
+	 * @throws TimeoutException if the query is not done in time, and is cancelled
+	 */
+	public Set<BioPAXElement> runNeighborhoodMultiSet(
+		Set<Set<BioPAXElement>> sourceSets,
+		int limit,
+		Direction direction,
+		long timeout,
+		TimeUnit unit,
+		Filter... filters) throws TimeoutException
+	{
+		return get(submitNeighborhoodMultiSet(sourceSets, limit, direction, filters), timeout, unit);
+	}
+
+	/**
+	 * Gets the graph constructed by the paths between the given seed nodes. Does not get paths
+	 * between physical entities that belong the same entity reference.
+	 * @param sourceSets Seed to the query
+	 * @param limit Length limit for the paths to be found
+	 * @param filters optional filters - for filtering graph elements
+	 * @return future of the BioPAX elements in the result
+	 */
+	public CompletableFuture<Set<BioPAXElement>> submitPathsBetweenMultiSet(
+		Set<Set<BioPAXElement>> sourceSets,
+		int limit,
+		Filter... filters)
+	{
+		return submit(cancelled ->
+		{
+			SharedGraphL3.View view = graph.view(filters);
+			Collection<Set<Node>> sourceWrappers = QueryExecuter.prepareNodeSetsFromSets(sourceSets, view);
+
+			if (sourceWrappers.size() < 2) return CompletableFuture.completedFuture(Collections.emptySet());
+
+			PathsBetweenQuery query = new PathsBetweenQuery(sourceWrappers, limit);
+			return query.runAsync(view.getCompiledGraph(), executor, cancelled).thenApply(result ->
+				QueryExecuter.convertQueryResult(result, view, true));
+		});
+	}
+
+	/**
+	 * Gets the graph constructed by the paths between the given seed nodes, waiting for the result
+	 * at most the given time.
+	 * @param sourceSets Seed to the query
+	 * @param limit Length limit for the paths to be found
+	 * @param timeout maximum time to wait
+	 * @param unit unit of the timeout
+	 * @param filters optional filters - for filtering graph elements
+	 * @return BioPAX elements in the result
+	 * @throws TimeoutException if the query is not done in time, and is cancelled
+	 */
+	public Set<BioPAXElement> runPathsBetweenMultiSet(
+		Set<Set<BioPAXElement>> sourceSets,
+		int limit,
+		long timeout,
+		TimeUnit unit,
+		Filter... filters) throws TimeoutException
+	{
+		return get(submitPathsBetweenMultiSet(sourceSets, limit, filters), timeout, unit);
+	}
+
+	/**
+	 * Gets the elements in the common upstream or downstream of the seed
+	 * @param sourceSets Seed to the query
+	 * @param direction UPSTREAM or DOWNSTREAM
+	 * @param limit Length limit for the search
+	 * @param filters for filtering graph elements
+	 * @return future of the BioPAX elements in the result
+	 */
+	public CompletableFuture<Set<BioPAXElement>> submitCommonStreamMultiSet(
+		Set<Set<BioPAXElement>> sourceSets,
+		Direction direction,
+		int limit,
+		Filter... filters)
+	{
+		return submit(cancelled ->
+		{
+			SharedGraphL3.View view = graph.view(filters);
+			Collection<Set<Node>> source = QueryExecuter.prepareNodeSetsFromSets(sourceSets, view);
+
+			if (source.size() < 2) return CompletableFuture.completedFuture(Collections.emptySet());
+
+			CommonStreamQuery query = new CommonStreamQuery(source, direction, limit);
+			return query.runAsync(view.getCompiledGraph(), executor, cancelled).thenApply(result ->
+				QueryExecuter.convertQueryResult(result, view, false));
+		});
+	}
+
+	/**
+	 * Gets the elements in the common upstream or downstream of the seed, waiting for the result
+	 * at most the given time.
+	 * @param sourceSets Seed to the query
+	 * @param direction UPSTREAM or DOWNSTREAM
+	 * @param limit Length limit for the search
+	 * @param timeout maximum time to wait
+	 * @param unit unit of the timeout
+	 * @param filters for filtering graph elements
+	 * @return BioPAX elements in the result
+	 * @throws TimeoutException if the query is not done in time, and is cancelled
+	 */
+	public Set<BioPAXElement> runCommonStreamMultiSet(
+		Set<Set<BioPAXElement>> sourceSets,
+		Direction direction,
+		int limit,
+		long timeout,
+		TimeUnit unit,
+		Filter... filters) throws TimeoutException
+	{
+		return get(submitCommonStreamMultiSet(sourceSets, direction, limit, filters), timeout, unit);
+	}
+
+	/**
+	 * Starts a query in the executor. The query (preparing the seed and starting the searches) gets
+	 * the check of cancellation for its searches; the query is cancelled when the returned future
+	 * is completed before the query.
+	 * @param query starts the query with the given cancellation check
+	 * @return future of the query result
+	 */
+	private CompletableFuture<Set<BioPAXElement>> submit(
+		Function<BooleanSupplier, CompletableFuture<Set<BioPAXElement>>> query)
+	{
+		CompletableFuture<Set<BioPAXElement>> result = new CompletableFuture<>();
+		BooleanSupplier cancelled = result::isDone;
+
+		CompletableFuture.supplyAsync(() -> cancelled.getAsBoolean() ?
+			result : query.apply(cancelled), executor)
+			.thenCompose(Function.identity())
+			.whenComplete((set, e) ->
+			{
+				if (e == null) result.complete(set);
+				else result.completeExceptionally(e instanceof CompletionException &&
+					e.getCause() != null ? e.getCause() : e);
+			});
+
+		return result;
+	}
+
+	/**
+	 * Waits for the query result, cancelling the query if it is not done in time.
+	 * @param future future of the result
+	 * @param timeout maximum time to wait
+	 * @param unit unit of the timeout
+	 * @return the result
+	 * @throws TimeoutException if the query is not done in time
+	 */
+	private static Set<BioPAXElement> get(CompletableFuture<Set<BioPAXElement>> future,
+		long timeout, TimeUnit unit) throws TimeoutException
+	{
+		try
+		{
+			return future.get(timeout, unit);
+		}
+		catch (TimeoutException e)
+		{
+			future.cancel(true);
+			throw e;
+		}
+		catch (InterruptedException e)
+		{
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new CancellationException("Interrupted while waiting for the query");
+		}
+		catch (ExecutionException e)
+		{
+			if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+			if (e.getCause() instanceof Error) throw (Error) e.getCause();
+			throw new CompletionException(e.getCause());
+		}
+	}
+}
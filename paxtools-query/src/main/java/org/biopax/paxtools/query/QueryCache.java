@@ -0,0 +1,472 @@
+package org.biopax.paxtools.query;
+
+import org.biopax.paxtools.model.BioPAXElement;
+import org.biopax.paxtools.model.Model;
+import org.biopax.paxtools.query.algorithm.Direction;
+import org.biopax.paxtools.query.algorithm.LimitType;
+import org.biopax.paxtools.query.wrapperL3.Filter;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the results of the {@link QueryExecuter} queries, so that a repeated query (the same
+ * kind of query, with the same seed, parameters and filters, on the same model) does not run again.
+ *
+ * The seed is compared by the URIs of the elements, and the filters by their
+ * {@link Filter#getKey() keys}. The size of a cached result is the number of elements in it; when
+ * the total size exceeds the capacity, the least recently used results are evicted. All the
+ * results of a model are discarded as soon as a query sees that the model is modified (see
+ * {@link Model#getModCount()}); changes of the element properties alone are not detected, so call
+ * {@link #clear()} after such changes. The queries on a model that does not count its changes are
+ * not cached.
+ *
+ * The models, and the filters that are keys of themselves, are only weakly referenced; the results
+ * of them are discarded after they are garbage collected.
+ *
+ * The cached results are unmodifiable, as they are shared by the callers. This class is
+ * thread-safe; concurrent misses of the same query may run it more than once, though.
+ */
+public class QueryCache
+{
+	/**
+	 * Maximum total size of the cached results.
+	 */
+	private final long capacity;
+
+	/**
+	 * Cached results, in the order of access.
+	 */
+	private final LinkedHashMap<List<Object>, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	/**
+	 * The latest modification count seen of each model.
+	 */
+	private final Map<WeakKey, Long> modCounts = new HashMap<>();
+
+	/**
+	 * Receives the weak keys of the garbage collected models and filters.
+	 */
+	private final ReferenceQueue<Object> collected = new ReferenceQueue<>();
+
+	/**
+	 * Total size of the cached results.
+	 */
+	private long size;
+
+	private long hitCount;
+
+	private long missCount;
+
+	private long evictionCount;
+
+	/**
+	 * Constructor with the capacity.
+	 * @param capacity maximum total number of elements in the cached results
+	 */
+	public QueryCache(long capacity)
+	{
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Gets neighborhood of the source set.
+	 *
+	 * @param sourceSet seed to the query
+	 * @param model BioPAX model
+	 * @param limit neigborhood distance to get
+	 * @param direction UPSTREAM, DOWNSTREAM or BOTHSTREAM
+	 * @param filters for filtering graph elements
+	 * @return BioPAX elements in the result set
+	 * @see QueryExecuter#runNeighborhood(Set, Model, int, Direction, Filter...)
+	 */
+	public Set<BioPAXElement> runNeighborhood(Set<BioPAXElement> sourceSet, Model model, int limit,
+		Direction direction, Filter... filters)
+	{
+		return get(model, key("neighborhood", uris(sourceSet), filters, limit, direction), () ->
+			QueryExecuter.runNeighborhood(sourceSet, model, limit, direction, filters));
+	}
+
+	/**
+	 * Gets neighborhood of the source sets.
+	 *
+	 * @param sourceSets seed to the query
+	 * @param model BioPAX model
+	 * @param limit neigborhood distance to get
+	 * @param direction UPSTREAM, DOWNSTREAM or BOTHSTREAM
+	 * @param filters for filtering graph elements
+	 * @return BioPAX elements in the result set
+	 * @see QueryExecuter#runNeighborhoodMultiSet(Set, Model, int, Direction, Filter...)
+	 */
+	public Set<BioPAXElement> runNeighborhoodMultiSet(Set<Set<BioPAXElement>> sourceSets,
+		Model model, int limit, Direction direction, Filter... filters)
+	{
+		return get(model, key("neighborhoodMultiSet", uriSets(sourceSets), filters, limit, direction),
+			() -> QueryExecuter.runNeighborhoodMultiSet(sourceSets, model, limit, direction, filters));
+	}
+
+	/**
+	 * Gets the graph constructed by the paths between the given seed nodes.
+	 * @param sourceSet Seed to the query
+	 * @param model BioPAX model
+	 * @param limit Length limit for the paths to be found
+	 * @param filters optional filters - for filtering graph elements
+	 * @return BioPAX elements in the result
+	 * @see QueryExecuter#runPathsBetween(Set, Model, int, Filter...)
+	 */
+	public Set<BioPAXElement> runPathsBetween(Set<BioPAXElement> sourceSet, Model model, int limit,
+		Filter... filters)
+	{
+		return get(model, key("pathsBetween", uris(sourceSet), filters, limit), () ->
+			QueryExecuter.runPathsBetween(sourceSet, model, limit, filters));
+	}
+
+	/**
+	 * Gets the graph constructed by the paths between the given seed sets.
+	 * @param sourceSets Seed to the query
+	 * @param model BioPAX model
+	 * @param limit Length limit for the paths to be found
+	 * @param filters optional filters - for filtering graph elements
+	 * @return BioPAX elements in the result
+	 * @see QueryExecuter#runPathsBetweenMultiSet(Set, Model, int, Filter...)
+	 */
+	public Set<BioPAXElement> runPathsBetweenMultiSet(Set<Set<BioPAXElement>> sourceSets,
+		Model model, int limit, Filter... filters)
+	{
+		return get(model, key("pathsBetweenMultiSet", uriSets(sourceSets), filters, limit), () ->
+			QueryExecuter.runPathsBetweenMultiSet(sourceSets, model, limit, filters));
+	}
+
+	/**
+	 * Gets the graph composed of the paths that start at a source node and end at a target node.
+	 * @param sourceSet Seeds for start points of paths
+	 * @param targetSet Seeds for end points of paths
+	 * @param model BioPAX model
+	 * @param limitType either NORMAL or SHORTEST_PLUS_K
+	 * @param limit Length limit for the paths to be found
+	 * @param filters for filtering graph elements
+	 * @return BioPAX elements in the result
+	 * @see QueryExecuter#runPathsFromTo(Set, Set, Model, LimitType, int, Filter...)
+	 */
+	public Set<BioPAXElement> runPathsFromTo(Set<BioPAXElement> sourceSet,
+		Set<BioPAXElement> targetSet, Model model, LimitType limitType, int limit, Filter... filters)
+	{
+		return get(model, key("pathsFromTo", uris(sourceSet), filters, uris(targetSet), limitType,
+			limit), () -> QueryExecuter.runPathsFromTo(sourceSet, targetSet, model, limitType, limit,
+			filters));
+	}
+
+	/**
+	 * Gets the elements in the common upstream or downstream of the seed
+	 * @param sourceSet Seed to the query
+	 * @param model BioPAX model
+	 * @param direction UPSTREAM or DOWNSTREAM
+	 * @param limit Length limit for the search
+	 * @param filters for filtering graph elements
+	 * @return BioPAX elements in the result
+	 * @see QueryExecuter#runCommonStream(Set, Model, Direction, int, Filter...)
+	 */
+	public Set<BioPAXElement> runCommonStream(Set<BioPAXElement> sourceSet, Model model,
+		Direction direction, int limit, Filter... filters)
+	{
+		return get(model, key("commonStream", uris(sourceSet), filters, direction, limit), () ->
+			QueryExecuter.runCommonStream(sourceSet, model, direction, limit, filters));
+	}
+
+	/**
+	 * First finds the common stream, then completes it with the paths between seed and common
+	 * stream.
+	 * @param sourceSet Seed to the query
+	 * @param model BioPAX model
+	 * @param direction UPSTREAM or DOWNSTREAM
+	 * @param limit Length limit for the search
+	 * @param filters for filtering graph elements
+	 * @return BioPAX elements in the result
+	 * @see QueryExecuter#runCommonStreamWithPOI(Set, Model, Direction, int, Filter...)
+	 */
+	public Set<BioPAXElement> runCommonStreamWithPOI(Set<BioPAXElement> sourceSet, Model model,
+		Direction direction, int limit, Filter... filters)
+	{
+		return get(model, key("commonStreamWithPOI", uris(sourceSet), filters, direction, limit), () ->
+			QueryExecuter.runCommonStreamWithPOI(sourceSet, model, direction, limit, filters));
+	}
+
+	/**
+	 * Gets the cached result of the query, or runs the query and caches the result.
+	 * @param model the queried model
+	 * @param key the query key, without the model
+	 * @param query runs the query
+	 * @return the query result
+	 */
+	private Set<BioPAXElement> get(Model model, List<Object> key, Supplier<Set<BioPAXElement>> query)
+	{
+		long modCount = model.getModCount();
+
+		if (modCount < 0) return Collections.unmodifiableSet(query.get());
+
+		WeakKey modelKey = new WeakKey(model, collected);
+		key.add(0, modelKey);
+
+		synchronized (this)
+		{
+			discardCollected();
+
+			Long seen = modCounts.get(modelKey);
+
+			// the count has changed since the last query on the model
+			if (seen == null || seen < modCount)
+			{
+				if (seen != null) discardOutdated(model, modCount);
+				modCounts.put(modelKey, modCount);
+			}
+
+			Entry entry = entries.get(key);
+
+			if (entry != null && entry.modCount == modCount)
+			{
+				hitCount++;
+				return entry.result;
+			}
+			missCount++;
+		}
+
+		Set<BioPAXElement> result = Collections.unmodifiableSet(query.get());
+
+		synchronized (this)
+		{
+			// the model may be changed during the query
+			if (result.size() <= capacity && model.getModCount() == modCount)
+			{
+				Entry old = entries.put(key, new Entry(result, modCount));
+				if (old != null) size -= old.result.size();
+				size += result.size();
+
+				evict();
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Removes the results of the earlier versions of the model.
+	 * @param model the modified model
+	 * @param modCount current modification count of the model
+	 */
+	private void discardOutdated(Model model, long modCount)
+	{
+		for (Iterator<Map.Entry<List<Object>, Entry>> iter = entries.entrySet().iterator();
+			iter.hasNext();)
+		{
+			Map.Entry<List<Object>, Entry> entry = iter.next();
+
+			if (((WeakKey) entry.getKey().get(0)).get() == model && entry.getValue().modCount != modCount)
+			{
+				size -= entry.getValue().result.size();
+				iter.remove();
+			}
+		}
+	}
+
+	/**
+	 * Removes the results of the garbage collected models and filters.
+	 */
+	private void discardCollected()
+	{
+		if (collected.poll() == null) return;
+		while (collected.poll() != null);
+
+		modCounts.keySet().removeIf(modelKey -> modelKey.get() == null);
+
+		for (Iterator<Map.Entry<List<Object>, Entry>> iter = entries.entrySet().iterator();
+			iter.hasNext();)
+		{
+			Map.Entry<List<Object>, Entry> entry = iter.next();
+
+			if (isCollected(entry.getKey()))
+			{
+				size -= entry.getValue().result.size();
+				iter.remove();
+			}
+		}
+	}
+
+	/**
+	 * @param key a query key
+	 * @return true if the model or a filter of the key is garbage collected
+	 */
+	private static boolean isCollected(List<Object> key)
+	{
+		if (((WeakKey) key.get(0)).get() == null) return true;
+
+		for (Object filterKey : (Set<?>) key.get(3))
+		{
+			if (filterKey instanceof WeakKey && ((WeakKey) filterKey).get() == null) return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Removes the least recently used results until the total size is within the capacity.
+	 */
+	private void evict()
+	{
+		for (Iterator<Entry> iter = entries.values().iterator(); size > capacity && iter.hasNext();)
+		{
+			size -= iter.next().result.size();
+			iter.remove();
+			evictionCount++;
+		}
+	}
+
+	/**
+	 * Removes all the cached results.
+	 */
+	public synchronized void clear()
+	{
+		entries.clear();
+		modCounts.clear();
+		size = 0;
+	}
+
+	/**
+	 * @return Number of the queries answered from the cache
+	 */
+	public synchronized long getHitCount()
+	{
+		return hitCount;
+	}
+
+	/**
+	 * @return Number of the queries that had to run
+	 */
+	public synchronized long getMissCount()
+	{
+		return missCount;
+	}
+
+	/**
+	 * @return Number of the results evicted to stay within the capacity
+	 */
+	public synchronized long getEvictionCount()
+	{
+		return evictionCount;
+	}
+
+	/**
+	 * @return Total size (number of elements) of the cached results
+	 */
+	public synchronized long getSize()
+	{
+		return size;
+	}
+
+	/**
+	 * @return Number of the cached results
+	 */
+	public synchronized int getResultCount()
+	{
+		return entries.size();
+	}
+
+	/**
+	 * Makes the key of a query.
+	 * @param kind name of the query
+	 * @param seed canonical seed
+	 * @param filters filters of the query
+	 * @param params other parameters
+	 * @return the key
+	 */
+	private List<Object> key(String kind, Object seed, Filter[] filters, Object... params)
+	{
+		// the order of the filters does not matter
+		Set<Object> filterKeys = new HashSet<>();
+		for (Filter filter : filters)
+		{
+			Object filterKey = filter.getKey();
+			filterKeys.add(filterKey == filter ? new WeakKey(filter, collected) : filterKey);
+		}
+
+		List<Object> key = new ArrayList<>();
+		key.add(kind);
+		key.add(seed);
+		key.add(filterKeys);
+		key.addAll(Arrays.asList(params));
+		return key;
+	}
+
+	/**
+	 * @param elements seed elements
+	 * @return URIs of the elements
+	 */
+	private static Set<String> uris(Set<BioPAXElement> elements)
+	{
+		Set<String> uris = new HashSet<>();
+		for (BioPAXElement element : elements)
+		{
+			uris.add(element.getUri());
+		}
+		return uris;
+	}
+
+	/**
+	 * @param sets seed element sets
+	 * @return URIs of the elements, in sets
+	 */
+	private static Set<Set<String>> uriSets(Collection<Set<BioPAXElement>> sets)
+	{
+		Set<Set<String>> uris = new HashSet<>();
+		for (Set<BioPAXElement> set : sets)
+		{
+			uris.add(uris(set));
+		}
+		return uris;
+	}
+
+	/**
+	 * A cached result and the modification count of the model it is computed from.
+	 */
+	private static class Entry
+	{
+		final Set<BioPAXElement> result;
+		final long modCount;
+
+		Entry(Set<BioPAXElement> result, long modCount)
+		{
+			this.result = result;
+			this.modCount = modCount;
+		}
+	}
+
+	/**
+	 * Weakly references a model or a filter, and compares them by identity, even if their class
+	 * overrides equals.
+	 */
+	private static class WeakKey extends WeakReference<Object>
+	{
+		final int hash;
+
+		WeakKey(Object referent, ReferenceQueue<Object> queue)
+		{
+			super(referent, queue);
+			hash = System.identityHashCode(referent);
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (obj == this) return true;
+			if (!(obj instanceof WeakKey)) return false;
+
+			Object referent = get();
+			return referent != null && ((WeakKey) obj).get() == referent;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return hash;
+		}
+	}
+}
@@ -5,11 +5,14 @@ import org.biopax.paxtools.model.BioPAXLevel;
 import org.biopax.paxtools.model.Model;
 import org.biopax.paxtools.model.level3.*;
 import org.biopax.paxtools.query.algorithm.*;
+import org.biopax.paxtools.query.model.CompiledGraph;
 import org.biopax.paxtools.query.model.Graph;
 import org.biopax.paxtools.query.model.GraphObject;
 import org.biopax.paxtools.query.model.Node;
 import org.biopax.paxtools.query.wrapperL3.Filter;
 import org.biopax.paxtools.query.wrapperL3.GraphL3;
+import org.biopax.paxtools.query.wrapperL3.RelatedPhysicalEntityIndex;
+import org.biopax.paxtools.query.wrapperL3.SharedGraphL3;
 import org.biopax.paxtools.query.wrapperL3undirected.GraphL3Undirected;
 
 import java.util.*;
@@ -18,6 +21,11 @@ import java.util.*;
  * This class provides static methods to execute graph queries. These cover only the most frequent
  * use cases. Users can use these methods as example for executing the query they need.
  *
+ * Each method that takes a Model builds a new graph for the query. To serve many queries on the same
+ * model, build a {@link SharedGraphL3} once and use the methods that take it instead
+ * (these can be called from multiple threads). The path queries on a SharedGraphL3 can return a
+ * slightly different result than on the model, see {@link SharedGraphL3}.
+ *
  * @author Ozgun Babur
  */
 public class QueryExecuter
@@ -55,12 +63,44 @@ public class QueryExecuter
 		}
 		else return Collections.emptySet();
 
+		return runNeighborhood(sourceSet, graph, limit, direction);
+	}
+
+	/**
+	 * Gets neighborhood of the source set.
+	 *
+	 * @param sourceSet seed to the query
+	 * @param graph shared graph of the BioPAX model
+	 * @param limit neigborhood distance to get
+	 * @param direction UPSTREAM, DOWNSTREAM or BOTHSTREAM
+	 * @param filters for filtering graph elements
+	 * @return BioPAX elements in the result set
+	 */
+	public static Set<BioPAXElement> runNeighborhood(
+		Set<BioPAXElement> sourceSet,
+		SharedGraphL3 graph,
+		int limit,
+		Direction direction,
+		Filter... filters)
+	{
+		if (direction == Direction.UNDIRECTED)
+		{
+			return runNeighborhood(sourceSet, graph.getModel(), limit, direction, filters);
+		}
+
+		return runNeighborhood(sourceSet, graph.view(filters), limit, direction);
+	}
+
+	private static Set<BioPAXElement> runNeighborhood(Set<BioPAXElement> sourceSet, Graph graph,
+		int limit, Direction direction)
+	{
 		Set<Node> source = prepareSingleNodeSet(sourceSet, graph);
 
 		if (sourceSet.isEmpty()) return Collections.emptySet();
 
 		NeighborhoodQuery query = new NeighborhoodQuery(source, direction, limit);
-		Set<GraphObject> resultWrappers = query.run();
+		Set<GraphObject> resultWrappers = isCompiled(graph) ?
+			query.run(compile(graph)) : query.run();
 		return convertQueryResult(resultWrappers, graph, true);
 	}
 
@@ -97,12 +137,44 @@ public class QueryExecuter
 		}
 		else return Collections.emptySet();
 
+		return runNeighborhoodMultiSet(sourceSets, graph, limit, direction);
+	}
+
+	/**
+	 * Gets neighborhood of the source set.
+	 *
+	 * @param sourceSets seed to the query
+	 * @param graph shared graph of the BioPAX model
+	 * @param limit neigborhood distance to get
+	 * @param direction UPSTREAM, DOWNSTREAM or BOTHSTREAM
+	 * @param filters for filtering graph elements
+	 * @return BioPAX elements in the result set
+	 */
+	public static Set<BioPAXElement> runNeighborhoodMultiSet(
+		Set<Set<BioPAXElement>> sourceSets,
+		SharedGraphL3 graph,
+		int limit,
+		Direction direction,
+		Filter... filters)
+	{
+		if (direction == Direction.UNDIRECTED)
+		{
+			return runNeighborhoodMultiSet(sourceSets, graph.getModel(), limit, direction, filters);
+		}
+
+		return runNeighborhoodMultiSet(sourceSets, graph.view(filters), limit, direction);
+	}
+
+	private static Set<BioPAXElement> runNeighborhoodMultiSet(Set<Set<BioPAXElement>> sourceSets,
+		Graph graph, int limit, Direction direction)
+	{
 		Set<Node> source = prepareSingleNodeSetFromSets(sourceSets, graph);
 
 		if (sourceSets.isEmpty()) return Collections.emptySet();
 
 		NeighborhoodQuery query = new NeighborhoodQuery(source, direction, limit);
-		Set<GraphObject> resultWrappers = query.run();
+		Set<GraphObject> resultWrappers = isCompiled(graph) ?
+			query.run(compile(graph)) : query.run();
 		return convertQueryResult(resultWrappers, graph, true);
 	}
 
@@ -126,12 +198,34 @@ public class QueryExecuter
 		}
 		else return Collections.emptySet();
 
+		return runPathsBetween(sourceSet, graph, limit);
+	}
+
+	/**
+	 * Gets the graph constructed by the paths between the given seed nodes. Does not get paths
+	 * between physical entities that belong the same entity reference.
+	 * The result can differ from the same query on the model, see {@link SharedGraphL3}.
+	 * @param sourceSet Seed to the query
+	 * @param graph shared graph of the BioPAX model
+	 * @param limit Length limit for the paths to be found
+	 * @param filters optional filters - for filtering graph elements
+	 * @return BioPAX elements in the result
+	 */
+	public static Set<BioPAXElement> runPathsBetween(Set<BioPAXElement> sourceSet, SharedGraphL3 graph,
+		int limit, Filter... filters)
+	{
+		return runPathsBetween(sourceSet, graph.view(filters), limit);
+	}
+
+	private static Set<BioPAXElement> runPathsBetween(Set<BioPAXElement> sourceSet, Graph graph, int limit)
+	{
 		Collection<Set<Node>> sourceWrappers = prepareNodeSets(sourceSet, graph);
 
 		if (sourceWrappers.size() < 2) return Collections.emptySet();
 
 		PathsBetweenQuery query = new PathsBetweenQuery(sourceWrappers, limit);
-		Set<GraphObject> resultWrappers = query.run();
+		Set<GraphObject> resultWrappers = isCompiled(graph) ?
+			query.run(compile(graph)) : query.run();
 		return convertQueryResult(resultWrappers, graph, true);
 	}
 
@@ -155,15 +249,90 @@ public class QueryExecuter
 		}
 		else return Collections.emptySet();
 
+		return runPathsBetweenMultiSet(sourceSets, graph, limit);
+	}
+
+	/**
+	 * Gets the graph constructed by the paths between the given seed nodes. Does not get paths
+	 * between physical entities that belong the same entity reference.
+	 * The result can differ from the same query on the model, see {@link SharedGraphL3}.
+	 * @param sourceSets Seed to the query
+	 * @param graph shared graph of the BioPAX model
+	 * @param limit Length limit for the paths to be found
+	 * @param filters optional filters - for filtering graph elements
+	 * @return BioPAX elements in the result
+	 */
+	public static Set<BioPAXElement> runPathsBetweenMultiSet(Set<Set<BioPAXElement>> sourceSets, SharedGraphL3 graph,
+		int limit, Filter... filters)
+	{
+		return runPathsBetweenMultiSet(sourceSets, graph.view(filters), limit);
+	}
+
+	private static Set<BioPAXElement> runPathsBetweenMultiSet(Set<Set<BioPAXElement>> sourceSets,
+		Graph graph, int limit)
+	{
 		Collection<Set<Node>> sourceWrappers = prepareNodeSetsFromSets(sourceSets, graph);
 
 		if (sourceWrappers.size() < 2) return Collections.emptySet();
 
 		PathsBetweenQuery query = new PathsBetweenQuery(sourceWrappers, limit);
-		Set<GraphObject> resultWrappers = query.run();
+		Set<GraphObject> resultWrappers = isCompiled(graph) ?
+			query.run(compile(graph)) : query.run();
 		return convertQueryResult(resultWrappers, graph, true);
 	}
 
+	/**
+	 * Gets the k shortest paths from the source set to the target set, each as a list of the BioPAX
+	 * elements on the path, from source to target. Unlike runPathsFromTo, which gets the union of
+	 * the paths, each path is separate, and paths are in ascending length.
+	 * @param sourceSet Seed to the query
+	 * @param targetSet Target of the paths
+	 * @param model BioPAX model
+	 * @param direction DOWNSTREAM, or UPSTREAM to follow the interactions backwards
+	 * @param limit Length limit for the paths to be found
+	 * @param k Maximum number of paths to get
+	 * @param filters for filtering graph elements
+	 * @return Paths, in ascending length
+	 */
+	public static List<List<BioPAXElement>> runShortestPaths(
+		Set<BioPAXElement> sourceSet,
+		Set<BioPAXElement> targetSet,
+		Model model,
+		Direction direction,
+		int limit,
+		int k,
+		Filter... filters)
+	{
+		if (model.getLevel() != BioPAXLevel.L3) return Collections.emptyList();
+
+		Graph graph = new GraphL3(model, filters);
+
+		Set<Node> source = prepareSingleNodeSet(sourceSet, graph);
+		Set<Node> target = prepareSingleNodeSet(targetSet, graph);
+
+		ShortestPathsQuery query = new ShortestPathsQuery(source, target, direction, limit);
+
+		List<List<BioPAXElement>> paths = new ArrayList<>();
+		for (ShortestPathsQuery.Path path : query.run(k))
+		{
+			List<BioPAXElement> elements = new ArrayList<>();
+
+			// edges do not wrap any element, and some elements have more than one node
+			for (GraphObject go : path.getObjects())
+			{
+				for (Object o : graph.getWrappedSet(Collections.singleton(go)))
+				{
+					if (elements.isEmpty() || elements.get(elements.size() - 1) != o)
+					{
+						elements.add((BioPAXElement) o);
+					}
+				}
+			}
+			paths.add(elements);
+		}
+		return paths;
+	}
+
 	/**
 	 * Gets paths between the seed nodes.
 	 * @param sourceSet Seed to the query
@@ -208,11 +377,40 @@ public class QueryExecuter
 		}
 		else return Collections.emptySet();
 
+		return runPathsFromTo(sourceSet, targetSet, graph, limitType, limit);
+	}
+
+	/**
+	 * Gets paths the graph composed of the paths from a source node, and ends at a target node.
+	 * The result can differ from the same query on the model, see {@link SharedGraphL3}.
+	 * @param sourceSet Seeds for start points of paths
+	 * @param targetSet Seeds for end points of paths
+	 * @param graph shared graph of the BioPAX model
+	 * @param limitType either NORMAL or SHORTEST_PLUS_K
+	 * @param limit Length limit fothe paths to be found
+	 * @param filters for filtering graph elements
+	 * @return BioPAX elements in the result
+	 */
+	public static Set<BioPAXElement> runPathsFromTo(
+		Set<BioPAXElement> sourceSet,
+		Set<BioPAXElement> targetSet,
+		SharedGraphL3 graph,
+		LimitType limitType,
+		int limit,
+		Filter... filters)
+	{
+		return runPathsFromTo(sourceSet, targetSet, graph.view(filters), limitType, limit);
+	}
+
+	private static Set<BioPAXElement> runPathsFromTo(Set<BioPAXElement> sourceSet,
+		Set<BioPAXElement> targetSet, Graph graph, LimitType limitType, int limit)
+	{
 		Set<Node> source = prepareSingleNodeSet(sourceSet, graph);
 		Set<Node> target = prepareSingleNodeSet(targetSet, graph);
 
 		PathsFromToQuery query = new PathsFromToQuery(source, target, limitType, limit, true);
-		Set<GraphObject> resultWrappers = query.run();
+		Set<GraphObject> resultWrappers = isCompiled(graph) ?
+			query.run(compile(graph)) : query.run();
 		return convertQueryResult(resultWrappers, graph, true);
 	}
 
@@ -242,11 +440,40 @@ public class QueryExecuter
 		}
 		else return Collections.emptySet();
 
+		return runPathsFromToMultiSet(sourceSets, targetSets, graph, limitType, limit);
+	}
+
+	/**
+	 * Gets paths the graph composed of the paths from a source node, and ends at a target node.
+	 * The result can differ from the same query on the model, see {@link SharedGraphL3}.
+	 * @param sourceSets Seeds for start points of paths
+	 * @param targetSets Seeds for end points of paths
+	 * @param graph shared graph of the BioPAX model
+	 * @param limitType either NORMAL or SHORTEST_PLUS_K
+	 * @param limit Length limit fothe paths to be found
+	 * @param filters for filtering graph elements
+	 * @return BioPAX elements in the result
+	 */
+	public static Set<BioPAXElement> runPathsFromToMultiSet(
+		Set<Set<BioPAXElement>> sourceSets,
+		Set<Set<BioPAXElement>> targetSets,
+		SharedGraphL3 graph,
+		LimitType limitType,
+		int limit,
+		Filter... filters)
+	{
+		return runPathsFromToMultiSet(sourceSets, targetSets, graph.view(filters), limitType, limit);
+	}
+
+	private static Set<BioPAXElement> runPathsFromToMultiSet(Set<Set<BioPAXElement>> sourceSets,
+		Set<Set<BioPAXElement>> targetSets, Graph graph, LimitType limitType, int limit)
+	{
 		Set<Node> source = prepareSingleNodeSetFromSets(sourceSets, graph);
 		Set<Node> target = prepareSingleNodeSetFromSets(targetSets, graph);
 
 		PathsFromToQuery query = new PathsFromToQuery(source, target, limitType, limit, true);
-		Set<GraphObject> resultWrappers = query.run();
+		Set<GraphObject> resultWrappers = isCompiled(graph) ?
+			query.run(compile(graph)) : query.run();
 		return convertQueryResult(resultWrappers, graph, true);
 	}
 
@@ -274,13 +501,39 @@ public class QueryExecuter
 		}
 		else return Collections.emptySet();
 
+		return runCommonStream(sourceSet, graph, direction, limit);
+	}
+
+	/**
+	 * Gets the elements in the common upstream or downstream of the seed
+	 * @param sourceSet Seed to the query
+	 * @param graph shared graph of the BioPAX model
+	 * @param direction UPSTREAM or DOWNSTREAM
+	 * @param limit Length limit for the search
+	 * @param filters for filtering graph elements
+	 * @return BioPAX elements in the result
+	 */
+	public static Set<BioPAXElement> runCommonStream(
+		Set<BioPAXElement> sourceSet,
+		SharedGraphL3 graph,
+		Direction direction,
+		int limit,
+		Filter... filters)
+	{
+		return runCommonStream(sourceSet, graph.view(filters), direction, limit);
+	}
+
+	private static Set<BioPAXElement> runCommonStream(Set<BioPAXElement> sourceSet, Graph graph,
+		Direction direction, int limit)
+	{
 		Collection<Set<Node>> source = prepareNodeSets(sourceSet, graph);
 
 		if (sourceSet.size() < 2) return Collections.emptySet();
 
 		CommonStreamQuery query = new CommonStreamQuery(source, direction, limit);
 
-		Set<GraphObject> resultWrappers = query.run();
+		Set<GraphObject> resultWrappers = isCompiled(graph) ?
+			query.run(compile(graph)) : query.run();
 		return convertQueryResult(resultWrappers, graph, false);
 	}
 
@@ -308,13 +561,39 @@ public class QueryExecuter
 		}
 		else return Collections.emptySet();
 
+		return runCommonStreamMultiSet(sourceSets, graph, direction, limit);
+	}
+
+	/**
+	 * Gets the elements in the common upstream or downstream of the seed
+	 * @param sourceSets Seed to the query
+	 * @param graph shared graph of the BioPAX model
+	 * @param direction UPSTREAM or DOWNSTREAM
+	 * @param limit Length limit for the search
+	 * @param filters for filtering graph elements
+	 * @return BioPAX elements in the result
+	 */
+	public static Set<BioPAXElement> runCommonStreamMultiSet(
+		Set<Set<BioPAXElement>> sourceSets,
+		SharedGraphL3 graph,
+		Direction direction,
+		int limit,
+		Filter... filters)
+	{
+		return runCommonStreamMultiSet(sourceSets, graph.view(filters), direction, limit);
+	}
+
+	private static Set<BioPAXElement> runCommonStreamMultiSet(Set<Set<BioPAXElement>> sourceSets,
+		Graph graph, Direction direction, int limit)
+	{
 		Collection<Set<Node>> source = prepareNodeSetsFromSets(sourceSets, graph);
 
 		if (source.size() < 2) return Collections.emptySet();
 
 		CommonStreamQuery query = new CommonStreamQuery(source, direction, limit);
 
-		Set<GraphObject> resultWrappers = query.run();
+		Set<GraphObject> resultWrappers = isCompiled(graph) ?
+			query.run(compile(graph)) : query.run();
 		return convertQueryResult(resultWrappers, graph, false);
 	}
 
@@ -343,6 +622,33 @@ public class QueryExecuter
 		}
 		else return Collections.emptySet();
 
+		return runCommonStreamWithPOI(sourceSet, graph, direction, limit);
+	}
+
+	/**
+	 * First finds the common stream, then completes it with the paths between seed and common
+	 * stream.
+	 * The result can differ from the same query on the model, see {@link SharedGraphL3}.
+	 * @param sourceSet Seed to the query
+	 * @param graph shared graph of the BioPAX model
+	 * @param direction UPSTREAM or DOWNSTREAM
+	 * @param limit Length limit for the search
+	 * @param filters for filtering graph elements
+	 * @return BioPAX elements in the result
+	 */
+	public static Set<BioPAXElement> runCommonStreamWithPOI(
+		Set<BioPAXElement> sourceSet,
+		SharedGraphL3 graph,
+		Direction direction,
+		int limit,
+		Filter... filters)
+	{
+		return runCommonStreamWithPOI(sourceSet, graph.view(filters), direction, limit);
+	}
+
+	private static Set<BioPAXElement> runCommonStreamWithPOI(Set<BioPAXElement> sourceSet,
+		Graph graph, Direction direction, int limit)
+	{
 		Collection<Set<Node>> sourceSets = prepareNodeSets(sourceSet, graph);
 
 		if (sourceSet.size() < 2) return Collections.emptySet();
@@ -375,6 +681,33 @@ public class QueryExecuter
 		}
 		else return Collections.emptySet();
 
+		return runCommonStreamWithPOIMultiSet(sourceSets, graph, direction, limit);
+	}
+
+	/**
+	 * First finds the common stream, then completes it with the paths between seed and common
+	 * stream.
+	 * The result can differ from the same query on the model, see {@link SharedGraphL3}.
+	 * @param sourceSets Seed to the query
+	 * @param graph shared graph of the BioPAX model
+	 * @param direction UPSTREAM or DOWNSTREAM
+	 * @param limit Length limit for the search
+	 * @param filters for filtering graph elements
+	 * @return BioPAX elements in the result
+	 */
+	public static Set<BioPAXElement> runCommonStreamWithPOIMultiSet(
+		Set<Set<BioPAXElement>> sourceSets,
+		SharedGraphL3 graph,
+		Direction direction,
+		int limit,
+		Filter... filters)
+	{
+		return runCommonStreamWithPOIMultiSet(sourceSets, graph.view(filters), direction, limit);
+	}
+
+	private static Set<BioPAXElement> runCommonStreamWithPOIMultiSet(
+		Set<Set<BioPAXElement>> sourceSets, Graph graph, Direction direction, int limit)
+	{
 		Collection<Set<Node>> nodes = prepareNodeSetsFromSets(sourceSets, graph);
 
 		if (nodes.size() < 2) return Collections.emptySet();
@@ -389,7 +722,8 @@ public class QueryExecuter
 
 		CommonStreamQuery commStream = new CommonStreamQuery(sourceSets, direction, limit);
 
-		Set<GraphObject> resultWrappers = commStream.run();
+		Set<GraphObject> resultWrappers = isCompiled(graph) ?
+			commStream.run(compile(graph)) : commStream.run();
 
 		// Stop if they have no common stream.
 		if (resultWrappers.isEmpty()) return Collections.emptySet();
@@ -424,11 +758,29 @@ public class QueryExecuter
 			poi = new PathsFromToQuery(target, source, LimitType.NORMAL, limit, true);
 		}
 
-		resultWrappers = poi.run();
+		resultWrappers = isCompiled(graph) ? poi.run(compile(graph)) : poi.run();
 
 		return convertQueryResult(resultWrappers, graph, true);
 	}
 
+	/**
+	 * @param graph Queried graph
+	 * @return Whether to run the query on the compiled graph (of a shared graph)
+	 */
+	private static boolean isCompiled(Graph graph)
+	{
+		return graph instanceof SharedGraphL3.View;
+	}
+
+	/**
+	 * @param graph Queried graph, a shared graph view
+	 * @return The compiled graph
+	 */
+	private static CompiledGraph compile(Graph graph)
+	{
+		return ((SharedGraphL3.View) graph).getCompiledGraph();
+	}
+
 	/**
 	 * Converts the query result from wrappers to wrapped BioPAX elements.
 	 * @param resultWrappers Wrappers of the result set
@@ -436,7 +788,7 @@ public class QueryExecuter
 	 * @param removeDisconnected whether to remove disconnected non-complex type physical entities
 	 * @return Set of elements in the result
 	 */
-	private static Set<BioPAXElement> convertQueryResult(
+	static Set<BioPAXElement> convertQueryResult(
 		Set<GraphObject> resultWrappers, Graph graph, boolean removeDisconnected)
 	{
 		Set<Object> result = graph.getWrappedSet(resultWrappers);
@@ -499,7 +851,8 @@ public class QueryExecuter
 	 */
 	public static Set<Node> prepareSingleNodeSet(Set<BioPAXElement> elements, Graph graph)
 	{
-		Map<BioPAXElement, Set<PhysicalEntity>> map = getRelatedPhysicalEntityMap(elements);
+		Map<BioPAXElement, Set<PhysicalEntity>> map = getRelatedPhysicalEntityMap(elements,
+			getRelatedPhysicalEntityIndex(graph));
 
 		Set<PhysicalEntity> pes = new HashSet<>();
 		for (Set<PhysicalEntity> valueSet : map.values())
@@ -545,7 +898,8 @@ public class QueryExecuter
 	{
 		Set<Set<Node>> sets = new HashSet<>();
 
-		Map<BioPAXElement, Set<PhysicalEntity>> map = getRelatedPhysicalEntityMap(elements);
+		Map<BioPAXElement, Set<PhysicalEntity>> map = getRelatedPhysicalEntityMap(elements,
+			getRelatedPhysicalEntityIndex(graph));
 
 		for (Set<PhysicalEntity> pes : map.values())
 		{
@@ -572,7 +926,7 @@ public class QueryExecuter
 	 * @param graph Owner graph
 	 * @return Related wrappers in individual sets
 	 */
-	private static Collection<Set<Node>> prepareNodeSetsFromSets(Set<Set<BioPAXElement>> sets, Graph graph)
+	static Collection<Set<Node>> prepareNodeSetsFromSets(Set<Set<BioPAXElement>> sets, Graph graph)
 	{
 		Set<Set<Node>> result = new HashSet<>();
 
@@ -593,13 +947,30 @@ public class QueryExecuter
 	 */
 	public static Map<BioPAXElement, Set<PhysicalEntity>> getRelatedPhysicalEntityMap(
 		Collection<BioPAXElement> elements)
+	{
+		return getRelatedPhysicalEntityMap(elements, null);
+	}
+
+	/**
+	 * Maps each BioPAXElement to its related PhysicalEntity objects, looking them up in the index
+	 * when it is up to date.
+	 *
+	 * @param elements Elements to map
+	 * @param index Related physical entities of the model elements, can be null
+	 * @return The mapping
+	 */
+	public static Map<BioPAXElement, Set<PhysicalEntity>> getRelatedPhysicalEntityMap(
+		Collection<BioPAXElement> elements, RelatedPhysicalEntityIndex index)
 	{
 		replaceXrefsWithRelatedER(elements);
 		Map<BioPAXElement, Set<PhysicalEntity>> map = new HashMap<>();
 
+		if (index != null && !index.update()) index = null;
+
 		for (BioPAXElement ele : elements)
 		{
-			Set<PhysicalEntity> ents = getRelatedPhysicalEntities(ele, null);
+			Set<PhysicalEntity> ents = index == null ? getRelatedPhysicalEntities(ele, null) :
+				index.getRelatedPhysicalEntities(ele);
 			if (!ents.isEmpty())
 			{
 				map.put(ele, ents);
@@ -608,6 +979,16 @@ public class QueryExecuter
 		return map;
 	}
 
+	/**
+	 * @param graph Graph of the query
+	 * @return Related physical entity index of the graph, or null if it does not have one
+	 */
+	private static RelatedPhysicalEntityIndex getRelatedPhysicalEntityIndex(Graph graph)
+	{
+		return graph instanceof SharedGraphL3.View ?
+			((SharedGraphL3.View) graph).getRelatedPhysicalEntityIndex() : null;
+	}
+
 	/**
 	 * Replaces Xref objects with the related EntityReference objects. This is required for the use
 	 * case when user provides multiple xrefs that point to the same ER.
@@ -1,9 +1,15 @@
 package org.biopax.paxtools.query.algorithm;
 
+import org.biopax.paxtools.query.model.CompiledGraph;
 import org.biopax.paxtools.query.model.GraphObject;
 import org.biopax.paxtools.query.model.Node;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.BooleanSupplier;
 
 /**
  * Searches common downstream or common upstream of a specified set of entities
@@ -162,4 +168,62 @@ public class CommonStreamQuery
 	{
 		reachedCount.put(go, label);
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Runs the query on the compiled version of the graph of the source nodes.
+	 * @param graph Compiled graph, containing the source nodes
+	 * @return Common stream
+	 */
+	public Set<GraphObject> run(CompiledGraph graph)
+	{
+		return CompiledBFS.join(runAsync(graph, Runnable::run, null));
+	}
+
+	/**
+	 * Runs the query on the compiled version of the graph of the source nodes, running the search
+	 * of each source set as a separate task.
+	 * @param graph Compiled graph, containing the source nodes
+	 * @param executor Executor of the searches
+	 * @param cancelled Tells whether to stop the searches, can be null
+	 * @return Common stream, when the searches complete
+	 */
+	public CompletableFuture<Set<GraphObject>> runAsync(CompiledGraph graph, Executor executor,
+		BooleanSupplier cancelled)
+	{
+		AtomicIntegerArray reached = new AtomicIntegerArray(graph.size());
+		Queue<CompiledBFS> idle = new ConcurrentLinkedQueue<>();
+		List<CompletableFuture<Void>> searches = new ArrayList<>();
+
+		//for each set of states of entity, run BFS separately
+		for (Set<Node> source : sourceSet)
+		{
+			int[] ids = graph.getIds(source);
+
+			searches.add(CompletableFuture.runAsync(() ->
+			{
+				CompiledBFS bfs = idle.poll();
+				if (bfs == null) bfs = new CompiledBFS(graph, direction, limit, cancelled);
+
+				for (int id : bfs.run(ids, null))
+				{
+					reached.incrementAndGet(id);
+				}
+
+				idle.add(bfs);
+			}, executor));
+		}
+
+		return CompletableFuture.allOf(searches.toArray(new CompletableFuture[0])).thenApply(v ->
+		{
+			BitSet result = new BitSet(graph.size());
+
+			// the common stream is reached from all the sets (and there is none without a set)
+			for (int id = 0; id < graph.size() && !sourceSet.isEmpty(); id++)
+			{
+				if (reached.get(id) == sourceSet.size()) result.set(id);
+			}
+
+			return graph.getObjects(result);
+		});
+	}
+}
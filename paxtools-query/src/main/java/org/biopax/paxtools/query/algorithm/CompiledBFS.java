@@ -0,0 +1,398 @@
+package org.biopax.paxtools.query.algorithm;
+
+import org.biopax.paxtools.query.model.CompiledGraph;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BooleanSupplier;
+
+import static org.biopax.paxtools.query.algorithm.BFS.*;
+
+/**
+ * Breadth-first search on a {@link CompiledGraph}. This is the same algorithm as {@link BFS}
+ * (the same labels, colors and queue order), but graph objects are integer IDs, and labels and
+ * colors are kept in a hash table of integers. An instance can be run many times (with different
+ * sources); the table is reset in constant time, and its size depends only on the part of the
+ * graph that a run reaches, so the cost of a run, including the memory, does not depend on the size
+ * of the graph.
+ */
+public class CompiledBFS
+{
+	/**
+	 * The graph to search.
+	 */
+	protected final CompiledGraph graph;
+
+	/**
+	 * Distance labels of the objects and color labels of the nodes in the current run.
+	 */
+	private final IntLabelMap labels = new IntLabelMap();
+
+	/**
+	 * IDs of the objects labeled in the current run, in the order of labeling.
+	 */
+	private int[] labeled = new int[64];
+
+	private int labeledCount;
+
+	/**
+	 * Whether the direction is DOWNSTREAM, it is UPSTREAM otherwise.
+	 */
+	protected Direction direction;
+
+	/**
+	 * Stop distance.
+	 */
+	protected final int limit;
+
+	/**
+	 * BFS queue.
+	 */
+	protected final IntDeque queue = new IntDeque();
+
+	/**
+	 * Tells whether the query is cancelled (or timed out), can be null.
+	 */
+	private final BooleanSupplier cancelled;
+
+	/**
+	 * Number of processed nodes, for checking the cancellation once in a while.
+	 */
+	private int steps;
+
+	/**
+	 * Constructor with the graph, direction and distance limit.
+	 * @param graph Graph to search
+	 * @param direction Direction of the traversal
+	 * @param limit Distance limit
+	 */
+	public CompiledBFS(CompiledGraph graph, Direction direction, int limit)
+	{
+		this(graph, direction, limit, null);
+	}
+
+	/**
+	 * Constructor with the graph, direction, distance limit and cancellation check.
+	 * @param graph Graph to search
+	 * @param direction Direction of the traversal
+	 * @param limit Distance limit
+	 * @param cancelled Tells whether to stop the search (with a CancellationException), can be null
+	 */
+	public CompiledBFS(CompiledGraph graph, Direction direction, int limit, BooleanSupplier cancelled)
+	{
+		this(graph, limit, cancelled);
+
+		if (direction != Direction.UPSTREAM && direction != Direction.DOWNSTREAM)
+			throw new IllegalArgumentException("Direction has to be either upstream or downstream");
+
+		this.direction = direction;
+	}
+
+	/**
+	 * Constructor for extending algorithms that do not traverse towards a single direction.
+	 * @param graph Graph to search
+	 * @param limit Distance limit
+	 * @param cancelled Tells whether to stop the search (with a CancellationException), can be null
+	 */
+	protected CompiledBFS(CompiledGraph graph, int limit, BooleanSupplier cancelled)
+	{
+		this.graph = graph;
+		this.limit = limit;
+		this.cancelled = cancelled;
+	}
+
+	/**
+	 * Executes the algorithm. Labels of the previous run are discarded.
+	 * @param sourceSet IDs of the source nodes
+	 * @param stopSet IDs of the nodes that won't be traversed, can be null
+	 * @return IDs of the labeled objects (the BFS tree); use {@link #getLabel(int)} for the labels
+	 */
+	public int[] run(int[] sourceSet, BitSet stopSet)
+	{
+		initMaps();
+
+		// Add all source nodes to the queue if traversal is needed
+
+		if (limit > 0)
+		{
+			for (int source : sourceSet)
+			{
+				queue.addLast(source);
+			}
+		}
+
+		// Initialize dist and color of source set
+
+		for (int source : sourceSet)
+		{
+			setLabel(source, 0);
+			setColor(source, GRAY);
+
+			labelEquivRecursive(source, UPWARD, 0, true, false);
+			labelEquivRecursive(source, DOWNWARD, 0, true, false);
+		}
+
+		// Process the queue
+
+		while (!queue.isEmpty())
+		{
+			int current = queue.removeFirst();
+
+			checkCancelled();
+			processNode(current, stopSet);
+
+			// Current node is processed
+			setColor(current, BLACK);
+		}
+
+		return Arrays.copyOf(labeled, labeledCount);
+	}
+
+	/**
+	 * Stops the search if the query is cancelled. Checks it only once in a number of calls.
+	 * @throws CancellationException if cancelled
+	 */
+	protected void checkCancelled()
+	{
+		if ((++steps & 0xFFF) == 0 && cancelled != null && cancelled.getAsBoolean())
+		{
+			throw new CancellationException("The query is cancelled");
+		}
+	}
+
+	/**
+	 * Waits for the completion of a (possibly asynchronous) search, and gets the result.
+	 * @param future the search
+	 * @param <T> result type
+	 * @return the result
+	 * @throws RuntimeException the failure of the search, unwrapped
+	 */
+	static <T> T join(CompletableFuture<T> future)
+	{
+		try
+		{
+			return future.join();
+		}
+		catch (CompletionException e)
+		{
+			if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+			throw e;
+		}
+	}
+
+	/**
+	 * Clears the labels, colors and the queue.
+	 */
+	protected void initMaps()
+	{
+		labels.clear();
+		labeledCount = 0;
+		queue.clear();
+	}
+
+	/**
+	 * Processes a node.
+	 * @param current The current node
+	 * @param stopSet Nodes that won't be traversed, can be null
+	 */
+	protected void processNode(int current, BitSet stopSet)
+	{
+		// Do not process the node if it is ubique
+
+		if (graph.isUbique(current))
+		{
+			setColor(current, BLACK);
+			return;
+		}
+
+		boolean downstream = direction == Direction.DOWNSTREAM;
+		int[] index = downstream ? graph.getDownstreamIndex() : graph.getUpstreamIndex();
+		int[] edges = downstream ? graph.getDownstreamEdges() : graph.getUpstreamEdges();
+
+		// Process edges towards the direction
+
+		for (int i = index[current]; i < index[current + 1]; i++)
+		{
+			int edge = edges[i];
+
+			// Get the other end of the edge; the edge is not in the graph if that is excluded
+			int neigh = downstream ? graph.getTarget(edge) : graph.getSource(edge);
+			if (graph.isExcluded(neigh)) continue;
+
+			// Label the edge considering direction of traversal and type of current node
+
+			if (downstream || !graph.isBreadthNode(current))
+			{
+				setLabel(edge, getLabel(current));
+			}
+			else
+			{
+				setLabel(edge, getLabel(current) + 1);
+			}
+
+			boolean breadth = graph.isBreadthNode(neigh);
+
+			// Decide neighbor label according to the search direction and node type
+			int dist = getLabel(edge);
+			if (breadth && downstream) dist++;
+
+			// Check if we need to stop traversing the neighbor, enqueue otherwise
+			boolean further = (stopSet == null || !isEquivalentInTheSet(neigh, stopSet)) &&
+				(!breadth || dist < limit) && !graph.isUbique(neigh);
+
+			// Process the neighbor if not processed or not in queue
+
+			if (getColor(neigh) == WHITE)
+			{
+				// Label the neighbor
+				setLabel(neigh, dist);
+
+				if (further)
+				{
+					setColor(neigh, GRAY);
+
+					// Non-breadth nodes are added in front of the queue
+					if (breadth) queue.addLast(neigh);
+					else queue.addFirst(neigh);
+				}
+				else
+				{
+					// If we do not want to traverse this neighbor, we paint it black
+					setColor(neigh, BLACK);
+				}
+			}
+
+			labelEquivRecursive(neigh, UPWARD, getLabel(neigh), further, !breadth);
+			labelEquivRecursive(neigh, DOWNWARD, getLabel(neigh), further, !breadth);
+		}
+	}
+
+	/**
+	 * Labels equivalent nodes recursively.
+	 * @param node Node to label equivalents
+	 * @param up Traversing direction. Up means towards parents, if false then towards children
+	 * @param dist The label
+	 * @param enqueue Whether to enqueue equivalents
+	 * @param head Where to enqueue. Head or tail.
+	 */
+	protected void labelEquivRecursive(int node, boolean up, int dist, boolean enqueue, boolean head)
+	{
+		int[] index = up ? graph.getUpperEquivalentIndex() : graph.getLowerEquivalentIndex();
+		int[] equivs = up ? graph.getUpperEquivalents() : graph.getLowerEquivalents();
+
+		for (int i = index[node]; i < index[node + 1]; i++)
+		{
+			int equiv = equivs[i];
+			if (graph.isExcluded(equiv)) continue;
+
+			if (getColor(equiv) == WHITE)
+			{
+				setLabel(equiv, dist);
+
+				if (enqueue)
+				{
+					setColor(equiv, GRAY);
+
+					if (head) queue.addFirst(equiv);
+					else queue.addLast(equiv);
+				}
+				else
+				{
+					setColor(equiv, BLACK);
+				}
+			}
+
+			labelEquivRecursive(equiv, up, dist, enqueue, head);
+		}
+	}
+
+	/**
+	 * Checks if the node or an equivalent of it is in the set.
+	 * @param node Node to check equivalents
+	 * @param set Node set
+	 * @return true if an equivalent is in the set
+	 */
+	protected boolean isEquivalentInTheSet(int node, BitSet set)
+	{
+		return set.get(node) ||
+			isEquivalentInTheSet(node, UPWARD, set) || isEquivalentInTheSet(node, DOWNWARD, set);
+	}
+
+	/**
+	 * Checks if an equivalent of the given node is in the set.
+	 * @param node Node to check equivalents
+	 * @param up Direction to go to get equivalents
+	 * @param set Node set
+	 * @return true if an equivalent is in the set
+	 */
+	protected boolean isEquivalentInTheSet(int node, boolean up, BitSet set)
+	{
+		int[] index = up ? graph.getUpperEquivalentIndex() : graph.getLowerEquivalentIndex();
+		int[] equivs = up ? graph.getUpperEquivalents() : graph.getLowerEquivalents();
+
+		for (int i = index[node]; i < index[node + 1]; i++)
+		{
+			if (graph.isExcluded(equivs[i])) continue;
+			if (set.get(equivs[i]) || isEquivalentInTheSet(equivs[i], up, set)) return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Gets color tag of the node
+	 * @param node Node to get color tag
+	 * @return color tag
+	 */
+	protected int getColor(int node)
+	{
+		// Absence of color is interpreted as white
+		return labels.getColor(node);
+	}
+
+	/**
+	 * Sets color tag
+	 * @param node node to set color tag
+	 * @param color the color tag
+	 */
+	protected void setColor(int node, int color)
+	{
+		labels.setColor(node, color);
+	}
+
+	/**
+	 * Gets the distance label of the object.
+	 * @param id object to get the distance
+	 * @return the distance label
+	 */
+	public int getLabel(int id)
+	{
+		// Absence of label is interpreted as infinite
+		return labels.getLabel(id, Integer.MAX_VALUE - (limit * 2));
+	}
+
+	/**
+	 * @param id object to check
+	 * @return Whether the object is labeled in the last run
+	 */
+	public boolean isLabeled(int id)
+	{
+		return labels.isLabeled(id);
+	}
+
+	/**
+	 * Sets the distance label.
+	 * @param id object to set the distance label
+	 * @param label the distance label
+	 */
+	protected void setLabel(int id, int label)
+	{
+		if (labels.setLabel(id, label))
+		{
+			if (labeledCount == labeled.length) labeled = Arrays.copyOf(labeled, labeledCount * 2);
+			labeled[labeledCount++] = id;
+		}
+	}
+}
@@ -0,0 +1,190 @@
+package org.biopax.paxtools.query.algorithm;
+
+import org.biopax.paxtools.query.model.CompiledGraph;
+
+import java.util.BitSet;
+import java.util.function.BooleanSupplier;
+
+import static org.biopax.paxtools.query.algorithm.BFS.*;
+
+/**
+ * {@link CycleBreaker} for a result set of a {@link CompiledGraph} query.
+ */
+public class CompiledCycleBreaker extends CompiledBFS
+{
+	/**
+	 * IDs of the objects in the result set to search for cycles.
+	 */
+	private final BitSet result;
+
+	/**
+	 * Source and (if exists) target nodes.
+	 */
+	private final BitSet ST;
+
+	/**
+	 * Constructor with the objects in the result, source and target nodes, and search limit.
+	 * @param graph The graph
+	 * @param result Result set to search in
+	 * @param ST Source and target nodes
+	 * @param limit Search limit
+	 */
+	public CompiledCycleBreaker(CompiledGraph graph, BitSet result, BitSet ST, int limit)
+	{
+		this(graph, result, ST, limit, null);
+	}
+
+	/**
+	 * Constructor with the objects in the result, source and target nodes, search limit and
+	 * cancellation check.
+	 * @param graph The graph
+	 * @param result Result set to search in
+	 * @param ST Source and target nodes
+	 * @param limit Search limit
+	 * @param cancelled Tells whether to stop (with a CancellationException), can be null
+	 */
+	public CompiledCycleBreaker(CompiledGraph graph, BitSet result, BitSet ST, int limit,
+		BooleanSupplier cancelled)
+	{
+		super(graph, limit, cancelled);
+		this.result = result;
+		this.ST = ST;
+	}
+
+	/**
+	 * Run the algorithm.
+	 */
+	public void breakCycles()
+	{
+		int[] index = graph.getDownstreamIndex();
+		int[] edges = graph.getDownstreamEdges();
+
+		// only the edges are removed, so the nodes can be iterated on the result itself
+		for (int node = result.nextSetBit(0); node >= 0 && node < graph.getNodeCount();
+			node = result.nextSetBit(node + 1))
+		{
+			for (int i = index[node]; i < index[node + 1]; i++)
+			{
+				int edge = edges[i];
+
+				if (result.get(edge) && !isSafe(node, edge))
+				{
+					result.clear(edge);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Checks whether an edge is on an unwanted cycle.
+	 * @param node Node that the edge is bound
+	 * @param edge The edge to check
+	 * @return True if no cycle is detected, false otherwise
+	 */
+	public boolean isSafe(int node, int edge)
+	{
+		initMaps();
+
+		setColor(node, BLACK);
+		setLabel(node, 0);
+		setLabel(edge, 0);
+
+		labelEquivRecursive(node, UPWARD, 0, false, false);
+		labelEquivRecursive(node, DOWNWARD, 0, false, false);
+
+		// Initialize dist and color of source set
+
+		int neigh = graph.getTarget(edge);
+
+		if (getColor(neigh) != WHITE) return false;
+
+		setColor(neigh, GRAY);
+		setLabel(neigh, 0);
+
+		queue.addLast(neigh);
+
+		labelEquivRecursive(neigh, UPWARD, 0, true, false);
+		labelEquivRecursive(neigh, DOWNWARD, 0, true, false);
+
+		// Process the queue
+
+		while (!queue.isEmpty())
+		{
+			int current = queue.removeFirst();
+
+			if (ST.get(current)) return true;
+
+			checkCancelled();
+
+			if (processEdges(current, graph.getDownstreamIndex(), graph.getDownstreamEdges()) ||
+				processEdges(current, graph.getUpstreamIndex(), graph.getUpstreamEdges()))
+			{
+				return true;
+			}
+
+			// Current node is processed
+			setColor(current, BLACK);
+		}
+
+		return false;
+	}
+
+	/**
+	 * Continue evaluating the edges of the current node.
+	 * @param current Current node
+	 * @param index Edge positions of the nodes
+	 * @param edges Edges
+	 * @return True if the search is over, and no cycle is detected
+	 */
+	private boolean processEdges(int current, int[] index, int[] edges)
+	{
+		for (int i = index[current]; i < index[current + 1]; i++)
+		{
+			int edge = edges[i];
+
+			if (!result.get(edge)) continue;
+
+			// Label the edge considering direction of traversal and type of current node
+
+			setLabel(edge, getLabel(current));
+
+			// Get the other end of the edge
+			int neigh = graph.getSource(edge) == current ? graph.getTarget(edge) : graph.getSource(edge);
+
+			// Process the neighbor if not processed or not in queue
+
+			if (getColor(neigh) == WHITE)
+			{
+				// Label the neighbor according to the search direction and node type
+
+				boolean breadth = graph.isBreadthNode(neigh);
+
+				if (breadth)
+				{
+					setLabel(neigh, getLabel(current) + 1);
+				}
+				else
+				{
+					setLabel(neigh, getLabel(edge));
+				}
+
+				// Check if we need to stop traversing the neighbor, enqueue otherwise
+
+				if (getLabel(neigh) == limit || isEquivalentInTheSet(neigh, ST))
+				{
+					return true;
+				}
+
+				setColor(neigh, GRAY);
+
+				// Non-breadth nodes are added in front of the queue
+				if (breadth) queue.addLast(neigh);
+				else queue.addFirst(neigh);
+
+				labelEquivRecursive(neigh, UPWARD, getLabel(neigh), true, !breadth);
+				labelEquivRecursive(neigh, DOWNWARD, getLabel(neigh), true, !breadth);
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,142 @@
+package org.biopax.paxtools.query.algorithm;
+
+import org.biopax.paxtools.query.model.CompiledGraph;
+
+import java.util.BitSet;
+
+/**
+ * {@link Prune} for a result set of a {@link CompiledGraph} query.
+ */
+public class CompiledPrune
+{
+	private final CompiledGraph graph;
+
+	private final BitSet result;
+
+	/**
+	 * Source and targets merged.
+	 */
+	private final BitSet ST;
+
+	/**
+	 * Constructor with the input.
+	 *
+	 * @param graph The graph
+	 * @param result IDs of the objects in the result set
+	 * @param ST Source and target nodes
+	 */
+	public CompiledPrune(CompiledGraph graph, BitSet result, BitSet ST)
+	{
+		this.graph = graph;
+		this.result = result;
+		this.ST = ST;
+	}
+
+	/**
+	 * Executes the algorithm.
+	 * @return the pruned graph
+	 */
+	public BitSet run()
+	{
+		BitSet nodes = result.get(0, graph.getNodeCount());
+
+		for (int node = nodes.nextSetBit(0); node >= 0; node = nodes.nextSetBit(node + 1))
+		{
+			checkNodeRecursive(node);
+		}
+		return result;
+	}
+
+	/**
+	 * Recursively checks if a node is dangling.
+	 * @param node Node to check
+	 */
+	private void checkNodeRecursive(int node)
+	{
+		if (isDangling(node))
+		{
+			removeNode(node);
+
+			int[] index = graph.getUpstreamIndex();
+			int[] edges = graph.getUpstreamEdges();
+			for (int i = index[node]; i < index[node + 1]; i++)
+			{
+				checkNodeRecursive(graph.getSource(edges[i]));
+			}
+			index = graph.getDownstreamIndex();
+			edges = graph.getDownstreamEdges();
+			for (int i = index[node]; i < index[node + 1]; i++)
+			{
+				checkNodeRecursive(graph.getTarget(edges[i]));
+			}
+			index = graph.getUpperEquivalentIndex();
+			int[] equivs = graph.getUpperEquivalents();
+			for (int i = index[node]; i < index[node + 1]; i++)
+			{
+				checkNodeRecursive(equivs[i]);
+			}
+			index = graph.getLowerEquivalentIndex();
+			equivs = graph.getLowerEquivalents();
+			for (int i = index[node]; i < index[node + 1]; i++)
+			{
+				checkNodeRecursive(equivs[i]);
+			}
+		}
+	}
+
+	/**
+	 * Removes the dangling node and its edges.
+	 * @param node Node to remove
+	 */
+	private void removeNode(int node)
+	{
+		result.clear(node);
+
+		int[] index = graph.getUpstreamIndex();
+		int[] edges = graph.getUpstreamEdges();
+		for (int i = index[node]; i < index[node + 1]; i++)
+		{
+			result.clear(edges[i]);
+		}
+
+		index = graph.getDownstreamIndex();
+		edges = graph.getDownstreamEdges();
+		for (int i = index[node]; i < index[node + 1]; i++)
+		{
+			result.clear(edges[i]);
+		}
+	}
+
+	/**
+	 * Checks if the node is dangling.
+	 * @param node Node to check
+	 * @return true if dangling
+	 */
+	private boolean isDangling(int node)
+	{
+		if (!result.get(node)) return false;
+		if (ST.get(node)) return false;
+
+		boolean hasIncoming = anyInResult(node, graph.getUpstreamIndex(), graph.getUpstreamEdges());
+		boolean hasOutgoing = anyInResult(node, graph.getDownstreamIndex(), graph.getDownstreamEdges());
+
+		if (hasIncoming && hasOutgoing) return false;
+
+		boolean hasParent = anyInResult(node, graph.getUpperEquivalentIndex(), graph.getUpperEquivalents());
+
+		if (hasParent && (hasIncoming || hasOutgoing)) return false;
+
+		boolean hasChild = anyInResult(node, graph.getLowerEquivalentIndex(), graph.getLowerEquivalents());
+
+		return !(hasChild && (hasIncoming || hasOutgoing || hasParent));
+	}
+
+	private boolean anyInResult(int node, int[] index, int[] ids)
+	{
+		for (int i = index[node]; i < index[node + 1]; i++)
+		{
+			if (result.get(ids[i])) return true;
+		}
+		return false;
+	}
+}
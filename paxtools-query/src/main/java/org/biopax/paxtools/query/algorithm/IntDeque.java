@@ -0,0 +1,61 @@
+package org.biopax.paxtools.query.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * A growable circular queue of primitive integers, used as the BFS queue of the compiled-graph
+ * algorithms.
+ */
+class IntDeque
+{
+	private int[] elements = new int[64];
+
+	private int head;
+
+	private int size;
+
+	boolean isEmpty()
+	{
+		return size == 0;
+	}
+
+	void clear()
+	{
+		head = 0;
+		size = 0;
+	}
+
+	void addFirst(int value)
+	{
+		ensureCapacity();
+		head = (head - 1) & (elements.length - 1);
+		elements[head] = value;
+		size++;
+	}
+
+	void addLast(int value)
+	{
+		ensureCapacity();
+		elements[(head + size) & (elements.length - 1)] = value;
+		size++;
+	}
+
+	int removeFirst()
+	{
+		int value = elements[head];
+		head = (head + 1) & (elements.length - 1);
+		size--;
+		return value;
+	}
+
+	private void ensureCapacity()
+	{
+		if (size < elements.length) return;
+
+		// the capacity is always a power of two
+		int[] array = Arrays.copyOfRange(elements, head, head + elements.length * 2);
+		System.arraycopy(elements, 0, array, elements.length - head, head);
+		elements = array;
+		head = 0;
+	}
+}
@@ -0,0 +1,157 @@
+package org.biopax.paxtools.query.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * Distance labels and colors of the objects reached by a compiled-graph search, in an open
+ * addressing hash table. The table grows with the reached part of the graph, not with the graph,
+ * and is cleared in constant time (entries of a previous run are treated as empty).
+ */
+class IntLabelMap
+{
+	private int[] keys = new int[64];
+
+	/**
+	 * Run number of each slot; a slot is used only if it equals the current run.
+	 */
+	private int[] runs = new int[64];
+
+	private int[] labels = new int[64];
+
+	private boolean[] labeled = new boolean[64];
+
+	private byte[] colors = new byte[64];
+
+	private int run = 1;
+
+	private int size;
+
+	/**
+	 * Removes all the labels and colors.
+	 */
+	void clear()
+	{
+		if (++run == Integer.MAX_VALUE)
+		{
+			Arrays.fill(runs, 0);
+			run = 1;
+		}
+		size = 0;
+	}
+
+	boolean isLabeled(int id)
+	{
+		int slot = find(id);
+		return slot >= 0 && labeled[slot];
+	}
+
+	/**
+	 * @param id object ID
+	 * @param absent the label to return if the object is not labeled
+	 * @return the label
+	 */
+	int getLabel(int id, int absent)
+	{
+		int slot = find(id);
+		return slot >= 0 && labeled[slot] ? labels[slot] : absent;
+	}
+
+	/**
+	 * Sets the label.
+	 * @param id object ID
+	 * @param label the label
+	 * @return whether the object was not labeled before
+	 */
+	boolean setLabel(int id, int label)
+	{
+		int slot = insert(id);
+		labels[slot] = label;
+		if (labeled[slot]) return false;
+		labeled[slot] = true;
+		return true;
+	}
+
+	/**
+	 * @param id node ID
+	 * @return the color, white if not set
+	 */
+	int getColor(int id)
+	{
+		int slot = find(id);
+		return slot >= 0 ? colors[slot] : BFS.WHITE;
+	}
+
+	void setColor(int id, int color)
+	{
+		colors[insert(id)] = (byte) color;
+	}
+
+	private int find(int id)
+	{
+		int slot = probe(id);
+		return runs[slot] == run ? slot : -1;
+	}
+
+	private int insert(int id)
+	{
+		int slot = probe(id);
+		if (runs[slot] == run) return slot;
+
+		if ((size + 1) * 2 > keys.length)
+		{
+			grow();
+			slot = probe(id);
+		}
+		runs[slot] = run;
+		keys[slot] = id;
+		labeled[slot] = false;
+		colors[slot] = BFS.WHITE;
+		size++;
+		return slot;
+	}
+
+	/**
+	 * Gets the slot of the ID, or the empty slot to put it in. There are no removals, so the
+	 * probing can stop at the first empty slot.
+	 */
+	private int probe(int id)
+	{
+		int mask = keys.length - 1;
+		int hash = id * 0x9E3779B9;
+		int slot = (hash ^ hash >>> 16) & mask;
+		while (runs[slot] == run && keys[slot] != id)
+		{
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private void grow()
+	{
+		int[] oldKeys = keys;
+		int[] oldRuns = runs;
+		int[] oldLabels = labels;
+		boolean[] oldLabeled = labeled;
+		byte[] oldColors = colors;
+
+		// the capacity is always a power of two
+		int capacity = keys.length * 2;
+		keys = new int[capacity];
+		runs = new int[capacity];
+		labels = new int[capacity];
+		labeled = new boolean[capacity];
+		colors = new byte[capacity];
+
+		for (int i = 0; i < oldKeys.length; i++)
+		{
+			if (oldRuns[i] != run) continue;
+
+			int slot = probe(oldKeys[i]);
+			runs[slot] = run;
+			keys[slot] = oldKeys[i];
+			labels[slot] = oldLabels[i];
+			labeled[slot] = oldLabeled[i];
+			colors[slot] = oldColors[i];
+		}
+	}
+}
@@ -1,11 +1,13 @@
 package org.biopax.paxtools.query.algorithm;
 
+import org.biopax.paxtools.query.model.CompiledGraph;
 import org.biopax.paxtools.query.model.GraphObject;
 import org.biopax.paxtools.query.model.Node;
 
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.BooleanSupplier;
 
 /**
  * Searches the neighborhood of given source set of nodes
@@ -85,4 +87,56 @@ public class NeighborhoodQuery
 		// return the result of query
 		return queryResult;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Executes the query on the compiled version of the graph of the source nodes.
+	 * @param graph Compiled graph, containing the source nodes
+	 * @return Neighborhood
+	 */
+	public Set<GraphObject> run(CompiledGraph graph)
+	{
+		return CompiledBFS.join(runAsync(graph, Runnable::run, null));
+	}
+
+	/**
+	 * Executes the query on the compiled version of the graph of the source nodes, running the
+	 * upstream and downstream searches as separate tasks.
+	 * @param graph Compiled graph, containing the source nodes
+	 * @param executor Executor of the searches
+	 * @param cancelled Tells whether to stop the searches, can be null
+	 * @return Neighborhood, when the searches complete
+	 */
+	public CompletableFuture<Set<GraphObject>> runAsync(CompiledGraph graph, Executor executor,
+		BooleanSupplier cancelled)
+	{
+		int[] sources = graph.getIds(sourceNodes);
+		List<CompletableFuture<int[]>> searches = new ArrayList<>();
+
+		if (direction == Direction.UPSTREAM || direction == Direction.BOTHSTREAM)
+		{
+			searches.add(CompletableFuture.supplyAsync(() ->
+				new CompiledBFS(graph, Direction.UPSTREAM, limit, cancelled).run(sources, null), executor));
+		}
+
+		if (direction == Direction.DOWNSTREAM || direction == Direction.BOTHSTREAM)
+		{
+			searches.add(CompletableFuture.supplyAsync(() ->
+				new CompiledBFS(graph, Direction.DOWNSTREAM, limit, cancelled).run(sources, null), executor));
+		}
+
+		return CompletableFuture.allOf(searches.toArray(new CompletableFuture[0])).thenApply(v ->
+		{
+			BitSet result = new BitSet(graph.size());
+
+			for (CompletableFuture<int[]> search : searches)
+			{
+				for (int id : search.join())
+				{
+					result.set(id);
+				}
+			}
+
+			return graph.getObjects(result);
+		});
+	}
+}
@@ -1,10 +1,15 @@
 package org.biopax.paxtools.query.algorithm;
 
 
+import org.biopax.paxtools.query.model.CompiledGraph;
 import org.biopax.paxtools.query.model.GraphObject;
 import org.biopax.paxtools.query.model.Node;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.function.BooleanSupplier;
 
 /**
  * Finds the paths between the specified source set of states within the boundaries of a
@@ -113,4 +118,171 @@ public class PathsBetweenQuery
 		}
 		return false;
 	}
+
+	/**
+	 * Runs the query on the compiled version of the graph of the source nodes. Instead of keeping
+	 * the labels of all source sets for each object, keeps only the shortest two (from different
+	 * sets), which is enough to decide whether the object is on a path between two different sets.
+	 * @param graph Compiled graph, containing the source nodes
+	 * @return Paths between the source sets
+	 */
+	public Set<GraphObject> run(CompiledGraph graph)
+	{
+		return CompiledBFS.join(runAsync(graph, Runnable::run, null));
+	}
+
+	/**
+	 * Runs the query on the compiled version of the graph of the source nodes, running the
+	 * searches of each source set as a separate task, each task reusing the searches of a finished
+	 * one. A task keeps only the labels its searches reach; the labels are recorded set by set,
+	 * and the result is cycle broken and pruned, in the task completing the searches.
+	 * @param graph Compiled graph, containing the source nodes
+	 * @param executor Executor of the searches
+	 * @param cancelled Tells whether to stop the searches, can be null
+	 * @return Paths between the source sets, when the searches complete
+	 */
+	public CompletableFuture<Set<GraphObject>> runAsync(CompiledGraph graph, Executor executor,
+		BooleanSupplier cancelled)
+	{
+		BitSet sources = new BitSet(graph.getNodeCount());
+		List<int[]> sets = new ArrayList<>();
+
+		// equal sets are the same set, as they were keys of the label maps
+		for (Set<Node> set : new LinkedHashSet<>(sourceSet))
+		{
+			int[] ids = graph.getIds(set);
+			for (int id : ids)
+			{
+				sources.set(id);
+			}
+			sets.add(ids);
+		}
+
+		Queue<Searches> idle = new ConcurrentLinkedQueue<>();
+		List<CompletableFuture<Labels[]>> searches = new ArrayList<>();
+
+		for (int[] set : sets)
+		{
+			searches.add(CompletableFuture.supplyAsync(() ->
+			{
+				Searches bfs = idle.poll();
+				if (bfs == null) bfs = new Searches(graph, limit, cancelled);
+
+				Labels[] labels = {
+					new Labels(bfs.fwd, bfs.fwd.run(set, null)),
+					new Labels(bfs.rev, bfs.rev.run(set, null))};
+
+				idle.add(bfs);
+				return labels;
+			}, executor));
+		}
+
+		return CompletableFuture.allOf(searches.toArray(new CompletableFuture[0])).thenApply(v ->
+		{
+			ShortestLabels fwd = new ShortestLabels(graph.size());
+			ShortestLabels rev = new ShortestLabels(graph.size());
+
+			for (int set = 0; set < searches.size(); set++)
+			{
+				Labels[] labels = searches.get(set).join();
+				fwd.record(set, labels[0]);
+				rev.record(set, labels[1]);
+			}
+
+			BitSet result = new BitSet(graph.size());
+
+			for (int id = 0; id < graph.size(); id++)
+			{
+				if (fwd.bestSet[id] < 0 || rev.bestSet[id] < 0) continue;
+
+				long dist = fwd.bestSet[id] != rev.bestSet[id] ? (long) fwd.best[id] + rev.best[id] :
+					Math.min((long) fwd.best[id] + rev.second[id], (long) fwd.second[id] + rev.best[id]);
+
+				if (dist <= limit) result.set(id);
+			}
+
+			CompiledCycleBreaker breaker =
+				new CompiledCycleBreaker(graph, result, sources, limit, cancelled);
+			breaker.breakCycles();
+
+			CompiledPrune prune = new CompiledPrune(graph, result, sources);
+			prune.run();
+
+			return graph.getObjects(result);
+		});
+	}
+
+	/**
+	 * Forward and reverse searches, reused by the tasks.
+	 */
+	private static class Searches
+	{
+		final CompiledBFS fwd;
+		final CompiledBFS rev;
+
+		Searches(CompiledGraph graph, int limit, BooleanSupplier cancelled)
+		{
+			fwd = new CompiledBFS(graph, Direction.DOWNSTREAM, limit, cancelled);
+			rev = new CompiledBFS(graph, Direction.UPSTREAM, limit, cancelled);
+		}
+	}
+
+	/**
+	 * The objects labeled by a search, and their labels.
+	 */
+	private static class Labels
+	{
+		final int[] ids;
+		final int[] labels;
+
+		Labels(CompiledBFS bfs, int[] ids)
+		{
+			this.ids = ids;
+			this.labels = new int[ids.length];
+			for (int i = 0; i < ids.length; i++)
+			{
+				labels[i] = bfs.getLabel(ids[i]);
+			}
+		}
+	}
+
+	/**
+	 * The shortest label of each object and its source set, and the shortest label from another set.
+	 */
+	private static class ShortestLabels
+	{
+		final int[] best;
+		final int[] bestSet;
+		final int[] second;
+
+		ShortestLabels(int size)
+		{
+			best = new int[size];
+			second = new int[size];
+			bestSet = new int[size];
+			Arrays.fill(best, Integer.MAX_VALUE);
+			Arrays.fill(second, Integer.MAX_VALUE);
+			Arrays.fill(bestSet, -1);
+		}
+
+		void record(int set, Labels labels)
+		{
+			for (int i = 0; i < labels.ids.length; i++)
+			{
+				int id = labels.ids[i];
+				int label = labels.labels[i];
+
+				if (bestSet[id] < 0 || label < best[id])
+				{
+					second[id] = best[id];
+					best[id] = label;
+					bestSet[id] = set;
+				}
+				else if (label < second[id])
+				{
+					second[id] = label;
+				}
+			}
+		}
+	}
 }
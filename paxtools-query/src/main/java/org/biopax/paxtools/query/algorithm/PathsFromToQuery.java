@@ -1,9 +1,11 @@
 package org.biopax.paxtools.query.algorithm;
 
 
+import org.biopax.paxtools.query.model.CompiledGraph;
 import org.biopax.paxtools.query.model.GraphObject;
 import org.biopax.paxtools.query.model.Node;
 
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -187,4 +189,74 @@ public class PathsFromToQuery
 
 		return result;
 	}
+
+	/**
+	 * Executes the algorithm on the compiled version of the graph of the source and target nodes.
+	 * @param graph Compiled graph, containing the source and target nodes
+	 * @return paths from sources to targets
+	 */
+	public Set<GraphObject> run(CompiledGraph graph)
+	{
+		int bfsLimit = limitType == LimitType.NORMAL ? stopDistance : LIMIT_FOR_SP_SEARCH;
+
+		int[] sources = graph.getIds(sourceSet);
+		int[] targets = graph.getIds(targetSet);
+
+		CompiledBFS bfsFwd = new CompiledBFS(graph, Direction.DOWNSTREAM, bfsLimit);
+		CompiledBFS bfsRev = new CompiledBFS(graph, Direction.UPSTREAM, bfsLimit);
+
+		/**
+		 * Candidate contains all the graph objects that are the results of BFS.
+		 */
+		BitSet candidate = new BitSet(graph.size());
+		for (int id : bfsFwd.run(sources, strict ? graph.getIdSet(targetSet) : null))
+		{
+			candidate.set(id);
+		}
+		for (int id : bfsRev.run(targets, strict ? graph.getIdSet(sourceSet) : null))
+		{
+			candidate.set(id);
+		}
+
+		int limit = stopDistance;
+
+		if (limitType == LimitType.SHORTEST_PLUS_K)
+		{
+			int shortestPath = Integer.MAX_VALUE;
+
+			for (int id = candidate.nextSetBit(0); id >= 0; id = candidate.nextSetBit(id + 1))
+			{
+				if ((bfsFwd.getLabel(id) + bfsRev.getLabel(id)) <= shortestPath)
+				{
+					shortestPath = (bfsFwd.getLabel(id) + bfsRev.getLabel(id));
+				}
+			}
+
+			limit = shortestPath + stopDistance;
+
+			// Proceed only if there is a shortest path found
+			if (shortestPath >= Integer.MAX_VALUE / 2) candidate.clear();
+		}
+
+		BitSet result = new BitSet(graph.size());
+
+		for (int id = candidate.nextSetBit(0); id >= 0; id = candidate.nextSetBit(id + 1))
+		{
+			if ((bfsFwd.getLabel(id) + bfsRev.getLabel(id)) <= limit)
+			{
+				result.set(id);
+			}
+		}
+
+		BitSet ST = graph.getIdSet(sourceSet);
+		ST.or(graph.getIdSet(targetSet));
+
+		CompiledCycleBreaker breaker = new CompiledCycleBreaker(graph, result, ST, limit);
+		breaker.breakCycles();
+
+		CompiledPrune prune = new CompiledPrune(graph, result, ST);
+		prune.run();
+
+		return graph.getObjects(result);
+	}
 }
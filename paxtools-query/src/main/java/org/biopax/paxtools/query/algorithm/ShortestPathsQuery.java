@@ -0,0 +1,388 @@
+package org.biopax.paxtools.query.algorithm;
+
+import org.biopax.paxtools.query.model.Edge;
+import org.biopax.paxtools.query.model.GraphObject;
+import org.biopax.paxtools.query.model.Node;
+
+import java.util.*;
+
+/**
+ * Finds the concrete shortest paths from a source set to a target set, in ascending length. Unlike
+ * {@link PathsFromToQuery}, which gets the union of the objects on the qualifying paths, each
+ * result of this query is one simple path (no node visited twice).
+ *
+ * Paths are measured as in {@link BFS}: the length of a path is the number of breadth nodes on it
+ * minus one, and moving to an upper or lower equivalent (e.g. from a generic entity to its member)
+ * is free. Such a move goes on towards the same equivalence direction, as in
+ * {@link BFS#labelEquivRecursive(Node, boolean, int, boolean, boolean)}, until an edge is
+ * traversed. Paths do not pass through ubiquitous nodes, or through other sources and targets.
+ *
+ * This is an A* search over the partial paths. The remaining distance of a node to the targets is
+ * first computed with a reverse breadth-first search (ignoring the simple path constraint), so
+ * that a partial path is extended only if it can reach a target within the limit, and complete
+ * paths come out of the priority queue in ascending length. The paths are generated lazily by the
+ * iterator, so the search stops as soon as enough paths are taken.
+ */
+public class ShortestPathsQuery implements Iterable<ShortestPathsQuery.Path>
+{
+	/**
+	 * The set of nodes from which the paths should start.
+	 */
+	private Set<Node> sourceSet;
+
+	/**
+	 * The set of nodes to which the paths should end.
+	 */
+	private Set<Node> targetSet;
+
+	/**
+	 * Direction of the traversal.
+	 */
+	private Direction direction;
+
+	/**
+	 * Length limit of the paths.
+	 */
+	private int limit;
+
+	/**
+	 * Constructor with parameters.
+	 * @param sourceSet Start nodes of the paths
+	 * @param targetSet End nodes of the paths
+	 * @param direction DOWNSTREAM to follow the edges from source to target, UPSTREAM to follow
+	 * them backwards
+	 * @param limit Length limit for the paths
+	 */
+	public ShortestPathsQuery(Set<Node> sourceSet, Set<Node> targetSet, Direction direction,
+		int limit)
+	{
+		if (direction != Direction.UPSTREAM && direction != Direction.DOWNSTREAM)
+			throw new IllegalArgumentException("Direction has to be either upstream or downstream");
+
+		this.sourceSet = sourceSet;
+		this.targetSet = targetSet;
+		this.direction = direction;
+		this.limit = limit;
+	}
+
+	/**
+	 * Gets the k shortest paths.
+	 * @param k Maximum number of paths to get
+	 * @return Paths in ascending length
+	 */
+	public List<Path> run(int k)
+	{
+		List<Path> paths = new ArrayList<>();
+
+		for (Iterator<Path> iter = iterator(); iter.hasNext() && paths.size() < k;)
+		{
+			paths.add(iter.next());
+		}
+		return paths;
+	}
+
+	/**
+	 * Starts the search. The paths are generated as the iterator is advanced.
+	 * @return Iterator of the paths in ascending length
+	 */
+	@Override
+	public Iterator<Path> iterator()
+	{
+		return new Search(getDistancesToTargets());
+	}
+
+	/**
+	 * Runs a reverse breadth-first search from the targets to get the shortest distance of each
+	 * node to a target. Equivalence moves are allowed in both equivalence directions, so these
+	 * distances are never longer than the actual ones.
+	 * @return Distances to the targets, for the nodes within the limit
+	 */
+	private Map<Node, Integer> getDistancesToTargets()
+	{
+		Map<Node, Integer> dist = new HashMap<>();
+		Deque<Node> queue = new ArrayDeque<>();
+
+		for (Node target : targetSet)
+		{
+			dist.put(target, 0);
+			queue.add(target);
+		}
+
+		while (!queue.isEmpty())
+		{
+			Node current = queue.poll();
+			int d = dist.get(current);
+
+			for (Edge edge : direction == Direction.DOWNSTREAM ?
+				current.getUpstream() : current.getDownstream())
+			{
+				Node prev = direction == Direction.DOWNSTREAM ?
+					edge.getSourceNode() : edge.getTargetNode();
+
+				relax(prev, d, getCost(prev, current), dist, queue);
+			}
+
+			for (Node equiv : current.getUpperEquivalent())
+			{
+				relax(equiv, d, 0, dist, queue);
+			}
+			for (Node equiv : current.getLowerEquivalent())
+			{
+				relax(equiv, d, 0, dist, queue);
+			}
+		}
+		return dist;
+	}
+
+	/**
+	 * Updates the distance of the previous node of a path if the new one is shorter. Zero-cost
+	 * moves are added to the front of the queue, so that the nodes are processed in the order of
+	 * their distances.
+	 * @param prev Previous node on the path
+	 * @param d Distance of the current node
+	 * @param cost Cost of the move from the previous node to the current one
+	 * @param dist Distances to the targets
+	 * @param queue Queue of the search
+	 */
+	private void relax(Node prev, int d, int cost, Map<Node, Integer> dist, Deque<Node> queue)
+	{
+		// ubiquitous nodes are not traversed, and paths do not start there either
+		if (prev.isUbique() || d + cost > limit) return;
+
+		Integer current = dist.get(prev);
+
+		if (current == null || d + cost < current)
+		{
+			dist.put(prev, d + cost);
+
+			if (cost == 0) queue.addFirst(prev);
+			else queue.addLast(prev);
+		}
+	}
+
+	/**
+	 * Gets the cost of traversing an edge.
+	 * @param from Node the edge is traversed from
+	 * @param to Node the edge is traversed to
+	 * @return 1 if a breadth node is passed, 0 otherwise
+	 */
+	private int getCost(Node from, Node to)
+	{
+		return (direction == Direction.DOWNSTREAM ? to : from).isBreadthNode() ? 1 : 0;
+	}
+
+	/**
+	 * No equivalence move is done since the last edge.
+	 */
+	private static final int ANY = 0;
+
+	/**
+	 * Only moves towards the same equivalence direction are allowed.
+	 */
+	private static final int UP = 1;
+
+	private static final int DOWN = 2;
+
+	/**
+	 * A partial path in the search queue; the last step of the path and the rest.
+	 */
+	private static class Step
+	{
+		final Step prev;
+		final Edge edge;
+		final Node node;
+		final int length;
+		final int estimate;
+		final int equivalence;
+		final long order;
+
+		Step(Step prev, Edge edge, Node node, int length, int estimate, int equivalence, long order)
+		{
+			this.prev = prev;
+			this.edge = edge;
+			this.node = node;
+			this.length = length;
+			this.estimate = estimate;
+			this.equivalence = equivalence;
+			this.order = order;
+		}
+
+		/**
+		 * @param node Node to check
+		 * @return Whether the node is on this partial path
+		 */
+		boolean contains(Node node)
+		{
+			for (Step step = this; step != null; step = step.prev)
+			{
+				if (step.node == node) return true;
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * The A* search, generating the next path on demand.
+	 */
+	private class Search implements Iterator<Path>
+	{
+		private final Map<Node, Integer> distToTargets;
+
+		private final PriorityQueue<Step> queue = new PriorityQueue<>(
+			Comparator.<Step>comparingInt(s -> s.estimate).thenComparingLong(s -> s.order));
+
+		private long order;
+
+		private Path next;
+
+		Search(Map<Node, Integer> distToTargets)
+		{
+			this.distToTargets = distToTargets;
+
+			for (Node source : sourceSet)
+			{
+				offer(null, null, source, 0, ANY);
+			}
+		}
+
+		@Override
+		public boolean hasNext()
+		{
+			if (next == null) next = findNext();
+			return next != null;
+		}
+
+		@Override
+		public Path next()
+		{
+			if (!hasNext()) throw new NoSuchElementException();
+			Path path = next;
+			next = null;
+			return path;
+		}
+
+		/**
+		 * Extends the partial paths until one reaches a target.
+		 * @return The next shortest path, or null if there is no more
+		 */
+		private Path findNext()
+		{
+			while (!queue.isEmpty())
+			{
+				Step step = queue.poll();
+
+				if (step.prev != null && targetSet.contains(step.node)) return new Path(step);
+
+				expand(step);
+			}
+			return null;
+		}
+
+		private void expand(Step step)
+		{
+			Node node = step.node;
+
+			if (node.isUbique()) return;
+
+			if (step.equivalence != DOWN)
+			{
+				for (Node equiv : node.getUpperEquivalent())
+				{
+					offer(step, null, equiv, step.length, UP);
+				}
+			}
+			if (step.equivalence != UP)
+			{
+				for (Node equiv : node.getLowerEquivalent())
+				{
+					offer(step, null, equiv, step.length, DOWN);
+				}
+			}
+
+			for (Edge edge : direction == Direction.DOWNSTREAM ?
+				node.getDownstream() : node.getUpstream())
+			{
+				Node neigh = direction == Direction.DOWNSTREAM ?
+					edge.getTargetNode() : edge.getSourceNode();
+
+				offer(step, edge, neigh, step.length + getCost(node, neigh), ANY);
+			}
+		}
+
+		private void offer(Step prev, Edge edge, Node node, int length, int equivalence)
+		{
+			Integer remaining = distToTargets.get(node);
+
+			if (remaining == null || length + remaining > limit) return;
+
+			// sources are only at the start of the paths
+			if (prev != null && (sourceSet.contains(node) || prev.contains(node))) return;
+
+			queue.add(new Step(prev, edge, node, length, length + remaining, equivalence, order++));
+		}
+	}
+
+	/**
+	 * A path found by the query.
+	 */
+	public static class Path
+	{
+		/**
+		 * Nodes and edges on the path, in the order of traversal.
+		 */
+		private final List<GraphObject> objects;
+
+		/**
+		 * Length of the path.
+		 */
+		private final int length;
+
+		private Path(Step last)
+		{
+			LinkedList<GraphObject> list = new LinkedList<>();
+
+			for (Step step = last; step != null; step = step.prev)
+			{
+				list.addFirst(step.node);
+				if (step.edge != null) list.addFirst(step.edge);
+			}
+			this.objects = Collections.unmodifiableList(new ArrayList<>(list));
+			this.length = last.length;
+		}
+
+		/**
+		 * Gets the nodes and edges on the path, starting with the source and ending with the target.
+		 * The edges are followed backwards on an upstream path. Consecutive nodes without an edge
+		 * in between are equivalents.
+		 * @return Objects on the path
+		 */
+		public List<GraphObject> getObjects()
+		{
+			return objects;
+		}
+
+		/**
+		 * @return Length of the path
+		 */
+		public int getLength()
+		{
+			return length;
+		}
+
+		/**
+		 * @return The source node at the start of the path
+		 */
+		public Node getSource()
+		{
+			return (Node) objects.get(0);
+		}
+
+		/**
+		 * @return The target node at the end of the path
+		 */
+		public Node getTarget()
+		{
+			return (Node) objects.get(objects.size() - 1);
+		}
+	}
+}
@@ -0,0 +1,441 @@
+package org.biopax.paxtools.query.model;
+
+import java.util.*;
+
+/**
+ * An immutable, array-based (compressed sparse row) snapshot of a fully initialized graph,
+ * for the algorithms that work with integer IDs instead of wrapper objects and hash maps.
+ *
+ * Nodes get IDs from 0 to {@link #getNodeCount()}-1, edges - from {@link #getNodeCount()}
+ * to {@link #size()}-1, so that a single array can keep the labels of both.
+ * The adjacency of a node is a range in an edge (or node) ID array: e.g., the downstream
+ * edges of node n are getDownstreamEdges()[getDownstreamIndex()[n] .. getDownstreamIndex()[n+1]-1].
+ * The arrays returned by the getters are shared and must not be modified.
+ *
+ * Compiling initializes all the nodes (wrappers) and their links,
+ * i.e., the result is the complete graph, not a lazily explored part of it.
+ * So a query on it can find a link that the same query on the lazily initialized graph misses;
+ * also, the compiled cycle breaker checks the edges in ID order, not in the hash set order of
+ * the wrappers, which can keep a different edge of a cycle. The compiled graph is therefore used
+ * only when it is asked for (SharedGraphL3), not in place of the model-based queries.
+ *
+ * Once built, the graph can be shared between threads. A subgraph, e.g., the part that
+ * passes the query filters, is a view with a set of excluded nodes (see {@link #exclude(BitSet)}),
+ * which shares the arrays with this graph.
+ */
+public class CompiledGraph
+{
+	private final GraphObject[] objects;
+	private final Map<GraphObject, Integer> ids;
+	private final int nodeCount;
+
+	private final int[] downIndex, downEdges;
+	private final int[] upIndex, upEdges;
+	private final int[] upperIndex, upperNodes;
+	private final int[] lowerIndex, lowerNodes;
+	private final int[] edgeSource, edgeTarget;
+
+	private final BitSet breadth, ubique, transcription;
+
+	/**
+	 * Nodes that the algorithms must treat as absent, or null.
+	 */
+	private final BitSet excluded;
+
+	/**
+	 * Compiles the graph made of the given nodes and all the nodes reachable from them
+	 * (via edges in both directions and equivalence links).
+	 *
+	 * @param seeds nodes to start from, e.g., all the wrappers in a graph
+	 */
+	public CompiledGraph(Collection<? extends Node> seeds)
+	{
+		// Discover and initialize all the nodes; links can be added to a node
+		// when its neighbors get initialized, so the arrays are built in the second pass.
+
+		List<Node> nodes = new ArrayList<>();
+		Map<GraphObject, Integer> ids = new HashMap<>();
+		Deque<Node> work = new ArrayDeque<>();
+		for (Node node : seeds)
+		{
+			if (node != null && !ids.containsKey(node))
+			{
+				ids.put(node, nodes.size());
+				nodes.add(node);
+				work.add(node);
+			}
+		}
+		while (!work.isEmpty())
+		{
+			Node node = work.poll();
+			for (Edge edge : node.getDownstream())
+			{
+				discover(edge.getTargetNode(), nodes, ids, work);
+			}
+			for (Edge edge : node.getUpstream())
+			{
+				discover(edge.getSourceNode(), nodes, ids, work);
+			}
+			for (Node eq : node.getUpperEquivalent())
+			{
+				discover(eq, nodes, ids, work);
+			}
+			for (Node eq : node.getLowerEquivalent())
+			{
+				discover(eq, nodes, ids, work);
+			}
+		}
+
+		this.nodeCount = nodes.size();
+
+		// Number the edges (equal edges are the same edge, same as they are for the other algorithms)
+
+		List<Edge> edges = new ArrayList<>();
+		for (Node node : nodes)
+		{
+			for (Edge edge : node.getDownstream())
+			{
+				if (!ids.containsKey(edge))
+				{
+					ids.put(edge, nodeCount + edges.size());
+					edges.add(edge);
+				}
+			}
+			for (Edge edge : node.getUpstream())
+			{
+				if (!ids.containsKey(edge))
+				{
+					ids.put(edge, nodeCount + edges.size());
+					edges.add(edge);
+				}
+			}
+		}
+
+		this.objects = new GraphObject[nodeCount + edges.size()];
+		nodes.toArray(objects);
+		for (int i = 0; i < edges.size(); i++)
+		{
+			objects[nodeCount + i] = edges.get(i);
+		}
+		this.ids = ids;
+
+		this.edgeSource = new int[edges.size()];
+		this.edgeTarget = new int[edges.size()];
+		this.transcription = new BitSet();
+		for (int i = 0; i < edges.size(); i++)
+		{
+			Edge edge = edges.get(i);
+			edgeSource[i] = ids.get(edge.getSourceNode());
+			edgeTarget[i] = ids.get(edge.getTargetNode());
+			if (edge.isTranscription()) transcription.set(nodeCount + i);
+		}
+
+		this.breadth = new BitSet(nodeCount);
+		this.ubique = new BitSet(nodeCount);
+		this.downIndex = new int[nodeCount + 1];
+		this.upIndex = new int[nodeCount + 1];
+		this.upperIndex = new int[nodeCount + 1];
+		this.lowerIndex = new int[nodeCount + 1];
+		int[] down = new int[edges.size()];
+		int[] up = new int[edges.size()];
+		int[] upper = new int[16];
+		int[] lower = new int[16];
+		int d = 0, u = 0, ue = 0, le = 0;
+		for (int n = 0; n < nodeCount; n++)
+		{
+			Node node = nodes.get(n);
+			if (node.isBreadthNode()) breadth.set(n);
+			if (node.isUbique()) ubique.set(n);
+			if (node.isTranscription()) transcription.set(n);
+
+			for (Edge edge : node.getDownstream())
+			{
+				down = ensureCapacity(down, d);
+				down[d++] = ids.get(edge);
+			}
+			downIndex[n + 1] = d;
+			for (Edge edge : node.getUpstream())
+			{
+				up = ensureCapacity(up, u);
+				up[u++] = ids.get(edge);
+			}
+			upIndex[n + 1] = u;
+			for (Node eq : node.getUpperEquivalent())
+			{
+				upper = ensureCapacity(upper, ue);
+				upper[ue++] = ids.get(eq);
+			}
+			upperIndex[n + 1] = ue;
+			for (Node eq : node.getLowerEquivalent())
+			{
+				lower = ensureCapacity(lower, le);
+				lower[le++] = ids.get(eq);
+			}
+			lowerIndex[n + 1] = le;
+		}
+		this.downEdges = Arrays.copyOf(down, d);
+		this.upEdges = Arrays.copyOf(up, u);
+		this.upperNodes = Arrays.copyOf(upper, ue);
+		this.lowerNodes = Arrays.copyOf(lower, le);
+		this.excluded = null;
+	}
+
+	/**
+	 * Creates a view of the graph without the excluded nodes.
+	 * @param graph The graph
+	 * @param excluded Excluded nodes
+	 */
+	private CompiledGraph(CompiledGraph graph, BitSet excluded)
+	{
+		this.objects = graph.objects;
+		this.ids = graph.ids;
+		this.nodeCount = graph.nodeCount;
+		this.downIndex = graph.downIndex;
+		this.downEdges = graph.downEdges;
+		this.upIndex = graph.upIndex;
+		this.upEdges = graph.upEdges;
+		this.upperIndex = graph.upperIndex;
+		this.upperNodes = graph.upperNodes;
+		this.lowerIndex = graph.lowerIndex;
+		this.lowerNodes = graph.lowerNodes;
+		this.edgeSource = graph.edgeSource;
+		this.edgeTarget = graph.edgeTarget;
+		this.breadth = graph.breadth;
+		this.ubique = graph.ubique;
+		this.transcription = graph.transcription;
+		this.excluded = excluded;
+	}
+
+	/**
+	 * Gets the subgraph without the given nodes, and without the edges and equivalence links of
+	 * those nodes. IDs are the same as in this graph. The algorithms must check
+	 * {@link #isExcluded(int)} of each neighbor, as the excluded nodes are still in the arrays.
+	 * @param nodes IDs of the nodes to exclude (this set must not be modified later)
+	 * @return Subgraph view
+	 */
+	public CompiledGraph exclude(BitSet nodes)
+	{
+		if (excluded != null)
+		{
+			BitSet union = (BitSet) excluded.clone();
+			union.or(nodes);
+			nodes = union;
+		}
+		return new CompiledGraph(this, nodes);
+	}
+
+	/**
+	 * @param node Node ID
+	 * @return Whether the node is not in this (sub)graph
+	 */
+	public boolean isExcluded(int node)
+	{
+		return excluded != null && excluded.get(node);
+	}
+
+	private static void discover(Node node, List<Node> nodes, Map<GraphObject, Integer> ids, Deque<Node> work)
+	{
+		if (node != null && !ids.containsKey(node))
+		{
+			ids.put(node, nodes.size());
+			nodes.add(node);
+			work.add(node);
+		}
+	}
+
+	private static int[] ensureCapacity(int[] array, int index)
+	{
+		return (index < array.length) ? array : Arrays.copyOf(array, Math.max(16, array.length * 2));
+	}
+
+	/**
+	 * @return Number of graph objects (nodes and edges)
+	 */
+	public int size()
+	{
+		return objects.length;
+	}
+
+	/**
+	 * @return Number of nodes; the edge IDs start from this number
+	 */
+	public int getNodeCount()
+	{
+		return nodeCount;
+	}
+
+	/**
+	 * @param go a node or edge
+	 * @return ID of the graph object, or -1 if it is not in this graph
+	 */
+	public int getId(GraphObject go)
+	{
+		Integer id = ids.get(go);
+		return (id == null) ? -1 : id;
+	}
+
+	/**
+	 * @param id ID of a node or edge
+	 * @return The node or edge
+	 */
+	public GraphObject getObject(int id)
+	{
+		return objects[id];
+	}
+
+	/**
+	 * @param ids IDs of the nodes or edges
+	 * @return Graph objects with the given IDs
+	 */
+	public Set<GraphObject> getObjects(BitSet ids)
+	{
+		Set<GraphObject> set = new HashSet<>();
+		for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1))
+		{
+			set.add(objects[id]);
+		}
+		return set;
+	}
+
+	/**
+	 * @param nodes Nodes (they all must be in this graph)
+	 * @return IDs of the nodes, in the iteration order of the collection
+	 * @throws IllegalArgumentException when a node is not in this graph
+	 */
+	public int[] getIds(Collection<? extends Node> nodes)
+	{
+		int[] array = new int[nodes.size()];
+		int i = 0;
+		for (Node node : nodes)
+		{
+			int id = getId(node);
+			if (id < 0) throw new IllegalArgumentException("Not in the compiled graph: " + node);
+			array[i++] = id;
+		}
+		return array;
+	}
+
+	/**
+	 * @param nodes Nodes (they all must be in this graph)
+	 * @return IDs of the nodes, as a set
+	 * @throws IllegalArgumentException when a node is not in this graph
+	 */
+	public BitSet getIdSet(Collection<? extends Node> nodes)
+	{
+		BitSet set = new BitSet(nodeCount);
+		for (int id : getIds(nodes))
+		{
+			set.set(id);
+		}
+		return set;
+	}
+
+	/**
+	 * @param node Node ID
+	 * @return Whether this is a breadth node
+	 */
+	public boolean isBreadthNode(int node)
+	{
+		return breadth.get(node);
+	}
+
+	/**
+	 * @param node Node ID
+	 * @return Whether this is a ubiquitous node
+	 */
+	public boolean isUbique(int node)
+	{
+		return ubique.get(node);
+	}
+
+	/**
+	 * @param id Node or edge ID
+	 * @return Whether the node or edge is related to a transcription
+	 */
+	public boolean isTranscription(int id)
+	{
+		return transcription.get(id);
+	}
+
+	/**
+	 * @param edge Edge ID
+	 * @return Source node ID
+	 */
+	public int getSource(int edge)
+	{
+		return edgeSource[edge - nodeCount];
+	}
+
+	/**
+	 * @param edge Edge ID
+	 * @return Target node ID
+	 */
+	public int getTarget(int edge)
+	{
+		return edgeTarget[edge - nodeCount];
+	}
+
+	/**
+	 * @return Start positions (by node ID, plus the end position) in {@link #getDownstreamEdges()}
+	 */
+	public int[] getDownstreamIndex()
+	{
+		return downIndex;
+	}
+
+	/**
+	 * @return Downstream edge IDs of all nodes
+	 */
+	public int[] getDownstreamEdges()
+	{
+		return downEdges;
+	}
+
+	/**
+	 * @return Start positions (by node ID, plus the end position) in {@link #getUpstreamEdges()}
+	 */
+	public int[] getUpstreamIndex()
+	{
+		return upIndex;
+	}
+
+	/**
+	 * @return Upstream edge IDs of all nodes
+	 */
+	public int[] getUpstreamEdges()
+	{
+		return upEdges;
+	}
+
+	/**
+	 * @return Start positions (by node ID, plus the end position) in {@link #getUpperEquivalents()}
+	 */
+	public int[] getUpperEquivalentIndex()
+	{
+		return upperIndex;
+	}
+
+	/**
+	 * @return Parent equivalent node IDs of all nodes
+	 */
+	public int[] getUpperEquivalents()
+	{
+		return upperNodes;
+	}
+
+	/**
+	 * @return Start positions (by node ID, plus the end position) in {@link #getLowerEquivalents()}
+	 */
+	public int[] getLowerEquivalentIndex()
+	{
+		return lowerIndex;
+	}
+
+	/**
+	 * @return Child equivalent node IDs of all nodes
+	 */
+	public int[] getLowerEquivalents()
+	{
+		return lowerNodes;
+	}
+}
@@ -27,4 +27,13 @@ public class DataSourceFilter extends StringFieldFilter
 	{
 		addAccessor(new PathAccessor("Entity/dataSource/name"), Entity.class);
 	}
+
+	/**
+	 * @return The filter class, the valid values and the option to accept empty fields
+	 */
+	@Override
+	public Object getKey()
+	{
+		return getValuesKey();
+	}
 }
@@ -16,4 +16,15 @@ public abstract class Filter
 	 * @return true if ok to traverse
 	 */
 	public abstract boolean okToTraverse(Level3Element ele);
+
+	/**
+	 * Gets the configuration of this filter, as an object that is equal for the filters that let
+	 * the same elements (e.g. to use as a part of a query cache key). By default, a filter is equal
+	 * only to itself.
+	 * @return Key of the filter configuration
+	 */
+	public Object getKey()
+	{
+		return this;
+	}
 }
@@ -5,6 +5,7 @@ import org.biopax.paxtools.model.BioPAXLevel;
 import org.biopax.paxtools.model.Model;
 import org.biopax.paxtools.model.level3.*;
 import org.biopax.paxtools.query.model.AbstractGraph;
+import org.biopax.paxtools.query.model.CompiledGraph;
 import org.biopax.paxtools.query.model.GraphObject;
 import org.biopax.paxtools.query.model.Node;
 import org.slf4j.Logger;
@@ -26,6 +27,12 @@ public class GraphL3 extends AbstractGraph
 
 	protected List<Filter> filters;
 
+	/**
+	 * Compiled version of the graph, and the number of wrappers it was compiled with.
+	 */
+	private CompiledGraph compiled;
+	private int compiledSize;
+
 	/**
 	 * Log for logging.
 	 */
@@ -174,24 +181,70 @@ public class GraphL3 extends AbstractGraph
 
 		for (GraphObject wrapper : wrappers)
 		{
-			if (wrapper instanceof PhysicalEntityWrapper)
-			{
-				objects.add(((PhysicalEntityWrapper) wrapper).getPhysicalEntity());
-			}
-			else if (wrapper instanceof ConversionWrapper)
+			Object wrapped = getWrapped(wrapper);
+			if (wrapped != null)
 			{
-				objects.add(((ConversionWrapper) wrapper).getConversion());
+				objects.add(wrapped);
 			}
-			else if (wrapper instanceof TemplateReactionWrapper)
+		}
+		return objects;
+	}
+
+	/**
+	 * Gets the wrapped object of the given wrapper.
+	 * @param wrapper Wrapper
+	 * @return Wrapped object, or null if this is not a node wrapper
+	 */
+	public BioPAXElement getWrapped(GraphObject wrapper)
+	{
+		if (wrapper instanceof PhysicalEntityWrapper)
+		{
+			return ((PhysicalEntityWrapper) wrapper).getPhysicalEntity();
+		}
+		else if (wrapper instanceof ConversionWrapper)
+		{
+			return ((ConversionWrapper) wrapper).getConversion();
+		}
+		else if (wrapper instanceof TemplateReactionWrapper)
+		{
+			return ((TemplateReactionWrapper) wrapper).getTempReac();
+		}
+		else if (wrapper instanceof ControlWrapper)
+		{
+			return ((ControlWrapper) wrapper).getControl();
+		}
+		return null;
+	}
+
+	/**
+	 * Wraps all the traversable elements of the model (that pass the filters), and compiles the
+	 * whole graph to its array-based version for the compiled-graph query algorithms. The compiled
+	 * graph is reused until a new wrapper is created.
+	 * @return Compiled graph
+	 */
+	public CompiledGraph compile()
+	{
+		if (compiled == null || compiledSize != objectMap.size())
+		{
+			for (BioPAXElement ele : model.getObjects())
 			{
-				objects.add(((TemplateReactionWrapper) wrapper).getTempReac());
+				if (ele instanceof PhysicalEntity || ele instanceof Conversion ||
+					ele instanceof TemplateReaction || ele instanceof Control)
+				{
+					getGraphObject(ele);
+				}
 			}
-			else if (wrapper instanceof ControlWrapper)
+
+			List<Node> nodes = new ArrayList<>();
+			for (GraphObject go : objectMap.values())
 			{
-				objects.add(((ControlWrapper) wrapper).getControl());
+				if (go instanceof Node) nodes.add((Node) go);
 			}
+
+			compiled = new CompiledGraph(nodes);
+			compiledSize = objectMap.size();
 		}
-		return objects;
+		return compiled;
 	}
 
 	/**
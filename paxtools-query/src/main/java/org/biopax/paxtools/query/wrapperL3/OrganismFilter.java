@@ -31,4 +31,13 @@ public class OrganismFilter extends StringFieldFilter
 		addAccessor(new PathAccessor("PhysicalEntity/entityReference/organism/xref:UnificationXref/id"),
 			PhysicalEntity.class);
 	}
+
+	/**
+	 * @return The filter class, the valid values and the option to accept empty fields
+	 */
+	@Override
+	public Object getKey()
+	{
+		return getValuesKey();
+	}
 }
@@ -0,0 +1,362 @@
+package org.biopax.paxtools.query.wrapperL3;
+
+import org.biopax.paxtools.model.BioPAXElement;
+import org.biopax.paxtools.model.Model;
+import org.biopax.paxtools.model.level3.*;
+import org.biopax.paxtools.query.QueryExecuter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Precomputed related physical entities of the seed elements of a Level 3 model, as found by
+ * QueryExecuter.getRelatedPhysicalEntities: for a physical entity, itself and the complexes it is
+ * (directly or indirectly) a component of, and the complexes of its generic parents; for an
+ * entity reference, the related entities of its physical entities and of its generic parents; for
+ * an xref, the related entities of the entity references and physical entities it is an xref of.
+ *
+ * Physical entities are numbered, and the related entities of each are kept as a sorted int
+ * array. The sets of the complexes are computed first and reused by their components, so the
+ * index is built in about the time of expanding each element once, and seed preparation becomes a
+ * lookup. The index can be shared by threads. When the model is changed (see
+ * {@link Model#getModCount()}), the index is rebuilt in a background thread as it is used next,
+ * and the related entities are found by expanding the elements meanwhile, so that the queries do
+ * not wait for it; changes of the element properties alone are not detected.
+ */
+public class RelatedPhysicalEntityIndex
+{
+	private static final Logger log = LoggerFactory.getLogger(RelatedPhysicalEntityIndex.class);
+
+	/**
+	 * The indexed model.
+	 */
+	private final Model model;
+
+	/**
+	 * The index of the latest indexed version of the model.
+	 */
+	private volatile Snapshot snapshot;
+
+	/**
+	 * Whether the model is being re-indexed in the background.
+	 */
+	private final AtomicBoolean reindexing = new AtomicBoolean();
+
+	/**
+	 * Indexes the model.
+	 * @param model Level 3 model
+	 */
+	public RelatedPhysicalEntityIndex(Model model)
+	{
+		this.model = model;
+		this.snapshot = new Snapshot(model);
+	}
+
+	/**
+	 * @return The indexed model
+	 */
+	public Model getModel()
+	{
+		return model;
+	}
+
+	/**
+	 * Checks whether the model is not changed since it is indexed. Changes of the element
+	 * properties alone are not detected.
+	 * @return true if the index is up to date
+	 */
+	public boolean isUpToDate()
+	{
+		long modCount = model.getModCount();
+		return modCount >= 0 && modCount == snapshot.modCount;
+	}
+
+	/**
+	 * Starts re-indexing the model in the background if it is changed since it is indexed.
+	 * @return true if the index is up to date; false while the model is being re-indexed, or if
+	 * the model does not count its changes, so the index cannot be kept up to date
+	 */
+	public boolean update()
+	{
+		long modCount = model.getModCount();
+		if (modCount < 0) return false;
+		if (modCount == snapshot.modCount) return true;
+
+		reindex();
+		return false;
+	}
+
+	/**
+	 * Re-indexes the model in a background thread, unless it is being re-indexed already. If the
+	 * model is changed again meanwhile, the new index is outdated as well, and it is re-indexed
+	 * when used next.
+	 */
+	private void reindex()
+	{
+		if (!reindexing.compareAndSet(false, true)) return;
+
+		ForkJoinPool.commonPool().execute(() ->
+		{
+			try
+			{
+				snapshot = new Snapshot(model);
+			}
+			catch (RuntimeException e)
+			{
+				// e.g., the model is modified by another thread during the indexing; tried again later
+				log.debug("Cannot index the model: " + e);
+			}
+			finally
+			{
+				reindexing.set(false);
+			}
+		});
+	}
+
+	/**
+	 * Gets the related physical entities of the element. When the model is changed, they are found
+	 * by {@link QueryExecuter#getRelatedPhysicalEntities(BioPAXElement, Set)} until it is
+	 * re-indexed in the background. If the model does not count its changes, the index is not
+	 * rebuilt, and the result is as of when it is indexed.
+	 * @param element Physical entity, entity reference or xref
+	 * @return Related physical entities, in a new set
+	 */
+	public Set<PhysicalEntity> getRelatedPhysicalEntities(BioPAXElement element)
+	{
+		Snapshot current = snapshot;
+		long modCount = model.getModCount();
+
+		if (modCount >= 0 && modCount != current.modCount)
+		{
+			reindex();
+			return QueryExecuter.getRelatedPhysicalEntities(element, null);
+		}
+
+		Set<PhysicalEntity> pes = new HashSet<>();
+
+		if (element instanceof Xref)
+		{
+			for (XReferrable xrable : ((Xref) element).getXrefOf())
+			{
+				current.addRelated(xrable, pes);
+			}
+		}
+		else current.addRelated(element, pes);
+
+		return pes;
+	}
+
+	/**
+	 * The index of a version of the model. It is immutable.
+	 */
+	private static class Snapshot
+	{
+		/**
+		 * Modification count of the model when indexed.
+		 */
+		private final long modCount;
+
+		/**
+		 * Physical entities, indexed by their IDs.
+		 */
+		private final PhysicalEntity[] entities;
+
+		/**
+		 * IDs of the physical entities.
+		 */
+		private final Map<PhysicalEntity, Integer> ids = new HashMap<>();
+
+		/**
+		 * Sorted IDs of the related physical entities, indexed by physical entity ID.
+		 */
+		private final int[][] related;
+
+		/**
+		 * Sorted IDs of the related physical entities of entity references.
+		 */
+		private final Map<EntityReference, int[]> erRelated = new HashMap<>();
+
+		/**
+		 * Indexes the model.
+		 * @param model Level 3 model
+		 */
+		Snapshot(Model model)
+		{
+			this.modCount = model.getModCount();
+
+			// complexes (and generic parents) outside the model are numbered too, as they are reached
+
+			List<PhysicalEntity> list = new ArrayList<>(model.getObjects(PhysicalEntity.class));
+			for (PhysicalEntity pe : list)
+			{
+				ids.put(pe, ids.size());
+			}
+
+			List<int[]> successors = new ArrayList<>();
+			for (int id = 0; id < list.size(); id++)
+			{
+				successors.add(getSuccessors(list.get(id), list));
+			}
+
+			this.entities = list.toArray(new PhysicalEntity[0]);
+			this.related = new int[entities.length][];
+
+			int[] mark = new int[entities.length];
+			int[] queue = new int[entities.length];
+
+			for (int id = 0; id < entities.length; id++)
+			{
+				related[id] = reach(id, successors, mark, queue);
+			}
+
+			for (EntityReference er : model.getObjects(EntityReference.class))
+			{
+				erRelated.put(er, getRelatedIds(er));
+			}
+		}
+
+		/**
+		 * Gets the complexes that the related entities of the physical entity are directly reached
+		 * from: its complexes, and the complexes of its generic parents.
+		 * @param pe Physical entity
+		 * @param list Numbered physical entities, to add the new ones
+		 * @return IDs of the complexes
+		 */
+		private int[] getSuccessors(PhysicalEntity pe, List<PhysicalEntity> list)
+		{
+			Set<Complex> complexes = new LinkedHashSet<>(pe.getComponentOf());
+
+			Set<PhysicalEntity> parents = new HashSet<>();
+			Deque<PhysicalEntity> stack = new ArrayDeque<>(pe.getMemberPhysicalEntityOf());
+			while (!stack.isEmpty())
+			{
+				PhysicalEntity parent = stack.pop();
+				if (parents.add(parent))
+				{
+					complexes.addAll(parent.getComponentOf());
+					stack.addAll(parent.getMemberPhysicalEntityOf());
+				}
+			}
+
+			int[] succ = new int[complexes.size()];
+			int i = 0;
+			for (Complex complex : complexes)
+			{
+				Integer id = ids.get(complex);
+				if (id == null)
+				{
+					id = list.size();
+					ids.put(complex, id);
+					list.add(complex);
+				}
+				succ[i++] = id;
+			}
+			return succ;
+		}
+
+		/**
+		 * Gets the IDs of the entities reachable from the given one. The sets computed before are
+		 * reused as they are, without traversing them.
+		 * @param id ID of the physical entity
+		 * @param successors Successors of each physical entity
+		 * @param mark Marks of the entities reached, by the ID plus one of the current search
+		 * @param queue Search queue
+		 * @return Sorted IDs of the related physical entities
+		 */
+		private int[] reach(int id, List<int[]> successors, int[] mark, int[] queue)
+		{
+			int stamp = id + 1;
+			int[] out = new int[8];
+			int size = 0;
+			int head = 0;
+			int tail = 0;
+
+			mark[id] = stamp;
+			out[size++] = id;
+			queue[tail++] = id;
+
+			while (head < tail)
+			{
+				int current = queue[head++];
+				boolean computed = current != id && related[current] != null;
+
+				for (int next : computed ? related[current] : successors.get(current))
+				{
+					if (mark[next] == stamp) continue;
+
+					mark[next] = stamp;
+					if (size == out.length) out = Arrays.copyOf(out, size * 2);
+					out[size++] = next;
+
+					// the set of a computed entity contains the entities related to its members
+					if (!computed) queue[tail++] = next;
+				}
+			}
+
+			int[] result = Arrays.copyOf(out, size);
+			Arrays.sort(result);
+			return result;
+		}
+
+		/**
+		 * Collects the related entities of the entity reference, its physical entities and its generic
+		 * parents.
+		 * @param er Entity reference
+		 * @return Sorted IDs of the related physical entities
+		 */
+		private int[] getRelatedIds(EntityReference er)
+		{
+			BitSet bits = new BitSet(entities.length);
+
+			Set<EntityReference> visited = new HashSet<>();
+			Deque<EntityReference> stack = new ArrayDeque<>();
+			stack.push(er);
+
+			while (!stack.isEmpty())
+			{
+				EntityReference current = stack.pop();
+				if (!visited.add(current)) continue;
+
+				for (SimplePhysicalEntity spe : current.getEntityReferenceOf())
+				{
+					Integer id = ids.get(spe);
+					if (id != null) for (int rel : related[id]) bits.set(rel);
+				}
+				stack.addAll(current.getMemberEntityReferenceOf());
+			}
+
+			return bits.stream().toArray();
+		}
+
+		/**
+		 * Adds the related physical entities of the physical entity or entity reference to the set.
+		 * @param element Physical entity or entity reference
+		 * @param pes Set to collect the related entities
+		 */
+		private void addRelated(BioPAXElement element, Set<PhysicalEntity> pes)
+		{
+			int[] relatedIds = null;
+
+			if (element instanceof PhysicalEntity)
+			{
+				Integer id = ids.get(element);
+				relatedIds = id == null ? null : related[id];
+			}
+			else if (element instanceof EntityReference)
+			{
+				relatedIds = erRelated.get(element);
+				if (relatedIds == null) relatedIds = getRelatedIds((EntityReference) element);
+			}
+
+			if (relatedIds == null) return;
+
+			for (int id : relatedIds)
+			{
+				pes.add(entities[id]);
+			}
+		}
+	}
+}
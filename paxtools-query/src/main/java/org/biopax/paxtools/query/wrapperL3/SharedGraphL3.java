@@ -0,0 +1,308 @@
+package org.biopax.paxtools.query.wrapperL3;
+
+import org.biopax.paxtools.model.BioPAXElement;
+import org.biopax.paxtools.model.BioPAXLevel;
+import org.biopax.paxtools.model.Model;
+import org.biopax.paxtools.model.level3.Level3Element;
+import org.biopax.paxtools.query.model.CompiledGraph;
+import org.biopax.paxtools.query.model.Graph;
+import org.biopax.paxtools.query.model.GraphObject;
+import org.biopax.paxtools.query.model.Node;
+
+import java.util.*;
+
+/**
+ * The graph of a Level 3 model, built once and shared by the queries on that model, possibly in
+ * parallel threads (see the QueryExecuter methods with a SharedGraphL3 parameter).
+ *
+ * All the wrappers are created at construction, and the graph is compiled (see
+ * {@link CompiledGraph}); the query algorithms keep their labels outside of the graph. Filters
+ * do not change the shared graph: {@link #view(Filter...)} excludes the nodes that do not pass
+ * the filters of a query, which is much cheaper than building a filtered {@link GraphL3}. The
+ * views of the filters that have a value key (see {@link Filter#getKey()}) are cached, so the
+ * queries with the same filters do not check the whole model again.
+ *
+ * The related physical entities of the seed elements are precomputed too (see
+ * {@link RelatedPhysicalEntityIndex}), so preparing the seed of a query is a lookup.
+ *
+ * Known deviation: a query on this graph can return a different result than the same query on
+ * the model. All the wrappers and links are built here, so a path query can find a path over a
+ * link that the lazily built graph of the model-based query has not initialized. Also, the paths
+ * queries break the cycles of their result checking the edges in node ID order, instead of the
+ * hash set order of the wrappers, which can keep a different edge of a cycle. The neighborhood and
+ * common stream queries do not break cycles. See {@link CompiledGraph}.
+ *
+ * The model must not be modified while the graph is in use; build a new one after modifying.
+ */
+public class SharedGraphL3
+{
+	/**
+	 * The wrapped model.
+	 */
+	private final Model model;
+
+	/**
+	 * The complete compiled graph.
+	 */
+	private final CompiledGraph graph;
+
+	/**
+	 * Wrapped elements, indexed by node ID.
+	 */
+	private final BioPAXElement[] elements;
+
+	/**
+	 * Node IDs of the wrapped elements (by URI). Conversions are mapped to their forward wrappers.
+	 */
+	private final Map<String, Integer> nodeIds;
+
+	/**
+	 * Related physical entities of the seed elements.
+	 */
+	private final RelatedPhysicalEntityIndex relatedIndex;
+
+	/**
+	 * Maximum number of cached filtered graphs.
+	 */
+	private static final int VIEW_CACHE_SIZE = 16;
+
+	/**
+	 * Filtered graphs, by the keys of their filters, in access order.
+	 */
+	private final Map<Set<Object>, CompiledGraph> viewCache =
+		new LinkedHashMap<Set<Object>, CompiledGraph>(VIEW_CACHE_SIZE, 0.75f, true)
+		{
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Set<Object>, CompiledGraph> eldest)
+			{
+				return size() > VIEW_CACHE_SIZE;
+			}
+		};
+
+	/**
+	 * Wraps and compiles the whole model.
+	 * @param model Level 3 model
+	 */
+	public SharedGraphL3(Model model)
+	{
+		if (model.getLevel() != BioPAXLevel.L3)
+			throw new IllegalArgumentException("Only Level 3 models are supported");
+
+		this.model = model;
+
+		GraphL3 graphL3 = new GraphL3(model);
+		this.graph = graphL3.compile();
+
+		this.elements = new BioPAXElement[graph.getNodeCount()];
+		for (int id = 0; id < elements.length; id++)
+		{
+			elements[id] = graphL3.getWrapped(graph.getObject(id));
+		}
+
+		Map<String, Integer> ids = new HashMap<>();
+		for (Map.Entry<String, GraphObject> entry : graphL3.getObjectMap().entrySet())
+		{
+			int id = graph.getId(entry.getValue());
+			if (id >= 0) ids.put(entry.getKey(), id);
+		}
+		this.nodeIds = ids;
+
+		this.relatedIndex = new RelatedPhysicalEntityIndex(model);
+	}
+
+	/**
+	 * @return The wrapped model
+	 */
+	public Model getModel()
+	{
+		return model;
+	}
+
+	/**
+	 * @return The complete compiled graph
+	 */
+	public CompiledGraph getCompiledGraph()
+	{
+		return graph;
+	}
+
+	/**
+	 * @return Related physical entities of the seed elements of the model
+	 */
+	public RelatedPhysicalEntityIndex getRelatedPhysicalEntityIndex()
+	{
+		return relatedIndex;
+	}
+
+	/**
+	 * Gets the graph for a query, without the elements that do not pass the given filters. The
+	 * filtered graph is cached if all the filters have a value key, i.e., a filter that is equal
+	 * only to itself is checked on the whole model at each call.
+	 * @param filters for filtering graph elements
+	 * @return Graph to query
+	 */
+	public View view(Filter... filters)
+	{
+		if (filters.length == 0) return new View(graph);
+
+		Set<Object> key = getCacheKey(filters);
+		if (key == null) return new View(exclude(filters));
+
+		CompiledGraph filtered;
+		synchronized (viewCache)
+		{
+			filtered = viewCache.get(key);
+		}
+		if (filtered == null)
+		{
+			filtered = exclude(filters);
+			synchronized (viewCache)
+			{
+				CompiledGraph other = viewCache.putIfAbsent(key, filtered);
+				if (other != null) filtered = other;
+			}
+		}
+		return new View(filtered);
+	}
+
+	/**
+	 * Gets the cache key of the filters. The filters are applied together, so their order does
+	 * not matter.
+	 * @param filters for filtering graph elements
+	 * @return Keys of the filters, or null if a filter is equal only to itself
+	 */
+	private Set<Object> getCacheKey(Filter... filters)
+	{
+		Set<Object> key = new HashSet<>();
+		for (Filter filter : filters)
+		{
+			Object filterKey = filter.getKey();
+			if (filterKey == filter) return null;
+			key.add(filterKey);
+		}
+		return key;
+	}
+
+	/**
+	 * Excludes the nodes that do not pass the filters from the complete graph.
+	 * @param filters for filtering graph elements
+	 * @return Filtered graph
+	 */
+	private CompiledGraph exclude(Filter... filters)
+	{
+		BitSet excluded = new BitSet(elements.length);
+		for (int id = 0; id < elements.length; id++)
+		{
+			for (Filter filter : filters)
+			{
+				if (!filter.okToTraverse((Level3Element) elements[id]))
+				{
+					excluded.set(id);
+					break;
+				}
+			}
+		}
+		return graph.exclude(excluded);
+	}
+
+	/**
+	 * The shared graph as seen by a query, with the filters applied. Objects of this class are
+	 * cheap, and are not meant to be reused.
+	 */
+	public class View implements Graph
+	{
+		private final CompiledGraph compiledGraph;
+
+		private View(CompiledGraph compiledGraph)
+		{
+			this.compiledGraph = compiledGraph;
+		}
+
+		/**
+		 * @return The compiled graph to run the queries on
+		 */
+		public CompiledGraph getCompiledGraph()
+		{
+			return compiledGraph;
+		}
+
+		/**
+		 * @return Related physical entities of the seed elements of the model
+		 */
+		public RelatedPhysicalEntityIndex getRelatedPhysicalEntityIndex()
+		{
+			return relatedIndex;
+		}
+
+		/**
+		 * Gets the wrapper of the element.
+		 * @param obj The wrapped element
+		 * @return The wrapper, or null if the element is not in the graph or is filtered out
+		 */
+		@Override
+		public GraphObject getGraphObject(Object obj)
+		{
+			if (!(obj instanceof BioPAXElement)) return null;
+
+			Integer id = nodeIds.get(((BioPAXElement) obj).getUri());
+			if (id == null || compiledGraph.isExcluded(id)) return null;
+			return compiledGraph.getObject(id);
+		}
+
+		@Override
+		public Set<Node> getWrapperSet(Set<?> objects)
+		{
+			Set<Node> wrapped = new HashSet<>();
+
+			for (Object object : objects)
+			{
+				Node node = (Node) getGraphObject(object);
+				if (node != null)
+				{
+					wrapped.add(node);
+				}
+			}
+			return wrapped;
+		}
+
+		@Override
+		public Map<Object, Node> getWrapperMap(Set<?> objects)
+		{
+			Map<Object, Node> map = new HashMap<>();
+
+			for (Object object : objects)
+			{
+				Node node = (Node) getGraphObject(object);
+				if (node != null)
+				{
+					map.put(object, node);
+				}
+			}
+			return map;
+		}
+
+		@Override
+		public Set<Object> getWrappedSet(Set<? extends GraphObject> wrappers)
+		{
+			Set<Object> objects = new HashSet<>();
+
+			for (GraphObject wrapper : wrappers)
+			{
+				int id = compiledGraph.getId(wrapper);
+				if (id >= 0 && id < elements.length)
+				{
+					objects.add(elements[id]);
+				}
+			}
+			return objects;
+		}
+
+		/**
+		 * Does nothing, as the queries on the shared graph do not label the wrappers.
+		 */
+		@Override
+		public void clear()
+		{
+		}
+	}
+}
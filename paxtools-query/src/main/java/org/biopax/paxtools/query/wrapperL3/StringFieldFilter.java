@@ -132,4 +132,16 @@ public abstract class StringFieldFilter extends Filter
 
 		return !objectRelevant || (empty && isEmptyOK());
 	}
+
+	/**
+	 * Makes a key of the valid values, for the subclasses whose accessors are determined by their
+	 * class alone (the accessors of a custom subclass may depend on its other settings, so this is
+	 * not the default key).
+	 * @return The filter class, the (copied) valid values and the option to accept empty fields
+	 * @see #getKey()
+	 */
+	protected Object getValuesKey()
+	{
+		return Arrays.asList(getClass(), new HashSet<>(validValues), emptyOK);
+	}
 }
\ No newline at end of file
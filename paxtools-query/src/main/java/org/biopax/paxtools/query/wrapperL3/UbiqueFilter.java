@@ -2,6 +2,8 @@ package org.biopax.paxtools.query.wrapperL3;
 
 import org.biopax.paxtools.model.level3.Level3Element;
 
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Set;
 
 /**
@@ -35,4 +37,13 @@ public class UbiqueFilter extends Filter
 	{
 		return !ubiqueIDs.contains(ele.getUri());
 	}
+
+	/**
+	 * @return The filter class and the (copied) ubique IDs
+	 */
+	@Override
+	public Object getKey()
+	{
+		return Arrays.asList(getClass(), new HashSet<>(ubiqueIDs));
+	}
 }
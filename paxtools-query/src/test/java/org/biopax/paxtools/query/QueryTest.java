@@ -3,17 +3,33 @@ package org.biopax.paxtools.query;
 import org.biopax.paxtools.controller.Cloner;
 import org.biopax.paxtools.controller.Completer;
 import org.biopax.paxtools.controller.SimpleEditorMap;
+import org.biopax.paxtools.impl.ModelImpl;
 import org.biopax.paxtools.io.BioPAXIOHandler;
 import org.biopax.paxtools.io.SimpleIOHandler;
 import org.biopax.paxtools.model.BioPAXElement;
+import org.biopax.paxtools.model.BioPAXFactory;
 import org.biopax.paxtools.model.BioPAXLevel;
 import org.biopax.paxtools.model.Model;
+import org.biopax.paxtools.model.level3.Complex;
+import org.biopax.paxtools.model.level3.EntityReference;
+import org.biopax.paxtools.model.level3.Level3Element;
 import org.biopax.paxtools.model.level3.PhysicalEntity;
+import org.biopax.paxtools.model.level3.Protein;
+import org.biopax.paxtools.model.level3.ProteinReference;
+import org.biopax.paxtools.model.level3.UnificationXref;
+import org.biopax.paxtools.model.level3.Xref;
+import org.biopax.paxtools.query.algorithm.BFS;
 import org.biopax.paxtools.query.algorithm.Direction;
 import org.biopax.paxtools.query.algorithm.LimitType;
+import org.biopax.paxtools.query.algorithm.ShortestPathsQuery;
+import org.biopax.paxtools.query.model.GraphObject;
+import org.biopax.paxtools.query.model.Node;
 import org.biopax.paxtools.query.wrapperL3.DataSourceFilter;
 import org.biopax.paxtools.query.wrapperL3.Filter;
+import org.biopax.paxtools.query.wrapperL3.GraphL3;
 import org.biopax.paxtools.query.wrapperL3.OrganismFilter;
+import org.biopax.paxtools.query.wrapperL3.RelatedPhysicalEntityIndex;
+import org.biopax.paxtools.query.wrapperL3.SharedGraphL3;
 import org.biopax.paxtools.query.wrapperL3.UbiqueFilter;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
@@ -21,9 +37,21 @@ import org.junit.jupiter.api.Test;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -94,6 +122,452 @@ public class QueryTest
 		assertTrue(result.contains(check));
 	}
 
+	@Test
+	public void compiledGraph()
+	{
+		Model model = handler.convertFromOWL(QueryTest.class.getResourceAsStream(
+			"raf_map_kinase_cascade_reactome.owl"));
+
+		// the queries on the (compiled) shared graph find the same as on the model
+		List<Set<BioPAXElement>> expected = runAll(model, null);
+		assertTrue(expected.stream().anyMatch(result -> !result.isEmpty()));
+		assertEquals(expected, runAll(model, new SharedGraphL3(model)));
+	}
+
+	@Test
+	public void sharedGraph() throws Exception
+	{
+		Model model = handler.convertFromOWL(QueryTest.class.getResourceAsStream(
+			"raf_map_kinase_cascade_reactome.owl"));
+
+		SharedGraphL3 graph = new SharedGraphL3(model);
+
+		String[] ids = {
+			"HTTP://WWW.REACTOME.ORG/BIOPAX/48887#PROTEIN2360_1_9606", //MEK2
+			"HTTP://WWW.REACTOME.ORG/BIOPAX/48887#PROTEIN1631_1_9606", //ERK1
+			"HTTP://WWW.REACTOME.ORG/BIOPAX/48887#PROTEIN1630_1_9606", //phospho-Cdc2
+			"HTTP://WWW.REACTOME.ORG/BIOPAX/48887#PROTEIN2359_1_9606", //MEK
+			"HTTP://WWW.REACTOME.ORG/BIOPAX/48887#SMALLMOLECULE5_1_9606", //ATP
+			"HTTP://WWW.REACTOME.ORG/BIOPAX/48887#SMALLMOLECULE6_1_9606"}; //ADP
+
+		Filter[][] filters = {
+			{},
+			{new UbiqueFilter(Set.of(ids[4]))},
+			{new OrganismFilter(new String[]{"Homo sapiens"}), new DataSourceFilter(new String[]{"Reactome"})},
+			{new DataSourceFilter(new String[]{"Some DB"})}};
+
+		// queries are run in parallel, each time with the same shared graph
+		List<Callable<Boolean>> tasks = new ArrayList<>();
+		for (int i = 0; i < ids.length; i++)
+		{
+			for (int j = 0; j < ids.length; j++)
+			{
+				if (i == j) continue;
+				Set<BioPAXElement> source = findElements(model, ids[i]);
+				Set<BioPAXElement> target = findElements(model, ids[j]);
+				Set<BioPAXElement> both = findElements(model, ids[i], ids[j]);
+
+				for (Filter[] f : filters)
+				{
+					tasks.add(() ->
+						QueryExecuter.runNeighborhood(source, model, 2, Direction.BOTHSTREAM, f).equals(
+						QueryExecuter.runNeighborhood(source, graph, 2, Direction.BOTHSTREAM, f)) &&
+						QueryExecuter.runNeighborhood(source, model, 2, Direction.UNDIRECTED, f).equals(
+						QueryExecuter.runNeighborhood(source, graph, 2, Direction.UNDIRECTED, f)) &&
+						QueryExecuter.runPathsFromTo(source, target, model, LimitType.NORMAL, 3, f).equals(
+						QueryExecuter.runPathsFromTo(source, target, graph, LimitType.NORMAL, 3, f)) &&
+						QueryExecuter.runPathsBetween(both, model, 2, f).equals(
+						QueryExecuter.runPathsBetween(both, graph, 2, f)) &&
+						QueryExecuter.runCommonStream(both, model, Direction.DOWNSTREAM, 3, f).equals(
+						QueryExecuter.runCommonStream(both, graph, Direction.DOWNSTREAM, 3, f)) &&
+						QueryExecuter.runCommonStreamWithPOI(both, model, Direction.UPSTREAM, 2, f).equals(
+						QueryExecuter.runCommonStreamWithPOI(both, graph, Direction.UPSTREAM, 2, f)));
+				}
+			}
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try
+		{
+			for (Future<Boolean> result : executor.invokeAll(tasks))
+			{
+				assertTrue(result.get());
+			}
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+
+		assertFalse(QueryExecuter.runPathsFromTo(findElements(model, ids[0]), findElements(model, ids[1]),
+			graph, LimitType.NORMAL, 2).isEmpty());
+		assertTrue(QueryExecuter.runPathsFromTo(findElements(model, ids[0]), findElements(model, ids[1]),
+			graph, LimitType.NORMAL, 2, filters[3]).isEmpty());
+
+		// equal filters get the same filtered graph, in any order
+		assertSame(graph.view(filters[2]).getCompiledGraph(), graph.view(
+			new DataSourceFilter(new String[]{"Reactome"}), new OrganismFilter(new String[]{"Homo sapiens"}))
+			.getCompiledGraph());
+		assertNotSame(graph.view(filters[2]).getCompiledGraph(), graph.view(filters[3]).getCompiledGraph());
+	}
+
+	@Test
+	public void concurrentQueries() throws Exception
+	{
+		Model model = handler.convertFromOWL(QueryTest.class.getResourceAsStream(
+			"raf_map_kinase_cascade_reactome.owl"));
+
+		SharedGraphL3 graph = new SharedGraphL3(model);
+
+		Set<Set<BioPAXElement>> sets = new HashSet<>();
+		for (Protein protein : model.getObjects(Protein.class))
+		{
+			sets.add(new HashSet<>(Set.of(protein)));
+		}
+
+		Filter ubique = new UbiqueFilter(Set.of("HTTP://WWW.REACTOME.ORG/BIOPAX/48887#SMALLMOLECULE5_1_9606"));
+
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try
+		{
+			ConcurrentQueryExecuter executer = new ConcurrentQueryExecuter(graph, pool);
+
+			for (Direction direction : Direction.values())
+			{
+				assertEquals(QueryExecuter.runNeighborhoodMultiSet(sets, graph, 1, direction, ubique),
+					executer.runNeighborhoodMultiSet(sets, 1, direction, 1, TimeUnit.MINUTES, ubique));
+			}
+
+			assertEquals(QueryExecuter.runPathsBetweenMultiSet(sets, graph, 3, ubique),
+				executer.runPathsBetweenMultiSet(sets, 3, 1, TimeUnit.MINUTES, ubique));
+
+			assertEquals(QueryExecuter.runCommonStreamMultiSet(sets, graph, Direction.DOWNSTREAM, 3),
+				executer.runCommonStreamMultiSet(sets, Direction.DOWNSTREAM, 3, 1, TimeUnit.MINUTES));
+		}
+		finally
+		{
+			pool.shutdown();
+		}
+
+		// a query that cannot start in time is cancelled
+		ConcurrentQueryExecuter stalled = new ConcurrentQueryExecuter(graph, task -> {});
+
+		assertThrows(TimeoutException.class, () ->
+			stalled.runPathsBetweenMultiSet(sets, 3, 10, TimeUnit.MILLISECONDS));
+
+		CompletableFuture<Set<BioPAXElement>> future = stalled.submitCommonStreamMultiSet(
+			sets, Direction.UPSTREAM, 3);
+		assertTrue(future.cancel(true));
+		assertTrue(future.isCancelled());
+	}
+
+	@Test
+	public void shortestPaths()
+	{
+		Model model = handler.convertFromOWL(QueryTest.class.getResourceAsStream(
+			"raf_map_kinase_cascade_reactome.owl"));
+
+		Set<BioPAXElement> source = findElements(model,
+			"HTTP://WWW.REACTOME.ORG/BIOPAX/48887#PROTEIN2358_1_9606"); //cRaf
+		Set<BioPAXElement> target = findElements(model,
+			"HTTP://WWW.REACTOME.ORG/BIOPAX/48887#PROTEIN1632_1_9606"); //ERT2
+
+		GraphL3 graph = new GraphL3(model);
+		Set<Node> sourceNodes = QueryExecuter.prepareSingleNodeSet(source, graph);
+		Set<Node> targetNodes = QueryExecuter.prepareSingleNodeSet(target, graph);
+
+		int limit = 6;
+		List<ShortestPathsQuery.Path> paths =
+			new ShortestPathsQuery(sourceNodes, targetNodes, Direction.DOWNSTREAM, limit).run(100);
+
+		assertFalse(paths.isEmpty());
+
+		// the first path is as short as the BFS distance to the targets
+		Map<GraphObject, Integer> dist = new BFS(sourceNodes, null, Direction.DOWNSTREAM, limit).run();
+		int shortest = Integer.MAX_VALUE;
+		for (Node node : targetNodes)
+		{
+			if (dist.containsKey(node)) shortest = Math.min(shortest, dist.get(node));
+		}
+		assertEquals(shortest, paths.get(0).getLength());
+
+		Set<List<GraphObject>> distinct = new HashSet<>();
+		int previous = 0;
+		for (ShortestPathsQuery.Path path : paths)
+		{
+			assertTrue(path.getLength() >= previous && path.getLength() <= limit);
+			previous = path.getLength();
+
+			assertTrue(sourceNodes.contains(path.getSource()));
+			assertTrue(targetNodes.contains(path.getTarget()));
+			assertTrue(distinct.add(path.getObjects()));
+
+			Set<GraphObject> nodes = new HashSet<>();
+			for (GraphObject go : path.getObjects())
+			{
+				assertTrue(!(go instanceof Node) || nodes.add(go));
+			}
+		}
+
+		// early stop
+		assertEquals(2, new ShortestPathsQuery(sourceNodes, targetNodes, Direction.DOWNSTREAM, limit)
+			.run(2).size());
+
+		// the paths on the upstream from the target are the same paths
+		assertEquals(paths.size(), new ShortestPathsQuery(targetNodes, sourceNodes, Direction.UPSTREAM,
+			limit).run(100).size());
+
+		List<List<BioPAXElement>> elements =
+			QueryExecuter.runShortestPaths(source, target, model, Direction.DOWNSTREAM, limit, 3);
+		assertEquals(3, elements.size());
+		assertTrue(QueryExecuter.runPathsFromTo(source, target, model, LimitType.NORMAL, limit)
+			.containsAll(elements.get(0)));
+	}
+
+	@Test
+	public void queryCache()
+	{
+		Model model = handler.convertFromOWL(QueryTest.class.getResourceAsStream(
+			"raf_map_kinase_cascade_reactome.owl"));
+
+		String mek2 = "HTTP://WWW.REACTOME.ORG/BIOPAX/48887#PROTEIN2360_1_9606";
+		String erk1 = "HTTP://WWW.REACTOME.ORG/BIOPAX/48887#PROTEIN1631_1_9606";
+		String atp = "HTTP://WWW.REACTOME.ORG/BIOPAX/48887#SMALLMOLECULE5_1_9606";
+
+		QueryCache cache = new QueryCache(100000);
+
+		Set<BioPAXElement> result = cache.runNeighborhood(findElements(model, mek2), model, 1,
+			Direction.BOTHSTREAM, new UbiqueFilter(Set.of(atp)));
+		assertEquals(QueryExecuter.runNeighborhood(findElements(model, mek2), model, 1,
+			Direction.BOTHSTREAM, new UbiqueFilter(Set.of(atp))), result);
+		assertEquals(0, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+
+		// equal seed and filters hit, other parameters miss
+		assertSame(result, cache.runNeighborhood(findElements(model, mek2), model, 1,
+			Direction.BOTHSTREAM, new UbiqueFilter(new HashSet<>(Arrays.asList(atp)))));
+		assertEquals(1, cache.getHitCount());
+		assertNotSame(result, cache.runNeighborhood(findElements(model, mek2), model, 2,
+			Direction.BOTHSTREAM, new UbiqueFilter(Set.of(atp))));
+		assertNotSame(result, cache.runNeighborhood(findElements(model, mek2), model, 1,
+			Direction.BOTHSTREAM));
+
+		Set<BioPAXElement> paths = cache.runPathsFromTo(findElements(model, mek2),
+			findElements(model, erk1), model, LimitType.NORMAL, 3);
+		assertSame(paths, cache.runPathsFromTo(findElements(model, mek2), findElements(model, erk1),
+			model, LimitType.NORMAL, 3));
+		assertNotSame(paths, cache.runPathsFromTo(findElements(model, erk1), findElements(model, mek2),
+			model, LimitType.NORMAL, 3));
+		assertEquals(2, cache.getHitCount());
+		assertEquals(5, cache.getMissCount());
+		assertEquals(5, cache.getResultCount());
+
+		// results are outdated when the model changes, and all of them are dropped by any next query
+		model.remove(model.getByID(atp));
+		cache.runNeighborhood(findElements(model, erk1), model, 1, Direction.BOTHSTREAM);
+		assertEquals(1, cache.getResultCount());
+		assertNotSame(paths, cache.runPathsFromTo(findElements(model, mek2), findElements(model, erk1),
+			model, LimitType.NORMAL, 3));
+		assertEquals(2, cache.getResultCount());
+
+		// least recently used results are evicted
+		QueryCache small = new QueryCache(result.size() + 1);
+		small.runNeighborhood(findElements(model, mek2), model, 1, Direction.BOTHSTREAM);
+		small.runNeighborhood(findElements(model, erk1), model, 1, Direction.BOTHSTREAM);
+		assertEquals(1, small.getResultCount());
+		assertEquals(1, small.getEvictionCount());
+		assertTrue(small.getSize() <= result.size() + 1);
+
+		assertEquals(new OrganismFilter(new String[]{"Homo sapiens"}).getKey(),
+			new OrganismFilter(new String[]{"HOMO SAPIENS"}).getKey());
+		assertNotEquals(new DataSourceFilter(new String[]{"Reactome"}).getKey(),
+			new OrganismFilter(new String[]{"Reactome"}).getKey());
+
+		// a filter without a configuration key is equal only to itself
+		Filter all = new Filter()
+		{
+			@Override
+			public boolean okToTraverse(Level3Element ele)
+			{
+				return true;
+			}
+		};
+		small.clear();
+		result = small.runNeighborhood(findElements(model, mek2), model, 1, Direction.BOTHSTREAM, all);
+		assertSame(result, small.runNeighborhood(findElements(model, mek2), model, 1,
+			Direction.BOTHSTREAM, all));
+		assertNotSame(result, small.runNeighborhood(findElements(model, mek2), model, 1,
+			Direction.BOTHSTREAM, new Filter()
+			{
+				@Override
+				public boolean okToTraverse(Level3Element ele)
+				{
+					return true;
+				}
+			}));
+
+		// the queries on a model that does not count its changes are not cached
+		Model uncounted = new ModelImpl(BioPAXLevel.L3.getDefaultFactory())
+		{
+			@Override
+			public long getModCount()
+			{
+				return -1;
+			}
+		};
+		small.clear();
+		result = small.runNeighborhood(Collections.emptySet(), uncounted, 1, Direction.BOTHSTREAM);
+		assertNotSame(result, small.runNeighborhood(Collections.emptySet(), uncounted, 1,
+			Direction.BOTHSTREAM));
+		assertEquals(0, small.getResultCount());
+	}
+
+	@Test
+	public void relatedPhysicalEntityIndex()
+	{
+		Model model = handler.convertFromOWL(QueryTest.class.getResourceAsStream(
+			"raf_map_kinase_cascade_reactome.owl"));
+
+		// a generic protein in nested complexes, and a generic entity reference
+		BioPAXFactory factory = BioPAXLevel.L3.getDefaultFactory();
+		Protein member = factory.create(Protein.class, "member");
+		Protein generic = factory.create(Protein.class, "generic");
+		Complex inner = factory.create(Complex.class, "inner");
+		Complex outer = factory.create(Complex.class, "outer");
+		ProteinReference memberRef = factory.create(ProteinReference.class, "memberRef");
+		ProteinReference genericRef = factory.create(ProteinReference.class, "genericRef");
+		UnificationXref xref = factory.create(UnificationXref.class, "xref");
+		generic.addMemberPhysicalEntity(member);
+		inner.addComponent(generic);
+		outer.addComponent(inner);
+		member.setEntityReference(memberRef);
+		generic.setEntityReference(genericRef);
+		genericRef.addMemberEntityReference(memberRef);
+		memberRef.addXref(xref);
+		for (BioPAXElement ele : Arrays.asList(member, generic, inner, outer, memberRef, genericRef,
+			xref))
+		{
+			model.add(ele);
+		}
+
+		RelatedPhysicalEntityIndex index = new RelatedPhysicalEntityIndex(model);
+		assertTrue(index.isUpToDate());
+		assertEquals(Set.of(member, inner, outer), index.getRelatedPhysicalEntities(member));
+		assertEquals(Set.of(member, generic, inner, outer), index.getRelatedPhysicalEntities(xref));
+
+		int checked = 0;
+		for (BioPAXElement ele : model.getObjects())
+		{
+			if (ele instanceof PhysicalEntity || ele instanceof EntityReference ||
+				ele instanceof Xref)
+			{
+				assertEquals(QueryExecuter.getRelatedPhysicalEntities(ele, null),
+					index.getRelatedPhysicalEntities(ele), ele.getUri());
+				checked++;
+			}
+		}
+		assertTrue(checked > 100);
+
+		// after the model changes, the elements are expanded until the index is rebuilt in the background
+		Complex another = factory.create(Complex.class, "another");
+		another.addComponent(member);
+		model.add(another);
+		assertFalse(index.isUpToDate());
+		assertEquals(Set.of(member, generic, inner, outer, another),
+			QueryExecuter.getRelatedPhysicalEntityMap(new HashSet<>(Set.of(xref)), index).get(memberRef));
+		awaitUpdate(index);
+		assertEquals(Set.of(member, generic, inner, outer, another),
+			index.getRelatedPhysicalEntities(memberRef));
+		another.removeComponent(member);
+		model.remove(another);
+		assertEquals(Set.of(member, inner, outer), index.getRelatedPhysicalEntities(member));
+		awaitUpdate(index);
+		assertEquals(Set.of(member, inner, outer), index.getRelatedPhysicalEntities(member));
+	}
+
+	private static void awaitUpdate(RelatedPhysicalEntityIndex index)
+	{
+		long end = System.currentTimeMillis() + 10000;
+		while (!index.update())
+		{
+			assertTrue(System.currentTimeMillis() < end, "the index is not rebuilt");
+			Thread.yield();
+		}
+		assertTrue(index.isUpToDate());
+	}
+
+	private List<Set<BioPAXElement>> runAll(Model model, SharedGraphL3 graph)
+	{
+		String[] ids = {
+			"HTTP://WWW.REACTOME.ORG/BIOPAX/48887#PROTEIN2360_1_9606", //MEK2
+			"HTTP://WWW.REACTOME.ORG/BIOPAX/48887#PROTEIN1631_1_9606", //ERK1
+			"HTTP://WWW.REACTOME.ORG/BIOPAX/48887#PROTEIN1630_1_9606", //phospho-Cdc2
+			"HTTP://WWW.REACTOME.ORG/BIOPAX/48887#PROTEIN2359_1_9606", //MEK
+			"HTTP://WWW.REACTOME.ORG/BIOPAX/48887#PROTEIN1624_1_9606", //MEK1
+			"HTTP://WWW.REACTOME.ORG/BIOPAX/48887#SMALLMOLECULE5_1_9606"}; //ATP
+
+		Filter ubique = new UbiqueFilter(Set.of("HTTP://WWW.REACTOME.ORG/BIOPAX/48887#SMALLMOLECULE5_1_9606"));
+
+		List<Set<BioPAXElement>> results = new ArrayList<>();
+		for (int limit = 1; limit <= 3; limit++)
+		{
+			for (int i = 0; i < ids.length; i++)
+			{
+				Set<BioPAXElement> source = findElements(model, ids[i]);
+				results.add(graph == null
+					? QueryExecuter.runNeighborhood(source, model, limit, Direction.UPSTREAM)
+					: QueryExecuter.runNeighborhood(source, graph, limit, Direction.UPSTREAM));
+				results.add(graph == null
+					? QueryExecuter.runNeighborhood(source, model, limit, Direction.BOTHSTREAM, ubique)
+					: QueryExecuter.runNeighborhood(source, graph, limit, Direction.BOTHSTREAM, ubique));
+
+				for (int j = i + 1; j < ids.length; j++)
+				{
+					Set<BioPAXElement> target = findElements(model, ids[j]);
+					Set<BioPAXElement> both = findElements(model, ids[i], ids[j]);
+
+					results.add(graph == null
+						? QueryExecuter.runPathsFromTo(source, target, model, LimitType.NORMAL, limit)
+						: QueryExecuter.runPathsFromTo(source, target, graph, LimitType.NORMAL, limit));
+					results.add(graph == null
+						? QueryExecuter.runPathsFromTo(target, source, model, LimitType.SHORTEST_PLUS_K, limit - 1)
+						: QueryExecuter.runPathsFromTo(target, source, graph, LimitType.SHORTEST_PLUS_K, limit - 1));
+					results.add(graph == null
+						? QueryExecuter.runPathsBetween(both, model, limit)
+						: QueryExecuter.runPathsBetween(both, graph, limit));
+					results.add(graph == null
+						? QueryExecuter.runPathsBetween(both, model, limit + 1, ubique)
+						: QueryExecuter.runPathsBetween(both, graph, limit + 1, ubique));
+					results.add(graph == null
+						? QueryExecuter.runCommonStream(both, model, Direction.DOWNSTREAM, limit)
+						: QueryExecuter.runCommonStream(both, graph, Direction.DOWNSTREAM, limit));
+					results.add(graph == null
+						? QueryExecuter.runCommonStream(both, model, Direction.UPSTREAM, limit)
+						: QueryExecuter.runCommonStream(both, graph, Direction.UPSTREAM, limit));
+					results.add(graph == null
+						? QueryExecuter.runCommonStreamWithPOI(both, model, Direction.DOWNSTREAM, limit)
+						: QueryExecuter.runCommonStreamWithPOI(both, graph, Direction.DOWNSTREAM, limit));
+				}
+			}
+			results.add(graph == null
+				? QueryExecuter.runPathsBetween(findElements(model, ids), model, limit)
+				: QueryExecuter.runPathsBetween(findElements(model, ids), graph, limit));
+
+			// many source sets, searched in parallel on the shared graph
+			Set<BioPAXElement> proteins = new HashSet<>(model.getObjects(Protein.class));
+			results.add(graph == null
+				? QueryExecuter.runPathsBetween(proteins, model, limit)
+				: QueryExecuter.runPathsBetween(proteins, graph, limit));
+			results.add(graph == null
+				? QueryExecuter.runPathsBetween(proteins, model, limit, ubique)
+				: QueryExecuter.runPathsBetween(proteins, graph, limit, ubique));
+			results.add(graph == null
+				? QueryExecuter.runPathsFromTo(proteins, findElements(model, ids), model, LimitType.SHORTEST_PLUS_K, limit - 1)
+				: QueryExecuter.runPathsFromTo(proteins, findElements(model, ids), graph, LimitType.SHORTEST_PLUS_K, limit - 1));
+		}
+		return results;
+	}
+
 	private Model excise(Set<BioPAXElement> result)
 	{
 		Completer c = new Completer(SimpleEditorMap.L3);